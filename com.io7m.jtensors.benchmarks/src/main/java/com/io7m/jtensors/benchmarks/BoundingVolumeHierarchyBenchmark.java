@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.spatial.BoundingVolumeHierarchy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing {@link BoundingVolumeHierarchy} queries against
+ * testing every box in turn.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BoundingVolumeHierarchyBenchmark
+{
+  private static final int COUNT = 100000;
+  private static final int QUERIES = 100;
+
+  private ByteBuffer boxes;
+  private BoundingVolumeHierarchy bvh;
+  private Vector3D[] origins;
+  private Vector3D[] directions;
+  private Vector3D[] query_min;
+  private Vector3D[] query_max;
+  private int[] out;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public BoundingVolumeHierarchyBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    this.boxes = ByteBuffer.allocateDirect(size * COUNT)
+      .order(ByteOrder.nativeOrder());
+
+    for (int index = 0; index < COUNT; ++index) {
+      final float x = (random.nextFloat() - 0.5f) * 1000.0f;
+      final float y = (random.nextFloat() - 0.5f) * 1000.0f;
+      final float z = (random.nextFloat() - 0.5f) * 1000.0f;
+      final float r = random.nextFloat() * 2.0f;
+
+      final int offset = index * size;
+      this.boxes.putFloat(offset, x - r);
+      this.boxes.putFloat(offset + 4, y - r);
+      this.boxes.putFloat(offset + 8, z - r);
+      this.boxes.putFloat(offset + 12, x + r);
+      this.boxes.putFloat(offset + 16, y + r);
+      this.boxes.putFloat(offset + 20, z + r);
+    }
+
+    this.bvh = BoundingVolumeHierarchy.build(this.boxes, COUNT);
+
+    this.origins = new Vector3D[QUERIES];
+    this.directions = new Vector3D[QUERIES];
+    this.query_min = new Vector3D[QUERIES];
+    this.query_max = new Vector3D[QUERIES];
+    for (int index = 0; index < QUERIES; ++index) {
+      final double x = (random.nextDouble() - 0.5) * 1000.0;
+      final double y = (random.nextDouble() - 0.5) * 1000.0;
+      final double z = (random.nextDouble() - 0.5) * 1000.0;
+      this.origins[index] = Vector3D.of(x, y, z);
+      this.directions[index] = Vector3D.of(
+        random.nextDouble() - 0.5,
+        random.nextDouble() - 0.5,
+        random.nextDouble() - 0.5);
+      this.query_min[index] = Vector3D.of(x - 10.0, y - 10.0, z - 10.0);
+      this.query_max[index] = Vector3D.of(x + 10.0, y + 10.0, z + 10.0);
+    }
+
+    this.out = new int[COUNT];
+  }
+
+  /**
+   * Benchmark building a hierarchy.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  public void build(
+    final Blackhole bh)
+  {
+    bh.consume(BoundingVolumeHierarchy.build(this.boxes, COUNT));
+  }
+
+  /**
+   * Benchmark refitting a hierarchy.
+   */
+
+  @Benchmark
+  public void refit()
+  {
+    this.bvh.refit();
+  }
+
+  /**
+   * Benchmark {@link BoundingVolumeHierarchy#queryBox(Vector3D, Vector3D,
+   * int[])}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void queryBox(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < QUERIES; ++index) {
+      bh.consume(this.bvh.queryBox(
+        this.query_min[index], this.query_max[index], this.out));
+    }
+  }
+
+  /**
+   * Benchmark {@link BoundingVolumeHierarchy#queryRayNearest(Vector3D,
+   * Vector3D, double)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void queryRayNearest(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < QUERIES; ++index) {
+      bh.consume(this.bvh.queryRayNearest(
+        this.origins[index], this.directions[index], 1000.0));
+    }
+  }
+
+  /**
+   * Benchmark the same box queries performed by testing every box.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void queryBoxLinear(
+    final Blackhole bh)
+  {
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    for (int query = 0; query < QUERIES; ++query) {
+      final Vector3D q_min = this.query_min[query];
+      final Vector3D q_max = this.query_max[query];
+      int found = 0;
+      for (int index = 0; index < COUNT; ++index) {
+        final int offset = index * size;
+        if ((double) this.boxes.getFloat(offset) <= q_max.x()
+          && (double) this.boxes.getFloat(offset + 4) <= q_max.y()
+          && (double) this.boxes.getFloat(offset + 8) <= q_max.z()
+          && (double) this.boxes.getFloat(offset + 12) >= q_min.x()
+          && (double) this.boxes.getFloat(offset + 16) >= q_min.y()
+          && (double) this.boxes.getFloat(offset + 20) >= q_min.z()) {
+          this.out[found] = index;
+          ++found;
+        }
+      }
+      bh.consume(found);
+    }
+  }
+}
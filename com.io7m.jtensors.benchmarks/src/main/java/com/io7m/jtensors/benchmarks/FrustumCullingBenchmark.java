@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors4D;
+import com.io7m.jtensors.storage.bytebuffered.FrustumCulling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link FrustumCulling} functions against culling
+ * individual spheres with {@link Vectors4D#dotProduct(Vector4D, Vector4D)}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FrustumCullingBenchmark
+{
+  private static final int COUNT = 100000;
+
+  private double[] planes;
+  private Vector4D[] plane_vectors;
+  private ByteBuffer spheres;
+  private ByteBuffer boxes;
+  private float[] x;
+  private float[] y;
+  private float[] z;
+  private float[] radius;
+  private Vector4D[] sphere_vectors;
+  private long[] bits;
+  private int[] indices;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public FrustumCullingBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+
+    final double n = 1.0;
+    final double f = 100.0;
+    final Matrix4x4D m = Matrix4x4D.of(
+      1.0, 0.0, 0.0, 0.0,
+      0.0, 1.0, 0.0, 0.0,
+      0.0, 0.0, -(f + n) / (f - n), -(2.0 * f * n) / (f - n),
+      0.0, 0.0, -1.0, 0.0);
+
+    this.planes = new double[FrustumCulling.planesSizeElements()];
+    FrustumCulling.extractPlanes(m, this.planes);
+    this.plane_vectors = new Vector4D[6];
+    for (int plane = 0; plane < 6; ++plane) {
+      this.plane_vectors[plane] = Vector4D.of(
+        this.planes[plane * 4],
+        this.planes[(plane * 4) + 1],
+        this.planes[(plane * 4) + 2],
+        this.planes[(plane * 4) + 3]);
+    }
+
+    this.spheres = ByteBuffer.allocateDirect(
+      FrustumCulling.sphereSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.boxes = ByteBuffer.allocateDirect(
+      FrustumCulling.aabbSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.x = new float[COUNT];
+    this.y = new float[COUNT];
+    this.z = new float[COUNT];
+    this.radius = new float[COUNT];
+    this.sphere_vectors = new Vector4D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      this.x[index] = (random.nextFloat() - 0.5f) * 200.0f;
+      this.y[index] = (random.nextFloat() - 0.5f) * 200.0f;
+      this.z[index] = (random.nextFloat() - 0.5f) * 200.0f;
+      this.radius[index] = random.nextFloat() * 4.0f;
+
+      final int s_offset = index * FrustumCulling.sphereSizeBytes();
+      this.spheres.putFloat(s_offset, this.x[index]);
+      this.spheres.putFloat(s_offset + 4, this.y[index]);
+      this.spheres.putFloat(s_offset + 8, this.z[index]);
+      this.spheres.putFloat(s_offset + 12, this.radius[index]);
+
+      final int b_offset = index * FrustumCulling.aabbSizeBytes();
+      this.boxes.putFloat(b_offset, this.x[index] - this.radius[index]);
+      this.boxes.putFloat(b_offset + 4, this.y[index] - this.radius[index]);
+      this.boxes.putFloat(b_offset + 8, this.z[index] - this.radius[index]);
+      this.boxes.putFloat(b_offset + 12, this.x[index] + this.radius[index]);
+      this.boxes.putFloat(b_offset + 16, this.y[index] + this.radius[index]);
+      this.boxes.putFloat(b_offset + 20, this.z[index] + this.radius[index]);
+
+      this.sphere_vectors[index] = Vector4D.of(
+        (double) this.x[index],
+        (double) this.y[index],
+        (double) this.z[index],
+        1.0);
+    }
+
+    this.bits = new long[FrustumCulling.bitsetSizeElements(COUNT)];
+    this.indices = new int[COUNT];
+  }
+
+  /**
+   * Benchmark {@link FrustumCulling#cullSpheres(double[], ByteBuffer, int,
+   * long[])}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void cullSpheresBuffer(
+    final Blackhole bh)
+  {
+    bh.consume(FrustumCulling.cullSpheres(
+      this.planes, this.spheres, COUNT, this.bits));
+  }
+
+  /**
+   * Benchmark {@link FrustumCulling#cullSpheresIndexed(double[], float[],
+   * float[], float[], float[], int, int[])}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void cullSpheresArraysIndexed(
+    final Blackhole bh)
+  {
+    bh.consume(FrustumCulling.cullSpheresIndexed(
+      this.planes, this.x, this.y, this.z, this.radius, COUNT, this.indices));
+  }
+
+  /**
+   * Benchmark {@link FrustumCulling#cullAABBs(double[], ByteBuffer, int,
+   * long[])}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void cullAABBsBuffer(
+    final Blackhole bh)
+  {
+    bh.consume(FrustumCulling.cullAABBs(
+      this.planes, this.boxes, COUNT, this.bits));
+  }
+
+  /**
+   * Benchmark culling the same spheres with one {@link
+   * Vectors4D#dotProduct(Vector4D, Vector4D)} call per plane.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void cullSpheresObjects(
+    final Blackhole bh)
+  {
+    int visible = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      final Vector4D s = this.sphere_vectors[index];
+      final double r = (double) this.radius[index];
+      boolean inside = true;
+      for (int plane = 0; plane < 6; ++plane) {
+        if (Vectors4D.dotProduct(this.plane_vectors[plane], s) < -r) {
+          inside = false;
+          break;
+        }
+      }
+      if (inside) {
+        this.indices[visible] = index;
+        ++visible;
+      }
+    }
+    bh.consume(visible);
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors3D;
+import com.io7m.jtensors.spatial.KdTree3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing {@link KdTree3D} nearest neighbour queries against
+ * a brute force search using {@link Vectors3D#magnitudeSquared(Vector3D)}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class KdTree3DBenchmark
+{
+  private static final int COUNT = 100000;
+  private static final int QUERIES = 100;
+  private static final int NEIGHBOURS = 8;
+
+  private ByteBuffer points;
+  private Vector3D[] point_vectors;
+  private KdTree3D tree;
+  private Vector3D[] queries;
+  private int[] out_indices;
+  private double[] out_distances;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public KdTree3DBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+
+    this.points = ByteBuffer.allocateDirect(12 * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.point_vectors = new Vector3D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final float x = (random.nextFloat() - 0.5f) * 1000.0f;
+      final float y = (random.nextFloat() - 0.5f) * 1000.0f;
+      final float z = (random.nextFloat() - 0.5f) * 1000.0f;
+
+      final int offset = index * 12;
+      this.points.putFloat(offset, x);
+      this.points.putFloat(offset + 4, y);
+      this.points.putFloat(offset + 8, z);
+      this.point_vectors[index] =
+        Vector3D.of((double) x, (double) y, (double) z);
+    }
+
+    this.tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), this.points, COUNT);
+
+    this.queries = new Vector3D[QUERIES];
+    for (int index = 0; index < QUERIES; ++index) {
+      this.queries[index] = Vector3D.of(
+        (random.nextDouble() - 0.5) * 1000.0,
+        (random.nextDouble() - 0.5) * 1000.0,
+        (random.nextDouble() - 0.5) * 1000.0);
+    }
+
+    this.out_indices = new int[NEIGHBOURS];
+    this.out_distances = new double[NEIGHBOURS];
+  }
+
+  /**
+   * Benchmark building a tree on the common pool.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  public void build(
+    final Blackhole bh)
+  {
+    bh.consume(KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), this.points, COUNT));
+  }
+
+  /**
+   * Benchmark {@link KdTree3D#nearest(Vector3D, int, int[], double[])}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void nearest(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < QUERIES; ++index) {
+      bh.consume(this.tree.nearest(
+        this.queries[index], NEIGHBOURS, this.out_indices, this.out_distances));
+    }
+  }
+
+  /**
+   * Benchmark finding the single nearest point to each query by brute
+   * force.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void nearestBruteForce(
+    final Blackhole bh)
+  {
+    for (int query = 0; query < QUERIES; ++query) {
+      final Vector3D q = this.queries[query];
+      int nearest = -1;
+      double nearest_d = Double.POSITIVE_INFINITY;
+      for (int index = 0; index < COUNT; ++index) {
+        final double d = Vectors3D.magnitudeSquared(
+          Vectors3D.subtract(this.point_vectors[index], q));
+        if (d < nearest_d) {
+          nearest_d = d;
+          nearest = index;
+        }
+      }
+      bh.consume(nearest);
+    }
+  }
+}
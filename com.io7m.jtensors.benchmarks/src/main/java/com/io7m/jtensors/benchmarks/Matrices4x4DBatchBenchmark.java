@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.bytebuffered.Matrices4x4DBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing {@link Matrices4x4DBatch#multiply} against repeated
+ * calls to {@link Matrices4x4D#multiply}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Matrices4x4DBatchBenchmark
+{
+  private static final int COUNT = 10000;
+
+  private ByteBuffer a;
+  private ByteBuffer b;
+  private ByteBuffer out;
+  private Matrix4x4D[] ma;
+  private Matrix4x4D[] mb;
+  private Matrix4x4D[] mout;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public Matrices4x4DBatchBenchmark()
+  {
+
+  }
+
+  private static ByteBuffer buffer()
+  {
+    return ByteBuffer.allocateDirect(Matrices4x4DBatch.matrixSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Matrix4x4D[] matrices(
+    final Random random,
+    final ByteBuffer buffer)
+  {
+    final Matrix4x4D[] values = new Matrix4x4D[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      final double[] c = new double[16];
+      for (int component = 0; component < 16; ++component) {
+        c[component] = random.nextDouble();
+        buffer.putDouble(
+          (index * Matrices4x4DBatch.matrixSizeBytes()) + (component * 8),
+          c[component]);
+      }
+      values[index] = Matrix4x4D.of(
+        c[0], c[4], c[8], c[12],
+        c[1], c[5], c[9], c[13],
+        c[2], c[6], c[10], c[14],
+        c[3], c[7], c[11], c[15]);
+    }
+    return values;
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    this.a = buffer();
+    this.b = buffer();
+    this.out = buffer();
+    this.ma = matrices(random, this.a);
+    this.mb = matrices(random, this.b);
+    this.mout = new Matrix4x4D[COUNT];
+  }
+
+  /**
+   * Benchmark {@link Matrices4x4DBatch#multiply}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void multiplyBatch(
+    final Blackhole bh)
+  {
+    Matrices4x4DBatch.multiply(this.a, this.b, this.out, COUNT);
+    bh.consume(this.out);
+  }
+
+  /**
+   * Benchmark {@link Matrices4x4D#multiply} over the same number of
+   * matrices.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void multiplyObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      this.mout[index] = Matrices4x4D.multiply(this.ma[index], this.mb[index]);
+    }
+    bh.consume(this.mout);
+  }
+}
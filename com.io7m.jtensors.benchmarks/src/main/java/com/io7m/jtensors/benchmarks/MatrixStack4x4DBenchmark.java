@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.heap.MatrixStack4x4D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing a traversal of a complete binary tree of transforms
+ * using a {@link MatrixStack4x4D} against the same traversal creating a new
+ * {@link Matrix4x4D} at every node.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MatrixStack4x4DBenchmark
+{
+  private static final int DEPTH = 12;
+  private static final int COUNT = (1 << DEPTH) - 1;
+
+  private double[] translations;
+  private double[] angles;
+  private MatrixStack4x4D stack;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public MatrixStack4x4DBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    this.translations = new double[COUNT * 3];
+    this.angles = new double[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      this.translations[index * 3] = random.nextDouble();
+      this.translations[(index * 3) + 1] = random.nextDouble();
+      this.translations[(index * 3) + 2] = random.nextDouble();
+      this.angles[index] = random.nextDouble() * Math.PI;
+    }
+    this.stack = new MatrixStack4x4D(DEPTH + 1);
+  }
+
+  private void visitStack(
+    final Blackhole bh,
+    final int node)
+  {
+    if (node >= COUNT) {
+      return;
+    }
+
+    final MatrixStack4x4D s = this.stack;
+    s.push();
+    s.translate(
+      this.translations[node * 3],
+      this.translations[(node * 3) + 1],
+      this.translations[(node * 3) + 2]);
+    s.rotate(0.0, 0.0, 1.0, this.angles[node]);
+    bh.consume(s.top().r0c3());
+    this.visitStack(bh, (node * 2) + 1);
+    this.visitStack(bh, (node * 2) + 2);
+    s.pop();
+  }
+
+  private void visitObjects(
+    final Blackhole bh,
+    final Matrix4x4D parent,
+    final int node)
+  {
+    if (node >= COUNT) {
+      return;
+    }
+
+    final Matrix4x4D m = Matrices4x4D.multiply(
+      Matrices4x4D.multiply(
+        parent,
+        Matrices4x4D.ofTranslation(
+          this.translations[node * 3],
+          this.translations[(node * 3) + 1],
+          this.translations[(node * 3) + 2])),
+      Matrices4x4D.ofAxisAngle(0.0, 0.0, 1.0, this.angles[node]));
+    bh.consume(m.r0c3());
+    this.visitObjects(bh, m, (node * 2) + 1);
+    this.visitObjects(bh, m, (node * 2) + 2);
+  }
+
+  /**
+   * Traverse the tree using a matrix stack.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void traverseStack(
+    final Blackhole bh)
+  {
+    this.visitStack(bh, 0);
+  }
+
+  /**
+   * Traverse the tree creating a new matrix at each node.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void traverseObjects(
+    final Blackhole bh)
+  {
+    this.visitObjects(bh, Matrices4x4D.identity(), 0);
+  }
+}
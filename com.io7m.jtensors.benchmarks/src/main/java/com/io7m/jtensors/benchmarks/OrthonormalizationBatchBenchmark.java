@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.orthonormalization.Orthonormalization;
+import com.io7m.jtensors.orthonormalization.Orthonormalized3D;
+import com.io7m.jtensors.storage.bytebuffered.OrthonormalizationBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link OrthonormalizationBatch} functions against
+ * repeated calls to {@link Orthonormalization#orthonormalize3D}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrthonormalizationBatchBenchmark
+{
+  private static final int COUNT = 100000;
+
+  private ByteBuffer matrices;
+  private ByteBuffer matrices_out;
+  private Vector3D[] columns;
+  private Orthonormalized3D[] out;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public OrthonormalizationBatchBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    final int size = OrthonormalizationBatch.matrix4x4SizeBytes();
+    this.matrices = ByteBuffer.allocateDirect(size * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.matrices_out = ByteBuffer.allocateDirect(size * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.columns = new Vector3D[COUNT * 3];
+    this.out = new Orthonormalized3D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      for (int column = 0; column < 4; ++column) {
+        for (int row = 0; row < 4; ++row) {
+          final float x;
+          if (row == 3 || column == 3) {
+            x = row == column ? 1.0f : 0.0f;
+          } else {
+            x = (row == column ? 1.0f : 0.0f)
+              + ((random.nextFloat() - 0.5f) * 0.01f);
+          }
+          this.matrices.putFloat(offset + (column * 16) + (row * 4), x);
+        }
+      }
+
+      for (int column = 0; column < 3; ++column) {
+        final int c = offset + (column * 16);
+        this.columns[(index * 3) + column] = Vector3D.of(
+          (double) this.matrices.getFloat(c),
+          (double) this.matrices.getFloat(c + 4),
+          (double) this.matrices.getFloat(c + 8));
+      }
+    }
+  }
+
+  /**
+   * Benchmark {@link OrthonormalizationBatch#orthonormalizeMatrices4x4(ByteBuffer,
+   * ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void orthonormalizeMatrices4x4Batch(
+    final Blackhole bh)
+  {
+    OrthonormalizationBatch.orthonormalizeMatrices4x4(
+      this.matrices, this.matrices_out, COUNT);
+    bh.consume(this.matrices_out);
+  }
+
+  /**
+   * Benchmark {@link OrthonormalizationBatch#orthonormalizeMatrices4x4Parallel(ForkJoinPool,
+   * ByteBuffer, ByteBuffer, int)} using the common pool.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void orthonormalizeMatrices4x4Parallel(
+    final Blackhole bh)
+  {
+    OrthonormalizationBatch.orthonormalizeMatrices4x4Parallel(
+      ForkJoinPool.commonPool(), this.matrices, this.matrices_out, COUNT);
+    bh.consume(this.matrices_out);
+  }
+
+  /**
+   * Benchmark {@link Orthonormalization#orthonormalize3D} over the same
+   * number of sets of vectors.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void orthonormalize3DObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      final int base = index * 3;
+      this.out[index] = Orthonormalization.orthonormalize3D(
+        this.columns[base],
+        this.columns[base + 1],
+        this.columns[base + 2]);
+    }
+    bh.consume(this.out);
+  }
+}
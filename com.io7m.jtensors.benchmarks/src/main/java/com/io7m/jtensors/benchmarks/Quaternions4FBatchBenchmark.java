@@ -0,0 +1,245 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.quaternions.Quaternion4F;
+import com.io7m.jtensors.core.quaternions.Quaternions4F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
+import com.io7m.jtensors.storage.bytebuffered.Quaternions4FBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link Quaternions4FBatch} functions against
+ * repeated calls to the {@link Quaternions4F} functions.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Quaternions4FBatchBenchmark
+{
+  private static final int COUNT = 10000;
+  private static final double ALPHA = 0.375;
+
+  private ByteBuffer buffer_a;
+  private ByteBuffer buffer_b;
+  private ByteBuffer buffer_out;
+  private Quaternion4F[] qa;
+  private Quaternion4F[] qb;
+  private Quaternion4F[] qout;
+  private ByteBuffer buffer_matrices;
+  private Matrix4x4F[] mout;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public Quaternions4FBatchBenchmark()
+  {
+
+  }
+
+  private static ByteBuffer buffer()
+  {
+    return ByteBuffer.allocateDirect(
+      Quaternions4FBatch.quaternionSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Quaternion4F[] quaternions(
+    final Random random,
+    final ByteBuffer buffer)
+  {
+    final Quaternion4F[] values = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      final Quaternion4F q = Quaternions4F.normalize(Quaternion4F.of(
+        random.nextFloat() - 0.5f,
+        random.nextFloat() - 0.5f,
+        random.nextFloat() - 0.5f,
+        random.nextFloat() - 0.5f));
+      final int offset = index * Quaternions4FBatch.quaternionSizeBytes();
+      buffer.putFloat(offset, q.x());
+      buffer.putFloat(offset + 4, q.y());
+      buffer.putFloat(offset + 8, q.z());
+      buffer.putFloat(offset + 12, q.w());
+      values[index] = q;
+    }
+    return values;
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    this.buffer_a = buffer();
+    this.buffer_b = buffer();
+    this.buffer_out = buffer();
+    this.qa = quaternions(random, this.buffer_a);
+    this.qb = quaternions(random, this.buffer_b);
+    this.qout = new Quaternion4F[COUNT];
+    this.buffer_matrices = ByteBuffer.allocateDirect(
+      Quaternions4FBatch.matrixSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.mout = new Matrix4x4F[COUNT];
+  }
+
+  /**
+   * Benchmark {@link Quaternions4FBatch#interpolateLinearNormalized(ByteBuffer,
+   * ByteBuffer, double, ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void interpolateLinearNormalizedBatch(
+    final Blackhole bh)
+  {
+    Quaternions4FBatch.interpolateLinearNormalized(
+      this.buffer_a, this.buffer_b, ALPHA, this.buffer_out, COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4FBatch#interpolateSphericalLinear(ByteBuffer,
+   * ByteBuffer, double, ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void interpolateSphericalLinearBatch(
+    final Blackhole bh)
+  {
+    Quaternions4FBatch.interpolateSphericalLinear(
+      this.buffer_a, this.buffer_b, ALPHA, this.buffer_out, COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4FBatch#interpolateSphericalLinearApproximate(ByteBuffer,
+   * ByteBuffer, double, ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void interpolateSphericalLinearApproximateBatch(
+    final Blackhole bh)
+  {
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      this.buffer_a, this.buffer_b, ALPHA, this.buffer_out, COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4F#interpolateSphericalLinear} over the same
+   * number of quaternions.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void interpolateSphericalLinearObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      this.qout[index] = Quaternions4F.interpolateSphericalLinear(
+        this.qa[index], this.qb[index], ALPHA);
+    }
+    bh.consume(this.qout);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4FBatch#toMatrix4x4(ByteBuffer, ByteBuffer,
+   * int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void toMatrix4x4Batch(
+    final Blackhole bh)
+  {
+    Quaternions4FBatch.toMatrix4x4(
+      this.buffer_a, this.buffer_matrices, COUNT);
+    bh.consume(this.buffer_matrices);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4FBatch#toMatrix4x4Parallel(ForkJoinPool,
+   * ByteBuffer, ByteBuffer, int)} using the common pool.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void toMatrix4x4Parallel(
+    final Blackhole bh)
+  {
+    Quaternions4FBatch.toMatrix4x4Parallel(
+      ForkJoinPool.commonPool(), this.buffer_a, this.buffer_matrices, COUNT);
+    bh.consume(this.buffer_matrices);
+  }
+
+  /**
+   * Benchmark {@link Quaternions4F#toMatrix4x4} over the same number of
+   * quaternions.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void toMatrix4x4Objects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      this.mout[index] = Quaternions4F.toMatrix4x4(this.qa[index]);
+    }
+    bh.consume(this.mout);
+  }
+}
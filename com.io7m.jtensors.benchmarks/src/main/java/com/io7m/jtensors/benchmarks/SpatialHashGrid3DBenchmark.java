@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.spatial.SpatialHashGrid3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks measuring {@link SpatialHashGrid3D} rebuilds and radius
+ * queries.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SpatialHashGrid3DBenchmark
+{
+  private static final int COUNT = 1000000;
+  private static final int QUERIES = 1000;
+
+  private ByteBuffer points;
+  private SpatialHashGrid3D grid;
+  private Vector3D[] queries;
+  private int[] out;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public SpatialHashGrid3DBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+
+    this.points = ByteBuffer.allocateDirect(12 * COUNT)
+      .order(ByteOrder.nativeOrder());
+    for (int index = 0; index < COUNT * 3; ++index) {
+      this.points.putFloat(
+        index * 4, (random.nextFloat() - 0.5f) * 1000.0f);
+    }
+
+    this.grid = SpatialHashGrid3D.create(10.0, 1 << 20);
+    this.grid.rebuildFloat32(this.points, COUNT);
+
+    this.queries = new Vector3D[QUERIES];
+    for (int index = 0; index < QUERIES; ++index) {
+      this.queries[index] = Vector3D.of(
+        (random.nextDouble() - 0.5) * 1000.0,
+        (random.nextDouble() - 0.5) * 1000.0,
+        (random.nextDouble() - 0.5) * 1000.0);
+    }
+
+    this.out = new int[1024];
+  }
+
+  /**
+   * Benchmark {@link SpatialHashGrid3D#rebuildFloat32(ByteBuffer, int)}.
+   */
+
+  @Benchmark
+  public void rebuild()
+  {
+    this.grid.rebuildFloat32(this.points, COUNT);
+  }
+
+  /**
+   * Benchmark {@link SpatialHashGrid3D#rebuildFloat32Parallel(ForkJoinPool,
+   * ByteBuffer, int)} on the common pool.
+   */
+
+  @Benchmark
+  public void rebuildParallel()
+  {
+    this.grid.rebuildFloat32Parallel(
+      ForkJoinPool.commonPool(), this.points, COUNT);
+  }
+
+  /**
+   * Benchmark {@link SpatialHashGrid3D#queryRadius(Vector3D, double,
+   * int[])} with a radius equal to the cell size.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void queryRadius(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < QUERIES; ++index) {
+      bh.consume(this.grid.queryRadius(this.queries[index], 10.0, this.out));
+    }
+  }
+}
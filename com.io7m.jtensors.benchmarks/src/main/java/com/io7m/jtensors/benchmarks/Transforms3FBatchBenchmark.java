@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.storage.bytebuffered.Transforms3FBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link Transforms3FBatch} functions against
+ * repeated calls to {@link Matrices4x4D#multiplyVectorPost}.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Transforms3FBatchBenchmark
+{
+  private static final int COUNT = 1000000;
+  private static final int THRESHOLD = 16384;
+
+  private Matrix4x4D matrix;
+  private ByteBuffer buffer_a;
+  private ByteBuffer buffer_out;
+  private float[] x;
+  private float[] y;
+  private float[] z;
+  private float[] out_x;
+  private float[] out_y;
+  private float[] out_z;
+  private Vector4D[] va;
+  private Vector4D[] vout;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public Transforms3FBatchBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    this.matrix = Matrix4x4D.of(
+      0.0, -1.0, 0.0, 10.0,
+      1.0, 0.0, 0.0, 20.0,
+      0.0, 0.0, 2.0, 30.0,
+      0.0, 0.0, 0.0, 1.0);
+
+    this.buffer_a = ByteBuffer.allocateDirect(
+      Transforms3FBatch.vectorSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+    this.buffer_out = ByteBuffer.allocateDirect(
+      Transforms3FBatch.vectorSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+
+    this.x = new float[COUNT];
+    this.y = new float[COUNT];
+    this.z = new float[COUNT];
+    this.out_x = new float[COUNT];
+    this.out_y = new float[COUNT];
+    this.out_z = new float[COUNT];
+    this.va = new Vector4D[COUNT];
+    this.vout = new Vector4D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final float px = random.nextFloat() * 100.0f;
+      final float py = random.nextFloat() * 100.0f;
+      final float pz = random.nextFloat() * 100.0f;
+      final int offset = index * Transforms3FBatch.vectorSizeBytes();
+      this.buffer_a.putFloat(offset, px);
+      this.buffer_a.putFloat(offset + 4, py);
+      this.buffer_a.putFloat(offset + 8, pz);
+      this.x[index] = px;
+      this.y[index] = py;
+      this.z[index] = pz;
+      this.va[index] = Vector4D.of(
+        (double) px, (double) py, (double) pz, 1.0);
+    }
+  }
+
+  /**
+   * Benchmark {@link Transforms3FBatch#transformPoints(com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void transformPointsBuffer(
+    final Blackhole bh)
+  {
+    Transforms3FBatch.transformPoints(
+      this.matrix, this.buffer_a, this.buffer_out, COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark {@link Transforms3FBatch#transformPointsParallel(ForkJoinPool,
+   * int, com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)} using the common pool.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void transformPointsBufferParallel(
+    final Blackhole bh)
+  {
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(),
+      THRESHOLD,
+      this.matrix,
+      this.buffer_a,
+      this.buffer_out,
+      COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark the structure-of-arrays form of
+   * {@link Transforms3FBatch#transformPoints}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void transformPointsArrays(
+    final Blackhole bh)
+  {
+    Transforms3FBatch.transformPoints(
+      this.matrix,
+      this.x,
+      this.y,
+      this.z,
+      this.out_x,
+      this.out_y,
+      this.out_z,
+      COUNT);
+    bh.consume(this.out_x);
+  }
+
+  /**
+   * Benchmark the structure-of-arrays form of
+   * {@link Transforms3FBatch#transformPointsParallel} using the common pool.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void transformPointsArraysParallel(
+    final Blackhole bh)
+  {
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(),
+      THRESHOLD,
+      this.matrix,
+      this.x,
+      this.y,
+      this.z,
+      this.out_x,
+      this.out_y,
+      this.out_z,
+      COUNT);
+    bh.consume(this.out_x);
+  }
+
+  /**
+   * Benchmark {@link Matrices4x4D#multiplyVectorPost} over the same number of
+   * points.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void transformPointsObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      this.vout[index] =
+        Matrices4x4D.multiplyVectorPost(this.matrix, this.va[index]);
+    }
+    bh.consume(this.vout);
+  }
+}
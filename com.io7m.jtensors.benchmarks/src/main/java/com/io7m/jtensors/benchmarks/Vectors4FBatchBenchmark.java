@@ -0,0 +1,214 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.benchmarks;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4F;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors4F;
+import com.io7m.jtensors.storage.bytebuffered.Vectors4FBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link Vectors4FBatch} functions against repeated
+ * calls to the {@link Vectors4F} and {@link Matrices4x4D} functions.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Vectors4FBatchBenchmark
+{
+  private static final int COUNT = 10000;
+
+  private ByteBuffer buffer_a;
+  private ByteBuffer buffer_b;
+  private ByteBuffer buffer_out;
+  private float[] array_a;
+  private float[] array_b;
+  private float[] array_out;
+  private Vector4F[] va;
+  private Vector4F[] vb;
+  private Vector4F[] vout;
+  private Vector4D[] vdout;
+  private Matrix4x4D m;
+
+  /**
+   * Construct a benchmark.
+   */
+
+  public Vectors4FBatchBenchmark()
+  {
+
+  }
+
+  private static ByteBuffer buffer()
+  {
+    return ByteBuffer.allocateDirect(Vectors4FBatch.vectorSizeBytes() * COUNT)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Vector4F[] vectors(
+    final Random random,
+    final ByteBuffer buffer,
+    final float[] array)
+  {
+    final Vector4F[] values = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      final float[] c = new float[4];
+      for (int component = 0; component < 4; ++component) {
+        c[component] = random.nextFloat();
+        buffer.putFloat(
+          (index * Vectors4FBatch.vectorSizeBytes()) + (component * 4),
+          c[component]);
+        array[(index * 4) + component] = c[component];
+      }
+      values[index] = Vector4F.of(c[0], c[1], c[2], c[3]);
+    }
+    return values;
+  }
+
+  /**
+   * Create the input values.
+   */
+
+  @Setup
+  public void setup()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+    this.buffer_a = buffer();
+    this.buffer_b = buffer();
+    this.buffer_out = buffer();
+    this.array_a = new float[COUNT * 4];
+    this.array_b = new float[COUNT * 4];
+    this.array_out = new float[COUNT * 4];
+    this.va = vectors(random, this.buffer_a, this.array_a);
+    this.vb = vectors(random, this.buffer_b, this.array_b);
+    this.vout = new Vector4F[COUNT];
+    this.vdout = new Vector4D[COUNT];
+    this.m = Matrix4x4D.of(
+      random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble(),
+      random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble(),
+      random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble(),
+      random.nextDouble(), random.nextDouble(), random.nextDouble(), random.nextDouble());
+  }
+
+  /**
+   * Benchmark {@link Vectors4FBatch#add(ByteBuffer, ByteBuffer, ByteBuffer, int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void addBatchBuffer(
+    final Blackhole bh)
+  {
+    Vectors4FBatch.add(this.buffer_a, this.buffer_b, this.buffer_out, COUNT);
+    bh.consume(this.buffer_out);
+  }
+
+  /**
+   * Benchmark {@link Vectors4FBatch#add(float[], float[], float[], int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void addBatchArray(
+    final Blackhole bh)
+  {
+    Vectors4FBatch.add(this.array_a, this.array_b, this.array_out, COUNT);
+    bh.consume(this.array_out);
+  }
+
+  /**
+   * Benchmark {@link Vectors4F#add} over the same number of vectors.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void addObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      this.vout[index] = Vectors4F.add(this.va[index], this.vb[index]);
+    }
+    bh.consume(this.vout);
+  }
+
+  /**
+   * Benchmark {@link Vectors4FBatch#multiplyVectorPost(Matrix4x4D, float[],
+   * float[], int)}.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void multiplyVectorPostBatchArray(
+    final Blackhole bh)
+  {
+    Vectors4FBatch.multiplyVectorPost(
+      this.m, this.array_a, this.array_out, COUNT);
+    bh.consume(this.array_out);
+  }
+
+  /**
+   * Benchmark {@link Matrices4x4D#multiplyVectorPost} over the same number
+   * of vectors.
+   *
+   * @param bh A blackhole
+   */
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public void multiplyVectorPostObjects(
+    final Blackhole bh)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      final Vector4F v = this.va[index];
+      this.vdout[index] = Matrices4x4D.multiplyVectorPost(
+        this.m,
+        Vector4D.of((double) v.x(), (double) v.y(), (double) v.z(), (double) v.w()));
+    }
+    bh.consume(this.vdout);
+  }
+}
@@ -24,6 +24,13 @@ import com.io7m.junreachable.UnreachableCodeException;
 
 public final class DotProductsDouble
 {
+  /*
+   * 2^27 + 1, used to split a double into two halves of 26 significant
+   * bits each (Veltkamp splitting).
+   */
+
+  private static final double SPLITTER = 134217729.0;
+
   private DotProductsDouble()
   {
     throw new UnreachableCodeException();
@@ -111,4 +118,166 @@ public final class DotProductsDouble
     final double y = y0 * y1;
     return x + y;
   }
+
+  /**
+   * <p>Calculate the dot product of {@code (x0, y0, z0, w0)} and {@code (x1,
+   * y1, z1, w1)} using compensated arithmetic.</p>
+   *
+   * <p>The rounding errors of each product and sum are computed exactly
+   * using error-free transformations and added back into the result, so the
+   * result is as accurate as if it had been computed in twice the working
+   * precision and then rounded. This is considerably more expensive than
+   * {@link #dotProduct4(double, double, double, double, double, double,
+   * double, double)}, and is intended for computations in which rounding
+   * error accumulates, such as long chains of transforms. The extra
+   * accuracy is not guaranteed for components with magnitudes above roughly
+   * {@code 2^996}, for which the products overflow.</p>
+   *
+   * @param x0 The X component of the first vector
+   * @param y0 The Y component of the first vector
+   * @param z0 The Z component of the first vector
+   * @param w0 The W component of the first vector
+   * @param x1 The X component of the second vector
+   * @param y1 The Y component of the second vector
+   * @param z1 The Z component of the second vector
+   * @param w1 The W component of the second vector
+   *
+   * @return The dot product
+   */
+
+  public static double dotProduct4Compensated(
+    final double x0,
+    final double y0,
+    final double z0,
+    final double w0,
+    final double x1,
+    final double y1,
+    final double z1,
+    final double w1)
+  {
+    final double px = x0 * x1;
+    final double ex = productError(x0, x1, px);
+
+    final double py = y0 * y1;
+    final double sxy = px + py;
+    final double exy =
+      ex + productError(y0, y1, py) + sumError(px, py, sxy);
+
+    final double pz = z0 * z1;
+    final double sxyz = sxy + pz;
+    final double exyz =
+      exy + productError(z0, z1, pz) + sumError(sxy, pz, sxyz);
+
+    final double pw = w0 * w1;
+    final double sxyzw = sxyz + pw;
+    final double exyzw =
+      exyz + productError(w0, w1, pw) + sumError(sxyz, pw, sxyzw);
+
+    return sxyzw + exyzw;
+  }
+
+  /**
+   * Calculate the dot product of {@code (x0, y0, z0)} and {@code (x1, y1,
+   * z1)} using compensated arithmetic.
+   *
+   * @param x0 The X component of the first vector
+   * @param y0 The Y component of the first vector
+   * @param z0 The Z component of the first vector
+   * @param x1 The X component of the second vector
+   * @param y1 The Y component of the second vector
+   * @param z1 The Z component of the second vector
+   *
+   * @return The dot product
+   *
+   * @see #dotProduct4Compensated(double, double, double, double, double,
+   * double, double, double)
+   */
+
+  public static double dotProduct3Compensated(
+    final double x0,
+    final double y0,
+    final double z0,
+    final double x1,
+    final double y1,
+    final double z1)
+  {
+    final double px = x0 * x1;
+    final double ex = productError(x0, x1, px);
+
+    final double py = y0 * y1;
+    final double sxy = px + py;
+    final double exy =
+      ex + productError(y0, y1, py) + sumError(px, py, sxy);
+
+    final double pz = z0 * z1;
+    final double sxyz = sxy + pz;
+    final double exyz =
+      exy + productError(z0, z1, pz) + sumError(sxy, pz, sxyz);
+
+    return sxyz + exyz;
+  }
+
+  /**
+   * Calculate the dot product of {@code (x0, y0)} and {@code (x1, y1)} using
+   * compensated arithmetic.
+   *
+   * @param x0 The X component of the first vector
+   * @param y0 The Y component of the first vector
+   * @param x1 The X component of the second vector
+   * @param y1 The Y component of the second vector
+   *
+   * @return The dot product
+   *
+   * @see #dotProduct4Compensated(double, double, double, double, double,
+   * double, double, double)
+   */
+
+  public static double dotProduct2Compensated(
+    final double x0,
+    final double y0,
+    final double x1,
+    final double y1)
+  {
+    final double px = x0 * x1;
+    final double ex = productError(x0, x1, px);
+
+    final double py = y0 * y1;
+    final double sxy = px + py;
+    final double exy =
+      ex + productError(y0, y1, py) + sumError(px, py, sxy);
+
+    return sxy + exy;
+  }
+
+  /*
+   * Dekker's TwoProduct: the exact rounding error of p = a * b.
+   */
+
+  private static double productError(
+    final double a,
+    final double b,
+    final double p)
+  {
+    final double a_t = SPLITTER * a;
+    final double a_hi = a_t - (a_t - a);
+    final double a_lo = a - a_hi;
+    final double b_t = SPLITTER * b;
+    final double b_hi = b_t - (b_t - b);
+    final double b_lo = b - b_hi;
+    return (a_lo * b_lo)
+      - (((p - (a_hi * b_hi)) - (a_lo * b_hi)) - (a_hi * b_lo));
+  }
+
+  /*
+   * Knuth's TwoSum: the exact rounding error of s = a + b.
+   */
+
+  private static double sumError(
+    final double a,
+    final double b,
+    final double s)
+  {
+    final double z = s - a;
+    return (a - (s - z)) + (b - z);
+  }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.core.quaternions;
+
+import com.io7m.jtensors.core.JTensorsImmutableStyleType;
+import org.immutables.value.Value;
+
+/**
+ * <p>The type of {@code double}-typed dual quaternions.</p>
+ *
+ * <p>A dual quaternion consists of a <i>real</i> part {@code r} and a
+ * <i>dual</i> part {@code d}. A unit dual quaternion represents a rigid
+ * transform: The real part is the rotation, and the dual part encodes the
+ * translation {@code t} as {@code d = 0.5 * t * r}, where {@code t} is
+ * treated as a pure quaternion {@code (t.x, t.y, t.z, 0)}.</p>
+ */
+
+@JTensorsImmutableStyleType
+@Value.Immutable
+public interface DualQuaternion4DType
+{
+  /**
+   * @return The real part
+   */
+
+  @Value.Parameter(order = 0)
+  Quaternion4D real();
+
+  /**
+   * @return The dual part
+   */
+
+  @Value.Parameter(order = 1)
+  Quaternion4D dual();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.core.unparameterized.matrices;
+
+/**
+ * The type of writable 4x4 {@code double}-typed matrices.
+ */
+
+public interface MatrixWritable4x4DType
+{
+  /**
+   * Set all of the components of the matrix.
+   *
+   * @param r0c0 The value at row 0 column 0
+   * @param r0c1 The value at row 0 column 1
+   * @param r0c2 The value at row 0 column 2
+   * @param r0c3 The value at row 0 column 3
+   * @param r1c0 The value at row 1 column 0
+   * @param r1c1 The value at row 1 column 1
+   * @param r1c2 The value at row 1 column 2
+   * @param r1c3 The value at row 1 column 3
+   * @param r2c0 The value at row 2 column 0
+   * @param r2c1 The value at row 2 column 1
+   * @param r2c2 The value at row 2 column 2
+   * @param r2c3 The value at row 2 column 3
+   * @param r3c0 The value at row 3 column 0
+   * @param r3c1 The value at row 3 column 1
+   * @param r3c2 The value at row 3 column 2
+   * @param r3c3 The value at row 3 column 3
+   */
+
+  void setMatrix4x4D(
+    double r0c0,
+    double r0c1,
+    double r0c2,
+    double r0c3,
+    double r1c0,
+    double r1c1,
+    double r1c2,
+    double r1c3,
+    double r2c0,
+    double r2c1,
+    double r2c2,
+    double r2c3,
+    double r3c0,
+    double r3c1,
+    double r3c2,
+    double r3c3);
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.generators;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.DualQuaternions4D;
+import com.io7m.jtensors.core.quaternions.Quaternion4D;
+import com.io7m.jtensors.core.quaternions.Quaternions4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+
+/**
+ * A dual quaternion generator. The generator produces unit dual quaternions:
+ * Each generated value represents a random rotation followed by a random
+ * translation.
+ */
+
+public final class DualQuaternion4DGenerator
+  implements Generator<DualQuaternion4D>
+{
+  private final Generator<Double> gen;
+
+  /**
+   * Construct a generator.
+   *
+   * @param in_gen A component generator used for the rotation axes and the
+   *               translations
+   */
+
+  public DualQuaternion4DGenerator(
+    final Generator<Double> in_gen)
+  {
+    this.gen = NullCheck.notNull(in_gen, "Generator");
+  }
+
+  /**
+   * Create a generator initialized with a default component generator that
+   * produces values in the range {@code [-1.0, 1.0]}.
+   *
+   * @return A generator
+   */
+
+  public static Generator<DualQuaternion4D> create()
+  {
+    return new DualQuaternion4DGenerator(PrimitiveGenerators.doubles(
+      GeneratorConstants.BOUND_NORMAL_DOUBLE_LOWER,
+      GeneratorConstants.BOUND_NORMAL_DOUBLE_UPPER
+    ));
+  }
+
+  @Override
+  public DualQuaternion4D next()
+  {
+    final Quaternion4D r = Quaternions4D.normalize(
+      Quaternions4D.ofAxisAngle(
+        this.gen.next().doubleValue(),
+        this.gen.next().doubleValue(),
+        this.gen.next().doubleValue(),
+        this.gen.next().doubleValue() * Math.PI));
+
+    final Vector3D t = Vector3D.of(
+      this.gen.next().doubleValue(),
+      this.gen.next().doubleValue(),
+      this.gen.next().doubleValue());
+
+    return DualQuaternions4D.ofRotationTranslation(r, t);
+  }
+}
@@ -0,0 +1,1066 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>A bounding volume hierarchy over a set of axis-aligned bounding boxes,
+ * supporting ray, point, and box overlap queries.</p>
+ *
+ * <p>The hierarchy is built once using a binned surface area heuristic. The
+ * structure of the hierarchy is thereafter fixed, but the bounds of the
+ * primitives may be changed at any time with {@link #setPrimitive(int,
+ * Vector3D, Vector3D)}, followed by a call to {@link #refit()} to update the
+ * bounds of the nodes in a single linear pass. Refitting is far cheaper than
+ * rebuilding, but the quality of the hierarchy degrades as primitives move
+ * away from their original positions; a hierarchy that has been refitted
+ * many times may be worth rebuilding.</p>
+ *
+ * <p>The nodes, the primitive bounds, and the primitive index list are all
+ * stored in direct byte buffers, so very large hierarchies do not occupy the
+ * Java heap. Nodes are stored in a flat array, with the two children of an
+ * interior node stored adjacently, and every node stored before its
+ * children.</p>
+ *
+ * <p>Primitives are given to {@link #build(ByteBuffer, int)} as
+ * tightly packed boxes starting at byte {@code 0}, each stored as six {@code
+ * binary32} values {@code (min_x, min_y, min_z, max_x, max_y, max_z)} in the
+ * byte order of the buffer, for a total of {@code 24} bytes per box. The
+ * boxes are copied, and the buffer is not retained.</p>
+ *
+ * <p>The query functions write the indices of matching primitives to a
+ * caller-provided array and do not allocate. Instances are mutable and use
+ * internal scratch storage during queries, and are therefore not safe for
+ * use from multiple threads without external synchronization.</p>
+ */
+
+public final class BoundingVolumeHierarchy
+{
+  private static final int BOX_BYTES = 24;
+  private static final int NODE_BYTES = 32;
+  private static final int NODE_OFFSET_FIRST = 24;
+  private static final int NODE_OFFSET_COUNT = 28;
+  private static final int BINS = 16;
+  private static final int LEAF_SIZE_MAXIMUM = 4;
+
+  /*
+   * The largest primitive count for which the node buffer, which may hold
+   * up to 2 * count - 1 nodes, can be addressed with int offsets.
+   */
+
+  private static final int PRIMITIVE_COUNT_MAXIMUM =
+    ((Integer.MAX_VALUE / NODE_BYTES) + 1) / 2;
+
+  private final int primitive_count;
+  private final ByteBuffer primitives;
+  private final ByteBuffer indices;
+  private final ByteBuffer nodes;
+  private final int node_count;
+  private final int depth;
+  private final int[] stack;
+  private final double[] stack_distances;
+
+  private BoundingVolumeHierarchy(
+    final int in_primitive_count,
+    final ByteBuffer in_primitives,
+    final ByteBuffer in_indices,
+    final ByteBuffer in_nodes,
+    final int in_node_count,
+    final int in_depth)
+  {
+    this.primitive_count = in_primitive_count;
+    this.primitives = in_primitives;
+    this.indices = in_indices;
+    this.nodes = in_nodes;
+    this.node_count = in_node_count;
+    this.depth = in_depth;
+    this.stack = new int[in_depth + 2];
+    this.stack_distances = new double[in_depth + 2];
+  }
+
+  /**
+   * @return The size in bytes of a single primitive box
+   */
+
+  public static int boxSizeBytes()
+  {
+    return BOX_BYTES;
+  }
+
+  /**
+   * @return The maximum number of primitives in a single hierarchy
+   */
+
+  public static int primitiveCountMaximum()
+  {
+    return PRIMITIVE_COUNT_MAXIMUM;
+  }
+
+  /**
+   * Build a hierarchy over the first {@code count} boxes in {@code boxes}.
+   *
+   * @param boxes The primitive boxes
+   * @param count The number of boxes
+   *
+   * @return A new hierarchy
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} boxes
+   * @throws IllegalArgumentException  If {@code count} is greater than
+   *                                   {@link #primitiveCountMaximum()}
+   */
+
+  public static BoundingVolumeHierarchy build(
+    final ByteBuffer boxes,
+    final int count)
+    throws IndexOutOfBoundsException, IllegalArgumentException
+  {
+    NullCheck.notNull(boxes, "Boxes");
+
+    RangeChecks.checkCount(count);
+    if (count > PRIMITIVE_COUNT_MAXIMUM) {
+      throw new IllegalArgumentException(String.format(
+        "Count %d must not exceed %d",
+        Integer.valueOf(count),
+        Integer.valueOf(PRIMITIVE_COUNT_MAXIMUM)));
+    }
+
+    RangeChecks.checkBuffer(boxes, count, BOX_BYTES, "boxes");
+
+    final long required = (long) count * (long) BOX_BYTES;
+    final ByteBuffer primitives = allocate(required);
+    for (int index = 0; index < count * 6; ++index) {
+      primitives.putFloat(index * 4, boxes.getFloat(index * 4));
+    }
+
+    final int[] order = new int[count];
+    for (int index = 0; index < count; ++index) {
+      order[index] = index;
+    }
+
+    final long node_max = Math.max(1L, (2L * (long) count) - 1L);
+    final ByteBuffer nodes = allocate(node_max * (long) NODE_BYTES);
+    final Builder builder = new Builder(primitives, order, nodes);
+    builder.run(count);
+
+    final ByteBuffer indices = allocate((long) count * 4L);
+    for (int index = 0; index < count; ++index) {
+      indices.putInt(index * 4, order[index]);
+    }
+
+    final BoundingVolumeHierarchy bvh =
+      new BoundingVolumeHierarchy(
+        count, primitives, indices, nodes, builder.node_count, builder.depth);
+    bvh.refit();
+    return bvh;
+  }
+
+  private static ByteBuffer allocate(
+    final long size)
+  {
+    return ByteBuffer.allocateDirect(Math.toIntExact(size))
+      .order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * @return The number of primitives in the hierarchy
+   */
+
+  public int primitiveCount()
+  {
+    return this.primitive_count;
+  }
+
+  /**
+   * @return The number of nodes in the hierarchy
+   */
+
+  public int nodeCount()
+  {
+    return this.node_count;
+  }
+
+  /**
+   * @return The depth of the hierarchy, where a hierarchy consisting of a
+   * single leaf has depth {@code 0}
+   */
+
+  public int depth()
+  {
+    return this.depth;
+  }
+
+  /**
+   * @return The minimum corner of the bounds of the whole hierarchy
+   */
+
+  public Vector3D boundsMinimum()
+  {
+    return Vector3D.of(
+      (double) this.nodes.getFloat(0),
+      (double) this.nodes.getFloat(4),
+      (double) this.nodes.getFloat(8));
+  }
+
+  /**
+   * @return The maximum corner of the bounds of the whole hierarchy
+   */
+
+  public Vector3D boundsMaximum()
+  {
+    return Vector3D.of(
+      (double) this.nodes.getFloat(12),
+      (double) this.nodes.getFloat(16),
+      (double) this.nodes.getFloat(20));
+  }
+
+  /**
+   * Set the bounds of the primitive {@code index}. The bounds of the nodes
+   * are not updated until {@link #refit()} is called.
+   *
+   * @param index   The primitive index
+   * @param minimum The minimum corner of the box
+   * @param maximum The maximum corner of the box
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is not a valid
+   *                                   primitive index
+   */
+
+  public void setPrimitive(
+    final int index,
+    final Vector3D minimum,
+    final Vector3D maximum)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(minimum, "Minimum");
+    NullCheck.notNull(maximum, "Maximum");
+    this.checkPrimitive(index);
+
+    final int offset = index * BOX_BYTES;
+    this.primitives.putFloat(offset, (float) minimum.x());
+    this.primitives.putFloat(offset + 4, (float) minimum.y());
+    this.primitives.putFloat(offset + 8, (float) minimum.z());
+    this.primitives.putFloat(offset + 12, (float) maximum.x());
+    this.primitives.putFloat(offset + 16, (float) maximum.y());
+    this.primitives.putFloat(offset + 20, (float) maximum.z());
+  }
+
+  /**
+   * @param index The primitive index
+   *
+   * @return The minimum corner of the primitive {@code index}
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is not a valid
+   *                                   primitive index
+   */
+
+  public Vector3D primitiveMinimum(
+    final int index)
+    throws IndexOutOfBoundsException
+  {
+    this.checkPrimitive(index);
+    final int offset = index * BOX_BYTES;
+    return Vector3D.of(
+      (double) this.primitives.getFloat(offset),
+      (double) this.primitives.getFloat(offset + 4),
+      (double) this.primitives.getFloat(offset + 8));
+  }
+
+  /**
+   * @param index The primitive index
+   *
+   * @return The maximum corner of the primitive {@code index}
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is not a valid
+   *                                   primitive index
+   */
+
+  public Vector3D primitiveMaximum(
+    final int index)
+    throws IndexOutOfBoundsException
+  {
+    this.checkPrimitive(index);
+    final int offset = index * BOX_BYTES;
+    return Vector3D.of(
+      (double) this.primitives.getFloat(offset + 12),
+      (double) this.primitives.getFloat(offset + 16),
+      (double) this.primitives.getFloat(offset + 20));
+  }
+
+  private void checkPrimitive(
+    final int index)
+  {
+    if (index < 0 || index >= this.primitive_count) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Primitive index %d must be in the range [0, %d)",
+        Integer.valueOf(index),
+        Integer.valueOf(this.primitive_count)));
+    }
+  }
+
+  /**
+   * Recalculate the bounds of every node from the current bounds of the
+   * primitives. The structure of the hierarchy is not changed.
+   */
+
+  public void refit()
+  {
+    final ByteBuffer n = this.nodes;
+    final ByteBuffer p = this.primitives;
+
+    /*
+     * Every node is stored before its children, so iterating backwards
+     * visits children before their parents.
+     */
+
+    for (int node = this.node_count - 1; node >= 0; --node) {
+      final int offset = node * NODE_BYTES;
+      final int first = n.getInt(offset + NODE_OFFSET_FIRST);
+      final int count = n.getInt(offset + NODE_OFFSET_COUNT);
+
+      float min_x = Float.POSITIVE_INFINITY;
+      float min_y = Float.POSITIVE_INFINITY;
+      float min_z = Float.POSITIVE_INFINITY;
+      float max_x = Float.NEGATIVE_INFINITY;
+      float max_y = Float.NEGATIVE_INFINITY;
+      float max_z = Float.NEGATIVE_INFINITY;
+
+      if (count > 0) {
+        for (int index = first; index < first + count; ++index) {
+          final int p_offset = this.indices.getInt(index * 4) * BOX_BYTES;
+          min_x = Math.min(min_x, p.getFloat(p_offset));
+          min_y = Math.min(min_y, p.getFloat(p_offset + 4));
+          min_z = Math.min(min_z, p.getFloat(p_offset + 8));
+          max_x = Math.max(max_x, p.getFloat(p_offset + 12));
+          max_y = Math.max(max_y, p.getFloat(p_offset + 16));
+          max_z = Math.max(max_z, p.getFloat(p_offset + 20));
+        }
+      } else {
+        final int l_offset = first * NODE_BYTES;
+        final int r_offset = l_offset + NODE_BYTES;
+        min_x = Math.min(n.getFloat(l_offset), n.getFloat(r_offset));
+        min_y = Math.min(n.getFloat(l_offset + 4), n.getFloat(r_offset + 4));
+        min_z = Math.min(n.getFloat(l_offset + 8), n.getFloat(r_offset + 8));
+        max_x = Math.max(n.getFloat(l_offset + 12), n.getFloat(r_offset + 12));
+        max_y = Math.max(n.getFloat(l_offset + 16), n.getFloat(r_offset + 16));
+        max_z = Math.max(n.getFloat(l_offset + 20), n.getFloat(r_offset + 20));
+      }
+
+      n.putFloat(offset, min_x);
+      n.putFloat(offset + 4, min_y);
+      n.putFloat(offset + 8, min_z);
+      n.putFloat(offset + 12, max_x);
+      n.putFloat(offset + 16, max_y);
+      n.putFloat(offset + 20, max_z);
+    }
+  }
+
+  /**
+   * Find all primitives whose boxes contain the point {@code p}. The
+   * boundaries of the boxes are considered to be inside the boxes.
+   *
+   * @param p   The point
+   * @param out The output array of primitive indices
+   *
+   * @return The number of matching primitives, which may be greater than
+   * the length of {@code out} (in which case only the first {@code
+   * out.length} matches are written)
+   */
+
+  public int queryPoint(
+    final Vector3D p,
+    final int[] out)
+  {
+    NullCheck.notNull(p, "Point");
+    return this.queryBox(p, p, out);
+  }
+
+  /**
+   * Find all primitives whose boxes overlap the box given by {@code minimum}
+   * and {@code maximum}. Boxes that merely touch are considered to
+   * overlap.
+   *
+   * @param minimum The minimum corner of the query box
+   * @param maximum The maximum corner of the query box
+   * @param out     The output array of primitive indices
+   *
+   * @return The number of matching primitives, which may be greater than
+   * the length of {@code out} (in which case only the first {@code
+   * out.length} matches are written)
+   */
+
+  public int queryBox(
+    final Vector3D minimum,
+    final Vector3D maximum,
+    final int[] out)
+  {
+    NullCheck.notNull(minimum, "Minimum");
+    NullCheck.notNull(maximum, "Maximum");
+    NullCheck.notNull(out, "Output");
+
+    if (this.primitive_count == 0) {
+      return 0;
+    }
+
+    final double q_min_x = minimum.x();
+    final double q_min_y = minimum.y();
+    final double q_min_z = minimum.z();
+    final double q_max_x = maximum.x();
+    final double q_max_y = maximum.y();
+    final double q_max_z = maximum.z();
+
+    final ByteBuffer n = this.nodes;
+    final ByteBuffer p = this.primitives;
+    final int[] s = this.stack;
+
+    int found = 0;
+    int top = 0;
+    s[top++] = 0;
+
+    while (top > 0) {
+      final int offset = s[--top] * NODE_BYTES;
+      if (!overlaps(n, offset, q_min_x, q_min_y, q_min_z, q_max_x, q_max_y, q_max_z)) {
+        continue;
+      }
+
+      final int first = n.getInt(offset + NODE_OFFSET_FIRST);
+      final int count = n.getInt(offset + NODE_OFFSET_COUNT);
+      if (count == 0) {
+        s[top++] = first + 1;
+        s[top++] = first;
+        continue;
+      }
+
+      for (int index = first; index < first + count; ++index) {
+        final int primitive = this.indices.getInt(index * 4);
+        if (overlaps(p, primitive * BOX_BYTES, q_min_x, q_min_y, q_min_z, q_max_x, q_max_y, q_max_z)) {
+          if (found < out.length) {
+            out[found] = primitive;
+          }
+          ++found;
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Find all primitives whose boxes are intersected by the ray starting at
+   * {@code origin} and travelling in {@code direction}, at distances in the
+   * range {@code [0, t_max]} (measured in multiples of the length of {@code
+   * direction}). The direction need not be normalized.
+   *
+   * @param origin    The ray origin
+   * @param direction The ray direction
+   * @param t_max     The maximum distance along the ray
+   * @param out       The output array of primitive indices
+   *
+   * @return The number of matching primitives, which may be greater than
+   * the length of {@code out} (in which case only the first {@code
+   * out.length} matches are written)
+   */
+
+  public int queryRay(
+    final Vector3D origin,
+    final Vector3D direction,
+    final double t_max,
+    final int[] out)
+  {
+    NullCheck.notNull(origin, "Origin");
+    NullCheck.notNull(direction, "Direction");
+    NullCheck.notNull(out, "Output");
+
+    if (this.primitive_count == 0) {
+      return 0;
+    }
+
+    final double o_x = origin.x();
+    final double o_y = origin.y();
+    final double o_z = origin.z();
+    final double i_x = 1.0 / direction.x();
+    final double i_y = 1.0 / direction.y();
+    final double i_z = 1.0 / direction.z();
+
+    final ByteBuffer n = this.nodes;
+    final ByteBuffer p = this.primitives;
+    final int[] s = this.stack;
+
+    int found = 0;
+    int top = 0;
+    s[top++] = 0;
+
+    while (top > 0) {
+      final int offset = s[--top] * NODE_BYTES;
+      if (rayEntry(n, offset, o_x, o_y, o_z, i_x, i_y, i_z, t_max) > t_max) {
+        continue;
+      }
+
+      final int first = n.getInt(offset + NODE_OFFSET_FIRST);
+      final int count = n.getInt(offset + NODE_OFFSET_COUNT);
+      if (count == 0) {
+        s[top++] = first + 1;
+        s[top++] = first;
+        continue;
+      }
+
+      for (int index = first; index < first + count; ++index) {
+        final int primitive = this.indices.getInt(index * 4);
+        final double t = rayEntry(
+          p, primitive * BOX_BYTES, o_x, o_y, o_z, i_x, i_y, i_z, t_max);
+        if (t <= t_max) {
+          if (found < out.length) {
+            out[found] = primitive;
+          }
+          ++found;
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Find the primitive whose box is first intersected by the ray starting at
+   * {@code origin} and travelling in {@code direction}, at distances in the
+   * range {@code [0, t_max]}. A box that contains the origin is intersected
+   * at distance {@code 0}. Nodes are visited front to back, and nodes
+   * further away than the closest intersection found so far are skipped.
+   *
+   * @param origin    The ray origin
+   * @param direction The ray direction
+   * @param t_max     The maximum distance along the ray
+   *
+   * @return The index of the nearest intersected primitive, or {@code -1} if
+   * no primitive is intersected
+   */
+
+  public int queryRayNearest(
+    final Vector3D origin,
+    final Vector3D direction,
+    final double t_max)
+  {
+    NullCheck.notNull(origin, "Origin");
+    NullCheck.notNull(direction, "Direction");
+
+    if (this.primitive_count == 0) {
+      return -1;
+    }
+
+    final double o_x = origin.x();
+    final double o_y = origin.y();
+    final double o_z = origin.z();
+    final double i_x = 1.0 / direction.x();
+    final double i_y = 1.0 / direction.y();
+    final double i_z = 1.0 / direction.z();
+
+    final ByteBuffer n = this.nodes;
+    final ByteBuffer p = this.primitives;
+    final int[] s = this.stack;
+    final double[] sd = this.stack_distances;
+
+    int nearest = -1;
+    double nearest_t = t_max;
+
+    int top = 0;
+    final double root_t = rayEntry(n, 0, o_x, o_y, o_z, i_x, i_y, i_z, t_max);
+    if (root_t <= t_max) {
+      s[top] = 0;
+      sd[top] = root_t;
+      ++top;
+    }
+
+    while (top > 0) {
+      --top;
+      if (sd[top] > nearest_t) {
+        continue;
+      }
+
+      final int offset = s[top] * NODE_BYTES;
+      final int first = n.getInt(offset + NODE_OFFSET_FIRST);
+      final int count = n.getInt(offset + NODE_OFFSET_COUNT);
+
+      if (count == 0) {
+        final double t_l = rayEntry(
+          n, first * NODE_BYTES, o_x, o_y, o_z, i_x, i_y, i_z, nearest_t);
+        final double t_r = rayEntry(
+          n, (first + 1) * NODE_BYTES, o_x, o_y, o_z, i_x, i_y, i_z, nearest_t);
+
+        /*
+         * Push the farther child first, so that the nearer child is
+         * visited first.
+         */
+
+        final boolean left_first = t_l <= t_r;
+        final int near = left_first ? first : first + 1;
+        final int far = left_first ? first + 1 : first;
+        final double near_t = left_first ? t_l : t_r;
+        final double far_t = left_first ? t_r : t_l;
+
+        if (far_t <= nearest_t) {
+          s[top] = far;
+          sd[top] = far_t;
+          ++top;
+        }
+        if (near_t <= nearest_t) {
+          s[top] = near;
+          sd[top] = near_t;
+          ++top;
+        }
+        continue;
+      }
+
+      for (int index = first; index < first + count; ++index) {
+        final int primitive = this.indices.getInt(index * 4);
+        final double t = rayEntry(
+          p, primitive * BOX_BYTES, o_x, o_y, o_z, i_x, i_y, i_z, nearest_t);
+        if (t < nearest_t || (t == nearest_t && nearest == -1)) {
+          nearest = primitive;
+          nearest_t = t;
+        }
+      }
+    }
+    return nearest;
+  }
+
+  private static boolean overlaps(
+    final ByteBuffer buffer,
+    final int offset,
+    final double q_min_x,
+    final double q_min_y,
+    final double q_min_z,
+    final double q_max_x,
+    final double q_max_y,
+    final double q_max_z)
+  {
+    return (double) buffer.getFloat(offset) <= q_max_x
+      && (double) buffer.getFloat(offset + 4) <= q_max_y
+      && (double) buffer.getFloat(offset + 8) <= q_max_z
+      && (double) buffer.getFloat(offset + 12) >= q_min_x
+      && (double) buffer.getFloat(offset + 16) >= q_min_y
+      && (double) buffer.getFloat(offset + 20) >= q_min_z;
+  }
+
+  /*
+   * Calculate the distance at which the ray enters the box at the given
+   * offset, using the slab method. The result is greater than t_max if the
+   * ray misses the box within [0, t_max].
+   *
+   * A ray that is parallel to a slab has an infinite inverse direction on
+   * that axis. Multiplying the distance to a plane that contains the origin
+   * by an infinite inverse yields NaN, so parallel axes are handled
+   * explicitly: The ray is inside the slab everywhere if the origin is, and
+   * nowhere otherwise.
+   */
+
+  private static double rayEntry(
+    final ByteBuffer buffer,
+    final int offset,
+    final double o_x,
+    final double o_y,
+    final double o_z,
+    final double i_x,
+    final double i_y,
+    final double i_z,
+    final double t_max)
+  {
+    double t_enter = 0.0;
+    double t_exit = t_max;
+
+    final double min_x = (double) buffer.getFloat(offset);
+    final double max_x = (double) buffer.getFloat(offset + 12);
+    if (Double.isInfinite(i_x)) {
+      if (o_x < min_x || o_x > max_x) {
+        return Double.POSITIVE_INFINITY;
+      }
+    } else {
+      final double t0 = (min_x - o_x) * i_x;
+      final double t1 = (max_x - o_x) * i_x;
+      t_enter = Math.max(t_enter, Math.min(t0, t1));
+      t_exit = Math.min(t_exit, Math.max(t0, t1));
+    }
+
+    final double min_y = (double) buffer.getFloat(offset + 4);
+    final double max_y = (double) buffer.getFloat(offset + 16);
+    if (Double.isInfinite(i_y)) {
+      if (o_y < min_y || o_y > max_y) {
+        return Double.POSITIVE_INFINITY;
+      }
+    } else {
+      final double t0 = (min_y - o_y) * i_y;
+      final double t1 = (max_y - o_y) * i_y;
+      t_enter = Math.max(t_enter, Math.min(t0, t1));
+      t_exit = Math.min(t_exit, Math.max(t0, t1));
+    }
+
+    final double min_z = (double) buffer.getFloat(offset + 8);
+    final double max_z = (double) buffer.getFloat(offset + 20);
+    if (Double.isInfinite(i_z)) {
+      if (o_z < min_z || o_z > max_z) {
+        return Double.POSITIVE_INFINITY;
+      }
+    } else {
+      final double t0 = (min_z - o_z) * i_z;
+      final double t1 = (max_z - o_z) * i_z;
+      t_enter = Math.max(t_enter, Math.min(t0, t1));
+      t_exit = Math.min(t_exit, Math.max(t0, t1));
+    }
+
+    if (t_enter <= t_exit) {
+      return t_enter;
+    }
+    return Double.POSITIVE_INFINITY;
+  }
+
+  /*
+   * A binned SAH builder. Only the structure of the hierarchy is built
+   * here; the node bounds are filled in by a subsequent refit.
+   */
+
+  private static final class Builder
+  {
+    private final ByteBuffer primitives;
+    private final int[] order;
+    private final ByteBuffer nodes;
+    private final int[] bin_counts;
+    private final double[] bin_bounds;
+    private final double[] right_areas;
+    private final int[] right_counts;
+    private int node_count;
+    private int depth;
+
+    Builder(
+      final ByteBuffer in_primitives,
+      final int[] in_order,
+      final ByteBuffer in_nodes)
+    {
+      this.primitives = in_primitives;
+      this.order = in_order;
+      this.nodes = in_nodes;
+      this.bin_counts = new int[BINS];
+      this.bin_bounds = new double[BINS * 6];
+      this.right_areas = new double[BINS];
+      this.right_counts = new int[BINS];
+    }
+
+    private double centroid(
+      final int primitive,
+      final int axis)
+    {
+      final int offset = (primitive * BOX_BYTES) + (axis * 4);
+      return ((double) this.primitives.getFloat(offset)
+        + (double) this.primitives.getFloat(offset + 12)) * 0.5;
+    }
+
+    private void setNode(
+      final int node,
+      final int first,
+      final int count)
+    {
+      final int offset = node * NODE_BYTES;
+      this.nodes.putInt(offset + NODE_OFFSET_FIRST, first);
+      this.nodes.putInt(offset + NODE_OFFSET_COUNT, count);
+    }
+
+    void run(
+      final int count)
+    {
+      if (count == 0) {
+        this.node_count = 0;
+        this.depth = 0;
+        return;
+      }
+
+      /*
+       * An explicit work stack of (node, first, count, depth) entries. The
+       * larger child of each split is pushed first so that the smaller
+       * child is processed next. Every entry below the top of the stack
+       * is therefore the larger sibling of a range that is at most half
+       * its parent's size, so the stack never holds more than
+       * floor(log2(count)) + 1 entries, regardless of how unbalanced the
+       * hierarchy is.
+       */
+
+      final int entries = 33 - Integer.numberOfLeadingZeros(count);
+      final int[] work = new int[entries * 4];
+      int top = 0;
+      work[top++] = 0;
+      work[top++] = 0;
+      work[top++] = count;
+      work[top++] = 0;
+      this.node_count = 1;
+
+      while (top > 0) {
+        final int w_depth = work[--top];
+        final int w_count = work[--top];
+        final int w_first = work[--top];
+        final int w_node = work[--top];
+        this.depth = Math.max(this.depth, w_depth);
+
+        final int split = this.split(w_first, w_count);
+        if (split < 0) {
+          this.setNode(w_node, w_first, w_count);
+          continue;
+        }
+
+        final int left = this.node_count;
+        this.node_count += 2;
+        this.setNode(w_node, left, 0);
+
+        final int l_count = split - w_first;
+        final int r_count = (w_first + w_count) - split;
+        if (l_count <= r_count) {
+          work[top++] = left + 1;
+          work[top++] = split;
+          work[top++] = r_count;
+          work[top++] = w_depth + 1;
+          work[top++] = left;
+          work[top++] = w_first;
+          work[top++] = l_count;
+          work[top++] = w_depth + 1;
+        } else {
+          work[top++] = left;
+          work[top++] = w_first;
+          work[top++] = l_count;
+          work[top++] = w_depth + 1;
+          work[top++] = left + 1;
+          work[top++] = split;
+          work[top++] = r_count;
+          work[top++] = w_depth + 1;
+        }
+      }
+    }
+
+    /*
+     * Partition the primitives in [first, first + count) using the binned
+     * surface area heuristic, returning the index of the first primitive of
+     * the right partition, or -1 if the range should become a leaf.
+     */
+
+    private int split(
+      final int first,
+      final int count)
+    {
+      if (count <= LEAF_SIZE_MAXIMUM) {
+        return -1;
+      }
+
+      double c_min_x = Double.POSITIVE_INFINITY;
+      double c_min_y = Double.POSITIVE_INFINITY;
+      double c_min_z = Double.POSITIVE_INFINITY;
+      double c_max_x = Double.NEGATIVE_INFINITY;
+      double c_max_y = Double.NEGATIVE_INFINITY;
+      double c_max_z = Double.NEGATIVE_INFINITY;
+
+      for (int index = first; index < first + count; ++index) {
+        final int primitive = this.order[index];
+        final double c_x = this.centroid(primitive, 0);
+        final double c_y = this.centroid(primitive, 1);
+        final double c_z = this.centroid(primitive, 2);
+        c_min_x = Math.min(c_min_x, c_x);
+        c_min_y = Math.min(c_min_y, c_y);
+        c_min_z = Math.min(c_min_z, c_z);
+        c_max_x = Math.max(c_max_x, c_x);
+        c_max_y = Math.max(c_max_y, c_y);
+        c_max_z = Math.max(c_max_z, c_z);
+      }
+
+      final double e_x = c_max_x - c_min_x;
+      final double e_y = c_max_y - c_min_y;
+      final double e_z = c_max_z - c_min_z;
+
+      final int axis;
+      final double axis_min;
+      final double axis_extent;
+      if (e_x >= e_y && e_x >= e_z) {
+        axis = 0;
+        axis_min = c_min_x;
+        axis_extent = e_x;
+      } else if (e_y >= e_z) {
+        axis = 1;
+        axis_min = c_min_y;
+        axis_extent = e_y;
+      } else {
+        axis = 2;
+        axis_min = c_min_z;
+        axis_extent = e_z;
+      }
+
+      /*
+       * All centroids coincide: No split can separate the primitives.
+       */
+
+      if (axis_extent <= 0.0) {
+        return -1;
+      }
+
+      final double scale = (double) BINS / axis_extent;
+      this.binPrimitives(first, count, axis, axis_min, scale);
+      final int bin_split = this.chooseBinSplit();
+      if (bin_split < 0) {
+        return -1;
+      }
+
+      /*
+       * Partition in place: Primitives in bins below the split move to the
+       * front of the range.
+       */
+
+      int low = first;
+      int high = first + count - 1;
+      while (low <= high) {
+        final int primitive = this.order[low];
+        if (bin(this.centroid(primitive, axis), axis_min, scale) < bin_split) {
+          ++low;
+        } else {
+          this.order[low] = this.order[high];
+          this.order[high] = primitive;
+          --high;
+        }
+      }
+      return low;
+    }
+
+    private static int bin(
+      final double c,
+      final double axis_min,
+      final double scale)
+    {
+      return Math.min(BINS - 1, (int) ((c - axis_min) * scale));
+    }
+
+    private void binPrimitives(
+      final int first,
+      final int count,
+      final int axis,
+      final double axis_min,
+      final double scale)
+    {
+      final double[] bounds = this.bin_bounds;
+      for (int b = 0; b < BINS; ++b) {
+        this.bin_counts[b] = 0;
+        bounds[b * 6] = Double.POSITIVE_INFINITY;
+        bounds[(b * 6) + 1] = Double.POSITIVE_INFINITY;
+        bounds[(b * 6) + 2] = Double.POSITIVE_INFINITY;
+        bounds[(b * 6) + 3] = Double.NEGATIVE_INFINITY;
+        bounds[(b * 6) + 4] = Double.NEGATIVE_INFINITY;
+        bounds[(b * 6) + 5] = Double.NEGATIVE_INFINITY;
+      }
+
+      for (int index = first; index < first + count; ++index) {
+        final int primitive = this.order[index];
+        final int b = bin(this.centroid(primitive, axis), axis_min, scale);
+        final int offset = primitive * BOX_BYTES;
+        final int b_offset = b * 6;
+        ++this.bin_counts[b];
+        for (int k = 0; k < 3; ++k) {
+          bounds[b_offset + k] = Math.min(
+            bounds[b_offset + k],
+            (double) this.primitives.getFloat(offset + (k * 4)));
+          bounds[b_offset + 3 + k] = Math.max(
+            bounds[b_offset + 3 + k],
+            (double) this.primitives.getFloat(offset + 12 + (k * 4)));
+        }
+      }
+    }
+
+    /*
+     * Evaluate the SAH cost of splitting between each pair of adjacent bins,
+     * returning the index of the first bin of the right partition for the
+     * cheapest split, or -1 if no split produces two non-empty partitions.
+     */
+
+    private int chooseBinSplit()
+    {
+      final double[] bounds = this.bin_bounds;
+
+      double r_min_x = Double.POSITIVE_INFINITY;
+      double r_min_y = Double.POSITIVE_INFINITY;
+      double r_min_z = Double.POSITIVE_INFINITY;
+      double r_max_x = Double.NEGATIVE_INFINITY;
+      double r_max_y = Double.NEGATIVE_INFINITY;
+      double r_max_z = Double.NEGATIVE_INFINITY;
+      int r_count = 0;
+
+      for (int b = BINS - 1; b > 0; --b) {
+        final int b_offset = b * 6;
+        r_min_x = Math.min(r_min_x, bounds[b_offset]);
+        r_min_y = Math.min(r_min_y, bounds[b_offset + 1]);
+        r_min_z = Math.min(r_min_z, bounds[b_offset + 2]);
+        r_max_x = Math.max(r_max_x, bounds[b_offset + 3]);
+        r_max_y = Math.max(r_max_y, bounds[b_offset + 4]);
+        r_max_z = Math.max(r_max_z, bounds[b_offset + 5]);
+        r_count += this.bin_counts[b];
+        this.right_counts[b] = r_count;
+        this.right_areas[b] = area(
+          r_min_x, r_min_y, r_min_z, r_max_x, r_max_y, r_max_z);
+      }
+
+      double l_min_x = Double.POSITIVE_INFINITY;
+      double l_min_y = Double.POSITIVE_INFINITY;
+      double l_min_z = Double.POSITIVE_INFINITY;
+      double l_max_x = Double.NEGATIVE_INFINITY;
+      double l_max_y = Double.NEGATIVE_INFINITY;
+      double l_max_z = Double.NEGATIVE_INFINITY;
+      int l_count = 0;
+
+      int best = -1;
+      double best_cost = Double.POSITIVE_INFINITY;
+      for (int b = 1; b < BINS; ++b) {
+        final int b_offset = (b - 1) * 6;
+        l_min_x = Math.min(l_min_x, bounds[b_offset]);
+        l_min_y = Math.min(l_min_y, bounds[b_offset + 1]);
+        l_min_z = Math.min(l_min_z, bounds[b_offset + 2]);
+        l_max_x = Math.max(l_max_x, bounds[b_offset + 3]);
+        l_max_y = Math.max(l_max_y, bounds[b_offset + 4]);
+        l_max_z = Math.max(l_max_z, bounds[b_offset + 5]);
+        l_count += this.bin_counts[b - 1];
+
+        if (l_count == 0 || this.right_counts[b] == 0) {
+          continue;
+        }
+
+        final double cost =
+          ((double) l_count * area(l_min_x, l_min_y, l_min_z, l_max_x, l_max_y, l_max_z))
+            + ((double) this.right_counts[b] * this.right_areas[b]);
+        if (cost < best_cost) {
+          best_cost = cost;
+          best = b;
+        }
+      }
+      return best;
+    }
+
+    private static double area(
+      final double min_x,
+      final double min_y,
+      final double min_z,
+      final double max_x,
+      final double max_y,
+      final double max_z)
+    {
+      final double e_x = max_x - min_x;
+      final double e_y = max_y - min_y;
+      final double e_z = max_z - min_z;
+      return (e_x * e_y) + (e_y * e_z) + (e_z * e_x);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.junreachable.UnreachableCodeException;
+
+/**
+ * Functions for maintaining bounded max-heaps of (index, distance) pairs,
+ * held in a pair of parallel arrays, used by nearest neighbour queries.
+ */
+
+final class Heaps
+{
+  private Heaps()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Offer a candidate to a heap of at most {@code limit} entries. If the
+   * heap is full, the candidate replaces the entry with the greatest
+   * distance if the candidate is closer.
+   *
+   * @param indices   The heap indices
+   * @param distances The heap distances
+   * @param size      The current size of the heap
+   * @param limit     The maximum size of the heap
+   * @param index     The candidate index
+   * @param distance  The candidate distance
+   *
+   * @return The new size of the heap
+   */
+
+  static int offer(
+    final int[] indices,
+    final double[] distances,
+    final int size,
+    final int limit,
+    final int index,
+    final double distance)
+  {
+    if (size < limit) {
+      int child = size;
+      while (child > 0) {
+        final int parent = (child - 1) / 2;
+        if (distances[parent] >= distance) {
+          break;
+        }
+        indices[child] = indices[parent];
+        distances[child] = distances[parent];
+        child = parent;
+      }
+      indices[child] = index;
+      distances[child] = distance;
+      return size + 1;
+    }
+
+    if (distance < distances[0]) {
+      siftDown(indices, distances, size, index, distance);
+    }
+    return size;
+  }
+
+  /**
+   * Sort a heap of {@code size} entries in place, in order of increasing
+   * distance.
+   *
+   * @param indices   The heap indices
+   * @param distances The heap distances
+   * @param size      The size of the heap
+   */
+
+  static void sort(
+    final int[] indices,
+    final double[] distances,
+    final int size)
+  {
+    for (int end = size - 1; end > 0; --end) {
+      final int last_index = indices[end];
+      final double last_distance = distances[end];
+      indices[end] = indices[0];
+      distances[end] = distances[0];
+      siftDown(indices, distances, end, last_index, last_distance);
+    }
+  }
+
+  /*
+   * Place the given entry at the root of the heap of the given size, and
+   * move it down until the heap property holds.
+   */
+
+  private static void siftDown(
+    final int[] indices,
+    final double[] distances,
+    final int size,
+    final int index,
+    final double distance)
+  {
+    int parent = 0;
+    while (true) {
+      int child = (parent * 2) + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && distances[child + 1] > distances[child]) {
+        ++child;
+      }
+      if (distances[child] <= distance) {
+        break;
+      }
+      indices[parent] = indices[child];
+      distances[parent] = distances[child];
+      parent = child;
+    }
+    indices[parent] = index;
+    distances[parent] = distance;
+  }
+}
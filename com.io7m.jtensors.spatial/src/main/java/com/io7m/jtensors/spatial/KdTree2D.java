@@ -0,0 +1,591 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.parameterized.vectors.PVector2D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>A static k-d tree over a set of two-dimensional points, supporting
+ * k-nearest neighbour, radius, and box queries.</p>
+ *
+ * <p>Points are given to the build functions as tightly packed vectors
+ * starting at byte {@code 0}, using the same {@code (x, y)} layout as
+ * either {@code VectorByteBufferedFloating2s32} (so that each point occupies
+ * {@code 8} bytes) or {@code VectorByteBufferedFloating2s64} (so that each
+ * point occupies {@code 16} bytes). The byte order of the buffer is
+ * respected. The points are copied, and the buffer is not retained.</p>
+ *
+ * <p>The tree is balanced: Each node splits its points at the median along
+ * the axis of greatest extent. The tree is stored implicitly in a flat
+ * array, with the node for the range {@code [first, first + count)} stored
+ * at index {@code first + count / 2}, so no per-node links are stored. The
+ * subtrees of each node are independent, and so are built in parallel on a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>Query results are written to caller-provided arrays, and results are
+ * reported as indices of points in the original input. Queries do not
+ * allocate and do not modify the tree, and may therefore be performed
+ * concurrently from multiple threads.</p>
+ */
+
+public final class KdTree2D
+{
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private final int count;
+  private final double[] points;
+  private final int[] indices;
+  private final byte[] axes;
+
+  private KdTree2D(
+    final int in_count,
+    final double[] in_points,
+    final int[] in_indices,
+    final byte[] in_axes)
+  {
+    this.count = in_count;
+    this.points = in_points;
+    this.indices = in_indices;
+    this.axes = in_axes;
+  }
+
+  /**
+   * Build a tree over the first {@code count} points in {@code points},
+   * where each point is stored as two {@code binary32} values.
+   *
+   * @param pool   The pool that will execute the build tasks
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @return A new tree
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public static KdTree2D buildFloat32(
+    final ForkJoinPool pool,
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(points, "Points");
+    RangeChecks.checkBuffer(points, count, 8, "points");
+
+    final double[] copy = new double[count * 2];
+    for (int index = 0; index < copy.length; ++index) {
+      copy[index] = (double) points.getFloat(index * 4);
+    }
+    return build(pool, copy, count);
+  }
+
+  /**
+   * Build a tree over the first {@code count} points in {@code points},
+   * where each point is stored as two {@code binary64} values.
+   *
+   * @param pool   The pool that will execute the build tasks
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @return A new tree
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public static KdTree2D buildFloat64(
+    final ForkJoinPool pool,
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(points, "Points");
+    RangeChecks.checkBuffer(points, count, 16, "points");
+
+    final double[] copy = new double[count * 2];
+    for (int index = 0; index < copy.length; ++index) {
+      copy[index] = points.getDouble(index * 8);
+    }
+    return build(pool, copy, count);
+  }
+
+  private static KdTree2D build(
+    final ForkJoinPool pool,
+    final double[] points,
+    final int count)
+  {
+    final int[] indices = new int[count];
+    for (int index = 0; index < count; ++index) {
+      indices[index] = index;
+    }
+
+    final byte[] axes = new byte[count];
+    pool.invoke(new BuildAction(points, indices, axes, 0, count));
+    return new KdTree2D(count, points, indices, axes);
+  }
+
+  /**
+   * @return The number of points in the tree
+   */
+
+  public int size()
+  {
+    return this.count;
+  }
+
+  /**
+   * Find the {@code k} points nearest to {@code p}. The indices of the points
+   * are written to {@code out_indices}, and the squared distances of the
+   * points from {@code p} are written to {@code out_distances}, in order of
+   * increasing distance.
+   *
+   * @param p             The query point
+   * @param k             The number of points to find
+   * @param out_indices   The output point indices
+   * @param out_distances The output squared distances
+   *
+   * @return The number of points found, which is the smaller of {@code k}
+   * and {@link #size()}
+   *
+   * @throws IndexOutOfBoundsException If {@code k} is negative, or either
+   *                                   output array is shorter than {@code k}
+   */
+
+  public int nearest(
+    final Vector2D p,
+    final int k,
+    final int[] out_indices,
+    final double[] out_distances)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(p, "Point");
+    return this.nearestXY(p.x(), p.y(), k, out_indices, out_distances);
+  }
+
+  /**
+   * Find the {@code k} points nearest to {@code p}, as with {@link
+   * #nearest(Vector2D, int, int[], double[])}.
+   *
+   * @param p             The query point
+   * @param k             The number of points to find
+   * @param out_indices   The output point indices
+   * @param out_distances The output squared distances
+   * @param <T>           A phantom type parameter
+   *
+   * @return The number of points found, which is the smaller of {@code k}
+   * and {@link #size()}
+   *
+   * @throws IndexOutOfBoundsException If {@code k} is negative, or either
+   *                                   output array is shorter than {@code k}
+   */
+
+  public <T> int nearest(
+    final PVector2D<T> p,
+    final int k,
+    final int[] out_indices,
+    final double[] out_distances)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(p, "Point");
+    return this.nearestXY(p.x(), p.y(), k, out_indices, out_distances);
+  }
+
+  private int nearestXY(
+    final double x,
+    final double y,
+    final int k,
+    final int[] out_indices,
+    final double[] out_distances)
+  {
+    NullCheck.notNull(out_indices, "Output indices");
+    NullCheck.notNull(out_distances, "Output distances");
+
+    if (k < 0 || k > out_indices.length || k > out_distances.length) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Neighbour count %d must be in the range [0, %d]",
+        Integer.valueOf(k),
+        Integer.valueOf(Math.min(out_indices.length, out_distances.length))));
+    }
+
+    final int limit = Math.min(k, this.count);
+    if (limit == 0) {
+      return 0;
+    }
+
+    /*
+     * The output arrays are used as a max-heap of the best points found so
+     * far, and are then sorted in place.
+     */
+
+    this.nearestVisit(
+      0, this.count, x, y, limit, 0, out_indices, out_distances);
+    Heaps.sort(out_indices, out_distances, limit);
+    return limit;
+  }
+
+  private int nearestVisit(
+    final int first,
+    final int range,
+    final double x,
+    final double y,
+    final int limit,
+    final int size,
+    final int[] heap_indices,
+    final double[] heap_distances)
+  {
+    if (range <= 0) {
+      return size;
+    }
+
+    final int node = first + (range / 2);
+    final int offset = node * 2;
+    final double dx = this.points[offset] - x;
+    final double dy = this.points[offset + 1] - y;
+    final double d = (dx * dx) + (dy * dy);
+
+    int result = Heaps.offer(
+      heap_indices, heap_distances, size, limit, this.indices[node], d);
+
+    final int axis = (int) this.axes[node];
+    final double diff = coordinate(x, y, axis) - this.points[offset + axis];
+    final int left_first = first;
+    final int left_range = node - first;
+    final int right_first = node + 1;
+    final int right_range = (first + range) - right_first;
+
+    if (diff <= 0.0) {
+      result = this.nearestVisit(
+        left_first, left_range, x, y, limit, result, heap_indices, heap_distances);
+      if (result < limit || (diff * diff) < heap_distances[0]) {
+        result = this.nearestVisit(
+          right_first, right_range, x, y, limit, result, heap_indices, heap_distances);
+      }
+    } else {
+      result = this.nearestVisit(
+        right_first, right_range, x, y, limit, result, heap_indices, heap_distances);
+      if (result < limit || (diff * diff) < heap_distances[0]) {
+        result = this.nearestVisit(
+          left_first, left_range, x, y, limit, result, heap_indices, heap_distances);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find all points within distance {@code radius} of {@code p}. Points at
+   * exactly distance {@code radius} are included.
+   *
+   * @param p      The query point
+   * @param radius The query radius
+   * @param out    The output point indices
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public int radius(
+    final Vector2D p,
+    final double radius,
+    final int[] out)
+  {
+    NullCheck.notNull(p, "Point");
+    NullCheck.notNull(out, "Output");
+    return this.radiusVisit(
+      0, this.count, p.x(), p.y(), radius * radius, out, 0);
+  }
+
+  /**
+   * Find all points within distance {@code radius} of {@code p}, as with
+   * {@link #radius(Vector2D, double, int[])}.
+   *
+   * @param p      The query point
+   * @param radius The query radius
+   * @param out    The output point indices
+   * @param <T>    A phantom type parameter
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public <T> int radius(
+    final PVector2D<T> p,
+    final double radius,
+    final int[] out)
+  {
+    NullCheck.notNull(p, "Point");
+    NullCheck.notNull(out, "Output");
+    return this.radiusVisit(
+      0, this.count, p.x(), p.y(), radius * radius, out, 0);
+  }
+
+  private int radiusVisit(
+    final int first,
+    final int range,
+    final double x,
+    final double y,
+    final double radius_squared,
+    final int[] out,
+    final int found)
+  {
+    if (range <= 0) {
+      return found;
+    }
+
+    final int node = first + (range / 2);
+    final int offset = node * 2;
+    final double dx = this.points[offset] - x;
+    final double dy = this.points[offset + 1] - y;
+
+    int result = found;
+    if ((dx * dx) + (dy * dy) <= radius_squared) {
+      if (result < out.length) {
+        out[result] = this.indices[node];
+      }
+      ++result;
+    }
+
+    final int axis = (int) this.axes[node];
+    final double diff = coordinate(x, y, axis) - this.points[offset + axis];
+    final double diff_squared = diff * diff;
+
+    if (diff <= 0.0 || diff_squared <= radius_squared) {
+      result = this.radiusVisit(
+        first, node - first, x, y, radius_squared, out, result);
+    }
+    if (diff >= 0.0 || diff_squared <= radius_squared) {
+      result = this.radiusVisit(
+        node + 1, (first + range) - (node + 1), x, y, radius_squared, out, result);
+    }
+    return result;
+  }
+
+  /**
+   * Find all points inside the box given by {@code minimum} and {@code
+   * maximum}. Points on the boundary of the box are included.
+   *
+   * @param minimum The minimum corner of the box
+   * @param maximum The maximum corner of the box
+   * @param out     The output point indices
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public int box(
+    final Vector2D minimum,
+    final Vector2D maximum,
+    final int[] out)
+  {
+    NullCheck.notNull(minimum, "Minimum");
+    NullCheck.notNull(maximum, "Maximum");
+    NullCheck.notNull(out, "Output");
+    return this.boxVisit(
+      0,
+      this.count,
+      minimum.x(),
+      minimum.y(),
+      maximum.x(),
+      maximum.y(),
+      out,
+      0);
+  }
+
+  /**
+   * Find all points inside the box given by {@code minimum} and {@code
+   * maximum}, as with {@link #box(Vector2D, Vector2D, int[])}.
+   *
+   * @param minimum The minimum corner of the box
+   * @param maximum The maximum corner of the box
+   * @param out     The output point indices
+   * @param <T>     A phantom type parameter
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public <T> int box(
+    final PVector2D<T> minimum,
+    final PVector2D<T> maximum,
+    final int[] out)
+  {
+    NullCheck.notNull(minimum, "Minimum");
+    NullCheck.notNull(maximum, "Maximum");
+    NullCheck.notNull(out, "Output");
+    return this.boxVisit(
+      0,
+      this.count,
+      minimum.x(),
+      minimum.y(),
+      maximum.x(),
+      maximum.y(),
+      out,
+      0);
+  }
+
+  private int boxVisit(
+    final int first,
+    final int range,
+    final double min_x,
+    final double min_y,
+    final double max_x,
+    final double max_y,
+    final int[] out,
+    final int found)
+  {
+    if (range <= 0) {
+      return found;
+    }
+
+    final int node = first + (range / 2);
+    final int offset = node * 2;
+    final double x = this.points[offset];
+    final double y = this.points[offset + 1];
+
+    int result = found;
+    if (x >= min_x && x <= max_x
+      && y >= min_y && y <= max_y) {
+      if (result < out.length) {
+        out[result] = this.indices[node];
+      }
+      ++result;
+    }
+
+    final int axis = (int) this.axes[node];
+    final double split = this.points[offset + axis];
+    if (coordinate(min_x, min_y, axis) <= split) {
+      result = this.boxVisit(
+        first, node - first,
+        min_x, min_y, max_x, max_y, out, result);
+    }
+    if (coordinate(max_x, max_y, axis) >= split) {
+      result = this.boxVisit(
+        node + 1, (first + range) - (node + 1),
+        min_x, min_y, max_x, max_y, out, result);
+    }
+    return result;
+  }
+
+  private static double coordinate(
+    final double x,
+    final double y,
+    final int axis)
+  {
+    return axis == 0 ? x : y;
+  }
+
+  /*
+   * Build the subtree for the points [first, first + range): Select the
+   * median along the axis of greatest extent, and then build the two
+   * halves, in parallel if they are large enough.
+   */
+
+  private static final class BuildAction extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final double[] points;
+    private final int[] indices;
+    private final byte[] axes;
+    private final int first;
+    private final int range;
+
+    BuildAction(
+      final double[] in_points,
+      final int[] in_indices,
+      final byte[] in_axes,
+      final int in_first,
+      final int in_range)
+    {
+      this.points = in_points;
+      this.indices = in_indices;
+      this.axes = in_axes;
+      this.first = in_first;
+      this.range = in_range;
+    }
+
+    @Override
+    protected void compute()
+    {
+      buildRange(this.points, this.indices, this.axes, this.first, this.range);
+    }
+
+    private static void buildRange(
+      final double[] points,
+      final int[] indices,
+      final byte[] axes,
+      final int first,
+      final int range)
+    {
+      if (range <= 0) {
+        return;
+      }
+
+      final int node = first + (range / 2);
+      final int axis = widestAxis(points, first, range);
+      axes[node] = (byte) axis;
+      Selection.select(points, indices, 2, axis, first, first + range - 1, node);
+
+      final int left_range = node - first;
+      final int right_range = (first + range) - (node + 1);
+      if (range > PARALLEL_THRESHOLD) {
+        invokeAll(
+          new BuildAction(points, indices, axes, first, left_range),
+          new BuildAction(points, indices, axes, node + 1, right_range));
+      } else {
+        buildRange(points, indices, axes, first, left_range);
+        buildRange(points, indices, axes, node + 1, right_range);
+      }
+    }
+
+    private static int widestAxis(
+      final double[] points,
+      final int first,
+      final int range)
+    {
+      double min_x = Double.POSITIVE_INFINITY;
+      double min_y = Double.POSITIVE_INFINITY;
+      double max_x = Double.NEGATIVE_INFINITY;
+      double max_y = Double.NEGATIVE_INFINITY;
+
+      for (int index = first; index < first + range; ++index) {
+        final int offset = index * 2;
+        min_x = Math.min(min_x, points[offset]);
+        min_y = Math.min(min_y, points[offset + 1]);
+        max_x = Math.max(max_x, points[offset]);
+        max_y = Math.max(max_y, points[offset + 1]);
+      }
+
+      final double e_x = max_x - min_x;
+      final double e_y = max_y - min_y;
+      return e_x >= e_y ? 0 : 1;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Functions for checking that the buffers passed to the spatial structures
+ * are large enough to hold the requested number of elements.
+ */
+
+final class RangeChecks
+{
+  private RangeChecks()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Check that an element count is non-negative.
+   *
+   * @param count The number of elements
+   *
+   * @throws IndexOutOfBoundsException If {@code count < 0}
+   */
+
+  static void checkCount(
+    final int count)
+  {
+    if (count < 0) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Count %d must be non-negative", Integer.valueOf(count)));
+    }
+  }
+
+  /**
+   * Check that a buffer can hold {@code count} elements of
+   * {@code element_bytes} bytes each, starting at byte offset {@code 0}.
+   *
+   * @param buffer        The buffer
+   * @param count         The number of elements
+   * @param element_bytes The size in bytes of a single element
+   * @param element_name  The name of the element type, used in messages
+   *
+   * @throws IndexOutOfBoundsException If the buffer is too small
+   */
+
+  static void checkBuffer(
+    final ByteBuffer buffer,
+    final int count,
+    final int element_bytes,
+    final String element_name)
+  {
+    checkCount(count);
+
+    final long required = (long) count * (long) element_bytes;
+    if (required > (long) buffer.limit()) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Buffer with limit %d is too small to hold %d %s (%d bytes required)",
+        Integer.valueOf(buffer.limit()),
+        Integer.valueOf(count),
+        element_name,
+        Long.valueOf(required)));
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.junreachable.UnreachableCodeException;
+
+/**
+ * Functions for selecting the k-th smallest element of a range of points
+ * stored as packed coordinates, used when splitting k-d trees.
+ */
+
+final class Selection
+{
+  private Selection()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Partially sort the points in the inclusive range {@code [low, high]}
+   * along {@code axis} such that the point at {@code k} is the point that
+   * would be there if the range were sorted, no point before {@code k} is
+   * greater than it, and no point after {@code k} is less than it. The
+   * entries of {@code indices} are moved along with the points.
+   *
+   * @param points     The packed point coordinates
+   * @param indices    The point indices
+   * @param dimensions The number of coordinates per point
+   * @param axis       The axis
+   * @param low        The first point of the range
+   * @param high       The last point of the range
+   * @param k          The point to select
+   */
+
+  static void select(
+    final double[] points,
+    final int[] indices,
+    final int dimensions,
+    final int axis,
+    final int low,
+    final int high,
+    final int k)
+  {
+    int lo = low;
+    int hi = high;
+
+    while (hi - lo > 1) {
+      final int middle = lo + ((hi - lo) / 2);
+      final double pivot = median(
+        points[(lo * dimensions) + axis],
+        points[(middle * dimensions) + axis],
+        points[(hi * dimensions) + axis]);
+
+      /*
+       * Hoare partitioning: Both scans stop at values equal to the pivot,
+       * so that ranges containing many equal values are still divided
+       * evenly.
+       */
+
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (points[(i * dimensions) + axis] < pivot) {
+          ++i;
+        }
+        while (points[(j * dimensions) + axis] > pivot) {
+          --j;
+        }
+        if (i <= j) {
+          swap(points, indices, dimensions, i, j);
+          ++i;
+          --j;
+        }
+      }
+
+      if (k <= j) {
+        hi = j;
+      } else if (k >= i) {
+        lo = i;
+      } else {
+        return;
+      }
+    }
+
+    if (hi - lo == 1
+      && points[(lo * dimensions) + axis] > points[(hi * dimensions) + axis]) {
+      swap(points, indices, dimensions, lo, hi);
+    }
+  }
+
+  private static double median(
+    final double a,
+    final double b,
+    final double c)
+  {
+    return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+  }
+
+  private static void swap(
+    final double[] points,
+    final int[] indices,
+    final int dimensions,
+    final int i,
+    final int j)
+  {
+    final int offset_i = i * dimensions;
+    final int offset_j = j * dimensions;
+    for (int component = 0; component < dimensions; ++component) {
+      final double t = points[offset_i + component];
+      points[offset_i + component] = points[offset_j + component];
+      points[offset_j + component] = t;
+    }
+
+    final int t = indices[i];
+    indices[i] = indices[j];
+    indices[j] = t;
+  }
+}
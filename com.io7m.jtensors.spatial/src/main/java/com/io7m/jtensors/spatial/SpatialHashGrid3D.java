@@ -0,0 +1,669 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.spatial;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3I;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>A uniform grid over three-dimensional points, stored as a spatial hash,
+ * intended to be rebuilt from scratch whenever the points move.</p>
+ *
+ * <p>Space is divided into cubic cells of a fixed size, and each point is
+ * assigned to the cell {@code (floor(x / s), floor(y / s), floor(z / s))}
+ * for cell size {@code s}. Cells are hashed into a fixed number of buckets,
+ * and the points are sorted by bucket with a counting sort, so that the
+ * points of each bucket are stored contiguously in flat arrays. Because
+ * distinct cells may share a bucket, every query compares the cells of
+ * candidate points exactly, and results never contain points from other
+ * cells.</p>
+ *
+ * <p>Points are given to the rebuild functions as tightly packed vectors
+ * starting at byte {@code 0}, using the same {@code (x, y, z)} layout as
+ * either {@code VectorByteBufferedFloating3s32} (so that each point occupies
+ * {@code 12} bytes) or {@code VectorByteBufferedFloating3s64} (so that each
+ * point occupies {@code 24} bytes). The byte order of the buffer is
+ * respected. The points are copied, and the buffer is not retained. The
+ * {@code Parallel} rebuild functions quantize and hash the points on a
+ * {@link ForkJoinPool}, and then sort the points on the calling thread.</p>
+ *
+ * <p>Rebuilding only allocates when the number of points exceeds the number
+ * of points of every previous rebuild. Queries report indices of points in
+ * the input of the most recent rebuild, and do not allocate. Queries may be
+ * performed concurrently with each other, but not concurrently with a
+ * rebuild.</p>
+ */
+
+public final class SpatialHashGrid3D
+{
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private final double cell_size;
+  private final double cell_size_inverse;
+  private final int bucket_mask;
+  private final int[] bucket_starts;
+  private int count;
+  private int[] point_buckets;
+  private int[] point_cells_unsorted;
+  private int[] point_cells;
+  private double[] point_positions;
+  private int[] point_indices;
+
+  private SpatialHashGrid3D(
+    final double in_cell_size,
+    final int in_bucket_count)
+  {
+    this.cell_size = in_cell_size;
+    this.cell_size_inverse = 1.0 / in_cell_size;
+    this.bucket_mask = in_bucket_count - 1;
+    this.bucket_starts = new int[in_bucket_count + 1];
+    this.count = 0;
+    this.point_buckets = new int[0];
+    this.point_cells_unsorted = new int[0];
+    this.point_cells = new int[0];
+    this.point_positions = new double[0];
+    this.point_indices = new int[0];
+  }
+
+  /**
+   * Create a new empty grid. The number of buckets is rounded up to the
+   * next power of two. A good choice for the number of buckets is around
+   * the expected number of occupied cells.
+   *
+   * @param cell_size    The size of the cells
+   * @param bucket_count The minimum number of buckets
+   *
+   * @return A new grid
+   *
+   * @throws IllegalArgumentException If {@code cell_size} is not positive
+   *                                  and finite, or {@code bucket_count} is
+   *                                  not in the range {@code [1, 2^30]}
+   */
+
+  public static SpatialHashGrid3D create(
+    final double cell_size,
+    final int bucket_count)
+    throws IllegalArgumentException
+  {
+    if (!(cell_size > 0.0) || Double.isInfinite(cell_size)) {
+      throw new IllegalArgumentException(String.format(
+        "Cell size %f must be positive and finite",
+        Double.valueOf(cell_size)));
+    }
+    if (bucket_count < 1 || bucket_count > (1 << 30)) {
+      throw new IllegalArgumentException(String.format(
+        "Bucket count %d must be in the range [1, %d]",
+        Integer.valueOf(bucket_count),
+        Integer.valueOf(1 << 30)));
+    }
+
+    final int rounded =
+      Integer.highestOneBit(bucket_count) == bucket_count
+        ? bucket_count
+        : Integer.highestOneBit(bucket_count) << 1;
+    return new SpatialHashGrid3D(cell_size, rounded);
+  }
+
+  /**
+   * @return The size of the cells
+   */
+
+  public double cellSize()
+  {
+    return this.cell_size;
+  }
+
+  /**
+   * @return The number of buckets
+   */
+
+  public int bucketCount()
+  {
+    return this.bucket_mask + 1;
+  }
+
+  /**
+   * @return The number of points in the grid
+   */
+
+  public int size()
+  {
+    return this.count;
+  }
+
+  /**
+   * @param p A position
+   *
+   * @return The cell that contains {@code p}
+   */
+
+  public Vector3I cellOf(
+    final Vector3D p)
+  {
+    NullCheck.notNull(p, "Point");
+    return Vector3I.of(
+      this.quantize(p.x()),
+      this.quantize(p.y()),
+      this.quantize(p.z()));
+  }
+
+  private int quantize(
+    final double x)
+  {
+    return (int) Math.floor(x * this.cell_size_inverse);
+  }
+
+  private int bucket(
+    final int x,
+    final int y,
+    final int z)
+  {
+    final int h = (x * 0x8da6b343) ^ (y * 0xd8163841) ^ (z * 0xcb1ab31f);
+    return (h ^ (h >>> 16)) & this.bucket_mask;
+  }
+
+  /**
+   * Replace the contents of the grid with the first {@code count} points in
+   * {@code points}, where each point is stored as three {@code binary32}
+   * values.
+   *
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public void rebuildFloat32(
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(points, "Points");
+    this.prepare(points, count, 4);
+    this.hashRange(points, 4, 0, count);
+    this.sort(points, 4);
+  }
+
+  /**
+   * Replace the contents of the grid with the first {@code count} points in
+   * {@code points}, as with {@link #rebuildFloat32(ByteBuffer, int)}, but
+   * quantize and hash the points in tasks of at most {@code 1024} points
+   * that are executed on {@code pool}.
+   *
+   * @param pool   The pool that will execute the tasks
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public void rebuildFloat32Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(points, "Points");
+    this.prepare(points, count, 4);
+    pool.invoke(new HashAction(this, points, 4, 0, count));
+    this.sort(points, 4);
+  }
+
+  /**
+   * Replace the contents of the grid with the first {@code count} points in
+   * {@code points}, where each point is stored as three {@code binary64}
+   * values.
+   *
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public void rebuildFloat64(
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(points, "Points");
+    this.prepare(points, count, 8);
+    this.hashRange(points, 8, 0, count);
+    this.sort(points, 8);
+  }
+
+  /**
+   * Replace the contents of the grid with the first {@code count} points in
+   * {@code points}, as with {@link #rebuildFloat64(ByteBuffer, int)}, but
+   * quantize and hash the points in tasks of at most {@code 1024} points
+   * that are executed on {@code pool}.
+   *
+   * @param pool   The pool that will execute the tasks
+   * @param points The points
+   * @param count  The number of points
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   buffer is too small to hold {@code
+   *                                   count} points
+   */
+
+  public void rebuildFloat64Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer points,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(points, "Points");
+    this.prepare(points, count, 8);
+    pool.invoke(new HashAction(this, points, 8, 0, count));
+    this.sort(points, 8);
+  }
+
+  private void prepare(
+    final ByteBuffer points,
+    final int in_count,
+    final int component_size)
+  {
+    RangeChecks.checkBuffer(points, in_count, component_size * 3, "points");
+
+    if (in_count > this.point_indices.length) {
+      this.point_buckets = new int[in_count];
+      this.point_cells_unsorted = new int[in_count * 3];
+      this.point_cells = new int[in_count * 3];
+      this.point_positions = new double[in_count * 3];
+      this.point_indices = new int[in_count];
+    }
+    this.count = in_count;
+  }
+
+  private static double component(
+    final ByteBuffer points,
+    final int component_size,
+    final int index)
+  {
+    if (component_size == 4) {
+      return (double) points.getFloat(index * 4);
+    }
+    return points.getDouble(index * 8);
+  }
+
+  /*
+   * Quantize and hash the points [first, first + range). This may be called
+   * concurrently for disjoint ranges.
+   */
+
+  private void hashRange(
+    final ByteBuffer points,
+    final int component_size,
+    final int first,
+    final int range)
+  {
+    final int[] cells = this.point_cells_unsorted;
+    for (int index = first; index < first + range; ++index) {
+      final int offset = index * 3;
+      final int x = this.quantize(component(points, component_size, offset));
+      final int y = this.quantize(component(points, component_size, offset + 1));
+      final int z = this.quantize(component(points, component_size, offset + 2));
+      cells[offset] = x;
+      cells[offset + 1] = y;
+      cells[offset + 2] = z;
+      this.point_buckets[index] = this.bucket(x, y, z);
+    }
+  }
+
+  /*
+   * Counting sort the points by bucket.
+   */
+
+  private void sort(
+    final ByteBuffer points,
+    final int component_size)
+  {
+    final int[] starts = this.bucket_starts;
+    final int[] buckets = this.point_buckets;
+    final int bucket_count = this.bucket_mask + 1;
+
+    /*
+     * Count the points in each bucket into starts[b + 1], and then take the
+     * prefix sum so that starts[b] is the first point of bucket b.
+     */
+
+    for (int index = 0; index <= bucket_count; ++index) {
+      starts[index] = 0;
+    }
+    for (int index = 0; index < this.count; ++index) {
+      ++starts[buckets[index] + 1];
+    }
+    for (int index = 0; index < bucket_count; ++index) {
+      starts[index + 1] += starts[index];
+    }
+
+    /*
+     * Scatter the points, using starts[b] as the insertion cursor for bucket
+     * b. Afterwards, starts[b] is the first point of bucket b + 1, so the
+     * array is shifted back by one.
+     */
+
+    for (int index = 0; index < this.count; ++index) {
+      final int target = starts[buckets[index]]++;
+      final int offset = index * 3;
+      final int t_offset = target * 3;
+      this.point_indices[target] = index;
+      this.point_cells[t_offset] = this.point_cells_unsorted[offset];
+      this.point_cells[t_offset + 1] = this.point_cells_unsorted[offset + 1];
+      this.point_cells[t_offset + 2] = this.point_cells_unsorted[offset + 2];
+      this.point_positions[t_offset] =
+        component(points, component_size, offset);
+      this.point_positions[t_offset + 1] =
+        component(points, component_size, offset + 1);
+      this.point_positions[t_offset + 2] =
+        component(points, component_size, offset + 2);
+    }
+
+    System.arraycopy(starts, 0, starts, 1, bucket_count);
+    starts[0] = 0;
+  }
+
+  /*
+   * Calculate the number of cells in a non-empty range. The calculation is
+   * performed with doubles, as the number of cells in a range can exceed
+   * the range of a long.
+   */
+
+  private static double cellCount(
+    final int min_x,
+    final int min_y,
+    final int min_z,
+    final int max_x,
+    final int max_y,
+    final int max_z)
+  {
+    return ((double) ((long) max_x - (long) min_x + 1L))
+      * ((double) ((long) max_y - (long) min_y + 1L))
+      * ((double) ((long) max_z - (long) min_z + 1L));
+  }
+
+  /**
+   * Pass the index of every point in the cells in the inclusive range
+   * {@code [minimum, maximum]} to {@code receiver}. Each point is passed
+   * exactly once. The order in which points are passed is unspecified.
+   *
+   * @param minimum  The minimum cell
+   * @param maximum  The maximum cell
+   * @param receiver The receiver of point indices
+   */
+
+  public void forEachInCells(
+    final Vector3I minimum,
+    final Vector3I maximum,
+    final IntConsumer receiver)
+  {
+    NullCheck.notNull(minimum, "Minimum");
+    NullCheck.notNull(maximum, "Maximum");
+    NullCheck.notNull(receiver, "Receiver");
+
+    final int min_x = minimum.x();
+    final int min_y = minimum.y();
+    final int min_z = minimum.z();
+    final int max_x = maximum.x();
+    final int max_y = maximum.y();
+    final int max_z = maximum.z();
+
+    if (min_x > max_x || min_y > max_y || min_z > max_z) {
+      return;
+    }
+
+    /*
+     * If the range covers more cells than there are points, it is cheaper
+     * to examine every point.
+     */
+
+    if (cellCount(min_x, min_y, min_z, max_x, max_y, max_z)
+      > (double) this.count) {
+      for (int index = 0; index < this.count; ++index) {
+        final int offset = index * 3;
+        final int x = this.point_cells[offset];
+        final int y = this.point_cells[offset + 1];
+        final int z = this.point_cells[offset + 2];
+        if (x >= min_x && x <= max_x
+          && y >= min_y && y <= max_y
+          && z >= min_z && z <= max_z) {
+          receiver.accept(this.point_indices[index]);
+        }
+      }
+      return;
+    }
+
+    /*
+     * The loop counters are longs so that ranges ending at the maximum
+     * integer value terminate.
+     */
+
+    for (long cz = (long) min_z; cz <= (long) max_z; ++cz) {
+      for (long cy = (long) min_y; cy <= (long) max_y; ++cy) {
+        for (long cx = (long) min_x; cx <= (long) max_x; ++cx) {
+          final int x = (int) cx;
+          final int y = (int) cy;
+          final int z = (int) cz;
+          final int b = this.bucket(x, y, z);
+          final int end = this.bucket_starts[b + 1];
+          for (int index = this.bucket_starts[b]; index < end; ++index) {
+            final int offset = index * 3;
+            if (this.point_cells[offset] == x
+              && this.point_cells[offset + 1] == y
+              && this.point_cells[offset + 2] == z) {
+              receiver.accept(this.point_indices[index]);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Find all points in the cell {@code cell}.
+   *
+   * @param cell The cell
+   * @param out  The output point indices
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public int queryCell(
+    final Vector3I cell,
+    final int[] out)
+  {
+    NullCheck.notNull(cell, "Cell");
+    NullCheck.notNull(out, "Output");
+
+    final int x = cell.x();
+    final int y = cell.y();
+    final int z = cell.z();
+    final int b = this.bucket(x, y, z);
+    final int end = this.bucket_starts[b + 1];
+
+    int found = 0;
+    for (int index = this.bucket_starts[b]; index < end; ++index) {
+      final int offset = index * 3;
+      if (this.point_cells[offset] == x
+        && this.point_cells[offset + 1] == y
+        && this.point_cells[offset + 2] == z) {
+        if (found < out.length) {
+          out[found] = this.point_indices[index];
+        }
+        ++found;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Find all points within distance {@code radius} of {@code p}. Points at
+   * exactly distance {@code radius} are included, and a negative radius
+   * matches no points. Only the cells that overlap the bounding box of the
+   * query sphere are examined, so the query is cheapest when {@code radius}
+   * is not much larger than the cell size.
+   *
+   * @param p      The query point
+   * @param radius The query radius
+   * @param out    The output point indices
+   *
+   * @return The number of matching points, which may be greater than the
+   * length of {@code out} (in which case only the first {@code out.length}
+   * matches are written)
+   */
+
+  public int queryRadius(
+    final Vector3D p,
+    final double radius,
+    final int[] out)
+  {
+    NullCheck.notNull(p, "Point");
+    NullCheck.notNull(out, "Output");
+
+    final double px = p.x();
+    final double py = p.y();
+    final double pz = p.z();
+    if (radius < 0.0) {
+      return 0;
+    }
+
+    final double radius_squared = radius * radius;
+
+    final int min_x = this.quantize(px - radius);
+    final int min_y = this.quantize(py - radius);
+    final int min_z = this.quantize(pz - radius);
+    final int max_x = this.quantize(px + radius);
+    final int max_y = this.quantize(py + radius);
+    final int max_z = this.quantize(pz + radius);
+
+    int found = 0;
+    if (cellCount(min_x, min_y, min_z, max_x, max_y, max_z)
+      > (double) this.count) {
+      for (int index = 0; index < this.count; ++index) {
+        found = this.radiusCandidate(
+          index, px, py, pz, radius_squared, out, found);
+      }
+      return found;
+    }
+
+    for (long cz = (long) min_z; cz <= (long) max_z; ++cz) {
+      for (long cy = (long) min_y; cy <= (long) max_y; ++cy) {
+        for (long cx = (long) min_x; cx <= (long) max_x; ++cx) {
+          final int x = (int) cx;
+          final int y = (int) cy;
+          final int z = (int) cz;
+          final int b = this.bucket(x, y, z);
+          final int end = this.bucket_starts[b + 1];
+          for (int index = this.bucket_starts[b]; index < end; ++index) {
+            final int offset = index * 3;
+            if (this.point_cells[offset] == x
+              && this.point_cells[offset + 1] == y
+              && this.point_cells[offset + 2] == z) {
+              found = this.radiusCandidate(
+                index, px, py, pz, radius_squared, out, found);
+            }
+          }
+        }
+      }
+    }
+    return found;
+  }
+
+  private int radiusCandidate(
+    final int index,
+    final double px,
+    final double py,
+    final double pz,
+    final double radius_squared,
+    final int[] out,
+    final int found)
+  {
+    final int offset = index * 3;
+    final double dx = this.point_positions[offset] - px;
+    final double dy = this.point_positions[offset + 1] - py;
+    final double dz = this.point_positions[offset + 2] - pz;
+    if ((dx * dx) + (dy * dy) + (dz * dz) <= radius_squared) {
+      if (found < out.length) {
+        out[found] = this.point_indices[index];
+      }
+      return found + 1;
+    }
+    return found;
+  }
+
+  private static final class HashAction extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private final SpatialHashGrid3D grid;
+    private final ByteBuffer points;
+    private final int component_size;
+    private final int first;
+    private final int range;
+
+    HashAction(
+      final SpatialHashGrid3D in_grid,
+      final ByteBuffer in_points,
+      final int in_component_size,
+      final int in_first,
+      final int in_range)
+    {
+      this.grid = in_grid;
+      this.points = in_points;
+      this.component_size = in_component_size;
+      this.first = in_first;
+      this.range = in_range;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (this.range <= PARALLEL_THRESHOLD) {
+        this.grid.hashRange(
+          this.points, this.component_size, this.first, this.range);
+        return;
+      }
+
+      final int half = this.range / 2;
+      invokeAll(
+        new HashAction(
+          this.grid, this.points, this.component_size, this.first, half),
+        new HashAction(
+          this.grid,
+          this.points,
+          this.component_size,
+          this.first + half,
+          this.range - half));
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.api.quaternions;
+
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4F;
+
+/**
+ * <p>The type of mutable dual quaternions.</p>
+ *
+ * <p>A dual quaternion is stored as eight components: The {@code x}, {@code
+ * y}, {@code z}, and {@code w} components of the real part, followed by the
+ * {@code x}, {@code y}, {@code z}, and {@code w} components of the dual
+ * part.</p>
+ */
+
+public interface DualQuaternionStorage4Type
+{
+  /**
+   * @return The {@code x} component of the real part
+   */
+
+  double realX();
+
+  /**
+   * @return The {@code y} component of the real part
+   */
+
+  double realY();
+
+  /**
+   * @return The {@code z} component of the real part
+   */
+
+  double realZ();
+
+  /**
+   * @return The {@code w} component of the real part
+   */
+
+  double realW();
+
+  /**
+   * @return The {@code x} component of the dual part
+   */
+
+  double dualX();
+
+  /**
+   * @return The {@code y} component of the dual part
+   */
+
+  double dualY();
+
+  /**
+   * @return The {@code z} component of the dual part
+   */
+
+  double dualZ();
+
+  /**
+   * @return The {@code w} component of the dual part
+   */
+
+  double dualW();
+
+  /**
+   * Set the components of the real part.
+   *
+   * @param x The X component
+   * @param y The Y component
+   * @param z The Z component
+   * @param w The W component
+   */
+
+  void setRealXYZW(
+    double x,
+    double y,
+    double z,
+    double w);
+
+  /**
+   * Set the components of the dual part.
+   *
+   * @param x The X component
+   * @param y The Y component
+   * @param z The Z component
+   * @param w The W component
+   */
+
+  void setDualXYZW(
+    double x,
+    double y,
+    double z,
+    double w);
+
+  /**
+   * Set the components from the given dual quaternion.
+   *
+   * @param q The source dual quaternion
+   */
+
+  void setDualQuaternion4D(
+    DualQuaternion4D q);
+
+  /**
+   * Set the components from the given dual quaternion.
+   *
+   * @param q The source dual quaternion
+   */
+
+  void setDualQuaternion4F(
+    DualQuaternion4F q);
+}
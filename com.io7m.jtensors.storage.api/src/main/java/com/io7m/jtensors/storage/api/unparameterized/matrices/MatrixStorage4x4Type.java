@@ -19,6 +19,7 @@ package com.io7m.jtensors.storage.api.unparameterized.matrices;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
 import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixWritable4x4DType;
 import com.io7m.jtensors.storage.api.MatrixStorageType;
 
 /**
@@ -26,7 +27,7 @@ import com.io7m.jtensors.storage.api.MatrixStorageType;
  */
 
 public interface MatrixStorage4x4Type
-  extends MatrixReadable4x4DType, MatrixStorageType
+  extends MatrixReadable4x4DType, MatrixWritable4x4DType, MatrixStorageType
 {
   /**
    * Set the components from the given matrix.
@@ -19,13 +19,14 @@ package com.io7m.jtensors.storage.api.unparameterized.vectors;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector4F;
 import com.io7m.jtensors.core.unparameterized.vectors.VectorReadable4DType;
+import com.io7m.jtensors.core.unparameterized.vectors.VectorWritable4DType;
 
 /**
  * The type of mutable 4D floating point number vectors.
  */
 
 public interface VectorStorageFloating4Type
-  extends VectorReadable4DType, VectorStorageFloating3Type
+  extends VectorReadable4DType, VectorWritable4DType, VectorStorageFloating3Type
 {
   /**
    * Set the components from the given vector.
@@ -69,6 +70,7 @@ public interface VectorStorageFloating4Type
    * @param w The W component
    */
 
+  @Override
   default void setXYZW(
     final double x,
     final double y,
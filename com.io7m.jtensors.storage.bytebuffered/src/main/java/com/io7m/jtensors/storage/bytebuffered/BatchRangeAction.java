@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>An action that applies a range function to a range of elements,
+ * recursively splitting the range in half until each part contains at most
+ * {@code threshold} elements.</p>
+ *
+ * <p>The range is assumed to have been bounds checked in full before the
+ * action is submitted.</p>
+ */
+
+final class BatchRangeAction extends RecursiveAction
+{
+  private static final long serialVersionUID = 1L;
+
+  private final BatchRangeFunctionType function;
+  private final int first;
+  private final int count;
+  private final int threshold;
+
+  BatchRangeAction(
+    final BatchRangeFunctionType in_function,
+    final int in_first,
+    final int in_count,
+    final int in_threshold)
+  {
+    this.function = NullCheck.notNull(in_function, "Function");
+    this.first = in_first;
+    this.count = in_count;
+    this.threshold = Math.max(1, in_threshold);
+  }
+
+  @Override
+  protected void compute()
+  {
+    if (this.count <= this.threshold) {
+      this.function.apply(this.first, this.count);
+      return;
+    }
+
+    final int half = this.count / 2;
+    invokeAll(
+      new BatchRangeAction(
+        this.function, this.first, half, this.threshold),
+      new BatchRangeAction(
+        this.function, this.first + half, this.count - half, this.threshold));
+  }
+}
@@ -32,6 +32,13 @@ final class ColumnMajor
     return (column * 4) + row;
   }
 
+  static int index3x4(
+    final int row,
+    final int column)
+  {
+    return (column * 3) + row;
+  }
+
   static int index3x3(
     final int row,
     final int column)
@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.storage.api.quaternions.DualQuaternionStorage4Type;
+
+/**
+ * The type of byte buffer backed dual quaternions.
+ */
+
+public interface DualQuaternionByteBuffered4Type
+  extends DualQuaternionStorage4Type, TensorByteBufferedType
+{
+  /**
+   * Read all of the components of the dual quaternion. The bounds of the
+   * dual quaternion are checked once, rather than once per component.
+   *
+   * @return The current value of the dual quaternion
+   */
+
+  DualQuaternion4D getDualQuaternion4D();
+}
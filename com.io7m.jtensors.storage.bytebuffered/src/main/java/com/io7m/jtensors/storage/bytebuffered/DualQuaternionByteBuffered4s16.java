@@ -0,0 +1,201 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4F;
+import com.io7m.jtensors.core.quaternions.Quaternion4D;
+import com.io7m.mutable.numbers.core.MutableLongType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>A storage dual quaternion.</p>
+ * <p>Storage component type: {@code binary16}</p>
+ * <p>Storage component count: {@code 8}</p>
+ */
+
+public final class DualQuaternionByteBuffered4s16
+  extends TensorByteBufferedFloating16
+  implements DualQuaternionByteBuffered4Type
+{
+  private DualQuaternionByteBuffered4s16(
+    final ByteBuffer in_buffer,
+    final MutableLongType in_base,
+    final int in_offset)
+  {
+    super(in_buffer, in_base, in_offset);
+  }
+
+  /**
+   * <p>Return a new dual quaternion that is backed by the given byte buffer
+   * {@code b}</p>
+   *
+   * <p>The data for the instance will be taken from the data at the current
+   * value of {@code base.get() + offset}, each time a field is requested or
+   * set.</p>
+   *
+   * <p>No initialization of the data is performed.</p>
+   *
+   * @param b      The byte buffer
+   * @param base   The base address
+   * @param offset A constant offset
+   *
+   * @return A new buffered dual quaternion
+   */
+
+  public static DualQuaternionByteBuffered4s16 createWithBase(
+    final ByteBuffer b,
+    final MutableLongType base,
+    final int offset)
+  {
+    return new DualQuaternionByteBuffered4s16(b, base, offset);
+  }
+
+  @Override
+  protected int componentCount()
+  {
+    return 8;
+  }
+
+  @Override
+  public double realX()
+  {
+    return this.getValue(0);
+  }
+
+  @Override
+  public double realY()
+  {
+    return this.getValue(1);
+  }
+
+  @Override
+  public double realZ()
+  {
+    return this.getValue(2);
+  }
+
+  @Override
+  public double realW()
+  {
+    return this.getValue(3);
+  }
+
+  @Override
+  public double dualX()
+  {
+    return this.getValue(4);
+  }
+
+  @Override
+  public double dualY()
+  {
+    return this.getValue(5);
+  }
+
+  @Override
+  public double dualZ()
+  {
+    return this.getValue(6);
+  }
+
+  @Override
+  public double dualW()
+  {
+    return this.getValue(7);
+  }
+
+  @Override
+  public void setRealXYZW(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+    this.putValueAt(offset, 2, z);
+    this.putValueAt(offset, 3, w);
+  }
+
+  @Override
+  public void setDualXYZW(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 4, x);
+    this.putValueAt(offset, 5, y);
+    this.putValueAt(offset, 6, z);
+    this.putValueAt(offset, 7, w);
+  }
+
+  @Override
+  public void setDualQuaternion4D(
+    final DualQuaternion4D q)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, q.real().x());
+    this.putValueAt(offset, 1, q.real().y());
+    this.putValueAt(offset, 2, q.real().z());
+    this.putValueAt(offset, 3, q.real().w());
+    this.putValueAt(offset, 4, q.dual().x());
+    this.putValueAt(offset, 5, q.dual().y());
+    this.putValueAt(offset, 6, q.dual().z());
+    this.putValueAt(offset, 7, q.dual().w());
+  }
+
+  @Override
+  public void setDualQuaternion4F(
+    final DualQuaternion4F q)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, (double) q.real().x());
+    this.putValueAt(offset, 1, (double) q.real().y());
+    this.putValueAt(offset, 2, (double) q.real().z());
+    this.putValueAt(offset, 3, (double) q.real().w());
+    this.putValueAt(offset, 4, (double) q.dual().x());
+    this.putValueAt(offset, 5, (double) q.dual().y());
+    this.putValueAt(offset, 6, (double) q.dual().z());
+    this.putValueAt(offset, 7, (double) q.dual().w());
+  }
+
+  @Override
+  public DualQuaternion4D getDualQuaternion4D()
+  {
+    final int offset = this.byteOffsetChecked();
+    return DualQuaternion4D.of(
+      Quaternion4D.of(
+        this.getValueAt(offset, 0),
+        this.getValueAt(offset, 1),
+        this.getValueAt(offset, 2),
+        this.getValueAt(offset, 3)),
+      Quaternion4D.of(
+        this.getValueAt(offset, 4),
+        this.getValueAt(offset, 5),
+        this.getValueAt(offset, 6),
+        this.getValueAt(offset, 7)));
+  }
+}
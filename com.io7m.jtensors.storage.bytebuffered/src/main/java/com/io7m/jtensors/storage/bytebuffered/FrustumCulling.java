@@ -0,0 +1,791 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrixReadable4x4DType;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Frustum plane extraction and batch frustum culling functions.</p>
+ *
+ * <p>A frustum is represented by six planes stored in a {@code double} array
+ * of (at least) {@code 24} elements, in the order {@code left, right, bottom,
+ * top, near, far}. Each plane occupies four consecutive elements {@code (a,
+ * b, c, d)} such that a point {@code p} lies on the inside of the plane iff
+ * {@code a * p.x + b * p.y + c * p.z + d >= 0}. The normal {@code (a, b, c)}
+ * of each plane is normalized, so the expression gives the signed distance
+ * of {@code p} from the plane.</p>
+ *
+ * <p>The culling functions test bounding volumes against a set of planes.
+ * The tests are conservative: A volume that is reported as invisible lies
+ * entirely outside of at least one plane, but a volume that is reported as
+ * visible may, in rare cases near the corners of the frustum, lie entirely
+ * outside the frustum. Each culling function is provided for volumes stored
+ * in byte buffers and for volumes stored as separate {@code float} arrays
+ * per component (<i>structure of arrays</i>). The byte buffer forms expect
+ * volumes to be tightly packed starting at byte {@code 0}, with each
+ * component stored as a {@code binary32} value in the byte order of the
+ * buffer:</p>
+ *
+ * <ul>
+ *   <li>Spheres are stored as {@code (x, y, z, radius)}, occupying {@code 16}
+ *   bytes, using the same layout as {@link VectorByteBufferedFloating4s32}.</li>
+ *   <li>Axis-aligned bounding boxes are stored as {@code (min_x, min_y,
+ *   min_z, max_x, max_y, max_z)}, occupying {@code 24} bytes.</li>
+ * </ul>
+ *
+ * <p>The results are delivered either as a bitset, where bit {@code i % 64}
+ * of element {@code i / 64} of a {@code long} array is set iff volume {@code
+ * i} is visible, or as a compacted list of the indices of the visible
+ * volumes, in increasing order. All capacity checks are performed once,
+ * before any volume is processed, and none of the culling functions
+ * allocate.</p>
+ */
+
+public final class FrustumCulling
+{
+  private static final int PLANE_COUNT = 6;
+  private static final int PLANES_ELEMENTS = PLANE_COUNT * 4;
+  private static final int SPHERE_BYTES = 16;
+  private static final int AABB_BYTES = 24;
+
+  private FrustumCulling()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The number of array elements required to hold a set of frustum
+   * planes
+   */
+
+  public static int planesSizeElements()
+  {
+    return PLANES_ELEMENTS;
+  }
+
+  /**
+   * @return The size in bytes of a single bounding sphere
+   */
+
+  public static int sphereSizeBytes()
+  {
+    return SPHERE_BYTES;
+  }
+
+  /**
+   * @return The size in bytes of a single axis-aligned bounding box
+   */
+
+  public static int aabbSizeBytes()
+  {
+    return AABB_BYTES;
+  }
+
+  /**
+   * @param count The number of volumes
+   *
+   * @return The number of {@code long} elements required to hold a bitset of
+   * {@code count} volumes
+   */
+
+  public static int bitsetSizeElements(
+    final int count)
+  {
+    RangeChecks.checkCount(count);
+    return (count + 63) >>> 6;
+  }
+
+  /**
+   * <p>Extract the frustum planes of the combined view and projection matrix
+   * {@code m}, writing them to {@code out}.</p>
+   *
+   * <p>The planes are extracted using the method described in "Fast
+   * Extraction of Viewing Frustum Planes from the World-View-Projection
+   * Matrix" by Gil Gribb and Klaus Hartmann. The matrix is expected to
+   * transform column vectors, and to produce clip coordinates where visible
+   * points satisfy {@code -w <= x, y, z <= w}, as with OpenGL. If {@code m}
+   * is a projection matrix alone, the planes are expressed in eye space; if
+   * {@code m} is the product of a projection and a view matrix, the planes
+   * are expressed in world space.</p>
+   *
+   * @param m   The view-projection matrix
+   * @param out The output planes
+   *
+   * @throws IndexOutOfBoundsException If {@code out} has fewer than {@link
+   *                                   #planesSizeElements()} elements
+   */
+
+  public static void extractPlanes(
+    final MatrixReadable4x4DType m,
+    final double[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(out, "Output");
+    checkPlanes(out);
+
+    extractPlanesComponents(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      m.r3c0(), m.r3c1(), m.r3c2(), m.r3c3(),
+      out);
+  }
+
+  /**
+   * Extract the frustum planes of the combined view and projection matrix
+   * {@code m}, writing them to {@code out}. This function behaves exactly as
+   * {@link #extractPlanes(MatrixReadable4x4DType, double[])}.
+   *
+   * @param m   The view-projection matrix
+   * @param out The output planes
+   *
+   * @throws IndexOutOfBoundsException If {@code out} has fewer than {@link
+   *                                   #planesSizeElements()} elements
+   */
+
+  public static void extractPlanes(
+    final PMatrixReadable4x4DType<?, ?> m,
+    final double[] out)
+    throws IndexOutOfBoundsException
+  {
+    extractPlanes((MatrixReadable4x4DType) m, out);
+  }
+
+  /**
+   * Cull {@code count} bounding spheres against the given planes, writing
+   * the results to the bitset {@code out}. All of the first {@link
+   * #bitsetSizeElements(int)} elements of {@code out} are overwritten.
+   *
+   * @param planes  The frustum planes
+   * @param spheres The bounding spheres
+   * @param count   The number of spheres
+   * @param out     The output bitset
+   *
+   * @return The number of visible spheres
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullSpheres(
+    final double[] planes,
+    final ByteBuffer spheres,
+    final int count,
+    final long[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(spheres, "Spheres");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    RangeChecks.checkBuffer(spheres, count, SPHERE_BYTES, "spheres");
+    checkBitset(out, count);
+
+    int visible = 0;
+    long word = 0L;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * SPHERE_BYTES;
+      if (sphereVisible(
+        planes,
+        (double) spheres.getFloat(offset),
+        (double) spheres.getFloat(offset + 4),
+        (double) spheres.getFloat(offset + 8),
+        (double) spheres.getFloat(offset + 12))) {
+        word |= 1L << (index & 63);
+        ++visible;
+      }
+      if ((index & 63) == 63) {
+        out[index >>> 6] = word;
+        word = 0L;
+      }
+    }
+    if ((count & 63) != 0) {
+      out[count >>> 6] = word;
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} bounding spheres against the given planes, writing
+   * the indices of the visible spheres to {@code out}.
+   *
+   * @param planes  The frustum planes
+   * @param spheres The bounding spheres
+   * @param count   The number of spheres
+   * @param out     The output indices
+   *
+   * @return The number of visible spheres, and therefore the number of
+   * indices written to {@code out}
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullSpheresIndexed(
+    final double[] planes,
+    final ByteBuffer spheres,
+    final int count,
+    final int[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(spheres, "Spheres");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    RangeChecks.checkBuffer(spheres, count, SPHERE_BYTES, "spheres");
+    checkIndices(out, count);
+
+    int visible = 0;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * SPHERE_BYTES;
+      if (sphereVisible(
+        planes,
+        (double) spheres.getFloat(offset),
+        (double) spheres.getFloat(offset + 4),
+        (double) spheres.getFloat(offset + 8),
+        (double) spheres.getFloat(offset + 12))) {
+        out[visible] = index;
+        ++visible;
+      }
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} bounding spheres against the given planes, writing
+   * the results to the bitset {@code out}. All of the first {@link
+   * #bitsetSizeElements(int)} elements of {@code out} are overwritten.
+   *
+   * @param planes The frustum planes
+   * @param x      The X components of the sphere centers
+   * @param y      The Y components of the sphere centers
+   * @param z      The Z components of the sphere centers
+   * @param radius The sphere radii
+   * @param count  The number of spheres
+   * @param out    The output bitset
+   *
+   * @return The number of visible spheres
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullSpheres(
+    final double[] planes,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] radius,
+    final int count,
+    final long[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(radius, "Radius");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(radius, count);
+    checkBitset(out, count);
+
+    int visible = 0;
+    long word = 0L;
+    for (int index = 0; index < count; ++index) {
+      if (sphereVisible(
+        planes,
+        (double) x[index],
+        (double) y[index],
+        (double) z[index],
+        (double) radius[index])) {
+        word |= 1L << (index & 63);
+        ++visible;
+      }
+      if ((index & 63) == 63) {
+        out[index >>> 6] = word;
+        word = 0L;
+      }
+    }
+    if ((count & 63) != 0) {
+      out[count >>> 6] = word;
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} bounding spheres against the given planes, writing
+   * the indices of the visible spheres to {@code out}.
+   *
+   * @param planes The frustum planes
+   * @param x      The X components of the sphere centers
+   * @param y      The Y components of the sphere centers
+   * @param z      The Z components of the sphere centers
+   * @param radius The sphere radii
+   * @param count  The number of spheres
+   * @param out    The output indices
+   *
+   * @return The number of visible spheres, and therefore the number of
+   * indices written to {@code out}
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullSpheresIndexed(
+    final double[] planes,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] radius,
+    final int count,
+    final int[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(radius, "Radius");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(radius, count);
+    checkIndices(out, count);
+
+    int visible = 0;
+    for (int index = 0; index < count; ++index) {
+      if (sphereVisible(
+        planes,
+        (double) x[index],
+        (double) y[index],
+        (double) z[index],
+        (double) radius[index])) {
+        out[visible] = index;
+        ++visible;
+      }
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} axis-aligned bounding boxes against the given planes,
+   * writing the results to the bitset {@code out}. All of the first {@link
+   * #bitsetSizeElements(int)} elements of {@code out} are overwritten.
+   *
+   * @param planes The frustum planes
+   * @param boxes  The bounding boxes
+   * @param count  The number of boxes
+   * @param out    The output bitset
+   *
+   * @return The number of visible boxes
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullAABBs(
+    final double[] planes,
+    final ByteBuffer boxes,
+    final int count,
+    final long[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(boxes, "Boxes");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    RangeChecks.checkBuffer(boxes, count, AABB_BYTES, "boxes");
+    checkBitset(out, count);
+
+    int visible = 0;
+    long word = 0L;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * AABB_BYTES;
+      if (aabbVisible(
+        planes,
+        (double) boxes.getFloat(offset),
+        (double) boxes.getFloat(offset + 4),
+        (double) boxes.getFloat(offset + 8),
+        (double) boxes.getFloat(offset + 12),
+        (double) boxes.getFloat(offset + 16),
+        (double) boxes.getFloat(offset + 20))) {
+        word |= 1L << (index & 63);
+        ++visible;
+      }
+      if ((index & 63) == 63) {
+        out[index >>> 6] = word;
+        word = 0L;
+      }
+    }
+    if ((count & 63) != 0) {
+      out[count >>> 6] = word;
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} axis-aligned bounding boxes against the given planes,
+   * writing the indices of the visible boxes to {@code out}.
+   *
+   * @param planes The frustum planes
+   * @param boxes  The bounding boxes
+   * @param count  The number of boxes
+   * @param out    The output indices
+   *
+   * @return The number of visible boxes, and therefore the number of indices
+   * written to {@code out}
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullAABBsIndexed(
+    final double[] planes,
+    final ByteBuffer boxes,
+    final int count,
+    final int[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(boxes, "Boxes");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    RangeChecks.checkBuffer(boxes, count, AABB_BYTES, "boxes");
+    checkIndices(out, count);
+
+    int visible = 0;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * AABB_BYTES;
+      if (aabbVisible(
+        planes,
+        (double) boxes.getFloat(offset),
+        (double) boxes.getFloat(offset + 4),
+        (double) boxes.getFloat(offset + 8),
+        (double) boxes.getFloat(offset + 12),
+        (double) boxes.getFloat(offset + 16),
+        (double) boxes.getFloat(offset + 20))) {
+        out[visible] = index;
+        ++visible;
+      }
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} axis-aligned bounding boxes against the given planes,
+   * writing the results to the bitset {@code out}. All of the first {@link
+   * #bitsetSizeElements(int)} elements of {@code out} are overwritten.
+   *
+   * @param planes The frustum planes
+   * @param min_x  The minimum X components of the boxes
+   * @param min_y  The minimum Y components of the boxes
+   * @param min_z  The minimum Z components of the boxes
+   * @param max_x  The maximum X components of the boxes
+   * @param max_y  The maximum Y components of the boxes
+   * @param max_z  The maximum Z components of the boxes
+   * @param count  The number of boxes
+   * @param out    The output bitset
+   *
+   * @return The number of visible boxes
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullAABBs(
+    final double[] planes,
+    final float[] min_x,
+    final float[] min_y,
+    final float[] min_z,
+    final float[] max_x,
+    final float[] max_y,
+    final float[] max_z,
+    final int count,
+    final long[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    checkBoxArrays(min_x, min_y, min_z, max_x, max_y, max_z, count);
+    checkBitset(out, count);
+
+    int visible = 0;
+    long word = 0L;
+    for (int index = 0; index < count; ++index) {
+      if (aabbVisible(
+        planes,
+        (double) min_x[index],
+        (double) min_y[index],
+        (double) min_z[index],
+        (double) max_x[index],
+        (double) max_y[index],
+        (double) max_z[index])) {
+        word |= 1L << (index & 63);
+        ++visible;
+      }
+      if ((index & 63) == 63) {
+        out[index >>> 6] = word;
+        word = 0L;
+      }
+    }
+    if ((count & 63) != 0) {
+      out[count >>> 6] = word;
+    }
+    return visible;
+  }
+
+  /**
+   * Cull {@code count} axis-aligned bounding boxes against the given planes,
+   * writing the indices of the visible boxes to {@code out}.
+   *
+   * @param planes The frustum planes
+   * @param min_x  The minimum X components of the boxes
+   * @param min_y  The minimum Y components of the boxes
+   * @param min_z  The minimum Z components of the boxes
+   * @param max_x  The maximum X components of the boxes
+   * @param max_y  The maximum Y components of the boxes
+   * @param max_z  The maximum Z components of the boxes
+   * @param count  The number of boxes
+   * @param out    The output indices
+   *
+   * @return The number of visible boxes, and therefore the number of indices
+   * written to {@code out}
+   *
+   * @throws IndexOutOfBoundsException If any of the arguments are too small
+   *                                   to hold {@code count} elements
+   */
+
+  public static int cullAABBsIndexed(
+    final double[] planes,
+    final float[] min_x,
+    final float[] min_y,
+    final float[] min_z,
+    final float[] max_x,
+    final float[] max_y,
+    final float[] max_z,
+    final int count,
+    final int[] out)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(planes, "Planes");
+    NullCheck.notNull(out, "Output");
+
+    checkPlanes(planes);
+    checkBoxArrays(min_x, min_y, min_z, max_x, max_y, max_z, count);
+    checkIndices(out, count);
+
+    int visible = 0;
+    for (int index = 0; index < count; ++index) {
+      if (aabbVisible(
+        planes,
+        (double) min_x[index],
+        (double) min_y[index],
+        (double) min_z[index],
+        (double) max_x[index],
+        (double) max_y[index],
+        (double) max_z[index])) {
+        out[visible] = index;
+        ++visible;
+      }
+    }
+    return visible;
+  }
+
+  private static void extractPlanesComponents(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final double r3c0,
+    final double r3c1,
+    final double r3c2,
+    final double r3c3,
+    final double[] out)
+  {
+    setPlane(out, 0, r3c0 + r0c0, r3c1 + r0c1, r3c2 + r0c2, r3c3 + r0c3);
+    setPlane(out, 1, r3c0 - r0c0, r3c1 - r0c1, r3c2 - r0c2, r3c3 - r0c3);
+    setPlane(out, 2, r3c0 + r1c0, r3c1 + r1c1, r3c2 + r1c2, r3c3 + r1c3);
+    setPlane(out, 3, r3c0 - r1c0, r3c1 - r1c1, r3c2 - r1c2, r3c3 - r1c3);
+    setPlane(out, 4, r3c0 + r2c0, r3c1 + r2c1, r3c2 + r2c2, r3c3 + r2c3);
+    setPlane(out, 5, r3c0 - r2c0, r3c1 - r2c1, r3c2 - r2c2, r3c3 - r2c3);
+  }
+
+  private static void setPlane(
+    final double[] out,
+    final int plane,
+    final double a,
+    final double b,
+    final double c,
+    final double d)
+  {
+    final double m = Math.sqrt((a * a) + (b * b) + (c * c));
+    final double r = m > 0.0 ? 1.0 / m : 1.0;
+    final int offset = plane * 4;
+    out[offset] = a * r;
+    out[offset + 1] = b * r;
+    out[offset + 2] = c * r;
+    out[offset + 3] = d * r;
+  }
+
+  private static boolean sphereVisible(
+    final double[] planes,
+    final double x,
+    final double y,
+    final double z,
+    final double radius)
+  {
+    for (int offset = 0; offset < PLANES_ELEMENTS; offset += 4) {
+      final double distance =
+        (planes[offset] * x)
+          + (planes[offset + 1] * y)
+          + (planes[offset + 2] * z)
+          + planes[offset + 3];
+      if (distance < -radius) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean aabbVisible(
+    final double[] planes,
+    final double min_x,
+    final double min_y,
+    final double min_z,
+    final double max_x,
+    final double max_y,
+    final double max_z)
+  {
+    final double c_x = (min_x + max_x) * 0.5;
+    final double c_y = (min_y + max_y) * 0.5;
+    final double c_z = (min_z + max_z) * 0.5;
+    final double e_x = (max_x - min_x) * 0.5;
+    final double e_y = (max_y - min_y) * 0.5;
+    final double e_z = (max_z - min_z) * 0.5;
+
+    /*
+     * The box is outside a plane iff the distance of its center from the
+     * plane is less than the negated extent of the box projected onto the
+     * plane normal.
+     */
+
+    for (int offset = 0; offset < PLANES_ELEMENTS; offset += 4) {
+      final double a = planes[offset];
+      final double b = planes[offset + 1];
+      final double c = planes[offset + 2];
+      final double distance = (a * c_x) + (b * c_y) + (c * c_z) + planes[offset + 3];
+      final double extent =
+        (e_x * Math.abs(a)) + (e_y * Math.abs(b)) + (e_z * Math.abs(c));
+      if (distance < -extent) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void checkPlanes(
+    final double[] planes)
+  {
+    if (planes.length < PLANES_ELEMENTS) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Plane array of length %d is too small to hold %d planes (%d elements required)",
+        Integer.valueOf(planes.length),
+        Integer.valueOf(PLANE_COUNT),
+        Integer.valueOf(PLANES_ELEMENTS)));
+    }
+  }
+
+  private static void checkCapacity(
+    final float[] array,
+    final int count)
+  {
+    RangeChecks.checkArray(array.length, count, 1, "elements");
+  }
+
+  private static void checkBoxArrays(
+    final float[] min_x,
+    final float[] min_y,
+    final float[] min_z,
+    final float[] max_x,
+    final float[] max_y,
+    final float[] max_z,
+    final int count)
+  {
+    checkCapacity(NullCheck.notNull(min_x, "Minimum X"), count);
+    checkCapacity(NullCheck.notNull(min_y, "Minimum Y"), count);
+    checkCapacity(NullCheck.notNull(min_z, "Minimum Z"), count);
+    checkCapacity(NullCheck.notNull(max_x, "Maximum X"), count);
+    checkCapacity(NullCheck.notNull(max_y, "Maximum Y"), count);
+    checkCapacity(NullCheck.notNull(max_z, "Maximum Z"), count);
+  }
+
+  private static void checkBitset(
+    final long[] out,
+    final int count)
+  {
+    final int required = bitsetSizeElements(count);
+    if (required > out.length) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Bitset of length %d is too small to hold %d bits (%d elements required)",
+        Integer.valueOf(out.length),
+        Integer.valueOf(count),
+        Integer.valueOf(required)));
+    }
+  }
+
+  private static void checkIndices(
+    final int[] out,
+    final int count)
+  {
+    RangeChecks.checkCount(count);
+
+    if (count > out.length) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Index array of length %d is too small to hold %d indices",
+        Integer.valueOf(out.length),
+        Integer.valueOf(count)));
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Batch functions over arrays of 4x4 matrices stored in byte buffers.</p>
+ *
+ * <p>The matrices are expected to be tightly packed, starting at byte
+ * {@code 0} of each buffer, using the same column-major {@code double}
+ * layout as {@link MatrixByteBuffered4x4s64}. Each matrix therefore occupies
+ * {@code 128} bytes. The byte order of each buffer is respected.</p>
+ *
+ * <p>None of the functions in this class allocate.</p>
+ */
+
+public final class Matrices4x4DBatch
+{
+  private static final int COMPONENT_BYTES = 8;
+  private static final int COLUMN_BYTES = 4 * COMPONENT_BYTES;
+  private static final int MATRIX_BYTES = 4 * COLUMN_BYTES;
+
+  private Matrices4x4DBatch()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The size in bytes of a single matrix
+   */
+
+  public static int matrixSizeBytes()
+  {
+    return MATRIX_BYTES;
+  }
+
+  /**
+   * <p>Multiply {@code count} pairs of matrices. For each {@code i} in
+   * {@code [0, count)}, the matrix at index {@code i} in {@code out} is
+   * set to {@code a[i] * b[i]}.</p>
+   *
+   * <p>The buffer {@code out} may be the same buffer as {@code a} and/or
+   * {@code b}, in which case the multiplication happens in place.</p>
+   *
+   * @param a     The left matrices
+   * @param b     The right matrices
+   * @param out   The output matrices
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} matrices
+   */
+
+  public static void multiply(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(a, count, MATRIX_BYTES, "matrices");
+    RangeChecks.checkBuffer(b, count, MATRIX_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, MATRIX_BYTES, "matrices");
+
+    for (int index = 0; index < count; ++index) {
+      multiplyOne(a, b, out, index * MATRIX_BYTES);
+    }
+  }
+
+  /*
+   * The left matrix is read in full before any output is written, and each
+   * output column depends only on the same column of the right matrix, so
+   * the output may safely alias either input.
+   */
+
+  private static void multiplyOne(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final ByteBuffer out,
+    final int offset)
+  {
+    final double a_r0c0 = a.getDouble(offset);
+    final double a_r1c0 = a.getDouble(offset + 8);
+    final double a_r2c0 = a.getDouble(offset + 16);
+    final double a_r3c0 = a.getDouble(offset + 24);
+    final double a_r0c1 = a.getDouble(offset + 32);
+    final double a_r1c1 = a.getDouble(offset + 40);
+    final double a_r2c1 = a.getDouble(offset + 48);
+    final double a_r3c1 = a.getDouble(offset + 56);
+    final double a_r0c2 = a.getDouble(offset + 64);
+    final double a_r1c2 = a.getDouble(offset + 72);
+    final double a_r2c2 = a.getDouble(offset + 80);
+    final double a_r3c2 = a.getDouble(offset + 88);
+    final double a_r0c3 = a.getDouble(offset + 96);
+    final double a_r1c3 = a.getDouble(offset + 104);
+    final double a_r2c3 = a.getDouble(offset + 112);
+    final double a_r3c3 = a.getDouble(offset + 120);
+
+    for (int column = 0; column < 4; ++column) {
+      final int column_offset = offset + (column * COLUMN_BYTES);
+      final double b0 = b.getDouble(column_offset);
+      final double b1 = b.getDouble(column_offset + 8);
+      final double b2 = b.getDouble(column_offset + 16);
+      final double b3 = b.getDouble(column_offset + 24);
+
+      out.putDouble(column_offset, (a_r0c0 * b0) + (a_r0c1 * b1) + (a_r0c2 * b2) + (a_r0c3 * b3));
+      out.putDouble(column_offset + 8, (a_r1c0 * b0) + (a_r1c1 * b1) + (a_r1c2 * b2) + (a_r1c3 * b3));
+      out.putDouble(column_offset + 16, (a_r2c0 * b0) + (a_r2c1 * b1) + (a_r2c2 * b2) + (a_r2c3 * b3));
+      out.putDouble(column_offset + 24, (a_r3c0 * b0) + (a_r3c1 * b1) + (a_r3c2 * b2) + (a_r3c3 * b3));
+    }
+  }
+}
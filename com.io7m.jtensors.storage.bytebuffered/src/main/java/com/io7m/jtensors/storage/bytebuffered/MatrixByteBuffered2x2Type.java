@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2D;
 import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage2x2Type;
 
 /**
@@ -25,5 +26,12 @@ import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage2x2Ty
 public interface MatrixByteBuffered2x2Type
   extends MatrixStorage2x2Type, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  Matrix2x2D getMatrix2x2D();
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3D;
 import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage3x3Type;
 
 /**
@@ -25,5 +26,12 @@ import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage3x3Ty
 public interface MatrixByteBuffered3x3Type
   extends MatrixStorage3x3Type, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  Matrix3x3D getMatrix3x3D();
 }
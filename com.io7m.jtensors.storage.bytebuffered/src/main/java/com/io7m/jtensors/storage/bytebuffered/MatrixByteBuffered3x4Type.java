@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x4D;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage3x4Type;
+
+/**
+ * The type of byte buffer backed 3x4 affine matrices.
+ */
+
+public interface MatrixByteBuffered3x4Type
+  extends MatrixStorage3x4Type, MatrixByteBufferedType
+{
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  Matrix3x4D getMatrix3x4D();
+}
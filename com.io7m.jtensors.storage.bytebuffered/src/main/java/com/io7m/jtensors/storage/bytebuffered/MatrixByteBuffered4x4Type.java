@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
 import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage4x4Type;
 
 /**
@@ -25,5 +26,12 @@ import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage4x4Ty
 public interface MatrixByteBuffered4x4Type
   extends MatrixStorage4x4Type, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  Matrix4x4D getMatrix4x4D();
 }
@@ -170,48 +170,120 @@ public final class MatrixByteBuffered4x4s32
   @Override
   public void setMatrix4x4D(final Matrix4x4D m)
   {
-    this.putValue(ColumnMajor.index4x4(0, 0), m.r0c0());
-    this.putValue(ColumnMajor.index4x4(0, 1), m.r0c1());
-    this.putValue(ColumnMajor.index4x4(0, 2), m.r0c2());
-    this.putValue(ColumnMajor.index4x4(0, 3), m.r0c3());
-
-    this.putValue(ColumnMajor.index4x4(1, 0), m.r1c0());
-    this.putValue(ColumnMajor.index4x4(1, 1), m.r1c1());
-    this.putValue(ColumnMajor.index4x4(1, 2), m.r1c2());
-    this.putValue(ColumnMajor.index4x4(1, 3), m.r1c3());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 0), m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 1), m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 2), m.r0c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 3), m.r0c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 0), m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 1), m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 2), m.r1c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 3), m.r1c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 0), m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 1), m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 2), m.r2c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 3), m.r2c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 0), m.r3c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 1), m.r3c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 2), m.r3c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 3), m.r3c3());
+  }
 
-    this.putValue(ColumnMajor.index4x4(2, 0), m.r2c0());
-    this.putValue(ColumnMajor.index4x4(2, 1), m.r2c1());
-    this.putValue(ColumnMajor.index4x4(2, 2), m.r2c2());
-    this.putValue(ColumnMajor.index4x4(2, 3), m.r2c3());
+  @Override
+  public void setMatrix4x4F(final Matrix4x4F m)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 0), (double) m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 1), (double) m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 2), (double) m.r0c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 3), (double) m.r0c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 0), (double) m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 1), (double) m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 2), (double) m.r1c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 3), (double) m.r1c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 0), (double) m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 1), (double) m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 2), (double) m.r2c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 3), (double) m.r2c3());
+
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 0), (double) m.r3c0());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 1), (double) m.r3c1());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 2), (double) m.r3c2());
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 3), (double) m.r3c3());
+  }
 
-    this.putValue(ColumnMajor.index4x4(3, 0), m.r3c0());
-    this.putValue(ColumnMajor.index4x4(3, 1), m.r3c1());
-    this.putValue(ColumnMajor.index4x4(3, 2), m.r3c2());
-    this.putValue(ColumnMajor.index4x4(3, 3), m.r3c3());
+  @Override
+  public void setMatrix4x4D(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final double r3c0,
+    final double r3c1,
+    final double r3c2,
+    final double r3c3)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 0), r0c0);
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 1), r0c1);
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 2), r0c2);
+    this.putValueAt(offset, ColumnMajor.index4x4(0, 3), r0c3);
+
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 0), r1c0);
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 1), r1c1);
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 2), r1c2);
+    this.putValueAt(offset, ColumnMajor.index4x4(1, 3), r1c3);
+
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 0), r2c0);
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 1), r2c1);
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 2), r2c2);
+    this.putValueAt(offset, ColumnMajor.index4x4(2, 3), r2c3);
+
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 0), r3c0);
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 1), r3c1);
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 2), r3c2);
+    this.putValueAt(offset, ColumnMajor.index4x4(3, 3), r3c3);
   }
 
   @Override
-  public void setMatrix4x4F(final Matrix4x4F m)
+  public Matrix4x4D getMatrix4x4D()
   {
-    this.putValue(ColumnMajor.index4x4(0, 0), (double) m.r0c0());
-    this.putValue(ColumnMajor.index4x4(0, 1), (double) m.r0c1());
-    this.putValue(ColumnMajor.index4x4(0, 2), (double) m.r0c2());
-    this.putValue(ColumnMajor.index4x4(0, 3), (double) m.r0c3());
-
-    this.putValue(ColumnMajor.index4x4(1, 0), (double) m.r1c0());
-    this.putValue(ColumnMajor.index4x4(1, 1), (double) m.r1c1());
-    this.putValue(ColumnMajor.index4x4(1, 2), (double) m.r1c2());
-    this.putValue(ColumnMajor.index4x4(1, 3), (double) m.r1c3());
-
-    this.putValue(ColumnMajor.index4x4(2, 0), (double) m.r2c0());
-    this.putValue(ColumnMajor.index4x4(2, 1), (double) m.r2c1());
-    this.putValue(ColumnMajor.index4x4(2, 2), (double) m.r2c2());
-    this.putValue(ColumnMajor.index4x4(2, 3), (double) m.r2c3());
-
-    this.putValue(ColumnMajor.index4x4(3, 0), (double) m.r3c0());
-    this.putValue(ColumnMajor.index4x4(3, 1), (double) m.r3c1());
-    this.putValue(ColumnMajor.index4x4(3, 2), (double) m.r3c2());
-    this.putValue(ColumnMajor.index4x4(3, 3), (double) m.r3c3());
+    final int offset = this.byteOffsetChecked();
+    return Matrix4x4D.of(
+      this.getValueAt(offset, ColumnMajor.index4x4(0, 0)),
+      this.getValueAt(offset, ColumnMajor.index4x4(0, 1)),
+      this.getValueAt(offset, ColumnMajor.index4x4(0, 2)),
+      this.getValueAt(offset, ColumnMajor.index4x4(0, 3)),
+
+      this.getValueAt(offset, ColumnMajor.index4x4(1, 0)),
+      this.getValueAt(offset, ColumnMajor.index4x4(1, 1)),
+      this.getValueAt(offset, ColumnMajor.index4x4(1, 2)),
+      this.getValueAt(offset, ColumnMajor.index4x4(1, 3)),
+
+      this.getValueAt(offset, ColumnMajor.index4x4(2, 0)),
+      this.getValueAt(offset, ColumnMajor.index4x4(2, 1)),
+      this.getValueAt(offset, ColumnMajor.index4x4(2, 2)),
+      this.getValueAt(offset, ColumnMajor.index4x4(2, 3)),
+
+      this.getValueAt(offset, ColumnMajor.index4x4(3, 0)),
+      this.getValueAt(offset, ColumnMajor.index4x4(3, 1)),
+      this.getValueAt(offset, ColumnMajor.index4x4(3, 2)),
+      this.getValueAt(offset, ColumnMajor.index4x4(3, 3)));
   }
 }
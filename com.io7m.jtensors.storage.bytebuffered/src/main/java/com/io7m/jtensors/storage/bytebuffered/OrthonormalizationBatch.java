@@ -0,0 +1,464 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Batch functions that orthonormalize sets of three 3D vectors stored in
+ * byte buffers, using the same Gram-Schmidt process as {@code
+ * Orthonormalization.orthonormalize3D}. The first vector of each set is
+ * normalized, the second vector is made orthogonal to the first and
+ * normalized, and the third vector is made orthogonal to the first two and
+ * normalized. A vector of zero length is left unnormalized, as with {@code
+ * Vectors3D.normalize}.</p>
+ *
+ * <p>The functions are intended for correcting the drift that accumulates in
+ * rotation matrices and tangent frames that are updated incrementally. The
+ * sets of vectors are read from one of the following layouts:</p>
+ *
+ * <ul>
+ *   <li>3x3 matrices, tightly packed using the same column-major {@code
+ *   float} layout as {@link MatrixByteBuffered3x3s32}. Each matrix occupies
+ *   {@code 36} bytes, and the three columns are orthonormalized.</li>
+ *   <li>4x4 matrices, tightly packed using the same column-major {@code
+ *   float} layout as {@link MatrixByteBuffered4x4s32}. Each matrix occupies
+ *   {@code 64} bytes. The first three columns of the upper-left 3x3 part of
+ *   each matrix are orthonormalized, and all other elements are copied
+ *   unchanged.</li>
+ *   <li>Tangent frames, stored as three separate streams of normals,
+ *   tangents, and bitangents, each tightly packed using the same layout as
+ *   {@link VectorByteBufferedFloating3s32}. Each vector occupies {@code 12}
+ *   bytes. The normal is taken as the first vector of each set, so that the
+ *   tangent and bitangent are corrected to lie in the plane of the
+ *   normal.</li>
+ * </ul>
+ *
+ * <p>All of the buffers start at byte {@code 0}, and the byte order of each
+ * buffer is respected. Components are widened to {@code double} for all
+ * intermediate computations and narrowed to {@code float} when stored. All
+ * of the components of a set are read before any are written, and so the
+ * outputs of every function may be the same buffers as its inputs.</p>
+ *
+ * <p>None of the functions in this class allocate, except for the tasks
+ * created by the {@code Parallel} variants.</p>
+ */
+
+public final class OrthonormalizationBatch
+{
+  private static final int COMPONENT_BYTES = 4;
+  private static final int VECTOR_BYTES = 3 * COMPONENT_BYTES;
+  private static final int MATRIX3X3_COLUMN_BYTES = 3 * COMPONENT_BYTES;
+  private static final int MATRIX3X3_BYTES = 3 * MATRIX3X3_COLUMN_BYTES;
+  private static final int MATRIX4X4_COLUMN_BYTES = 4 * COMPONENT_BYTES;
+  private static final int MATRIX4X4_BYTES = 4 * MATRIX4X4_COLUMN_BYTES;
+
+  /**
+   * The maximum number of elements processed by a single task in the
+   * {@code Parallel} variants.
+   */
+
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private OrthonormalizationBatch()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The size in bytes of a single vector in a tangent frame stream
+   */
+
+  public static int vectorSizeBytes()
+  {
+    return VECTOR_BYTES;
+  }
+
+  /**
+   * @return The size in bytes of a single 3x3 matrix
+   */
+
+  public static int matrix3x3SizeBytes()
+  {
+    return MATRIX3X3_BYTES;
+  }
+
+  /**
+   * @return The size in bytes of a single 4x4 matrix
+   */
+
+  public static int matrix4x4SizeBytes()
+  {
+    return MATRIX4X4_BYTES;
+  }
+
+  /**
+   * Orthonormalize the columns of {@code count} 3x3 matrices. For each
+   * {@code i} in {@code [0, count)}, the matrix at index {@code i} in {@code
+   * out} is set to the orthonormalization of the matrix at index {@code i}
+   * in {@code m}.
+   *
+   * @param m     The input matrices
+   * @param out   The output matrices
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void orthonormalizeMatrices3x3(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(m, count, MATRIX3X3_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, MATRIX3X3_BYTES, "matrices");
+
+    orthonormalizeMatrices3x3Unchecked(m, out, 0, count);
+  }
+
+  /**
+   * Orthonormalize the columns of {@code count} 3x3 matrices. This function
+   * is equivalent to {@link #orthonormalizeMatrices3x3(ByteBuffer,
+   * ByteBuffer, int)}, but the work is divided into tasks of at most {@code
+   * 1024} elements that are executed on {@code pool}. The function returns
+   * when all of the tasks have completed.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The input matrices
+   * @param out   The output matrices
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void orthonormalizeMatrices3x3Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(m, count, MATRIX3X3_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, MATRIX3X3_BYTES, "matrices");
+
+    pool.invoke(new BatchRangeAction(
+      (range_first, range_count) ->
+        orthonormalizeMatrices3x3Unchecked(m, out, range_first, range_count),
+      0,
+      count,
+      PARALLEL_THRESHOLD));
+  }
+
+  /**
+   * Orthonormalize the first three columns of the upper-left 3x3 part of
+   * {@code count} 4x4 matrices. For each {@code i} in {@code [0, count)},
+   * the matrix at index {@code i} in {@code out} is set to the matrix at
+   * index {@code i} in {@code m} with its upper-left 3x3 part
+   * orthonormalized. The remaining elements, such as any translation, are
+   * copied unchanged.
+   *
+   * @param m     The input matrices
+   * @param out   The output matrices
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void orthonormalizeMatrices4x4(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(m, count, MATRIX4X4_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, MATRIX4X4_BYTES, "matrices");
+
+    orthonormalizeMatrices4x4Unchecked(m, out, 0, count);
+  }
+
+  /**
+   * Orthonormalize the upper-left 3x3 part of {@code count} 4x4 matrices.
+   * This function is equivalent to {@link
+   * #orthonormalizeMatrices4x4(ByteBuffer, ByteBuffer, int)}, but the work is
+   * divided into tasks of at most {@code 1024} elements that are executed on
+   * {@code pool}. The function returns when all of the tasks have
+   * completed.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The input matrices
+   * @param out   The output matrices
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void orthonormalizeMatrices4x4Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(m, count, MATRIX4X4_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, MATRIX4X4_BYTES, "matrices");
+
+    pool.invoke(new BatchRangeAction(
+      (range_first, range_count) ->
+        orthonormalizeMatrices4x4Unchecked(m, out, range_first, range_count),
+      0,
+      count,
+      PARALLEL_THRESHOLD));
+  }
+
+  /**
+   * Orthonormalize {@code count} tangent frames in place. For each {@code
+   * i} in {@code [0, count)}, the vectors at index {@code i} in {@code
+   * normals}, {@code tangents}, and {@code bitangents} are replaced with the
+   * orthonormalization of those vectors, taken in that order.
+   *
+   * @param normals    The normal vectors
+   * @param tangents   The tangent vectors
+   * @param bitangents The bitangent vectors
+   * @param count      The number of frames
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small
+   */
+
+  public static void orthonormalizeFrames(
+    final ByteBuffer normals,
+    final ByteBuffer tangents,
+    final ByteBuffer bitangents,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(normals, "Normals");
+    NullCheck.notNull(tangents, "Tangents");
+    NullCheck.notNull(bitangents, "Bitangents");
+
+    RangeChecks.checkBuffer(normals, count, VECTOR_BYTES, "vectors");
+    RangeChecks.checkBuffer(tangents, count, VECTOR_BYTES, "vectors");
+    RangeChecks.checkBuffer(bitangents, count, VECTOR_BYTES, "vectors");
+
+    orthonormalizeFramesUnchecked(normals, tangents, bitangents, 0, count);
+  }
+
+  /**
+   * Orthonormalize {@code count} tangent frames in place. This function is
+   * equivalent to {@link #orthonormalizeFrames(ByteBuffer, ByteBuffer,
+   * ByteBuffer, int)}, but the work is divided into tasks of at most {@code
+   * 1024} elements that are executed on {@code pool}. The function returns
+   * when all of the tasks have completed.
+   *
+   * @param pool       The pool that will execute the tasks
+   * @param normals    The normal vectors
+   * @param tangents   The tangent vectors
+   * @param bitangents The bitangent vectors
+   * @param count      The number of frames
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small
+   */
+
+  public static void orthonormalizeFramesParallel(
+    final ForkJoinPool pool,
+    final ByteBuffer normals,
+    final ByteBuffer tangents,
+    final ByteBuffer bitangents,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(normals, "Normals");
+    NullCheck.notNull(tangents, "Tangents");
+    NullCheck.notNull(bitangents, "Bitangents");
+
+    RangeChecks.checkBuffer(normals, count, VECTOR_BYTES, "vectors");
+    RangeChecks.checkBuffer(tangents, count, VECTOR_BYTES, "vectors");
+    RangeChecks.checkBuffer(bitangents, count, VECTOR_BYTES, "vectors");
+
+    pool.invoke(new BatchRangeAction(
+      (range_first, range_count) ->
+        orthonormalizeFramesUnchecked(
+          normals, tangents, bitangents, range_first, range_count),
+      0,
+      count,
+      PARALLEL_THRESHOLD));
+  }
+
+  private static void orthonormalizeMatrices3x3Unchecked(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    final int end = first + count;
+    for (int index = first; index < end; ++index) {
+      final int c0 = index * MATRIX3X3_BYTES;
+      final int c1 = c0 + MATRIX3X3_COLUMN_BYTES;
+      final int c2 = c1 + MATRIX3X3_COLUMN_BYTES;
+      orthonormalizeOne(m, c0, m, c1, m, c2, out, c0, out, c1, out, c2);
+    }
+  }
+
+  private static void orthonormalizeMatrices4x4Unchecked(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    final int end = first + count;
+    for (int index = first; index < end; ++index) {
+      final int c0 = index * MATRIX4X4_BYTES;
+      final int c1 = c0 + MATRIX4X4_COLUMN_BYTES;
+      final int c2 = c1 + MATRIX4X4_COLUMN_BYTES;
+      final int c3 = c2 + MATRIX4X4_COLUMN_BYTES;
+
+      /*
+       * The bottom row of the first three columns, and the whole of the
+       * last column, are not part of the rotation and are copied as-is.
+       */
+
+      if (m != out) {
+        out.putFloat(c0 + 12, m.getFloat(c0 + 12));
+        out.putFloat(c1 + 12, m.getFloat(c1 + 12));
+        out.putFloat(c2 + 12, m.getFloat(c2 + 12));
+        out.putFloat(c3, m.getFloat(c3));
+        out.putFloat(c3 + 4, m.getFloat(c3 + 4));
+        out.putFloat(c3 + 8, m.getFloat(c3 + 8));
+        out.putFloat(c3 + 12, m.getFloat(c3 + 12));
+      }
+
+      orthonormalizeOne(m, c0, m, c1, m, c2, out, c0, out, c1, out, c2);
+    }
+  }
+
+  private static void orthonormalizeFramesUnchecked(
+    final ByteBuffer normals,
+    final ByteBuffer tangents,
+    final ByteBuffer bitangents,
+    final int first,
+    final int count)
+  {
+    final int end = first + count;
+    for (int index = first; index < end; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      orthonormalizeOne(
+        normals, offset,
+        tangents, offset,
+        bitangents, offset,
+        normals, offset,
+        tangents, offset,
+        bitangents, offset);
+    }
+  }
+
+  /*
+   * Orthonormalize the three vectors at the given offsets, writing the
+   * results to the given output offsets. All nine components are read before
+   * any are written.
+   */
+
+  private static void orthonormalizeOne(
+    final ByteBuffer b0,
+    final int o0,
+    final ByteBuffer b1,
+    final int o1,
+    final ByteBuffer b2,
+    final int o2,
+    final ByteBuffer r0,
+    final int p0,
+    final ByteBuffer r1,
+    final int p1,
+    final ByteBuffer r2,
+    final int p2)
+  {
+    final double v0_x = (double) b0.getFloat(o0);
+    final double v0_y = (double) b0.getFloat(o0 + 4);
+    final double v0_z = (double) b0.getFloat(o0 + 8);
+    final double v1_x = (double) b1.getFloat(o1);
+    final double v1_y = (double) b1.getFloat(o1 + 4);
+    final double v1_z = (double) b1.getFloat(o1 + 8);
+    final double v2_x = (double) b2.getFloat(o2);
+    final double v2_y = (double) b2.getFloat(o2 + 4);
+    final double v2_z = (double) b2.getFloat(o2 + 8);
+
+    final double s0 = reciprocalMagnitude(v0_x, v0_y, v0_z);
+    final double rv0_x = v0_x * s0;
+    final double rv0_y = v0_y * s0;
+    final double rv0_z = v0_z * s0;
+
+    final double v0_dot_v1 = (rv0_x * v1_x) + (rv0_y * v1_y) + (rv0_z * v1_z);
+    final double u1_x = v1_x - (rv0_x * v0_dot_v1);
+    final double u1_y = v1_y - (rv0_y * v0_dot_v1);
+    final double u1_z = v1_z - (rv0_z * v0_dot_v1);
+    final double s1 = reciprocalMagnitude(u1_x, u1_y, u1_z);
+    final double rv1_x = u1_x * s1;
+    final double rv1_y = u1_y * s1;
+    final double rv1_z = u1_z * s1;
+
+    final double v1_dot_v2 = (rv1_x * v2_x) + (rv1_y * v2_y) + (rv1_z * v2_z);
+    final double v0_dot_v2 = (rv0_x * v2_x) + (rv0_y * v2_y) + (rv0_z * v2_z);
+    final double u2_x = v2_x - ((rv0_x * v0_dot_v2) + (rv1_x * v1_dot_v2));
+    final double u2_y = v2_y - ((rv0_y * v0_dot_v2) + (rv1_y * v1_dot_v2));
+    final double u2_z = v2_z - ((rv0_z * v0_dot_v2) + (rv1_z * v1_dot_v2));
+    final double s2 = reciprocalMagnitude(u2_x, u2_y, u2_z);
+
+    r0.putFloat(p0, (float) rv0_x);
+    r0.putFloat(p0 + 4, (float) rv0_y);
+    r0.putFloat(p0 + 8, (float) rv0_z);
+    r1.putFloat(p1, (float) rv1_x);
+    r1.putFloat(p1 + 4, (float) rv1_y);
+    r1.putFloat(p1 + 8, (float) rv1_z);
+    r2.putFloat(p2, (float) (u2_x * s2));
+    r2.putFloat(p2 + 4, (float) (u2_y * s2));
+    r2.putFloat(p2 + 8, (float) (u2_z * s2));
+  }
+
+  /*
+   * As with Vectors3D.normalize, a vector of zero length is left unchanged.
+   */
+
+  private static double reciprocalMagnitude(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final double m = (x * x) + (y * y) + (z * z);
+    if (m > 0.0) {
+      return 1.0 / Math.sqrt(m);
+    }
+    return 1.0;
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix2x2D;
 import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage2x2Type;
 
 /**
@@ -30,5 +31,12 @@ import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage2x2Typ
 public interface PMatrixByteBuffered2x2Type<A, B>
   extends PMatrixStorage2x2Type<A, B>, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  PMatrix2x2D<A, B> getPMatrix2x2D();
 }
@@ -110,40 +110,60 @@ public final class PMatrixByteBuffered2x2s16<A, B>
   @Override
   public void setPMatrix2x2D(final PMatrix2x2D<A, B> m)
   {
-    this.putValue(ColumnMajor.index2x2(0, 0), m.r0c0());
-    this.putValue(ColumnMajor.index2x2(0, 1), m.r0c1());
+    final int offset = this.byteOffsetChecked();
 
-    this.putValue(ColumnMajor.index2x2(1, 0), m.r1c0());
-    this.putValue(ColumnMajor.index2x2(1, 1), m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 0), m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 1), m.r0c1());
+
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 0), m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 1), m.r1c1());
   }
 
   @Override
   public void setPMatrix2x2F(final PMatrix2x2F<A, B> m)
   {
-    this.putValue(ColumnMajor.index2x2(0, 0), (double) m.r0c0());
-    this.putValue(ColumnMajor.index2x2(0, 1), (double) m.r0c1());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 0), (double) m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 1), (double) m.r0c1());
 
-    this.putValue(ColumnMajor.index2x2(1, 0), (double) m.r1c0());
-    this.putValue(ColumnMajor.index2x2(1, 1), (double) m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 0), (double) m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 1), (double) m.r1c1());
   }
 
   @Override
   public void setMatrix2x2D(final Matrix2x2D m)
   {
-    this.putValue(ColumnMajor.index2x2(0, 0), m.r0c0());
-    this.putValue(ColumnMajor.index2x2(0, 1), m.r0c1());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 0), m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 1), m.r0c1());
 
-    this.putValue(ColumnMajor.index2x2(1, 0), m.r1c0());
-    this.putValue(ColumnMajor.index2x2(1, 1), m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 0), m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 1), m.r1c1());
   }
 
   @Override
   public void setMatrix2x2F(final Matrix2x2F m)
   {
-    this.putValue(ColumnMajor.index2x2(0, 0), (double) m.r0c0());
-    this.putValue(ColumnMajor.index2x2(0, 1), (double) m.r0c1());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 0), (double) m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(0, 1), (double) m.r0c1());
+
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 0), (double) m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index2x2(1, 1), (double) m.r1c1());
+  }
+
+  @Override
+  public PMatrix2x2D<A, B> getPMatrix2x2D()
+  {
+    final int offset = this.byteOffsetChecked();
+    return PMatrix2x2D.of(
+      this.getValueAt(offset, ColumnMajor.index2x2(0, 0)),
+      this.getValueAt(offset, ColumnMajor.index2x2(0, 1)),
 
-    this.putValue(ColumnMajor.index2x2(1, 0), (double) m.r1c0());
-    this.putValue(ColumnMajor.index2x2(1, 1), (double) m.r1c1());
+      this.getValueAt(offset, ColumnMajor.index2x2(1, 0)),
+      this.getValueAt(offset, ColumnMajor.index2x2(1, 1)));
   }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix3x3D;
 import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage3x3Type;
 
 /**
@@ -30,5 +31,12 @@ import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage3x3Typ
 public interface PMatrixByteBuffered3x3Type<A, B>
   extends PMatrixStorage3x3Type<A, B>, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  PMatrix3x3D<A, B> getPMatrix3x3D();
 }
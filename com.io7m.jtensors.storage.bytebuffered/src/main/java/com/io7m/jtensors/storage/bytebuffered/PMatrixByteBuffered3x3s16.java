@@ -140,64 +140,90 @@ public final class PMatrixByteBuffered3x3s16<A, B>
   @Override
   public void setPMatrix3x3D(final PMatrix3x3D<A, B> m)
   {
-    this.putValue(ColumnMajor.index3x3(0, 0), m.r0c0());
-    this.putValue(ColumnMajor.index3x3(0, 1), m.r0c1());
-    this.putValue(ColumnMajor.index3x3(0, 2), m.r0c2());
+    final int offset = this.byteOffsetChecked();
 
-    this.putValue(ColumnMajor.index3x3(1, 0), m.r1c0());
-    this.putValue(ColumnMajor.index3x3(1, 1), m.r1c1());
-    this.putValue(ColumnMajor.index3x3(1, 2), m.r1c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 0), m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 1), m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 2), m.r0c2());
 
-    this.putValue(ColumnMajor.index3x3(2, 0), m.r2c0());
-    this.putValue(ColumnMajor.index3x3(2, 1), m.r2c1());
-    this.putValue(ColumnMajor.index3x3(2, 2), m.r2c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 0), m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 1), m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 2), m.r1c2());
+
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 0), m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 1), m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 2), m.r2c2());
   }
 
   @Override
   public void setPMatrix3x3F(final PMatrix3x3F<A, B> m)
   {
-    this.putValue(ColumnMajor.index3x3(0, 0), (double) m.r0c0());
-    this.putValue(ColumnMajor.index3x3(0, 1), (double) m.r0c1());
-    this.putValue(ColumnMajor.index3x3(0, 2), (double) m.r0c2());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 0), (double) m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 1), (double) m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 2), (double) m.r0c2());
 
-    this.putValue(ColumnMajor.index3x3(1, 0), (double) m.r1c0());
-    this.putValue(ColumnMajor.index3x3(1, 1), (double) m.r1c1());
-    this.putValue(ColumnMajor.index3x3(1, 2), (double) m.r1c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 0), (double) m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 1), (double) m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 2), (double) m.r1c2());
 
-    this.putValue(ColumnMajor.index3x3(2, 0), (double) m.r2c0());
-    this.putValue(ColumnMajor.index3x3(2, 1), (double) m.r2c1());
-    this.putValue(ColumnMajor.index3x3(2, 2), (double) m.r2c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 0), (double) m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 1), (double) m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 2), (double) m.r2c2());
   }
 
   @Override
   public void setMatrix3x3D(final Matrix3x3D m)
   {
-    this.putValue(ColumnMajor.index3x3(0, 0), m.r0c0());
-    this.putValue(ColumnMajor.index3x3(0, 1), m.r0c1());
-    this.putValue(ColumnMajor.index3x3(0, 2), m.r0c2());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 0), m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 1), m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 2), m.r0c2());
 
-    this.putValue(ColumnMajor.index3x3(1, 0), m.r1c0());
-    this.putValue(ColumnMajor.index3x3(1, 1), m.r1c1());
-    this.putValue(ColumnMajor.index3x3(1, 2), m.r1c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 0), m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 1), m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 2), m.r1c2());
 
-    this.putValue(ColumnMajor.index3x3(2, 0), m.r2c0());
-    this.putValue(ColumnMajor.index3x3(2, 1), m.r2c1());
-    this.putValue(ColumnMajor.index3x3(2, 2), m.r2c2());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 0), m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 1), m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 2), m.r2c2());
   }
 
   @Override
   public void setMatrix3x3F(final Matrix3x3F m)
   {
-    this.putValue(ColumnMajor.index3x3(0, 0), (double) m.r0c0());
-    this.putValue(ColumnMajor.index3x3(0, 1), (double) m.r0c1());
-    this.putValue(ColumnMajor.index3x3(0, 2), (double) m.r0c2());
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 0), (double) m.r0c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 1), (double) m.r0c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(0, 2), (double) m.r0c2());
+
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 0), (double) m.r1c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 1), (double) m.r1c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(1, 2), (double) m.r1c2());
+
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 0), (double) m.r2c0());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 1), (double) m.r2c1());
+    this.putValueAt(offset, ColumnMajor.index3x3(2, 2), (double) m.r2c2());
+  }
+
+  @Override
+  public PMatrix3x3D<A, B> getPMatrix3x3D()
+  {
+    final int offset = this.byteOffsetChecked();
+    return PMatrix3x3D.of(
+      this.getValueAt(offset, ColumnMajor.index3x3(0, 0)),
+      this.getValueAt(offset, ColumnMajor.index3x3(0, 1)),
+      this.getValueAt(offset, ColumnMajor.index3x3(0, 2)),
 
-    this.putValue(ColumnMajor.index3x3(1, 0), (double) m.r1c0());
-    this.putValue(ColumnMajor.index3x3(1, 1), (double) m.r1c1());
-    this.putValue(ColumnMajor.index3x3(1, 2), (double) m.r1c2());
+      this.getValueAt(offset, ColumnMajor.index3x3(1, 0)),
+      this.getValueAt(offset, ColumnMajor.index3x3(1, 1)),
+      this.getValueAt(offset, ColumnMajor.index3x3(1, 2)),
 
-    this.putValue(ColumnMajor.index3x3(2, 0), (double) m.r2c0());
-    this.putValue(ColumnMajor.index3x3(2, 1), (double) m.r2c1());
-    this.putValue(ColumnMajor.index3x3(2, 2), (double) m.r2c2());
+      this.getValueAt(offset, ColumnMajor.index3x3(2, 0)),
+      this.getValueAt(offset, ColumnMajor.index3x3(2, 1)),
+      this.getValueAt(offset, ColumnMajor.index3x3(2, 2)));
   }
 }
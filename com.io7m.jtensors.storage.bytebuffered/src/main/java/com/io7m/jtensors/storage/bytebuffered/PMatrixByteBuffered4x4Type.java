@@ -16,6 +16,7 @@
 
 package com.io7m.jtensors.storage.bytebuffered;
 
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4D;
 import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage4x4Type;
 
 /**
@@ -30,5 +31,12 @@ import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage4x4Typ
 public interface PMatrixByteBuffered4x4Type<A, B>
   extends PMatrixStorage4x4Type<A, B>, MatrixByteBufferedType
 {
-  // No extra methods
+  /**
+   * Read all of the components of the matrix. The bounds of the matrix are
+   * checked once, rather than once per component.
+   *
+   * @return The current value of the matrix
+   */
+
+  PMatrix4x4D<A, B> getPMatrix4x4D();
 }
@@ -95,4 +95,15 @@ public final class PVectorByteBufferedFloating2s32<T>
   {
     this.putValue(1, y);
   }
+
+  @Override
+  public void setXY(
+    final double x,
+    final double y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
 }
@@ -107,4 +107,28 @@ public final class PVectorByteBufferedFloating3s32<T>
   {
     this.putValue(2, z);
   }
+
+  @Override
+  public void setXY(
+    final double x,
+    final double y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
+
+  @Override
+  public void setXYZ(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+    this.putValueAt(offset, 2, z);
+  }
 }
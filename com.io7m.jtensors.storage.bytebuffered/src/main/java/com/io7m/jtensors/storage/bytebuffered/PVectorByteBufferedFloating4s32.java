@@ -119,4 +119,43 @@ public final class PVectorByteBufferedFloating4s32<T>
   {
     this.putValue(3, w);
   }
+
+  @Override
+  public void setXY(
+    final double x,
+    final double y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
+
+  @Override
+  public void setXYZ(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+    this.putValueAt(offset, 2, z);
+  }
+
+  @Override
+  public void setXYZW(
+    final double x,
+    final double y,
+    final double z,
+    final double w)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+    this.putValueAt(offset, 2, z);
+    this.putValueAt(offset, 3, w);
+  }
 }
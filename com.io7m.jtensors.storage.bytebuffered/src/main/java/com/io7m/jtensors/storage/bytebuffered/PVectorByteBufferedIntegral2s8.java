@@ -95,4 +95,15 @@ public final class PVectorByteBufferedIntegral2s8<T>
   {
     this.putValue(1, y);
   }
+
+  @Override
+  public void setXY(
+    final long x,
+    final long y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
 }
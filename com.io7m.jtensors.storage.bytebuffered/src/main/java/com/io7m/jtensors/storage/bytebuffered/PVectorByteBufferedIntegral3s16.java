@@ -107,4 +107,28 @@ public final class PVectorByteBufferedIntegral3s16<T>
   {
     this.putValue(2, z);
   }
+
+  @Override
+  public void setXY(
+    final long x,
+    final long y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
+
+  @Override
+  public void setXYZ(
+    final long x,
+    final long y,
+    final long z)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+    this.putValueAt(offset, 2, z);
+  }
 }
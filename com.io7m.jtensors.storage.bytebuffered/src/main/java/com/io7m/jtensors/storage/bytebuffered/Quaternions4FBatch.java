@@ -0,0 +1,990 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Batch interpolation functions over arrays of {@code float}
+ * quaternions.</p>
+ *
+ * <p>Each function is provided in two forms. The first operates on
+ * quaternions stored in byte buffers, tightly packed starting at byte
+ * {@code 0} of each buffer, using the same {@code (x, y, z, w)} layout as
+ * {@link VectorByteBufferedFloating4s32}. Each quaternion therefore occupies
+ * {@code 16} bytes. The byte order of each buffer is respected. The second
+ * form operates on {@code float} arrays, with each quaternion occupying
+ * {@code 4} consecutive elements starting at index {@code 0}.</p>
+ *
+ * <p>The conversion functions {@link #toMatrix4x4(ByteBuffer, ByteBuffer,
+ * int)} and {@link #ofMatrix4x4(ByteBuffer, ByteBuffer, int)} operate on byte
+ * buffers only. Matrices are tightly packed using the same column-major
+ * layout as {@link MatrixByteBuffered4x4s32}, so that each matrix occupies
+ * {@code 64} bytes. Each conversion function has a {@code Range} variant
+ * that processes only a given range of elements, and that may be called
+ * concurrently from multiple threads on disjoint ranges of the same
+ * buffers, and a {@code Parallel} variant that splits the work across a
+ * {@link ForkJoinPool}.</p>
+ *
+ * <p>Three interpolation modes are provided, in increasing order of cost:
+ * {@link #interpolateLinearNormalized(ByteBuffer, ByteBuffer, double,
+ * ByteBuffer, int)}, {@link #interpolateSphericalLinearApproximate(ByteBuffer,
+ * ByteBuffer, double, ByteBuffer, int)}, and {@link
+ * #interpolateSphericalLinear(ByteBuffer, ByteBuffer, double, ByteBuffer,
+ * int)}.</p>
+ *
+ * <p>Components are widened to {@code double} for all intermediate
+ * computations and narrowed to {@code float} when stored. All capacity
+ * checks are performed once, before any quaternion is processed. The output
+ * of every function may be the same buffer or array as either of its
+ * inputs.</p>
+ *
+ * <p>None of the functions in this class allocate.</p>
+ */
+
+public final class Quaternions4FBatch
+{
+  private static final int COMPONENT_BYTES = 4;
+  private static final int QUATERNION_COMPONENTS = 4;
+  private static final int QUATERNION_BYTES =
+    QUATERNION_COMPONENTS * COMPONENT_BYTES;
+  private static final int MATRIX_BYTES = 16 * COMPONENT_BYTES;
+
+  /*
+   * The maximum number of elements processed by a single task in the
+   * parallel conversion functions.
+   */
+
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  /*
+   * The dot product above which spherical linear interpolation falls back
+   * to normalized linear interpolation. This matches the threshold used by
+   * the Quaternions4F functions.
+   */
+
+  private static final double SLERP_LINEAR_THRESHOLD = 0.9995;
+
+  /*
+   * Coefficients for the approximate spherical linear interpolation. This
+   * is the eight term polynomial from "A Fast and Accurate Algorithm for
+   * Computing SLERP" by David Eberly, with u[i] = 1 / (i * (2i + 1)) and
+   * v[i] = i / (2i + 1), where the last term is scaled by the correction
+   * factor mu to minimize the maximum error.
+   */
+
+  private static final double SLERP_APPROXIMATE_MU = 1.85298109240830;
+  private static final double[] SLERP_APPROXIMATE_U;
+  private static final double[] SLERP_APPROXIMATE_V;
+
+  static {
+    final int terms = 8;
+    SLERP_APPROXIMATE_U = new double[terms];
+    SLERP_APPROXIMATE_V = new double[terms];
+    for (int index = 0; index < terms; ++index) {
+      final double i = (double) (index + 1);
+      SLERP_APPROXIMATE_U[index] = 1.0 / (i * ((2.0 * i) + 1.0));
+      SLERP_APPROXIMATE_V[index] = i / ((2.0 * i) + 1.0);
+    }
+    SLERP_APPROXIMATE_U[terms - 1] *= SLERP_APPROXIMATE_MU;
+    SLERP_APPROXIMATE_V[terms - 1] *= SLERP_APPROXIMATE_MU;
+  }
+
+  private Quaternions4FBatch()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The size in bytes of a single quaternion
+   */
+
+  public static int quaternionSizeBytes()
+  {
+    return QUATERNION_BYTES;
+  }
+
+  /**
+   * @return The number of array elements occupied by a single quaternion
+   */
+
+  public static int quaternionSizeComponents()
+  {
+    return QUATERNION_COMPONENTS;
+  }
+
+  /**
+   * @return The size in bytes of a single matrix
+   */
+
+  public static int matrixSizeBytes()
+  {
+    return MATRIX_BYTES;
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using
+   * <i>normalized linear interpolation</i>. For each {@code i} in {@code [0,
+   * count)}, the quaternion at index {@code i} in {@code out} is set to
+   * {@code normalize((1 - alpha) * a[i] + alpha * b'[i])}, where {@code
+   * b'[i]} is {@code b[i]} negated if necessary so that the interpolation
+   * takes the shortest path.</p>
+   *
+   * <p>This is the cheapest of the interpolation functions, requiring no
+   * trigonometric functions and a single square root per quaternion. The
+   * result lies on the same arc as {@link #interpolateSphericalLinear}, but
+   * does not move along that arc at a constant angular velocity. The input
+   * quaternions are expected to be normalized.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateLinearNormalized(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final double alpha,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      double b_x = (double) b.getFloat(offset);
+      double b_y = (double) b.getFloat(offset + 4);
+      double b_z = (double) b.getFloat(offset + 8);
+      double b_w = (double) b.getFloat(offset + 12);
+      final double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+      }
+
+      final double r_x = (a_x * alpha_inv) + (b_x * alpha);
+      final double r_y = (a_y * alpha_inv) + (b_y * alpha);
+      final double r_z = (a_z * alpha_inv) + (b_z * alpha);
+      final double r_w = (a_w * alpha_inv) + (b_w * alpha);
+      final double m = (r_x * r_x) + (r_y * r_y) + (r_z * r_z) + (r_w * r_w);
+      final double reciprocal = m > 0.0 ? 1.0 / Math.sqrt(m) : 1.0;
+      out.putFloat(offset, (float) (r_x * reciprocal));
+      out.putFloat(offset + 4, (float) (r_y * reciprocal));
+      out.putFloat(offset + 8, (float) (r_z * reciprocal));
+      out.putFloat(offset + 12, (float) (r_w * reciprocal));
+    }
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using
+   * <i>normalized linear interpolation</i>. For each {@code i} in {@code [0,
+   * count)}, the quaternion at index {@code i} in {@code out} is set to
+   * {@code normalize((1 - alpha) * a[i] + alpha * b'[i])}, where {@code
+   * b'[i]} is {@code b[i]} negated if necessary so that the interpolation
+   * takes the shortest path.</p>
+   *
+   * <p>This is the cheapest of the interpolation functions, requiring no
+   * trigonometric functions and a single square root per quaternion. The
+   * result lies on the same arc as {@link #interpolateSphericalLinear}, but
+   * does not move along that arc at a constant angular velocity. The input
+   * quaternions are expected to be normalized.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateLinearNormalized(
+    final float[] a,
+    final float[] b,
+    final double alpha,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      double b_x = (double) b[offset];
+      double b_y = (double) b[offset + 1];
+      double b_z = (double) b[offset + 2];
+      double b_w = (double) b[offset + 3];
+      final double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+      }
+
+      final double r_x = (a_x * alpha_inv) + (b_x * alpha);
+      final double r_y = (a_y * alpha_inv) + (b_y * alpha);
+      final double r_z = (a_z * alpha_inv) + (b_z * alpha);
+      final double r_w = (a_w * alpha_inv) + (b_w * alpha);
+      final double m = (r_x * r_x) + (r_y * r_y) + (r_z * r_z) + (r_w * r_w);
+      final double reciprocal = m > 0.0 ? 1.0 / Math.sqrt(m) : 1.0;
+      out[offset] = (float) (r_x * reciprocal);
+      out[offset + 1] = (float) (r_y * reciprocal);
+      out[offset + 2] = (float) (r_z * reciprocal);
+      out[offset + 3] = (float) (r_w * reciprocal);
+    }
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using
+   * <i>spherical linear interpolation</i>. For each {@code i} in {@code [0,
+   * count)}, the quaternion at index {@code i} in {@code out} is set to the
+   * spherical-linear interpolation of {@code a[i]} and {@code b[i]} by
+   * {@code alpha}.</p>
+   *
+   * <p>The input quaternions are normalized before interpolation, and the
+   * interpolation takes the shortest path. As with {@code
+   * Quaternions4F.interpolateSphericalLinear}, quaternions that are nearly
+   * codirectional are interpolated with normalized linear interpolation.
+   * The trigonometric functions are evaluated with {@link Math} rather
+   * than {@link StrictMath}, so that the JVM may use intrinsic
+   * implementations.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateSphericalLinear(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final double alpha,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_BYTES;
+      final double a_raw_x = (double) a.getFloat(offset);
+      final double a_raw_y = (double) a.getFloat(offset + 4);
+      final double a_raw_z = (double) a.getFloat(offset + 8);
+      final double a_raw_w = (double) a.getFloat(offset + 12);
+      final double b_raw_x = (double) b.getFloat(offset);
+      final double b_raw_y = (double) b.getFloat(offset + 4);
+      final double b_raw_z = (double) b.getFloat(offset + 8);
+      final double b_raw_w = (double) b.getFloat(offset + 12);
+
+      final double a_m = (a_raw_x * a_raw_x) + (a_raw_y * a_raw_y) + (a_raw_z * a_raw_z) + (a_raw_w * a_raw_w);
+      final double a_r = a_m > 0.0 ? 1.0 / Math.sqrt(a_m) : 1.0;
+      final double a_x = a_raw_x * a_r;
+      final double a_y = a_raw_y * a_r;
+      final double a_z = a_raw_z * a_r;
+      final double a_w = a_raw_w * a_r;
+
+      final double b_m = (b_raw_x * b_raw_x) + (b_raw_y * b_raw_y) + (b_raw_z * b_raw_z) + (b_raw_w * b_raw_w);
+      final double b_r = b_m > 0.0 ? 1.0 / Math.sqrt(b_m) : 1.0;
+      double b_x = b_raw_x * b_r;
+      double b_y = b_raw_y * b_r;
+      double b_z = b_raw_z * b_r;
+      double b_w = b_raw_w * b_r;
+
+      double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+        dot = -dot;
+      }
+
+      final double r_x;
+      final double r_y;
+      final double r_z;
+      final double r_w;
+
+      if (dot > SLERP_LINEAR_THRESHOLD) {
+        final double l_x = (a_x * alpha_inv) + (b_x * alpha);
+        final double l_y = (a_y * alpha_inv) + (b_y * alpha);
+        final double l_z = (a_z * alpha_inv) + (b_z * alpha);
+        final double l_w = (a_w * alpha_inv) + (b_w * alpha);
+        final double l_m = (l_x * l_x) + (l_y * l_y) + (l_z * l_z) + (l_w * l_w);
+        final double l_r = l_m > 0.0 ? 1.0 / Math.sqrt(l_m) : 1.0;
+        r_x = l_x * l_r;
+        r_y = l_y * l_r;
+        r_z = l_z * l_r;
+        r_w = l_w * l_r;
+      } else {
+        final double theta = Math.acos(Math.min(dot, 1.0)) * alpha;
+        final double theta_cos = Math.cos(theta);
+        final double theta_sin = Math.sin(theta);
+
+        final double p_x = b_x - (a_x * dot);
+        final double p_y = b_y - (a_y * dot);
+        final double p_z = b_z - (a_z * dot);
+        final double p_w = b_w - (a_w * dot);
+        final double p_m = (p_x * p_x) + (p_y * p_y) + (p_z * p_z) + (p_w * p_w);
+        final double p_r = p_m > 0.0 ? 1.0 / Math.sqrt(p_m) : 1.0;
+
+        r_x = (a_x * theta_cos) + (p_x * p_r * theta_sin);
+        r_y = (a_y * theta_cos) + (p_y * p_r * theta_sin);
+        r_z = (a_z * theta_cos) + (p_z * p_r * theta_sin);
+        r_w = (a_w * theta_cos) + (p_w * p_r * theta_sin);
+      }
+
+      out.putFloat(offset, (float) (r_x));
+      out.putFloat(offset + 4, (float) (r_y));
+      out.putFloat(offset + 8, (float) (r_z));
+      out.putFloat(offset + 12, (float) (r_w));
+    }
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using
+   * <i>spherical linear interpolation</i>. For each {@code i} in {@code [0,
+   * count)}, the quaternion at index {@code i} in {@code out} is set to the
+   * spherical-linear interpolation of {@code a[i]} and {@code b[i]} by
+   * {@code alpha}.</p>
+   *
+   * <p>The input quaternions are normalized before interpolation, and the
+   * interpolation takes the shortest path. As with {@code
+   * Quaternions4F.interpolateSphericalLinear}, quaternions that are nearly
+   * codirectional are interpolated with normalized linear interpolation.
+   * The trigonometric functions are evaluated with {@link Math} rather
+   * than {@link StrictMath}, so that the JVM may use intrinsic
+   * implementations.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateSphericalLinear(
+    final float[] a,
+    final float[] b,
+    final double alpha,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_COMPONENTS;
+      final double a_raw_x = (double) a[offset];
+      final double a_raw_y = (double) a[offset + 1];
+      final double a_raw_z = (double) a[offset + 2];
+      final double a_raw_w = (double) a[offset + 3];
+      final double b_raw_x = (double) b[offset];
+      final double b_raw_y = (double) b[offset + 1];
+      final double b_raw_z = (double) b[offset + 2];
+      final double b_raw_w = (double) b[offset + 3];
+
+      final double a_m = (a_raw_x * a_raw_x) + (a_raw_y * a_raw_y) + (a_raw_z * a_raw_z) + (a_raw_w * a_raw_w);
+      final double a_r = a_m > 0.0 ? 1.0 / Math.sqrt(a_m) : 1.0;
+      final double a_x = a_raw_x * a_r;
+      final double a_y = a_raw_y * a_r;
+      final double a_z = a_raw_z * a_r;
+      final double a_w = a_raw_w * a_r;
+
+      final double b_m = (b_raw_x * b_raw_x) + (b_raw_y * b_raw_y) + (b_raw_z * b_raw_z) + (b_raw_w * b_raw_w);
+      final double b_r = b_m > 0.0 ? 1.0 / Math.sqrt(b_m) : 1.0;
+      double b_x = b_raw_x * b_r;
+      double b_y = b_raw_y * b_r;
+      double b_z = b_raw_z * b_r;
+      double b_w = b_raw_w * b_r;
+
+      double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+        dot = -dot;
+      }
+
+      final double r_x;
+      final double r_y;
+      final double r_z;
+      final double r_w;
+
+      if (dot > SLERP_LINEAR_THRESHOLD) {
+        final double l_x = (a_x * alpha_inv) + (b_x * alpha);
+        final double l_y = (a_y * alpha_inv) + (b_y * alpha);
+        final double l_z = (a_z * alpha_inv) + (b_z * alpha);
+        final double l_w = (a_w * alpha_inv) + (b_w * alpha);
+        final double l_m = (l_x * l_x) + (l_y * l_y) + (l_z * l_z) + (l_w * l_w);
+        final double l_r = l_m > 0.0 ? 1.0 / Math.sqrt(l_m) : 1.0;
+        r_x = l_x * l_r;
+        r_y = l_y * l_r;
+        r_z = l_z * l_r;
+        r_w = l_w * l_r;
+      } else {
+        final double theta = Math.acos(Math.min(dot, 1.0)) * alpha;
+        final double theta_cos = Math.cos(theta);
+        final double theta_sin = Math.sin(theta);
+
+        final double p_x = b_x - (a_x * dot);
+        final double p_y = b_y - (a_y * dot);
+        final double p_z = b_z - (a_z * dot);
+        final double p_w = b_w - (a_w * dot);
+        final double p_m = (p_x * p_x) + (p_y * p_y) + (p_z * p_z) + (p_w * p_w);
+        final double p_r = p_m > 0.0 ? 1.0 / Math.sqrt(p_m) : 1.0;
+
+        r_x = (a_x * theta_cos) + (p_x * p_r * theta_sin);
+        r_y = (a_y * theta_cos) + (p_y * p_r * theta_sin);
+        r_z = (a_z * theta_cos) + (p_z * p_r * theta_sin);
+        r_w = (a_w * theta_cos) + (p_w * p_r * theta_sin);
+      }
+
+      out[offset] = (float) (r_x);
+      out[offset + 1] = (float) (r_y);
+      out[offset + 2] = (float) (r_z);
+      out[offset + 3] = (float) (r_w);
+    }
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using a
+   * polynomial approximation of <i>spherical linear interpolation</i>. For
+   * each {@code i} in {@code [0, count)}, the quaternion at index {@code i}
+   * in {@code out} is set to an approximation of the spherical-linear
+   * interpolation of {@code a[i]} and {@code b[i]} by {@code alpha}, taking
+   * the shortest path.</p>
+   *
+   * <p>The input quaternions must be normalized. No trigonometric functions
+   * or square roots are evaluated. The absolute error of each of the two
+   * interpolation coefficients is below {@code 2.0E-5} for all
+   * {@code alpha} in {@code [0, 1]}, and below {@code 1.0E-6} when the
+   * angle between the inputs is at most {@code 60} degrees (a dot product
+   * of at least {@code 0.5}). The error decreases rapidly as the inputs
+   * approach each other. The result is not renormalized.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateSphericalLinearApproximate(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final double alpha,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      double b_x = (double) b.getFloat(offset);
+      double b_y = (double) b.getFloat(offset + 4);
+      double b_z = (double) b.getFloat(offset + 8);
+      double b_w = (double) b.getFloat(offset + 12);
+      double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+        dot = -dot;
+      }
+
+      final double x_m1 = dot - 1.0;
+      final double c_a = approximateCoefficient(alpha_inv, x_m1);
+      final double c_b = approximateCoefficient(alpha, x_m1);
+      out.putFloat(offset, (float) ((a_x * c_a) + (b_x * c_b)));
+      out.putFloat(offset + 4, (float) ((a_y * c_a) + (b_y * c_b)));
+      out.putFloat(offset + 8, (float) ((a_z * c_a) + (b_z * c_b)));
+      out.putFloat(offset + 12, (float) ((a_w * c_a) + (b_w * c_b)));
+    }
+  }
+
+  /**
+   * <p>Interpolate between {@code count} pairs of quaternions using a
+   * polynomial approximation of <i>spherical linear interpolation</i>. For
+   * each {@code i} in {@code [0, count)}, the quaternion at index {@code i}
+   * in {@code out} is set to an approximation of the spherical-linear
+   * interpolation of {@code a[i]} and {@code b[i]} by {@code alpha}, taking
+   * the shortest path.</p>
+   *
+   * <p>The input quaternions must be normalized. No trigonometric functions
+   * or square roots are evaluated. The absolute error of each of the two
+   * interpolation coefficients is below {@code 2.0E-5} for all
+   * {@code alpha} in {@code [0, 1]}, and below {@code 1.0E-6} when the
+   * angle between the inputs is at most {@code 60} degrees (a dot product
+   * of at least {@code 0.5}). The error decreases rapidly as the inputs
+   * approach each other. The result is not renormalized.</p>
+   *
+   * @param a     The left quaternions
+   * @param b     The right quaternions
+   * @param alpha The interpolation value, between {@code 0.0} and {@code 1.0}
+   * @param out   The output quaternions
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} quaternions
+   */
+
+  public static void interpolateSphericalLinearApproximate(
+    final float[] a,
+    final float[] b,
+    final double alpha,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    final double alpha_inv = 1.0 - alpha;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * QUATERNION_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      double b_x = (double) b[offset];
+      double b_y = (double) b[offset + 1];
+      double b_z = (double) b[offset + 2];
+      double b_w = (double) b[offset + 3];
+      double dot = (a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w);
+      if (dot < 0.0) {
+        b_x = -b_x;
+        b_y = -b_y;
+        b_z = -b_z;
+        b_w = -b_w;
+        dot = -dot;
+      }
+
+      final double x_m1 = dot - 1.0;
+      final double c_a = approximateCoefficient(alpha_inv, x_m1);
+      final double c_b = approximateCoefficient(alpha, x_m1);
+      out[offset] = (float) ((a_x * c_a) + (b_x * c_b));
+      out[offset + 1] = (float) ((a_y * c_a) + (b_y * c_b));
+      out[offset + 2] = (float) ((a_z * c_a) + (b_z * c_b));
+      out[offset + 3] = (float) ((a_w * c_a) + (b_w * c_b));
+    }
+  }
+
+  /**
+   * Convert {@code count} quaternions to 4x4 rotation matrices, as with
+   * {@code Quaternions4F.toMatrix4x4}. For each {@code i} in {@code [0,
+   * count)}, the matrix at index {@code i} in {@code out} is set to the
+   * conversion of the quaternion at index {@code i} in {@code q}.
+   *
+   * @param q     The quaternions
+   * @param out   The output matrices
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void toMatrix4x4(
+    final ByteBuffer q,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    toMatrix4x4Range(q, out, 0, count);
+  }
+
+  /**
+   * Convert {@code count} quaternions to 4x4 rotation matrices, as with
+   * {@code Quaternions4F.toMatrix4x4}. For each {@code i} in {@code [first,
+   * first + count)}, the matrix at index {@code i} in {@code out} is set to
+   * the conversion of the quaternion at index {@code i} in {@code q}. No
+   * other elements of {@code out} are read or written, and so this function
+   * may be called concurrently on disjoint ranges of the same buffers.
+   *
+   * @param q     The quaternions
+   * @param out   The output matrices
+   * @param first The index of the first element
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small,
+   *                                   or {@code first} is negative
+   */
+
+  public static void toMatrix4x4Range(
+    final ByteBuffer q,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(q, "Quaternions");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBufferRange(q, first, count, QUATERNION_BYTES, "quaternions");
+    RangeChecks.checkBufferRange(out, first, count, MATRIX_BYTES, "matrices");
+
+    toMatrix4x4Unchecked(q, out, first, count);
+  }
+
+  /**
+   * Convert {@code count} quaternions to 4x4 rotation matrices, as with
+   * {@code Quaternions4F.toMatrix4x4}. This function is equivalent to {@link
+   * #toMatrix4x4(ByteBuffer, ByteBuffer, int)}, but the work is divided into
+   * tasks of at most {@code 1024} elements that are executed on {@code
+   * pool}. The function returns when all of the tasks have completed.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param q     The quaternions
+   * @param out   The output matrices
+   * @param count The number of quaternions
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void toMatrix4x4Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer q,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(q, "Quaternions");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(q, count, QUATERNION_BYTES, "quaternions");
+    RangeChecks.checkBuffer(out, count, MATRIX_BYTES, "matrices");
+
+    pool.invoke(new BatchRangeAction(
+      (range_first, range_count) ->
+        toMatrix4x4Unchecked(q, out, range_first, range_count),
+      0,
+      count,
+      PARALLEL_THRESHOLD));
+  }
+
+  /**
+   * Convert {@code count} 4x4 rotation matrices to quaternions, as with
+   * {@code Quaternions4F.ofMatrix4x4}. For each {@code i} in {@code [0,
+   * count)}, the quaternion at index {@code i} in {@code out} is set to the
+   * conversion of the matrix at index {@code i} in {@code m}.
+   *
+   * @param m     The matrices
+   * @param out   The output quaternions
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void ofMatrix4x4(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    ofMatrix4x4Range(m, out, 0, count);
+  }
+
+  /**
+   * Convert {@code count} 4x4 rotation matrices to quaternions, as with
+   * {@code Quaternions4F.ofMatrix4x4}. For each {@code i} in {@code [first,
+   * first + count)}, the quaternion at index {@code i} in {@code out} is set
+   * to the conversion of the matrix at index {@code i} in {@code m}. No
+   * other elements of {@code out} are read or written, and so this function
+   * may be called concurrently on disjoint ranges of the same buffers.
+   *
+   * @param m     The matrices
+   * @param out   The output quaternions
+   * @param first The index of the first element
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small,
+   *                                   or {@code first} is negative
+   */
+
+  public static void ofMatrix4x4Range(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBufferRange(m, first, count, MATRIX_BYTES, "matrices");
+    RangeChecks.checkBufferRange(out, first, count, QUATERNION_BYTES, "quaternions");
+
+    ofMatrix4x4Unchecked(m, out, first, count);
+  }
+
+  /**
+   * Convert {@code count} 4x4 rotation matrices to quaternions, as with
+   * {@code Quaternions4F.ofMatrix4x4}. This function is equivalent to {@link
+   * #ofMatrix4x4(ByteBuffer, ByteBuffer, int)}, but the work is divided into
+   * tasks of at most {@code 1024} elements that are executed on {@code
+   * pool}. The function returns when all of the tasks have completed.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrices
+   * @param out   The output quaternions
+   * @param count The number of matrices
+   *
+   * @throws IndexOutOfBoundsException If either of the buffers is too small
+   */
+
+  public static void ofMatrix4x4Parallel(
+    final ForkJoinPool pool,
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrices");
+    NullCheck.notNull(out, "Output");
+
+    RangeChecks.checkBuffer(m, count, MATRIX_BYTES, "matrices");
+    RangeChecks.checkBuffer(out, count, QUATERNION_BYTES, "quaternions");
+
+    pool.invoke(new BatchRangeAction(
+      (range_first, range_count) ->
+        ofMatrix4x4Unchecked(m, out, range_first, range_count),
+      0,
+      count,
+      PARALLEL_THRESHOLD));
+  }
+
+  private static void toMatrix4x4Unchecked(
+    final ByteBuffer q,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    final int end = first + count;
+    for (int index = first; index < end; ++index) {
+      final int q_offset = index * QUATERNION_BYTES;
+      final int m_offset = index * MATRIX_BYTES;
+
+      final double x = (double) q.getFloat(q_offset);
+      final double y = (double) q.getFloat(q_offset + 4);
+      final double z = (double) q.getFloat(q_offset + 8);
+      final double w = (double) q.getFloat(q_offset + 12);
+
+      final double xx = x * x;
+      final double xy = x * y;
+      final double xz = x * z;
+      final double yy = y * y;
+      final double yz = y * z;
+      final double zz = z * z;
+      final double wx = w * x;
+      final double wy = w * y;
+      final double wz = w * z;
+
+      out.putFloat(m_offset, (float) (1.0 - (2.0 * yy) - (2.0 * zz)));
+      out.putFloat(m_offset + 4, (float) ((2.0 * xy) + (2.0 * wz)));
+      out.putFloat(m_offset + 8, (float) ((2.0 * xz) - (2.0 * wy)));
+      out.putFloat(m_offset + 12, 0.0f);
+      out.putFloat(m_offset + 16, (float) ((2.0 * xy) - (2.0 * wz)));
+      out.putFloat(m_offset + 20, (float) (1.0 - (2.0 * xx) - (2.0 * zz)));
+      out.putFloat(m_offset + 24, (float) ((2.0 * yz) + (2.0 * wx)));
+      out.putFloat(m_offset + 28, 0.0f);
+      out.putFloat(m_offset + 32, (float) ((2.0 * xz) + (2.0 * wy)));
+      out.putFloat(m_offset + 36, (float) ((2.0 * yz) - (2.0 * wx)));
+      out.putFloat(m_offset + 40, (float) (1.0 - (2.0 * xx) - (2.0 * yy)));
+      out.putFloat(m_offset + 44, 0.0f);
+      out.putFloat(m_offset + 48, 0.0f);
+      out.putFloat(m_offset + 52, 0.0f);
+      out.putFloat(m_offset + 56, 0.0f);
+      out.putFloat(m_offset + 60, 1.0f);
+    }
+  }
+
+  private static void ofMatrix4x4Unchecked(
+    final ByteBuffer m,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    final int end = first + count;
+    for (int index = first; index < end; ++index) {
+      final int m_offset = index * MATRIX_BYTES;
+      final int q_offset = index * QUATERNION_BYTES;
+
+      final double m_r0c0 = (double) m.getFloat(m_offset);
+      final double m_r0c1 = (double) m.getFloat(m_offset + 16);
+      final double m_r0c2 = (double) m.getFloat(m_offset + 32);
+      final double m_r1c0 = (double) m.getFloat(m_offset + 4);
+      final double m_r1c1 = (double) m.getFloat(m_offset + 20);
+      final double m_r1c2 = (double) m.getFloat(m_offset + 36);
+      final double m_r2c0 = (double) m.getFloat(m_offset + 8);
+      final double m_r2c1 = (double) m.getFloat(m_offset + 24);
+      final double m_r2c2 = (double) m.getFloat(m_offset + 40);
+
+      final double trace = m_r0c0 + m_r1c1 + m_r2c2;
+
+      final double x;
+      final double y;
+      final double z;
+      final double w;
+
+      if (trace > 0.0) {
+        final double s = Math.sqrt(trace + 1.0) * 2.0;
+        w = 0.25 * s;
+        x = (m_r2c1 - m_r1c2) / s;
+        y = (m_r0c2 - m_r2c0) / s;
+        z = (m_r1c0 - m_r0c1) / s;
+      } else if ((m_r0c0 > m_r1c1) && (m_r0c0 > m_r2c2)) {
+        final double s = Math.sqrt((1.0 + m_r0c0) - m_r1c1 - m_r2c2) * 2.0;
+        w = (m_r2c1 - m_r1c2) / s;
+        x = 0.25 * s;
+        y = (m_r0c1 + m_r1c0) / s;
+        z = (m_r0c2 + m_r2c0) / s;
+      } else if (m_r1c1 > m_r2c2) {
+        final double s = Math.sqrt((1.0 + m_r1c1) - m_r0c0 - m_r2c2) * 2.0;
+        w = (m_r0c2 - m_r2c0) / s;
+        x = (m_r0c1 + m_r1c0) / s;
+        y = 0.25 * s;
+        z = (m_r1c2 + m_r2c1) / s;
+      } else {
+        final double s = Math.sqrt((1.0 + m_r2c2) - m_r0c0 - m_r1c1) * 2.0;
+        w = (m_r1c0 - m_r0c1) / s;
+        x = (m_r0c2 + m_r2c0) / s;
+        y = (m_r1c2 + m_r2c1) / s;
+        z = 0.25 * s;
+      }
+
+      out.putFloat(q_offset, (float) x);
+      out.putFloat(q_offset + 4, (float) y);
+      out.putFloat(q_offset + 8, (float) z);
+      out.putFloat(q_offset + 12, (float) w);
+    }
+  }
+
+  /*
+   * Evaluate the approximate interpolation coefficient for the parameter
+   * t, given x_m1 = dot(a, b) - 1. The polynomial is evaluated in Horner
+   * form: t * (1 + b[0] * (1 + b[1] * (... * (1 + b[7])))), where
+   * b[i] = (u[i] * t * t - v[i]) * x_m1.
+   */
+
+  private static double approximateCoefficient(
+    final double t,
+    final double x_m1)
+  {
+    final double t_sq = t * t;
+    double r = 1.0;
+    for (int index = SLERP_APPROXIMATE_U.length - 1; index >= 0; --index) {
+      final double b =
+        ((SLERP_APPROXIMATE_U[index] * t_sq) - SLERP_APPROXIMATE_V[index]) * x_m1;
+      r = 1.0 + (b * r);
+    }
+    return t * r;
+  }
+
+  private static void checkCapacity(
+    final ByteBuffer buffer,
+    final int count)
+  {
+    RangeChecks.checkBuffer(buffer, count, QUATERNION_BYTES, "quaternions");
+  }
+
+  private static void checkCapacity(
+    final float[] array,
+    final int count)
+  {
+    RangeChecks.checkArray(
+      array.length, count, QUATERNION_COMPONENTS, "quaternions");
+  }
+}
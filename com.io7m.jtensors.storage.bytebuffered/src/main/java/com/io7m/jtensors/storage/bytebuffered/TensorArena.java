@@ -0,0 +1,237 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.mutable.numbers.core.MutableLong;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>An arena that allocates byte buffered tensors from a single large
+ * byte buffer.</p>
+ *
+ * <p>Allocation is a simple increment of an internal cursor: each tensor
+ * (or {@link TensorSlab}) is placed directly after the previous one, with
+ * the start of each allocation rounded up to a multiple of {@link
+ * #ALIGNMENT} bytes. Individual allocations cannot be freed; the arena is
+ * instead emptied in bulk with {@link #reset()}. Tensors allocated before a
+ * reset continue to refer to the same bytes, and will therefore alias any
+ * tensors allocated afterwards.</p>
+ *
+ * <p>Arenas are not thread-safe.</p>
+ */
+
+public final class TensorArena
+{
+  /**
+   * The alignment in bytes of the start of each allocation. This is the
+   * size of the largest component type.
+   */
+
+  public static final int ALIGNMENT = 8;
+
+  private final ByteBuffer buffer;
+  private final MutableLong base;
+  private final int capacity;
+  private int used;
+
+  private TensorArena(
+    final ByteBuffer in_buffer)
+  {
+    this.buffer = NullCheck.notNull(in_buffer, "Buffer");
+    this.base = MutableLong.create();
+    this.capacity = in_buffer.limit();
+    this.used = 0;
+  }
+
+  /**
+   * Create a new arena backed by a freshly allocated direct byte buffer
+   * using the platform's native byte order.
+   *
+   * @param capacity_bytes The capacity of the arena in bytes
+   *
+   * @return A new arena
+   */
+
+  public static TensorArena create(
+    final int capacity_bytes)
+  {
+    final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(capacity_bytes).order(ByteOrder.nativeOrder());
+    return new TensorArena(buffer);
+  }
+
+  /**
+   * Create a new arena backed by the given byte buffer. The bytes of the
+   * buffer up to its limit at the time of the call are used, and the
+   * buffer's byte order is respected.
+   *
+   * @param buffer The byte buffer
+   *
+   * @return A new arena
+   */
+
+  public static TensorArena createWithBuffer(
+    final ByteBuffer buffer)
+  {
+    return new TensorArena(buffer);
+  }
+
+  private static long align(
+    final int offset)
+  {
+    return (((long) offset + (long) (ALIGNMENT - 1)) / (long) ALIGNMENT)
+      * (long) ALIGNMENT;
+  }
+
+  /**
+   * @return The byte buffer that backs the arena
+   */
+
+  public ByteBuffer byteBuffer()
+  {
+    return this.buffer;
+  }
+
+  /**
+   * @return The capacity of the arena in bytes; the limit of the byte
+   * buffer when the arena was created
+   */
+
+  public int capacityBytes()
+  {
+    return this.capacity;
+  }
+
+  /**
+   * @return The number of bytes allocated so far, including alignment
+   * padding
+   */
+
+  public int usedBytes()
+  {
+    return this.used;
+  }
+
+  /**
+   * @return The number of bytes that have not yet been allocated
+   */
+
+  public int remainingBytes()
+  {
+    return this.capacityBytes() - this.used;
+  }
+
+  /**
+   * Mark all of the arena's memory as unallocated. Existing tensors are not
+   * invalidated, but will alias any tensors allocated after the reset.
+   */
+
+  public void reset()
+  {
+    this.used = 0;
+  }
+
+  /**
+   * <p>Allocate a single tensor. The given constructor is typically the
+   * {@code createWithBase} method of a byte buffered tensor type, such as
+   * {@code MatrixByteBuffered4x4s32::createWithBase}.</p>
+   *
+   * @param constructor A tensor constructor
+   * @param <T>         The type of tensor
+   *
+   * @return A new tensor occupying a previously unallocated region
+   *
+   * @throws IndexOutOfBoundsException If the arena has insufficient space
+   *                                   remaining for the tensor
+   */
+
+  public <T extends TensorByteBufferedType> T allocate(
+    final TensorByteBufferedConstructorType<T> constructor)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(constructor, "Constructor");
+
+    final long start = align(this.used);
+    this.checkSpace(start, 0L);
+    final T tensor = constructor.create(this.buffer, this.base, (int) start);
+    this.reserve(start, (long) tensor.sizeBytes());
+    return tensor;
+  }
+
+  /**
+   * <p>Allocate a slab of {@code count} tightly packed tensors of the same
+   * type. The slab exposes a single cursor tensor that can be moved between
+   * the elements of the slab without allocating.</p>
+   *
+   * @param constructor A tensor constructor
+   * @param count       The number of tensors in the slab
+   * @param <T>         The type of tensor
+   *
+   * @return A new slab occupying a previously unallocated region
+   *
+   * @throws IndexOutOfBoundsException If {@code count} is negative, or the
+   *                                   arena has insufficient space remaining
+   *                                   for the slab
+   */
+
+  public <T extends TensorByteBufferedType> TensorSlab<T> allocateSlab(
+    final TensorByteBufferedConstructorType<T> constructor,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(constructor, "Constructor");
+
+    if (count < 0) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Tensor count %d must be non-negative", Integer.valueOf(count)));
+    }
+
+    final long start = align(this.used);
+    this.checkSpace(start, 0L);
+    final MutableLong slab_base = MutableLong.create();
+    slab_base.setValue(start);
+    final T cursor = constructor.create(this.buffer, slab_base, 0);
+    final int stride = cursor.sizeBytes();
+    this.reserve(start, (long) stride * (long) count);
+    return new TensorSlab<>(cursor, slab_base, (int) start, stride, count);
+  }
+
+  private void checkSpace(
+    final long start,
+    final long size)
+  {
+    final long end = start + size;
+    if (end > (long) this.capacity) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Arena of capacity %d has %d bytes remaining, but %d bytes were requested",
+        Integer.valueOf(this.capacity),
+        Integer.valueOf(this.remainingBytes()),
+        Long.valueOf(end - (long) this.used)));
+    }
+  }
+
+  private void reserve(
+    final long start,
+    final long size)
+  {
+    this.checkSpace(start, size);
+    this.used = (int) (start + size);
+  }
+}
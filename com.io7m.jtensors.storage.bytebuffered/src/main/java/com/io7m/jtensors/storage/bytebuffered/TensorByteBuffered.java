@@ -71,6 +71,35 @@ abstract class TensorByteBuffered implements TensorByteBufferedType
     return Math.multiplyExact(this.componentCount(), this.componentBytes());
   }
 
+  /**
+   * Check that the whole tensor lies within the bounds of the buffer, and
+   * return the byte offset of its first component. Bulk operations call
+   * this once and then address components relative to the returned offset,
+   * rather than repeating the checked arithmetic of {@link
+   * #byteOffsetForIndex(int)} for every component.
+   *
+   * @return The byte offset of the first component of the tensor
+   *
+   * @throws IndexOutOfBoundsException If the tensor does not lie entirely
+   *                                   within the limit of the buffer
+   */
+
+  protected final int byteOffsetChecked()
+    throws IndexOutOfBoundsException
+  {
+    final long start = this.byteOffset();
+    final long end = Math.addExact(start, (long) this.sizeBytes());
+    final int limit = this.buffer.limit();
+    if (start < 0L || end > (long) limit) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Tensor of size %d at byte offset %d does not fit in a buffer with limit %d",
+        Integer.valueOf(this.sizeBytes()),
+        Long.valueOf(start),
+        Integer.valueOf(limit)));
+    }
+    return (int) start;
+  }
+
   protected final int byteOffsetForIndex(
     final int component_index)
   {
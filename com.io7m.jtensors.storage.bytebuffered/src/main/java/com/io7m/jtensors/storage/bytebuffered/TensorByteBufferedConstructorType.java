@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.mutable.numbers.core.MutableLongType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>The type of functions that construct byte buffered tensors.</p>
+ *
+ * <p>The {@code createWithBase} methods of all of the byte buffered
+ * tensor types conform to this interface, and so can be passed to
+ * {@link TensorArena} by method reference.</p>
+ *
+ * @param <T> The type of constructed tensors
+ */
+
+@FunctionalInterface
+public interface TensorByteBufferedConstructorType<T extends TensorByteBufferedType>
+{
+  /**
+   * Construct a tensor.
+   *
+   * @param buffer The byte buffer
+   * @param base   The base address
+   * @param offset A constant offset
+   *
+   * @return A new buffered tensor
+   */
+
+  T create(
+    ByteBuffer buffer,
+    MutableLongType base,
+    int offset);
+}
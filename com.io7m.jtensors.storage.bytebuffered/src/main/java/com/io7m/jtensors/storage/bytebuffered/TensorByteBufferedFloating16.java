@@ -53,4 +53,26 @@ abstract class TensorByteBufferedFloating16 extends TensorByteBuffered
     final char source = this.byteBuffer().getChar(offset);
     return Binary16.unpackDouble(source);
   }
+
+  /*
+   * Unchecked variants of putValue and getValue for use by bulk operations.
+   * The byte offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final double value)
+  {
+    this.byteBuffer().putChar(
+      byte_offset + (component_index * 2), Binary16.packDouble(value));
+  }
+
+  final double getValueAt(
+    final int byte_offset,
+    final int component_index)
+  {
+    return Binary16.unpackDouble(
+      this.byteBuffer().getChar(byte_offset + (component_index * 2)));
+  }
 }
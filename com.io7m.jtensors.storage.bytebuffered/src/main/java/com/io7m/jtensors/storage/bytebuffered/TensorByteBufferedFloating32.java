@@ -51,4 +51,26 @@ abstract class TensorByteBufferedFloating32 extends TensorByteBuffered
     final int offset = this.byteOffsetForIndex(i);
     return (double) this.byteBuffer().getFloat(offset);
   }
+
+  /*
+   * Unchecked variants of putValue and getValue for use by bulk operations.
+   * The byte offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final double value)
+  {
+    this.byteBuffer().putFloat(
+      byte_offset + (component_index * 4), (float) value);
+  }
+
+  final double getValueAt(
+    final int byte_offset,
+    final int component_index)
+  {
+    return (double) this.byteBuffer().getFloat(
+      byte_offset + (component_index * 4));
+  }
 }
@@ -50,4 +50,26 @@ abstract class TensorByteBufferedFloating64 extends TensorByteBuffered
     final int offset = this.byteOffsetForIndex(i);
     return this.byteBuffer().getDouble(offset);
   }
+
+  /*
+   * Unchecked variants of putValue and getValue for use by bulk operations.
+   * The byte offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final double value)
+  {
+    this.byteBuffer().putDouble(
+      byte_offset + (component_index * 8), value);
+  }
+
+  final double getValueAt(
+    final int byte_offset,
+    final int component_index)
+  {
+    return this.byteBuffer().getDouble(
+      byte_offset + (component_index * 8));
+  }
 }
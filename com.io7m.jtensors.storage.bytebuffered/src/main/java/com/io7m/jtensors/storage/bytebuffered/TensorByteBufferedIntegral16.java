@@ -50,4 +50,18 @@ abstract class TensorByteBufferedIntegral16 extends TensorByteBuffered
     final int offset = this.byteOffsetForIndex(index);
     return (long) this.byteBuffer().getShort(offset);
   }
+
+  /*
+   * An unchecked variant of putValue for use by bulk operations. The byte
+   * offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final long value)
+  {
+    this.byteBuffer().putShort(
+      byte_offset + (component_index * 2), (short) value);
+  }
 }
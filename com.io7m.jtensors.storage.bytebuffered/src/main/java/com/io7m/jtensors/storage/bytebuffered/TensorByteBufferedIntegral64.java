@@ -50,4 +50,18 @@ abstract class TensorByteBufferedIntegral64 extends TensorByteBuffered
     final int offset = this.byteOffsetForIndex(i);
     return this.byteBuffer().getLong(offset);
   }
+
+  /*
+   * An unchecked variant of putValue for use by bulk operations. The byte
+   * offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final long value)
+  {
+    this.byteBuffer().putLong(
+      byte_offset + (component_index * 8), value);
+  }
 }
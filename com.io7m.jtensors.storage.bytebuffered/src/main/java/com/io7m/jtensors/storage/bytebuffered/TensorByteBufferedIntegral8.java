@@ -50,4 +50,17 @@ abstract class TensorByteBufferedIntegral8 extends TensorByteBuffered
     final int offset = this.byteOffsetForIndex(index);
     return (long) this.byteBuffer().get(offset);
   }
+
+  /*
+   * An unchecked variant of putValue for use by bulk operations. The byte
+   * offset must have been obtained from byteOffsetChecked().
+   */
+
+  final void putValueAt(
+    final int byte_offset,
+    final int component_index,
+    final long value)
+  {
+    this.byteBuffer().put(byte_offset + component_index, (byte) value);
+  }
 }
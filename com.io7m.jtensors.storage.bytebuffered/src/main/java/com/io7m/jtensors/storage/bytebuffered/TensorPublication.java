@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A version counter used to safely publish the contents of byte buffered
+ * tensors from one thread to another.</p>
+ *
+ * <p>Reads and writes of tensor components are plain memory accesses with
+ * no ordering guarantees between threads. To hand a set of tensors from a
+ * writing thread to a reading thread, the writer performs all of its
+ * writes and then calls {@link #publish()}. A reader that calls {@link
+ * #acquire()} and observes the version returned by that call to {@code
+ * publish()} (or any later version) is guaranteed to observe all of the
+ * writes that preceded it.</p>
+ *
+ * <p>{@link #publish()} has release semantics and {@link #acquire()} has
+ * acquire semantics: neither imposes a full fence. The writer must not
+ * modify the published tensors while readers may be reading them; typical
+ * usage double-buffers the tensor storage and publishes after each swap.
+ * Only a single thread may call {@link #publish()} for a given
+ * publication.</p>
+ */
+
+public final class TensorPublication
+{
+  private final AtomicLong version;
+
+  private TensorPublication()
+  {
+    this.version = new AtomicLong(0L);
+  }
+
+  /**
+   * @return A new publication with version {@code 0}
+   */
+
+  public static TensorPublication create()
+  {
+    return new TensorPublication();
+  }
+
+  /**
+   * Publish all writes made by the current thread so far. This is a release
+   * store of an incremented version number.
+   *
+   * @return The new version
+   */
+
+  public long publish()
+  {
+    final long next = this.version.get() + 1L;
+    this.version.lazySet(next);
+    return next;
+  }
+
+  /**
+   * Acquire the most recently published version. All writes that preceded
+   * the {@link #publish()} call that produced the returned version are
+   * visible to the current thread after this method returns.
+   *
+   * @return The most recently published version
+   */
+
+  public long acquire()
+  {
+    return this.version.get();
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.mutable.numbers.core.MutableLong;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>A long-addressed array of tightly packed tensors of the same type,
+ * stored across a series of byte buffers (segments).</p>
+ *
+ * <p>A single byte buffer is limited to {@code 2^31 - 1} bytes, which
+ * limits an array of {@code 4x4} {@code double} matrices to roughly 16
+ * million elements. A segmented array splits the tensors across as many
+ * buffers as necessary, with each segment holding a whole number of
+ * tensors. Tensors never straddle segment boundaries.</p>
+ *
+ * <p>Each segment has its own cursor, which is an ordinary byte buffered
+ * tensor and so implements the usual storage interfaces (such as {@code
+ * MatrixStorage4x4Type}). {@link #select(long)} moves the cursor of the
+ * segment containing the requested tensor and returns it. No objects are
+ * allocated after the array is created.</p>
+ *
+ * <p>Arrays are not thread-safe.</p>
+ *
+ * @param <T> The type of tensor
+ */
+
+public final class TensorSegmentedArray<T extends TensorByteBufferedType>
+{
+  private final List<ByteBuffer> segments;
+  private final List<MutableLong> bases;
+  private final List<T> cursors;
+  private final long count;
+  private final int stride;
+  private final int segment_tensors;
+
+  private TensorSegmentedArray(
+    final List<ByteBuffer> in_segments,
+    final List<MutableLong> in_bases,
+    final List<T> in_cursors,
+    final long in_count,
+    final int in_stride,
+    final int in_segment_tensors)
+  {
+    this.segments = NullCheck.notNull(in_segments, "Segments");
+    this.bases = NullCheck.notNull(in_bases, "Bases");
+    this.cursors = NullCheck.notNull(in_cursors, "Cursors");
+    this.count = in_count;
+    this.stride = in_stride;
+    this.segment_tensors = in_segment_tensors;
+  }
+
+  /**
+   * Determine the size in bytes of tensors produced by the given
+   * constructor.
+   *
+   * @param constructor A tensor constructor
+   *
+   * @return The size in bytes of a single tensor
+   */
+
+  public static int tensorSizeBytes(
+    final TensorByteBufferedConstructorType<?> constructor)
+  {
+    NullCheck.notNull(constructor, "Constructor");
+    return constructor.create(ByteBuffer.allocate(0), MutableLong.create(), 0)
+      .sizeBytes();
+  }
+
+  /**
+   * Determine the number of tensors of size {@code stride} that fit in a
+   * segment of at most {@code segment_bytes} bytes.
+   *
+   * @param stride        The size in bytes of a single tensor
+   * @param segment_bytes The maximum size in bytes of a segment
+   *
+   * @return The number of tensors per segment
+   *
+   * @throws IllegalArgumentException If {@code segment_bytes} is too small to
+   *                                  hold a single tensor
+   */
+
+  public static int segmentTensorsFor(
+    final int stride,
+    final int segment_bytes)
+    throws IllegalArgumentException
+  {
+    if (stride <= 0 || segment_bytes < stride) {
+      throw new IllegalArgumentException(String.format(
+        "Segment size %d is too small to hold a tensor of size %d",
+        Integer.valueOf(segment_bytes),
+        Integer.valueOf(stride)));
+    }
+    return segment_bytes / stride;
+  }
+
+  /**
+   * Determine the number of segments required to hold {@code count} tensors
+   * when each segment holds {@code segment_tensors} tensors.
+   *
+   * @param count           The number of tensors
+   * @param segment_tensors The number of tensors per segment
+   *
+   * @return The number of segments
+   */
+
+  public static int segmentCountFor(
+    final long count,
+    final int segment_tensors)
+  {
+    return Math.toIntExact(
+      (count + (long) segment_tensors - 1L) / (long) segment_tensors);
+  }
+
+  /**
+   * Allocate a new array of {@code count} tensors in direct byte buffers
+   * using the given byte order, with segments as large as possible.
+   *
+   * @param count       The number of tensors
+   * @param order       The byte order
+   * @param constructor A tensor constructor, such as {@code
+   *                    MatrixByteBuffered4x4s64::createWithBase}
+   * @param <T>         The type of tensor
+   *
+   * @return A new array
+   */
+
+  public static <T extends TensorByteBufferedType> TensorSegmentedArray<T> createDirect(
+    final long count,
+    final ByteOrder order,
+    final TensorByteBufferedConstructorType<T> constructor)
+  {
+    return createDirectWithSegmentSize(
+      count, order, constructor, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Allocate a new array of {@code count} tensors in direct byte buffers
+   * using the given byte order, with segments of at most {@code
+   * segment_bytes} bytes.
+   *
+   * @param count         The number of tensors
+   * @param order         The byte order
+   * @param constructor   A tensor constructor
+   * @param segment_bytes The maximum size in bytes of each segment
+   * @param <T>           The type of tensor
+   *
+   * @return A new array
+   *
+   * @throws IllegalArgumentException If {@code count} is negative, or
+   *                                  {@code segment_bytes} is too small to
+   *                                  hold a single tensor
+   */
+
+  public static <T extends TensorByteBufferedType> TensorSegmentedArray<T> createDirectWithSegmentSize(
+    final long count,
+    final ByteOrder order,
+    final TensorByteBufferedConstructorType<T> constructor,
+    final int segment_bytes)
+    throws IllegalArgumentException
+  {
+    NullCheck.notNull(order, "Order");
+    checkCount(count);
+
+    final int stride = tensorSizeBytes(constructor);
+    final int segment_tensors = segmentTensorsFor(stride, segment_bytes);
+    final int segment_count = segmentCountFor(count, segment_tensors);
+
+    final List<ByteBuffer> segments = new ArrayList<>(segment_count);
+    for (int segment = 0; segment < segment_count; ++segment) {
+      final long first = (long) segment * (long) segment_tensors;
+      final long tensors = Math.min((long) segment_tensors, count - first);
+      segments.add(
+        ByteBuffer.allocateDirect((int) (tensors * (long) stride))
+          .order(order));
+    }
+
+    return createWithSegments(segments, segment_tensors, count, constructor);
+  }
+
+  /**
+   * Create an array of {@code count} tensors over the given existing
+   * segments. Segment {@code i} holds the tensors with indices in the range
+   * {@code [i * segment_tensors, (i + 1) * segment_tensors)}, starting at
+   * byte {@code 0} of the segment.
+   *
+   * @param segments        The segments
+   * @param segment_tensors The number of tensors held in each segment
+   * @param count           The number of tensors
+   * @param constructor     A tensor constructor
+   * @param <T>             The type of tensor
+   *
+   * @return A new array
+   *
+   * @throws IllegalArgumentException If {@code count} is negative, {@code
+   *                                  segment_tensors} is not positive, or
+   *                                  the segments are too few or too small
+   *                                  to hold {@code count} tensors
+   */
+
+  public static <T extends TensorByteBufferedType> TensorSegmentedArray<T> createWithSegments(
+    final List<? extends ByteBuffer> segments,
+    final int segment_tensors,
+    final long count,
+    final TensorByteBufferedConstructorType<T> constructor)
+    throws IllegalArgumentException
+  {
+    NullCheck.notNull(segments, "Segments");
+    NullCheck.notNull(constructor, "Constructor");
+    checkCount(count);
+
+    if (segment_tensors <= 0) {
+      throw new IllegalArgumentException(String.format(
+        "Tensors per segment %d must be positive",
+        Integer.valueOf(segment_tensors)));
+    }
+
+    final int stride = tensorSizeBytes(constructor);
+    final int segment_count = segmentCountFor(count, segment_tensors);
+    if (segments.size() < segment_count) {
+      throw new IllegalArgumentException(String.format(
+        "%d segments are required, but only %d were provided",
+        Integer.valueOf(segment_count),
+        Integer.valueOf(segments.size())));
+    }
+
+    final List<ByteBuffer> segments_copy = new ArrayList<>(segment_count);
+    final List<MutableLong> bases = new ArrayList<>(segment_count);
+    final List<T> cursors = new ArrayList<>(segment_count);
+
+    for (int segment = 0; segment < segment_count; ++segment) {
+      final ByteBuffer buffer =
+        NullCheck.notNull(segments.get(segment), "Segment");
+      final long first = (long) segment * (long) segment_tensors;
+      final long tensors = Math.min((long) segment_tensors, count - first);
+      final long required = tensors * (long) stride;
+      if ((long) buffer.limit() < required) {
+        throw new IllegalArgumentException(String.format(
+          "Segment %d with limit %d is too small to hold %d tensors (%d bytes required)",
+          Integer.valueOf(segment),
+          Integer.valueOf(buffer.limit()),
+          Long.valueOf(tensors),
+          Long.valueOf(required)));
+      }
+
+      final MutableLong base = MutableLong.create();
+      segments_copy.add(buffer);
+      bases.add(base);
+      cursors.add(constructor.create(buffer, base, 0));
+    }
+
+    return new TensorSegmentedArray<>(
+      Collections.unmodifiableList(segments_copy),
+      bases,
+      cursors,
+      count,
+      stride,
+      segment_tensors);
+  }
+
+  private static void checkCount(
+    final long count)
+  {
+    if (count < 0L) {
+      throw new IllegalArgumentException(String.format(
+        "Tensor count %d must be non-negative", Long.valueOf(count)));
+    }
+  }
+
+  /**
+   * @return The number of tensors in the array
+   */
+
+  public long count()
+  {
+    return this.count;
+  }
+
+  /**
+   * @return The size in bytes of each tensor
+   */
+
+  public int strideBytes()
+  {
+    return this.stride;
+  }
+
+  /**
+   * @return The total size in bytes of the tensors in the array
+   */
+
+  public long sizeBytes()
+  {
+    return this.count * (long) this.stride;
+  }
+
+  /**
+   * @return A read-only list of the segments
+   */
+
+  public List<ByteBuffer> segments()
+  {
+    return this.segments;
+  }
+
+  /**
+   * @return The number of tensors held in each segment (the last segment
+   * may hold fewer)
+   */
+
+  public int segmentTensors()
+  {
+    return this.segment_tensors;
+  }
+
+  /**
+   * Move the cursor of the segment holding tensor {@code index} to that
+   * tensor, and return the cursor. The returned cursor remains valid until
+   * the next call to this method that selects a tensor in the same segment.
+   *
+   * @param index The tensor index
+   *
+   * @return A cursor positioned at the given tensor
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is not in the range
+   *                                   {@code [0, count())}
+   */
+
+  public T select(
+    final long index)
+    throws IndexOutOfBoundsException
+  {
+    if (index < 0L || index >= this.count) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Index %d must be in the range [0, %d)",
+        Long.valueOf(index),
+        Long.valueOf(this.count)));
+    }
+
+    final int segment = (int) (index / (long) this.segment_tensors);
+    final long within = index % (long) this.segment_tensors;
+    this.bases.get(segment).setValue(within * (long) this.stride);
+    return this.cursors.get(segment);
+  }
+}
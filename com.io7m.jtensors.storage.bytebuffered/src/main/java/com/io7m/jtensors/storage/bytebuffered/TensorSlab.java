@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.mutable.numbers.core.MutableLong;
+
+/**
+ * <p>A contiguous region of tightly packed tensors of the same type,
+ * allocated from a {@link TensorArena}.</p>
+ *
+ * <p>A slab exposes a single cursor tensor. Selecting an index moves the
+ * cursor to the tensor at that index; no objects are allocated.</p>
+ *
+ * @param <T> The type of tensor
+ */
+
+public final class TensorSlab<T extends TensorByteBufferedType>
+{
+  private final T cursor;
+  private final MutableLong base;
+  private final int start;
+  private final int stride;
+  private final int count;
+  private int index;
+
+  TensorSlab(
+    final T in_cursor,
+    final MutableLong in_base,
+    final int in_start,
+    final int in_stride,
+    final int in_count)
+  {
+    this.cursor = NullCheck.notNull(in_cursor, "Cursor");
+    this.base = NullCheck.notNull(in_base, "Base");
+    this.start = in_start;
+    this.stride = in_stride;
+    this.count = in_count;
+    this.index = 0;
+  }
+
+  /**
+   * @return The cursor tensor, positioned at the current index
+   */
+
+  public T cursor()
+  {
+    return this.cursor;
+  }
+
+  /**
+   * @return The number of tensors in the slab
+   */
+
+  public int count()
+  {
+    return this.count;
+  }
+
+  /**
+   * @return The current index of the cursor
+   */
+
+  public int index()
+  {
+    return this.index;
+  }
+
+  /**
+   * @return The size in bytes of each tensor in the slab
+   */
+
+  public int strideBytes()
+  {
+    return this.stride;
+  }
+
+  /**
+   * @return The offset in bytes of the start of the slab within the arena's
+   * buffer
+   */
+
+  public int startByteOffset()
+  {
+    return this.start;
+  }
+
+  /**
+   * @return The total size in bytes of the slab
+   */
+
+  public int sizeBytes()
+  {
+    return this.stride * this.count;
+  }
+
+  /**
+   * Move the cursor to the tensor at index {@code i}.
+   *
+   * @param i The index
+   *
+   * @return The cursor tensor
+   *
+   * @throws IndexOutOfBoundsException If {@code i} is not in the range
+   *                                   {@code [0, count())}
+   */
+
+  public T select(
+    final int i)
+    throws IndexOutOfBoundsException
+  {
+    if (i < 0 || i >= this.count) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Index %d must be in the range [0, %d)",
+        Integer.valueOf(i),
+        Integer.valueOf(this.count)));
+    }
+
+    this.index = i;
+    this.base.setValue((long) this.start + (long) this.stride * (long) i);
+    return this.cursor;
+  }
+}
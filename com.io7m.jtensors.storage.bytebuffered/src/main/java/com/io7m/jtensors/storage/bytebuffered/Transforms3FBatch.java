@@ -0,0 +1,1240 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrixReadable4x4DType;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>Batch functions that transform arrays of 3D {@code float} points and
+ * directions by a single 4x4 matrix.</p>
+ *
+ * <p>Each function is provided in two forms. The first operates on vectors
+ * stored in byte buffers, tightly packed starting at byte {@code 0} of each
+ * buffer, using the same layout as {@link VectorByteBufferedFloating3s32}.
+ * Each vector therefore occupies {@code 12} bytes. The byte order of each
+ * buffer is respected. The second form operates on vectors stored as a
+ * structure of arrays, with the {@code x}, {@code y}, and {@code z}
+ * components of the vector at index {@code i} stored at index {@code i} of
+ * three separate {@code float} arrays. Each form accepts either an
+ * unparameterized matrix or a parameterized matrix that transforms from
+ * coordinate space {@code A} to coordinate space {@code B}.</p>
+ *
+ * <p>Each function also has a {@code Parallel} variant that, when the
+ * number of vectors exceeds a given threshold, divides the work into tasks
+ * of at most {@code threshold} vectors that are executed on a {@link
+ * ForkJoinPool}. When the number of vectors does not exceed the threshold,
+ * the work is performed on the calling thread. Each {@code Parallel}
+ * variant is also available without a threshold argument, in which case a
+ * threshold of {@code 1024} is used. The functions return when all of the
+ * work has completed.</p>
+ *
+ * <p>As with the {@code Vectors3F} functions, components are widened to
+ * {@code double} for all intermediate computations and narrowed to {@code
+ * float} when stored. All capacity checks are performed once, before any
+ * vector is processed. The outputs of every function may be the same
+ * buffers or arrays as its inputs, in which case the vectors are
+ * transformed in place.</p>
+ *
+ * <p>None of the functions in this class allocate, except for the tasks
+ * created by the {@code Parallel} variants.</p>
+ */
+
+public final class Transforms3FBatch
+{
+  private static final int COMPONENT_BYTES = 4;
+  private static final int VECTOR_COMPONENTS = 3;
+  private static final int VECTOR_BYTES = VECTOR_COMPONENTS * COMPONENT_BYTES;
+
+  /*
+   * The maximum number of vectors processed by a single task in the
+   * parallel transform functions that do not take a threshold.
+   */
+
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private Transforms3FBatch()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The size in bytes of a single vector
+   */
+
+  public static int vectorSizeBytes()
+  {
+    return VECTOR_BYTES;
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}. For each {@code
+   * i} in {@code [0, count)}, the point at index {@code i} in the output is
+   * set to {@code m * (x, y, z, 1)}, discarding the resulting {@code w}
+   * component. The bottom row of {@code m} is ignored, so {@code m} is
+   * treated as an affine transform.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPoints(
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    transformPointsBuffer(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      a, out,
+      0,
+      count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPointsParallel(ForkJoinPool, int, MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}, using tasks of at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPointsParallel(
+    final ForkJoinPool pool,
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool, PARALLEL_THRESHOLD, m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPoints(MatrixReadable4x4DType, ByteBuffer, ByteBuffer, int)},
+   * dividing the work into tasks of at most {@code threshold} vectors that are
+   * executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param a         The input vectors
+   * @param out       The output vectors
+   * @param count     The number of vectors
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPointsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkThreshold(threshold);
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r0c3 = m.r0c3();
+    final double m_r1c0 = m.r1c0();
+    final double m_r1c1 = m.r1c1();
+    final double m_r1c2 = m.r1c2();
+    final double m_r1c3 = m.r1c3();
+    final double m_r2c0 = m.r2c0();
+    final double m_r2c1 = m.r2c1();
+    final double m_r2c2 = m.r2c2();
+    final double m_r2c3 = m.r2c3();
+
+    run(
+      pool,
+      threshold,
+      count,
+      (range_first, range_count) -> transformPointsBuffer(
+        m_r0c0, m_r0c1, m_r0c2, m_r0c3,
+        m_r1c0, m_r1c1, m_r1c2, m_r1c3,
+        m_r2c0, m_r2c1, m_r2c2, m_r2c3,
+        a, out,
+        range_first,
+        range_count));
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}. This function
+   * behaves exactly as {@link #transformPoints(MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPoints(
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPoints((MatrixReadable4x4DType) m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPointsParallel(ForkJoinPool, int, PMatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}, using tasks of at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPointsParallel(
+    final ForkJoinPool pool,
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool, PARALLEL_THRESHOLD, m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPoints(PMatrixReadable4x4DType, ByteBuffer, ByteBuffer, int)},
+   * dividing the work into tasks of at most {@code threshold} vectors that are
+   * executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param a         The input vectors
+   * @param out       The output vectors
+   * @param count     The number of vectors
+   * @param <A>       The source coordinate space
+   * @param <B>       The target coordinate space
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPointsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool, threshold, (MatrixReadable4x4DType) m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}. For each {@code
+   * i} in {@code [0, count)}, the point at index {@code i} in the output is
+   * set to {@code m * (x, y, z, 1)}, discarding the resulting {@code w}
+   * component. The bottom row of {@code m} is ignored, so {@code m} is
+   * treated as an affine transform.
+   *
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPoints(
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(out_x, "Output X");
+    NullCheck.notNull(out_y, "Output Y");
+    NullCheck.notNull(out_z, "Output Z");
+
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(out_x, count);
+    checkCapacity(out_y, count);
+    checkCapacity(out_z, count);
+
+    transformPointsArrays(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      x, y, z, out_x, out_y, out_z,
+      0,
+      count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPointsParallel(ForkJoinPool, int, MatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}, using tasks of
+   * at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPointsParallel(
+    final ForkJoinPool pool,
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool, PARALLEL_THRESHOLD, m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPoints(MatrixReadable4x4DType, float[], float[], float[],
+   * float[], float[], float[], int)}, dividing the work into tasks of at
+   * most {@code threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param x         The input x components
+   * @param y         The input y components
+   * @param z         The input z components
+   * @param out_x     The output x components
+   * @param out_y     The output y components
+   * @param out_z     The output z components
+   * @param count     The number of vectors
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformPointsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(out_x, "Output X");
+    NullCheck.notNull(out_y, "Output Y");
+    NullCheck.notNull(out_z, "Output Z");
+
+    checkThreshold(threshold);
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(out_x, count);
+    checkCapacity(out_y, count);
+    checkCapacity(out_z, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r0c3 = m.r0c3();
+    final double m_r1c0 = m.r1c0();
+    final double m_r1c1 = m.r1c1();
+    final double m_r1c2 = m.r1c2();
+    final double m_r1c3 = m.r1c3();
+    final double m_r2c0 = m.r2c0();
+    final double m_r2c1 = m.r2c1();
+    final double m_r2c2 = m.r2c2();
+    final double m_r2c3 = m.r2c3();
+
+    run(
+      pool,
+      threshold,
+      count,
+      (range_first, range_count) -> transformPointsArrays(
+        m_r0c0, m_r0c1, m_r0c2, m_r0c3,
+        m_r1c0, m_r1c1, m_r1c2, m_r1c3,
+        m_r2c0, m_r2c1, m_r2c2, m_r2c3,
+        x, y, z, out_x, out_y, out_z,
+        range_first,
+        range_count));
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}. This function
+   * behaves exactly as {@link #transformPoints(MatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}.
+   *
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPoints(
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPoints(
+      (MatrixReadable4x4DType) m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPointsParallel(ForkJoinPool, int, PMatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}, using tasks of
+   * at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPointsParallel(
+    final ForkJoinPool pool,
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool, PARALLEL_THRESHOLD, m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} points by the matrix {@code m}, as with {@link
+   * #transformPoints(PMatrixReadable4x4DType, float[], float[], float[],
+   * float[], float[], float[], int)}, dividing the work into tasks of at
+   * most {@code threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param x         The input x components
+   * @param y         The input y components
+   * @param z         The input z components
+   * @param out_x     The output x components
+   * @param out_y     The output y components
+   * @param out_z     The output z components
+   * @param count     The number of vectors
+   * @param <A>       The source coordinate space
+   * @param <B>       The target coordinate space
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformPointsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    transformPointsParallel(
+      pool,
+      threshold,
+      (MatrixReadable4x4DType) m,
+      x, y, z, out_x, out_y, out_z,
+      count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}. For each
+   * {@code i} in {@code [0, count)}, the direction at index {@code i} in the
+   * output is set to {@code m * (x, y, z, 0)}, discarding the resulting
+   * {@code w} component. Only the upper-left 3x3 part of {@code m} is used,
+   * so directions are unaffected by translation.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirections(
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    transformDirectionsBuffer(
+      m.r0c0(), m.r0c1(), m.r0c2(),
+      m.r1c0(), m.r1c1(), m.r1c2(),
+      m.r2c0(), m.r2c1(), m.r2c2(),
+      a, out,
+      0,
+      count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with {@link
+   * #transformDirectionsParallel(ForkJoinPool, int, MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}, using tasks of at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool, PARALLEL_THRESHOLD, m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with
+   * {@link #transformDirections(MatrixReadable4x4DType, ByteBuffer,
+   * ByteBuffer, int)}, dividing the work into tasks of at most {@code
+   * threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param a         The input vectors
+   * @param out       The output vectors
+   * @param count     The number of vectors
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final MatrixReadable4x4DType m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkThreshold(threshold);
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r1c0 = m.r1c0();
+    final double m_r1c1 = m.r1c1();
+    final double m_r1c2 = m.r1c2();
+    final double m_r2c0 = m.r2c0();
+    final double m_r2c1 = m.r2c1();
+    final double m_r2c2 = m.r2c2();
+
+    run(
+      pool,
+      threshold,
+      count,
+      (range_first, range_count) -> transformDirectionsBuffer(
+        m_r0c0, m_r0c1, m_r0c2,
+        m_r1c0, m_r1c1, m_r1c2,
+        m_r2c0, m_r2c1, m_r2c2,
+        a, out,
+        range_first,
+        range_count));
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}. This function
+   * behaves exactly as {@link #transformDirections(MatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirections(
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirections((MatrixReadable4x4DType) m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with {@link
+   * #transformDirectionsParallel(ForkJoinPool, int, PMatrixReadable4x4DType,
+   * ByteBuffer, ByteBuffer, int)}, using tasks of at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool, PARALLEL_THRESHOLD, m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with
+   * {@link #transformDirections(PMatrixReadable4x4DType, ByteBuffer,
+   * ByteBuffer, int)}, dividing the work into tasks of at most {@code
+   * threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param a         The input vectors
+   * @param out       The output vectors
+   * @param count     The number of vectors
+   * @param <A>       The source coordinate space
+   * @param <B>       The target coordinate space
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final PMatrixReadable4x4DType<A, B> m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool, threshold, (MatrixReadable4x4DType) m, a, out, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}. For each
+   * {@code i} in {@code [0, count)}, the direction at index {@code i} in the
+   * output is set to {@code m * (x, y, z, 0)}, discarding the resulting
+   * {@code w} component. Only the upper-left 3x3 part of {@code m} is used,
+   * so directions are unaffected by translation.
+   *
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirections(
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(out_x, "Output X");
+    NullCheck.notNull(out_y, "Output Y");
+    NullCheck.notNull(out_z, "Output Z");
+
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(out_x, count);
+    checkCapacity(out_y, count);
+    checkCapacity(out_z, count);
+
+    transformDirectionsArrays(
+      m.r0c0(), m.r0c1(), m.r0c2(),
+      m.r1c0(), m.r1c1(), m.r1c2(),
+      m.r2c0(), m.r2c1(), m.r2c2(),
+      x, y, z, out_x, out_y, out_z,
+      0,
+      count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with {@link
+   * #transformDirectionsParallel(ForkJoinPool, int, MatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}, using tasks of
+   * at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool, PARALLEL_THRESHOLD, m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with
+   * {@link #transformDirections(MatrixReadable4x4DType, float[], float[],
+   * float[], float[], float[], float[], int)}, dividing the work into tasks
+   * of at most {@code threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param x         The input x components
+   * @param y         The input y components
+   * @param z         The input z components
+   * @param out_x     The output x components
+   * @param out_y     The output y components
+   * @param out_z     The output z components
+   * @param count     The number of vectors
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final MatrixReadable4x4DType m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    NullCheck.notNull(pool, "Pool");
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(x, "X");
+    NullCheck.notNull(y, "Y");
+    NullCheck.notNull(z, "Z");
+    NullCheck.notNull(out_x, "Output X");
+    NullCheck.notNull(out_y, "Output Y");
+    NullCheck.notNull(out_z, "Output Z");
+
+    checkThreshold(threshold);
+    checkCapacity(x, count);
+    checkCapacity(y, count);
+    checkCapacity(z, count);
+    checkCapacity(out_x, count);
+    checkCapacity(out_y, count);
+    checkCapacity(out_z, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r1c0 = m.r1c0();
+    final double m_r1c1 = m.r1c1();
+    final double m_r1c2 = m.r1c2();
+    final double m_r2c0 = m.r2c0();
+    final double m_r2c1 = m.r2c1();
+    final double m_r2c2 = m.r2c2();
+
+    run(
+      pool,
+      threshold,
+      count,
+      (range_first, range_count) -> transformDirectionsArrays(
+        m_r0c0, m_r0c1, m_r0c2,
+        m_r1c0, m_r1c1, m_r1c2,
+        m_r2c0, m_r2c1, m_r2c2,
+        x, y, z, out_x, out_y, out_z,
+        range_first,
+        range_count));
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}. This function
+   * behaves exactly as {@link #transformDirections(MatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}.
+   *
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirections(
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirections(
+      (MatrixReadable4x4DType) m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with {@link
+   * #transformDirectionsParallel(ForkJoinPool, int, PMatrixReadable4x4DType,
+   * float[], float[], float[], float[], float[], float[], int)}, using tasks of
+   * at most {@code 1024} vectors.
+   *
+   * @param pool  The pool that will execute the tasks
+   * @param m     The matrix
+   * @param x     The input x components
+   * @param y     The input y components
+   * @param z     The input z components
+   * @param out_x The output x components
+   * @param out_y The output y components
+   * @param out_z The output z components
+   * @param count The number of vectors
+   * @param <A>   The source coordinate space
+   * @param <B>   The target coordinate space
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool, PARALLEL_THRESHOLD, m, x, y, z, out_x, out_y, out_z, count);
+  }
+
+  /**
+   * Transform {@code count} directions by the matrix {@code m}, as with
+   * {@link #transformDirections(PMatrixReadable4x4DType, float[], float[],
+   * float[], float[], float[], float[], int)}, dividing the work into tasks
+   * of at most {@code threshold} vectors that are executed on {@code pool}.
+   *
+   * @param pool      The pool that will execute the tasks
+   * @param threshold The maximum number of vectors processed by a task
+   * @param m         The matrix
+   * @param x         The input x components
+   * @param y         The input y components
+   * @param z         The input z components
+   * @param out_x     The output x components
+   * @param out_y     The output y components
+   * @param out_z     The output z components
+   * @param count     The number of vectors
+   * @param <A>       The source coordinate space
+   * @param <B>       The target coordinate space
+   *
+   * @throws IllegalArgumentException  If {@code threshold} is not positive
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static <A, B> void transformDirectionsParallel(
+    final ForkJoinPool pool,
+    final int threshold,
+    final PMatrixReadable4x4DType<A, B> m,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int count)
+    throws IllegalArgumentException, IndexOutOfBoundsException
+  {
+    transformDirectionsParallel(
+      pool,
+      threshold,
+      (MatrixReadable4x4DType) m,
+      x, y, z, out_x, out_y, out_z,
+      count);
+  }
+
+  private static void checkThreshold(
+    final int threshold)
+  {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException(String.format(
+        "Threshold %d must be positive", Integer.valueOf(threshold)));
+    }
+  }
+
+  private static void run(
+    final ForkJoinPool pool,
+    final int threshold,
+    final int count,
+    final BatchRangeFunctionType function)
+  {
+    if (count <= threshold) {
+      function.apply(0, count);
+      return;
+    }
+    pool.invoke(new BatchRangeAction(function, 0, count, threshold));
+  }
+
+  private static void transformPointsBuffer(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    for (int index = first; index < first + count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      out.putFloat(offset, (float) ((r0c0 * a_x) + (r0c1 * a_y) + (r0c2 * a_z) + r0c3));
+      out.putFloat(offset + 4, (float) ((r1c0 * a_x) + (r1c1 * a_y) + (r1c2 * a_z) + r1c3));
+      out.putFloat(offset + 8, (float) ((r2c0 * a_x) + (r2c1 * a_y) + (r2c2 * a_z) + r2c3));
+    }
+  }
+
+  private static void transformPointsArrays(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int first,
+    final int count)
+  {
+    for (int index = first; index < first + count; ++index) {
+      final double a_x = (double) x[index];
+      final double a_y = (double) y[index];
+      final double a_z = (double) z[index];
+      out_x[index] = (float) ((r0c0 * a_x) + (r0c1 * a_y) + (r0c2 * a_z) + r0c3);
+      out_y[index] = (float) ((r1c0 * a_x) + (r1c1 * a_y) + (r1c2 * a_z) + r1c3);
+      out_z[index] = (float) ((r2c0 * a_x) + (r2c1 * a_y) + (r2c2 * a_z) + r2c3);
+    }
+  }
+
+  private static void transformDirectionsBuffer(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int first,
+    final int count)
+  {
+    for (int index = first; index < first + count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      out.putFloat(offset, (float) ((r0c0 * a_x) + (r0c1 * a_y) + (r0c2 * a_z)));
+      out.putFloat(offset + 4, (float) ((r1c0 * a_x) + (r1c1 * a_y) + (r1c2 * a_z)));
+      out.putFloat(offset + 8, (float) ((r2c0 * a_x) + (r2c1 * a_y) + (r2c2 * a_z)));
+    }
+  }
+
+  private static void transformDirectionsArrays(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final float[] out_x,
+    final float[] out_y,
+    final float[] out_z,
+    final int first,
+    final int count)
+  {
+    for (int index = first; index < first + count; ++index) {
+      final double a_x = (double) x[index];
+      final double a_y = (double) y[index];
+      final double a_z = (double) z[index];
+      out_x[index] = (float) ((r0c0 * a_x) + (r0c1 * a_y) + (r0c2 * a_z));
+      out_y[index] = (float) ((r1c0 * a_x) + (r1c1 * a_y) + (r1c2 * a_z));
+      out_z[index] = (float) ((r2c0 * a_x) + (r2c1 * a_y) + (r2c2 * a_z));
+    }
+  }
+
+  private static void checkCapacity(
+    final ByteBuffer buffer,
+    final int count)
+  {
+    RangeChecks.checkBuffer(buffer, count, VECTOR_BYTES, "vectors");
+  }
+
+  private static void checkCapacity(
+    final float[] array,
+    final int count)
+  {
+    RangeChecks.checkArray(array.length, count, 1, "vectors");
+  }
+}
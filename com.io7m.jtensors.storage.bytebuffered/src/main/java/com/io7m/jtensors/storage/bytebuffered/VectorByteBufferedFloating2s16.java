@@ -93,4 +93,14 @@ public final class VectorByteBufferedFloating2s16
     this.putValue(1, y);
   }
 
+  @Override
+  public void setXY(
+    final double x,
+    final double y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
 }
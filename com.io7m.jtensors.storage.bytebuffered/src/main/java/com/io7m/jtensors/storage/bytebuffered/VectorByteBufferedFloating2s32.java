@@ -92,4 +92,15 @@ public final class VectorByteBufferedFloating2s32
   {
     this.putValue(1, y);
   }
+
+  @Override
+  public void setXY(
+    final double x,
+    final double y)
+  {
+    final int offset = this.byteOffsetChecked();
+
+    this.putValueAt(offset, 0, x);
+    this.putValueAt(offset, 1, y);
+  }
 }
@@ -0,0 +1,650 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.bytebuffered;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.junreachable.UnreachableCodeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Batch functions over arrays of 4D {@code float} vectors.</p>
+ *
+ * <p>Each function is provided in two forms. The first operates on vectors
+ * stored in byte buffers, tightly packed starting at byte {@code 0} of each
+ * buffer, using the same layout as {@link VectorByteBufferedFloating4s32}. Each vector therefore
+ * occupies {@code 16} bytes. The byte order of each buffer is respected.
+ * The second form operates on {@code float} arrays, with each vector
+ * occupying {@code 4} consecutive elements starting at index {@code 0}.
+ * </p>
+ *
+ * <p>As with the {@code Vectors4F} functions, components are widened to
+ * {@code double} for all intermediate computations and narrowed to {@code
+ * float} when stored. All capacity checks are performed once, before any
+ * vector is processed, so that the per-vector loops consist only of simple
+ * loads, arithmetic, and stores. The output of every function may be the
+ * same buffer or array as any of its inputs.</p>
+ *
+ * <p>None of the functions in this class allocate.</p>
+ */
+
+public final class Vectors4FBatch
+{
+  private static final int COMPONENT_BYTES = 4;
+  private static final int VECTOR_COMPONENTS = 4;
+  private static final int VECTOR_BYTES = VECTOR_COMPONENTS * COMPONENT_BYTES;
+
+  private Vectors4FBatch()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * @return The size in bytes of a single vector
+   */
+
+  public static int vectorSizeBytes()
+  {
+    return VECTOR_BYTES;
+  }
+
+  /**
+   * @return The number of array elements occupied by a single vector
+   */
+
+  public static int vectorSizeComponents()
+  {
+    return VECTOR_COMPONENTS;
+  }
+
+  /**
+   * Add {@code count} pairs of vectors. For each {@code i} in {@code [0,
+   * count)}, the vector at index {@code i} in {@code out} is set to {@code
+   * a[i] + b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void add(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      final double b_x = (double) b.getFloat(offset);
+      final double b_y = (double) b.getFloat(offset + 4);
+      final double b_z = (double) b.getFloat(offset + 8);
+      final double b_w = (double) b.getFloat(offset + 12);
+      out.putFloat(offset, (float) (a_x + b_x));
+      out.putFloat(offset + 4, (float) (a_y + b_y));
+      out.putFloat(offset + 8, (float) (a_z + b_z));
+      out.putFloat(offset + 12, (float) (a_w + b_w));
+    }
+  }
+
+  /**
+   * Subtract {@code count} pairs of vectors. For each {@code i} in {@code
+   * [0, count)}, the vector at index {@code i} in {@code out} is set to
+   * {@code a[i] - b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void subtract(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      final double b_x = (double) b.getFloat(offset);
+      final double b_y = (double) b.getFloat(offset + 4);
+      final double b_z = (double) b.getFloat(offset + 8);
+      final double b_w = (double) b.getFloat(offset + 12);
+      out.putFloat(offset, (float) (a_x - b_x));
+      out.putFloat(offset + 4, (float) (a_y - b_y));
+      out.putFloat(offset + 8, (float) (a_z - b_z));
+      out.putFloat(offset + 12, (float) (a_w - b_w));
+    }
+  }
+
+  /**
+   * Scale {@code count} vectors. For each {@code i} in {@code [0, count)},
+   * the vector at index {@code i} in {@code out} is set to {@code a[i] *
+   * r}.
+   *
+   * @param a     The input vectors
+   * @param r     The scaling value
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void scale(
+    final ByteBuffer a,
+    final double r,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      out.putFloat(offset, (float) (a_x * r));
+      out.putFloat(offset + 4, (float) (a_y * r));
+      out.putFloat(offset + 8, (float) (a_z * r));
+      out.putFloat(offset + 12, (float) (a_w * r));
+    }
+  }
+
+  /**
+   * Calculate {@code count} dot products. For each {@code i} in {@code [0,
+   * count)}, the {@code float} at index {@code i} in {@code out} is set to
+   * the dot product of {@code a[i]} and {@code b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output scalars
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void dotProduct(
+    final ByteBuffer a,
+    final ByteBuffer b,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacityScalars(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      final double b_x = (double) b.getFloat(offset);
+      final double b_y = (double) b.getFloat(offset + 4);
+      final double b_z = (double) b.getFloat(offset + 8);
+      final double b_w = (double) b.getFloat(offset + 12);
+      out.putFloat(index * COMPONENT_BYTES, (float) ((a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w)));
+    }
+  }
+
+  /**
+   * Normalize {@code count} vectors. For each {@code i} in {@code [0,
+   * count)}, the vector at index {@code i} in {@code out} is set to the
+   * normalized form of {@code a[i]}. Vectors of zero magnitude are copied
+   * unchanged.
+   *
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void normalize(
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      final double m = (a_x * a_x) + (a_y * a_y) + (a_z * a_z) + (a_w * a_w);
+      final double reciprocal = m > 0.0 ? 1.0 / Math.sqrt(m) : 1.0;
+      out.putFloat(offset, (float) (a_x * reciprocal));
+      out.putFloat(offset + 4, (float) (a_y * reciprocal));
+      out.putFloat(offset + 8, (float) (a_z * reciprocal));
+      out.putFloat(offset + 12, (float) (a_w * reciprocal));
+    }
+  }
+
+  /**
+   * Multiply {@code count} vectors by the matrix {@code m}. For each
+   * {@code i} in {@code [0, count)}, the vector at index {@code i} in
+   * {@code out} is set to {@code m * a[i]}.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the buffers are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void multiplyVectorPost(
+    final Matrix4x4D m,
+    final ByteBuffer a,
+    final ByteBuffer out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r1c0 = m.r1c0();
+    final double m_r2c0 = m.r2c0();
+    final double m_r3c0 = m.r3c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r1c1 = m.r1c1();
+    final double m_r2c1 = m.r2c1();
+    final double m_r3c1 = m.r3c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r1c2 = m.r1c2();
+    final double m_r2c2 = m.r2c2();
+    final double m_r3c2 = m.r3c2();
+    final double m_r0c3 = m.r0c3();
+    final double m_r1c3 = m.r1c3();
+    final double m_r2c3 = m.r2c3();
+    final double m_r3c3 = m.r3c3();
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_BYTES;
+      final double a_x = (double) a.getFloat(offset);
+      final double a_y = (double) a.getFloat(offset + 4);
+      final double a_z = (double) a.getFloat(offset + 8);
+      final double a_w = (double) a.getFloat(offset + 12);
+      out.putFloat(offset, (float) ((m_r0c0 * a_x) + (m_r0c1 * a_y) + (m_r0c2 * a_z) + (m_r0c3 * a_w)));
+      out.putFloat(offset + 4, (float) ((m_r1c0 * a_x) + (m_r1c1 * a_y) + (m_r1c2 * a_z) + (m_r1c3 * a_w)));
+      out.putFloat(offset + 8, (float) ((m_r2c0 * a_x) + (m_r2c1 * a_y) + (m_r2c2 * a_z) + (m_r2c3 * a_w)));
+      out.putFloat(offset + 12, (float) ((m_r3c0 * a_x) + (m_r3c1 * a_y) + (m_r3c2 * a_z) + (m_r3c3 * a_w)));
+    }
+  }
+
+  /**
+   * Add {@code count} pairs of vectors. For each {@code i} in {@code [0,
+   * count)}, the vector at index {@code i} in {@code out} is set to {@code
+   * a[i] + b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void add(
+    final float[] a,
+    final float[] b,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      final double b_x = (double) b[offset];
+      final double b_y = (double) b[offset + 1];
+      final double b_z = (double) b[offset + 2];
+      final double b_w = (double) b[offset + 3];
+      out[offset] = (float) (a_x + b_x);
+      out[offset + 1] = (float) (a_y + b_y);
+      out[offset + 2] = (float) (a_z + b_z);
+      out[offset + 3] = (float) (a_w + b_w);
+    }
+  }
+
+  /**
+   * Subtract {@code count} pairs of vectors. For each {@code i} in {@code
+   * [0, count)}, the vector at index {@code i} in {@code out} is set to
+   * {@code a[i] - b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void subtract(
+    final float[] a,
+    final float[] b,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      final double b_x = (double) b[offset];
+      final double b_y = (double) b[offset + 1];
+      final double b_z = (double) b[offset + 2];
+      final double b_w = (double) b[offset + 3];
+      out[offset] = (float) (a_x - b_x);
+      out[offset + 1] = (float) (a_y - b_y);
+      out[offset + 2] = (float) (a_z - b_z);
+      out[offset + 3] = (float) (a_w - b_w);
+    }
+  }
+
+  /**
+   * Scale {@code count} vectors. For each {@code i} in {@code [0, count)},
+   * the vector at index {@code i} in {@code out} is set to {@code a[i] *
+   * r}.
+   *
+   * @param a     The input vectors
+   * @param r     The scaling value
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void scale(
+    final float[] a,
+    final double r,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      out[offset] = (float) (a_x * r);
+      out[offset + 1] = (float) (a_y * r);
+      out[offset + 2] = (float) (a_z * r);
+      out[offset + 3] = (float) (a_w * r);
+    }
+  }
+
+  /**
+   * Calculate {@code count} dot products. For each {@code i} in {@code [0,
+   * count)}, the {@code float} at index {@code i} in {@code out} is set to
+   * the dot product of {@code a[i]} and {@code b[i]}.
+   *
+   * @param a     The left vectors
+   * @param b     The right vectors
+   * @param out   The output scalars
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void dotProduct(
+    final float[] a,
+    final float[] b,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(b, "B");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(b, count);
+    checkCapacityScalars(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      final double b_x = (double) b[offset];
+      final double b_y = (double) b[offset + 1];
+      final double b_z = (double) b[offset + 2];
+      final double b_w = (double) b[offset + 3];
+      out[index] = (float) ((a_x * b_x) + (a_y * b_y) + (a_z * b_z) + (a_w * b_w));
+    }
+  }
+
+  /**
+   * Normalize {@code count} vectors. For each {@code i} in {@code [0,
+   * count)}, the vector at index {@code i} in {@code out} is set to the
+   * normalized form of {@code a[i]}. Vectors of zero magnitude are copied
+   * unchanged.
+   *
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void normalize(
+    final float[] a,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      final double m = (a_x * a_x) + (a_y * a_y) + (a_z * a_z) + (a_w * a_w);
+      final double reciprocal = m > 0.0 ? 1.0 / Math.sqrt(m) : 1.0;
+      out[offset] = (float) (a_x * reciprocal);
+      out[offset + 1] = (float) (a_y * reciprocal);
+      out[offset + 2] = (float) (a_z * reciprocal);
+      out[offset + 3] = (float) (a_w * reciprocal);
+    }
+  }
+
+  /**
+   * Multiply {@code count} vectors by the matrix {@code m}. For each
+   * {@code i} in {@code [0, count)}, the vector at index {@code i} in
+   * {@code out} is set to {@code m * a[i]}.
+   *
+   * @param m     The matrix
+   * @param a     The input vectors
+   * @param out   The output vectors
+   * @param count The number of vectors
+   *
+   * @throws IndexOutOfBoundsException If any of the arrays are too small to
+   *                                   hold {@code count} vectors
+   */
+
+  public static void multiplyVectorPost(
+    final Matrix4x4D m,
+    final float[] a,
+    final float[] out,
+    final int count)
+    throws IndexOutOfBoundsException
+  {
+    NullCheck.notNull(m, "Matrix");
+    NullCheck.notNull(a, "A");
+    NullCheck.notNull(out, "Output");
+
+    checkCapacity(a, count);
+    checkCapacity(out, count);
+
+    final double m_r0c0 = m.r0c0();
+    final double m_r1c0 = m.r1c0();
+    final double m_r2c0 = m.r2c0();
+    final double m_r3c0 = m.r3c0();
+    final double m_r0c1 = m.r0c1();
+    final double m_r1c1 = m.r1c1();
+    final double m_r2c1 = m.r2c1();
+    final double m_r3c1 = m.r3c1();
+    final double m_r0c2 = m.r0c2();
+    final double m_r1c2 = m.r1c2();
+    final double m_r2c2 = m.r2c2();
+    final double m_r3c2 = m.r3c2();
+    final double m_r0c3 = m.r0c3();
+    final double m_r1c3 = m.r1c3();
+    final double m_r2c3 = m.r2c3();
+    final double m_r3c3 = m.r3c3();
+
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * VECTOR_COMPONENTS;
+      final double a_x = (double) a[offset];
+      final double a_y = (double) a[offset + 1];
+      final double a_z = (double) a[offset + 2];
+      final double a_w = (double) a[offset + 3];
+      out[offset] = (float) ((m_r0c0 * a_x) + (m_r0c1 * a_y) + (m_r0c2 * a_z) + (m_r0c3 * a_w));
+      out[offset + 1] = (float) ((m_r1c0 * a_x) + (m_r1c1 * a_y) + (m_r1c2 * a_z) + (m_r1c3 * a_w));
+      out[offset + 2] = (float) ((m_r2c0 * a_x) + (m_r2c1 * a_y) + (m_r2c2 * a_z) + (m_r2c3 * a_w));
+      out[offset + 3] = (float) ((m_r3c0 * a_x) + (m_r3c1 * a_y) + (m_r3c2 * a_z) + (m_r3c3 * a_w));
+    }
+  }
+
+  private static void checkCapacity(
+    final ByteBuffer buffer,
+    final int count)
+  {
+    RangeChecks.checkBuffer(buffer, count, VECTOR_BYTES, "vectors");
+  }
+
+  private static void checkCapacity(
+    final float[] array,
+    final int count)
+  {
+    RangeChecks.checkArray(array.length, count, VECTOR_COMPONENTS, "vectors");
+  }
+
+  private static void checkCapacityScalars(
+    final ByteBuffer buffer,
+    final int count)
+  {
+    RangeChecks.checkBuffer(buffer, count, COMPONENT_BYTES, "scalars");
+  }
+
+  private static void checkCapacityScalars(
+    final float[] array,
+    final int count)
+  {
+    RangeChecks.checkArray(array.length, count, 1, "scalars");
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2F;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage2x2Type;
+
+/**
+ * <p>A heap-based 2x2 matrix.</p>
+ * <p>Storage component type: {@code double}</p>
+ * <p>The matrix is initialized to the identity matrix.</p>
+ */
+
+public final class MatrixMutable2x2D
+  implements MatrixStorage2x2Type
+{
+  private double r0c0 = 1.0;
+  private double r0c1;
+  private double r1c0;
+  private double r1c1 = 1.0;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final MatrixMutable2x2D that = (MatrixMutable2x2D) o;
+    return Double.compare(that.r0c0, this.r0c0) == 0
+      && Double.compare(that.r0c1, this.r0c1) == 0
+      && Double.compare(that.r1c0, this.r1c0) == 0
+      && Double.compare(that.r1c1, this.r1c1) == 0;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result;
+    long temp;
+    temp = Double.doubleToLongBits(this.r0c0);
+    result = (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r0c1);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r1c0);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r1c1);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("r0c0=").append(this.r0c0);
+    sb.append(", r0c1=").append(this.r0c1);
+    sb.append(", r1c0=").append(this.r1c0);
+    sb.append(", r1c1=").append(this.r1c1);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new matrix.
+   */
+
+  public MatrixMutable2x2D()
+  {
+
+  }
+
+  @Override
+  public double r0c0()
+  {
+    return this.r0c0;
+  }
+
+  @Override
+  public double r0c1()
+  {
+    return this.r0c1;
+  }
+
+  @Override
+  public double r1c0()
+  {
+    return this.r1c0;
+  }
+
+  @Override
+  public double r1c1()
+  {
+    return this.r1c1;
+  }
+
+  @Override
+  public void setMatrix2x2D(
+    final Matrix2x2D m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+  }
+
+  @Override
+  public void setMatrix2x2F(
+    final Matrix2x2F m)
+  {
+    this.r0c0 = (double) m.r0c0();
+    this.r0c1 = (double) m.r0c1();
+
+    this.r1c0 = (double) m.r1c0();
+    this.r1c1 = (double) m.r1c1();
+  }
+}
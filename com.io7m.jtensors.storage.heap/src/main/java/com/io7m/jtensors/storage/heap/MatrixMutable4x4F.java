@@ -0,0 +1,318 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage4x4Type;
+
+/**
+ * <p>A heap-based 4x4 matrix.</p>
+ * <p>Storage component type: {@code float}</p>
+ * <p>The matrix is initialized to the identity matrix.</p>
+ */
+
+public final class MatrixMutable4x4F
+  implements MatrixStorage4x4Type
+{
+  private float r0c0 = 1.0f;
+  private float r0c1;
+  private float r0c2;
+  private float r0c3;
+  private float r1c0;
+  private float r1c1 = 1.0f;
+  private float r1c2;
+  private float r1c3;
+  private float r2c0;
+  private float r2c1;
+  private float r2c2 = 1.0f;
+  private float r2c3;
+  private float r3c0;
+  private float r3c1;
+  private float r3c2;
+  private float r3c3 = 1.0f;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final MatrixMutable4x4F that = (MatrixMutable4x4F) o;
+    return Float.compare(that.r0c0, this.r0c0) == 0
+      && Float.compare(that.r0c1, this.r0c1) == 0
+      && Float.compare(that.r0c2, this.r0c2) == 0
+      && Float.compare(that.r0c3, this.r0c3) == 0
+      && Float.compare(that.r1c0, this.r1c0) == 0
+      && Float.compare(that.r1c1, this.r1c1) == 0
+      && Float.compare(that.r1c2, this.r1c2) == 0
+      && Float.compare(that.r1c3, this.r1c3) == 0
+      && Float.compare(that.r2c0, this.r2c0) == 0
+      && Float.compare(that.r2c1, this.r2c1) == 0
+      && Float.compare(that.r2c2, this.r2c2) == 0
+      && Float.compare(that.r2c3, this.r2c3) == 0
+      && Float.compare(that.r3c0, this.r3c0) == 0
+      && Float.compare(that.r3c1, this.r3c1) == 0
+      && Float.compare(that.r3c2, this.r3c2) == 0
+      && Float.compare(that.r3c3, this.r3c3) == 0;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = Float.floatToIntBits(this.r0c0);
+    result = 31 * result + Float.floatToIntBits(this.r0c1);
+    result = 31 * result + Float.floatToIntBits(this.r0c2);
+    result = 31 * result + Float.floatToIntBits(this.r0c3);
+    result = 31 * result + Float.floatToIntBits(this.r1c0);
+    result = 31 * result + Float.floatToIntBits(this.r1c1);
+    result = 31 * result + Float.floatToIntBits(this.r1c2);
+    result = 31 * result + Float.floatToIntBits(this.r1c3);
+    result = 31 * result + Float.floatToIntBits(this.r2c0);
+    result = 31 * result + Float.floatToIntBits(this.r2c1);
+    result = 31 * result + Float.floatToIntBits(this.r2c2);
+    result = 31 * result + Float.floatToIntBits(this.r2c3);
+    result = 31 * result + Float.floatToIntBits(this.r3c0);
+    result = 31 * result + Float.floatToIntBits(this.r3c1);
+    result = 31 * result + Float.floatToIntBits(this.r3c2);
+    result = 31 * result + Float.floatToIntBits(this.r3c3);
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("r0c0=").append(this.r0c0);
+    sb.append(", r0c1=").append(this.r0c1);
+    sb.append(", r0c2=").append(this.r0c2);
+    sb.append(", r0c3=").append(this.r0c3);
+    sb.append(", r1c0=").append(this.r1c0);
+    sb.append(", r1c1=").append(this.r1c1);
+    sb.append(", r1c2=").append(this.r1c2);
+    sb.append(", r1c3=").append(this.r1c3);
+    sb.append(", r2c0=").append(this.r2c0);
+    sb.append(", r2c1=").append(this.r2c1);
+    sb.append(", r2c2=").append(this.r2c2);
+    sb.append(", r2c3=").append(this.r2c3);
+    sb.append(", r3c0=").append(this.r3c0);
+    sb.append(", r3c1=").append(this.r3c1);
+    sb.append(", r3c2=").append(this.r3c2);
+    sb.append(", r3c3=").append(this.r3c3);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new matrix.
+   */
+
+  public MatrixMutable4x4F()
+  {
+
+  }
+
+  @Override
+  public double r0c0()
+  {
+    return (double) this.r0c0;
+  }
+
+  @Override
+  public double r0c1()
+  {
+    return (double) this.r0c1;
+  }
+
+  @Override
+  public double r0c2()
+  {
+    return (double) this.r0c2;
+  }
+
+  @Override
+  public double r0c3()
+  {
+    return (double) this.r0c3;
+  }
+
+  @Override
+  public double r1c0()
+  {
+    return (double) this.r1c0;
+  }
+
+  @Override
+  public double r1c1()
+  {
+    return (double) this.r1c1;
+  }
+
+  @Override
+  public double r1c2()
+  {
+    return (double) this.r1c2;
+  }
+
+  @Override
+  public double r1c3()
+  {
+    return (double) this.r1c3;
+  }
+
+  @Override
+  public double r2c0()
+  {
+    return (double) this.r2c0;
+  }
+
+  @Override
+  public double r2c1()
+  {
+    return (double) this.r2c1;
+  }
+
+  @Override
+  public double r2c2()
+  {
+    return (double) this.r2c2;
+  }
+
+  @Override
+  public double r2c3()
+  {
+    return (double) this.r2c3;
+  }
+
+  @Override
+  public double r3c0()
+  {
+    return (double) this.r3c0;
+  }
+
+  @Override
+  public double r3c1()
+  {
+    return (double) this.r3c1;
+  }
+
+  @Override
+  public double r3c2()
+  {
+    return (double) this.r3c2;
+  }
+
+  @Override
+  public double r3c3()
+  {
+    return (double) this.r3c3;
+  }
+
+  @Override
+  public void setMatrix4x4D(
+    final Matrix4x4D m)
+  {
+    this.r0c0 = (float) m.r0c0();
+    this.r0c1 = (float) m.r0c1();
+    this.r0c2 = (float) m.r0c2();
+    this.r0c3 = (float) m.r0c3();
+
+    this.r1c0 = (float) m.r1c0();
+    this.r1c1 = (float) m.r1c1();
+    this.r1c2 = (float) m.r1c2();
+    this.r1c3 = (float) m.r1c3();
+
+    this.r2c0 = (float) m.r2c0();
+    this.r2c1 = (float) m.r2c1();
+    this.r2c2 = (float) m.r2c2();
+    this.r2c3 = (float) m.r2c3();
+
+    this.r3c0 = (float) m.r3c0();
+    this.r3c1 = (float) m.r3c1();
+    this.r3c2 = (float) m.r3c2();
+    this.r3c3 = (float) m.r3c3();
+  }
+
+  @Override
+  public void setMatrix4x4F(
+    final Matrix4x4F m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+    this.r0c2 = m.r0c2();
+    this.r0c3 = m.r0c3();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+    this.r1c2 = m.r1c2();
+    this.r1c3 = m.r1c3();
+
+    this.r2c0 = m.r2c0();
+    this.r2c1 = m.r2c1();
+    this.r2c2 = m.r2c2();
+    this.r2c3 = m.r2c3();
+
+    this.r3c0 = m.r3c0();
+    this.r3c1 = m.r3c1();
+    this.r3c2 = m.r3c2();
+    this.r3c3 = m.r3c3();
+  }
+
+  @Override
+  public void setMatrix4x4D(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final double r3c0,
+    final double r3c1,
+    final double r3c2,
+    final double r3c3)
+  {
+    this.r0c0 = (float) r0c0;
+    this.r0c1 = (float) r0c1;
+    this.r0c2 = (float) r0c2;
+    this.r0c3 = (float) r0c3;
+
+    this.r1c0 = (float) r1c0;
+    this.r1c1 = (float) r1c1;
+    this.r1c2 = (float) r1c2;
+    this.r1c3 = (float) r1c3;
+
+    this.r2c0 = (float) r2c0;
+    this.r2c1 = (float) r2c1;
+    this.r2c2 = (float) r2c2;
+    this.r2c3 = (float) r2c3;
+
+    this.r3c0 = (float) r3c0;
+    this.r3c1 = (float) r3c1;
+    this.r3c2 = (float) r3c2;
+    this.r3c3 = (float) r3c3;
+  }
+}
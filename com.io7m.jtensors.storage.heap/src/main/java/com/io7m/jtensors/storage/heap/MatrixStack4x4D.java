@@ -0,0 +1,531 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
+
+/**
+ * <p>A stack of 4x4 matrices, intended for accumulating transforms during
+ * traversals of hierarchical structures such as scene graphs.</p>
+ *
+ * <p>Storage component type: {@code double}</p>
+ *
+ * <p>All of the matrices in the stack are stored in a single {@code double[]}
+ * array that is allocated when the stack is created. The stack initially
+ * contains a single identity matrix. The {@link #push()} operation duplicates
+ * the matrix on the top of the stack, and the {@link #pop()} operation
+ * discards it, restoring the previous matrix. The remaining operations modify
+ * the matrix on the top of the stack in place. None of the operations
+ * allocate.</p>
+ *
+ * <p>The transforming operations post-multiply the top matrix: If the top
+ * matrix is {@code M}, then {@code translate(x, y, z)} replaces it with
+ * {@code M * T(x, y, z)}. This matches the order in which transforms are
+ * applied when descending a hierarchy: Each child's transform is applied to
+ * points before the transforms of its ancestors.</p>
+ *
+ * <p>Instances of this class are not thread-safe.</p>
+ */
+
+public final class MatrixStack4x4D
+{
+  private static final int MATRIX_COMPONENTS = 16;
+
+  private final double[] data;
+  private final int capacity;
+  private final Top top;
+  private int depth;
+  private int offset;
+
+  /**
+   * Create a new matrix stack.
+   *
+   * @param in_capacity The maximum number of matrices that the stack can hold
+   *
+   * @throws IllegalArgumentException If {@code in_capacity} is not in the
+   *                                  range {@code [1, 2^27]}
+   */
+
+  public MatrixStack4x4D(
+    final int in_capacity)
+    throws IllegalArgumentException
+  {
+    if (in_capacity < 1 || in_capacity > (1 << 27)) {
+      throw new IllegalArgumentException(String.format(
+        "Capacity %d must be in the range [1, %d]",
+        Integer.valueOf(in_capacity),
+        Integer.valueOf(1 << 27)));
+    }
+
+    this.capacity = in_capacity;
+    this.data = new double[in_capacity * MATRIX_COMPONENTS];
+    this.top = new Top(this);
+    this.depth = 1;
+    this.offset = 0;
+    this.loadIdentity();
+  }
+
+  /**
+   * @return The maximum number of matrices that the stack can hold
+   */
+
+  public int capacity()
+  {
+    return this.capacity;
+  }
+
+  /**
+   * @return The number of matrices currently on the stack, which is always
+   * at least {@code 1}
+   */
+
+  public int depth()
+  {
+    return this.depth;
+  }
+
+  /**
+   * Retrieve a view of the matrix on the top of the stack. The view is not a
+   * copy: It always reflects the current top of the stack, and therefore
+   * changes as the stack is modified. The same view is returned on every
+   * call. Callers that need to retain a particular matrix must copy it.
+   *
+   * @return A read-only view of the matrix on the top of the stack
+   */
+
+  public MatrixReadable4x4DType top()
+  {
+    return this.top;
+  }
+
+  /**
+   * Push a copy of the matrix on the top of the stack.
+   *
+   * @throws IndexOutOfBoundsException If the stack is already at capacity
+   */
+
+  public void push()
+    throws IndexOutOfBoundsException
+  {
+    if (this.depth == this.capacity) {
+      throw new IndexOutOfBoundsException(String.format(
+        "Stack depth %d would exceed the capacity %d",
+        Integer.valueOf(this.depth + 1),
+        Integer.valueOf(this.capacity)));
+    }
+
+    final int next = this.offset + MATRIX_COMPONENTS;
+    System.arraycopy(this.data, this.offset, this.data, next, MATRIX_COMPONENTS);
+    this.offset = next;
+    ++this.depth;
+  }
+
+  /**
+   * Discard the matrix on the top of the stack.
+   *
+   * @throws IndexOutOfBoundsException If the stack contains only one matrix
+   */
+
+  public void pop()
+    throws IndexOutOfBoundsException
+  {
+    if (this.depth == 1) {
+      throw new IndexOutOfBoundsException(
+        "The last matrix on the stack cannot be popped");
+    }
+
+    this.offset -= MATRIX_COMPONENTS;
+    --this.depth;
+  }
+
+  /**
+   * Discard all matrices except the bottom matrix, and set the bottom matrix
+   * to the identity matrix.
+   */
+
+  public void clear()
+  {
+    this.depth = 1;
+    this.offset = 0;
+    this.loadIdentity();
+  }
+
+  /**
+   * Replace the matrix on the top of the stack with the identity matrix.
+   */
+
+  public void loadIdentity()
+  {
+    this.set(
+      1.0, 0.0, 0.0, 0.0,
+      0.0, 1.0, 0.0, 0.0,
+      0.0, 0.0, 1.0, 0.0,
+      0.0, 0.0, 0.0, 1.0);
+  }
+
+  /**
+   * Replace the matrix on the top of the stack with {@code m}.
+   *
+   * @param m The matrix
+   */
+
+  public void load(
+    final MatrixReadable4x4DType m)
+  {
+    NullCheck.notNull(m, "Matrix");
+    this.set(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      m.r3c0(), m.r3c1(), m.r3c2(), m.r3c3());
+  }
+
+  /**
+   * Replace the matrix {@code M} on the top of the stack with {@code M *
+   * m}.
+   *
+   * @param m The matrix
+   */
+
+  public void multiply(
+    final MatrixReadable4x4DType m)
+  {
+    NullCheck.notNull(m, "Matrix");
+    this.multiplyTop(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      m.r3c0(), m.r3c1(), m.r3c2(), m.r3c3());
+  }
+
+  /**
+   * Replace the matrix {@code M} on the top of the stack with {@code M *
+   * T}, where {@code T} is a translation by {@code (x, y, z)}.
+   *
+   * @param x The translation on the X axis
+   * @param y The translation on the Y axis
+   * @param z The translation on the Z axis
+   */
+
+  public void translate(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final double[] d = this.data;
+    final int o = this.offset;
+
+    /*
+     * Only the last column changes: It becomes M * (x, y, z, 1).
+     */
+
+    for (int row = 0; row < 4; ++row) {
+      final int r = o + (row * 4);
+      final double a0 = d[r];
+      final double a1 = d[r + 1];
+      final double a2 = d[r + 2];
+      final double a3 = d[r + 3];
+      d[r + 3] = (a0 * x) + (a1 * y) + (a2 * z) + a3;
+    }
+  }
+
+  /**
+   * Replace the matrix {@code M} on the top of the stack with {@code M *
+   * S}, where {@code S} is a scale by {@code (x, y, z)}.
+   *
+   * @param x The scale on the X axis
+   * @param y The scale on the Y axis
+   * @param z The scale on the Z axis
+   */
+
+  public void scale(
+    final double x,
+    final double y,
+    final double z)
+  {
+    final double[] d = this.data;
+    final int o = this.offset;
+
+    for (int row = 0; row < 4; ++row) {
+      final int r = o + (row * 4);
+      d[r] = d[r] * x;
+      d[r + 1] = d[r + 1] * y;
+      d[r + 2] = d[r + 2] * z;
+    }
+  }
+
+  /**
+   * Replace the matrix {@code M} on the top of the stack with {@code M *
+   * R}, where {@code R} is a rotation of {@code angle} radians around the
+   * given axis. The rotation matrix is calculated in the same manner as
+   * {@code Matrices4x4D.ofAxisAngle}.
+   *
+   * @param axis_x The X component of the axis, which is assumed to be
+   *               normalized
+   * @param axis_y The Y component of the axis
+   * @param axis_z The Z component of the axis
+   * @param angle  The angle in radians
+   */
+
+  public void rotate(
+    final double axis_x,
+    final double axis_y,
+    final double axis_z,
+    final double angle)
+  {
+    final double s = StrictMath.sin(angle);
+    final double c = StrictMath.cos(angle);
+    final double t = 1.0 - c;
+
+    final double tx_sq = t * (axis_x * axis_x);
+    final double ty_sq = t * (axis_y * axis_y);
+    final double tz_sq = t * (axis_z * axis_z);
+
+    final double txy = t * (axis_x * axis_y);
+    final double txz = t * (axis_x * axis_z);
+    final double tyz = t * (axis_y * axis_z);
+
+    final double sx = s * axis_x;
+    final double sy = s * axis_y;
+    final double sz = s * axis_z;
+
+    final double b00 = tx_sq + c;
+    final double b01 = txy - sz;
+    final double b02 = txz + sy;
+    final double b10 = txy + sz;
+    final double b11 = ty_sq + c;
+    final double b12 = tyz - sx;
+    final double b20 = txz - sy;
+    final double b21 = tyz + sx;
+    final double b22 = tz_sq + c;
+
+    /*
+     * The rotation has no translation and a last row of (0, 0, 0, 1), so
+     * the last column of the top matrix is unchanged.
+     */
+
+    final double[] d = this.data;
+    final int o = this.offset;
+    for (int row = 0; row < 4; ++row) {
+      final int r = o + (row * 4);
+      final double a0 = d[r];
+      final double a1 = d[r + 1];
+      final double a2 = d[r + 2];
+      d[r] = (a0 * b00) + (a1 * b10) + (a2 * b20);
+      d[r + 1] = (a0 * b01) + (a1 * b11) + (a2 * b21);
+      d[r + 2] = (a0 * b02) + (a1 * b12) + (a2 * b22);
+    }
+  }
+
+  private void set(
+    final double r0c0,
+    final double r0c1,
+    final double r0c2,
+    final double r0c3,
+    final double r1c0,
+    final double r1c1,
+    final double r1c2,
+    final double r1c3,
+    final double r2c0,
+    final double r2c1,
+    final double r2c2,
+    final double r2c3,
+    final double r3c0,
+    final double r3c1,
+    final double r3c2,
+    final double r3c3)
+  {
+    final double[] d = this.data;
+    final int o = this.offset;
+    d[o] = r0c0;
+    d[o + 1] = r0c1;
+    d[o + 2] = r0c2;
+    d[o + 3] = r0c3;
+    d[o + 4] = r1c0;
+    d[o + 5] = r1c1;
+    d[o + 6] = r1c2;
+    d[o + 7] = r1c3;
+    d[o + 8] = r2c0;
+    d[o + 9] = r2c1;
+    d[o + 10] = r2c2;
+    d[o + 11] = r2c3;
+    d[o + 12] = r3c0;
+    d[o + 13] = r3c1;
+    d[o + 14] = r3c2;
+    d[o + 15] = r3c3;
+  }
+
+  private void multiplyTop(
+    final double b00,
+    final double b01,
+    final double b02,
+    final double b03,
+    final double b10,
+    final double b11,
+    final double b12,
+    final double b13,
+    final double b20,
+    final double b21,
+    final double b22,
+    final double b23,
+    final double b30,
+    final double b31,
+    final double b32,
+    final double b33)
+  {
+    final double[] d = this.data;
+    final int o = this.offset;
+    for (int row = 0; row < 4; ++row) {
+      final int r = o + (row * 4);
+      final double a0 = d[r];
+      final double a1 = d[r + 1];
+      final double a2 = d[r + 2];
+      final double a3 = d[r + 3];
+      d[r] = (a0 * b00) + (a1 * b10) + (a2 * b20) + (a3 * b30);
+      d[r + 1] = (a0 * b01) + (a1 * b11) + (a2 * b21) + (a3 * b31);
+      d[r + 2] = (a0 * b02) + (a1 * b12) + (a2 * b22) + (a3 * b32);
+      d[r + 3] = (a0 * b03) + (a1 * b13) + (a2 * b23) + (a3 * b33);
+    }
+  }
+
+  private static final class Top implements MatrixReadable4x4DType
+  {
+    private final MatrixStack4x4D stack;
+
+    Top(
+      final MatrixStack4x4D in_stack)
+    {
+      this.stack = in_stack;
+    }
+
+    @Override
+    public String toString()
+    {
+      final StringBuilder sb = new StringBuilder("{");
+      for (int index = 0; index < MATRIX_COMPONENTS; ++index) {
+        if (index > 0) {
+          sb.append(", ");
+        }
+        sb.append('r');
+        sb.append(index / 4);
+        sb.append('c');
+        sb.append(index % 4);
+        sb.append('=');
+        sb.append(this.stack.data[this.stack.offset + index]);
+      }
+      sb.append('}');
+      return sb.toString();
+    }
+
+    @Override
+    public double r0c0()
+    {
+      return this.stack.data[this.stack.offset];
+    }
+
+    @Override
+    public double r0c1()
+    {
+      return this.stack.data[this.stack.offset + 1];
+    }
+
+    @Override
+    public double r0c2()
+    {
+      return this.stack.data[this.stack.offset + 2];
+    }
+
+    @Override
+    public double r0c3()
+    {
+      return this.stack.data[this.stack.offset + 3];
+    }
+
+    @Override
+    public double r1c0()
+    {
+      return this.stack.data[this.stack.offset + 4];
+    }
+
+    @Override
+    public double r1c1()
+    {
+      return this.stack.data[this.stack.offset + 5];
+    }
+
+    @Override
+    public double r1c2()
+    {
+      return this.stack.data[this.stack.offset + 6];
+    }
+
+    @Override
+    public double r1c3()
+    {
+      return this.stack.data[this.stack.offset + 7];
+    }
+
+    @Override
+    public double r2c0()
+    {
+      return this.stack.data[this.stack.offset + 8];
+    }
+
+    @Override
+    public double r2c1()
+    {
+      return this.stack.data[this.stack.offset + 9];
+    }
+
+    @Override
+    public double r2c2()
+    {
+      return this.stack.data[this.stack.offset + 10];
+    }
+
+    @Override
+    public double r2c3()
+    {
+      return this.stack.data[this.stack.offset + 11];
+    }
+
+    @Override
+    public double r3c0()
+    {
+      return this.stack.data[this.stack.offset + 12];
+    }
+
+    @Override
+    public double r3c1()
+    {
+      return this.stack.data[this.stack.offset + 13];
+    }
+
+    @Override
+    public double r3c2()
+    {
+      return this.stack.data[this.stack.offset + 14];
+    }
+
+    @Override
+    public double r3c3()
+    {
+      return this.stack.data[this.stack.offset + 15];
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix2x2D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix2x2F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2F;
+import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage2x2Type;
+
+/**
+ * <p>A heap-based 2x2 matrix.</p>
+ * <p>Storage component type: {@code float}</p>
+ * <p>The matrix is initialized to the identity matrix.</p>
+ *
+ * @param <A> A phantom type parameter (possibly representing a source
+ *            coordinate system)
+ * @param <B> A phantom type parameter (possibly representing a target
+ *            coordinate system)
+ */
+
+public final class PMatrixMutable2x2F<A, B>
+  implements PMatrixStorage2x2Type<A, B>
+{
+  private float r0c0 = 1.0f;
+  private float r0c1;
+  private float r1c0;
+  private float r1c1 = 1.0f;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final PMatrixMutable2x2F<?, ?> that = (PMatrixMutable2x2F<?, ?>) o;
+    return Float.compare(that.r0c0, this.r0c0) == 0
+      && Float.compare(that.r0c1, this.r0c1) == 0
+      && Float.compare(that.r1c0, this.r1c0) == 0
+      && Float.compare(that.r1c1, this.r1c1) == 0;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = Float.floatToIntBits(this.r0c0);
+    result = 31 * result + Float.floatToIntBits(this.r0c1);
+    result = 31 * result + Float.floatToIntBits(this.r1c0);
+    result = 31 * result + Float.floatToIntBits(this.r1c1);
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("r0c0=").append(this.r0c0);
+    sb.append(", r0c1=").append(this.r0c1);
+    sb.append(", r1c0=").append(this.r1c0);
+    sb.append(", r1c1=").append(this.r1c1);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new matrix.
+   */
+
+  public PMatrixMutable2x2F()
+  {
+
+  }
+
+  @Override
+  public double r0c0()
+  {
+    return (double) this.r0c0;
+  }
+
+  @Override
+  public double r0c1()
+  {
+    return (double) this.r0c1;
+  }
+
+  @Override
+  public double r1c0()
+  {
+    return (double) this.r1c0;
+  }
+
+  @Override
+  public double r1c1()
+  {
+    return (double) this.r1c1;
+  }
+
+  @Override
+  public void setMatrix2x2D(
+    final Matrix2x2D m)
+  {
+    this.r0c0 = (float) m.r0c0();
+    this.r0c1 = (float) m.r0c1();
+
+    this.r1c0 = (float) m.r1c0();
+    this.r1c1 = (float) m.r1c1();
+  }
+
+  @Override
+  public void setMatrix2x2F(
+    final Matrix2x2F m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+  }
+
+  @Override
+  public void setPMatrix2x2D(
+    final PMatrix2x2D<A, B> m)
+  {
+    this.r0c0 = (float) m.r0c0();
+    this.r0c1 = (float) m.r0c1();
+
+    this.r1c0 = (float) m.r1c0();
+    this.r1c1 = (float) m.r1c1();
+  }
+
+  @Override
+  public void setPMatrix2x2F(
+    final PMatrix2x2F<A, B> m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix3x3D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix3x3F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3F;
+import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage3x3Type;
+
+/**
+ * <p>A heap-based 3x3 matrix.</p>
+ * <p>Storage component type: {@code double}</p>
+ * <p>The matrix is initialized to the identity matrix.</p>
+ *
+ * @param <A> A phantom type parameter (possibly representing a source
+ *            coordinate system)
+ * @param <B> A phantom type parameter (possibly representing a target
+ *            coordinate system)
+ */
+
+public final class PMatrixMutable3x3D<A, B>
+  implements PMatrixStorage3x3Type<A, B>
+{
+  private double r0c0 = 1.0;
+  private double r0c1;
+  private double r0c2;
+  private double r1c0;
+  private double r1c1 = 1.0;
+  private double r1c2;
+  private double r2c0;
+  private double r2c1;
+  private double r2c2 = 1.0;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final PMatrixMutable3x3D<?, ?> that = (PMatrixMutable3x3D<?, ?>) o;
+    return Double.compare(that.r0c0, this.r0c0) == 0
+      && Double.compare(that.r0c1, this.r0c1) == 0
+      && Double.compare(that.r0c2, this.r0c2) == 0
+      && Double.compare(that.r1c0, this.r1c0) == 0
+      && Double.compare(that.r1c1, this.r1c1) == 0
+      && Double.compare(that.r1c2, this.r1c2) == 0
+      && Double.compare(that.r2c0, this.r2c0) == 0
+      && Double.compare(that.r2c1, this.r2c1) == 0
+      && Double.compare(that.r2c2, this.r2c2) == 0;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result;
+    long temp;
+    temp = Double.doubleToLongBits(this.r0c0);
+    result = (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r0c1);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r0c2);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r1c0);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r1c1);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r1c2);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r2c0);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r2c1);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    temp = Double.doubleToLongBits(this.r2c2);
+    result = 31 * result + (int) (temp ^ (temp >>> 32));
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("r0c0=").append(this.r0c0);
+    sb.append(", r0c1=").append(this.r0c1);
+    sb.append(", r0c2=").append(this.r0c2);
+    sb.append(", r1c0=").append(this.r1c0);
+    sb.append(", r1c1=").append(this.r1c1);
+    sb.append(", r1c2=").append(this.r1c2);
+    sb.append(", r2c0=").append(this.r2c0);
+    sb.append(", r2c1=").append(this.r2c1);
+    sb.append(", r2c2=").append(this.r2c2);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new matrix.
+   */
+
+  public PMatrixMutable3x3D()
+  {
+
+  }
+
+  @Override
+  public double r0c0()
+  {
+    return this.r0c0;
+  }
+
+  @Override
+  public double r0c1()
+  {
+    return this.r0c1;
+  }
+
+  @Override
+  public double r0c2()
+  {
+    return this.r0c2;
+  }
+
+  @Override
+  public double r1c0()
+  {
+    return this.r1c0;
+  }
+
+  @Override
+  public double r1c1()
+  {
+    return this.r1c1;
+  }
+
+  @Override
+  public double r1c2()
+  {
+    return this.r1c2;
+  }
+
+  @Override
+  public double r2c0()
+  {
+    return this.r2c0;
+  }
+
+  @Override
+  public double r2c1()
+  {
+    return this.r2c1;
+  }
+
+  @Override
+  public double r2c2()
+  {
+    return this.r2c2;
+  }
+
+  @Override
+  public void setMatrix3x3D(
+    final Matrix3x3D m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+    this.r0c2 = m.r0c2();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+    this.r1c2 = m.r1c2();
+
+    this.r2c0 = m.r2c0();
+    this.r2c1 = m.r2c1();
+    this.r2c2 = m.r2c2();
+  }
+
+  @Override
+  public void setMatrix3x3F(
+    final Matrix3x3F m)
+  {
+    this.r0c0 = (double) m.r0c0();
+    this.r0c1 = (double) m.r0c1();
+    this.r0c2 = (double) m.r0c2();
+
+    this.r1c0 = (double) m.r1c0();
+    this.r1c1 = (double) m.r1c1();
+    this.r1c2 = (double) m.r1c2();
+
+    this.r2c0 = (double) m.r2c0();
+    this.r2c1 = (double) m.r2c1();
+    this.r2c2 = (double) m.r2c2();
+  }
+
+  @Override
+  public void setPMatrix3x3D(
+    final PMatrix3x3D<A, B> m)
+  {
+    this.r0c0 = m.r0c0();
+    this.r0c1 = m.r0c1();
+    this.r0c2 = m.r0c2();
+
+    this.r1c0 = m.r1c0();
+    this.r1c1 = m.r1c1();
+    this.r1c2 = m.r1c2();
+
+    this.r2c0 = m.r2c0();
+    this.r2c1 = m.r2c1();
+    this.r2c2 = m.r2c2();
+  }
+
+  @Override
+  public void setPMatrix3x3F(
+    final PMatrix3x3F<A, B> m)
+  {
+    this.r0c0 = (double) m.r0c0();
+    this.r0c1 = (double) m.r0c1();
+    this.r0c2 = (double) m.r0c2();
+
+    this.r1c0 = (double) m.r1c0();
+    this.r1c1 = (double) m.r1c1();
+    this.r1c2 = (double) m.r1c2();
+
+    this.r2c0 = (double) m.r2c0();
+    this.r2c1 = (double) m.r2c1();
+    this.r2c2 = (double) m.r2c2();
+  }
+}
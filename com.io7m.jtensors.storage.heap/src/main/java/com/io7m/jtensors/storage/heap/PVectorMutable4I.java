@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.storage.api.parameterized.vectors.PVectorStorageIntegral4Type;
+
+/**
+ * <p>A heap-based vector.</p>
+ * <p>Storage component type: {@code int}</p>
+ *
+ * @param <T> A phantom type parameter
+ */
+
+public final class PVectorMutable4I<T>
+  implements PVectorStorageIntegral4Type<T>
+{
+  private int x;
+  private int y;
+  private int z;
+  private int w = 1;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final PVectorMutable4I<?> that = (PVectorMutable4I<?>) o;
+    return this.x == that.x
+      && this.y == that.y
+      && this.z == that.z
+      && this.w == that.w;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = this.x;
+    result = 31 * result + this.y;
+    result = 31 * result + this.z;
+    result = 31 * result + this.w;
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("x=").append(this.x);
+    sb.append(", y=").append(this.y);
+    sb.append(", z=").append(this.z);
+    sb.append(", w=").append(this.w);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new vector.
+   */
+
+  public PVectorMutable4I()
+  {
+
+  }
+
+  @Override
+  public long x()
+  {
+    return (long) this.x;
+  }
+
+  @Override
+  public long y()
+  {
+    return (long) this.y;
+  }
+
+  @Override
+  public long z()
+  {
+    return (long) this.z;
+  }
+
+  @Override
+  public long w()
+  {
+    return (long) this.w;
+  }
+
+  @Override
+  public void setX(final long in_x)
+  {
+    this.x = (int) in_x;
+  }
+
+  @Override
+  public void setY(final long in_y)
+  {
+    this.y = (int) in_y;
+  }
+
+  @Override
+  public void setZ(final long in_z)
+  {
+    this.z = (int) in_z;
+  }
+
+  @Override
+  public void setW(final long in_w)
+  {
+    this.w = (int) in_w;
+  }
+}
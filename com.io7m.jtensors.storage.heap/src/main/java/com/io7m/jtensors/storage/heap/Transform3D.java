@@ -0,0 +1,335 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.core.quaternions.Quaternion4D;
+import com.io7m.jtensors.core.quaternions.Quaternions4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+
+/**
+ * <p>A mutable transform consisting of a translation, a rotation, and a
+ * scale.</p>
+ *
+ * <p>The transform represents the matrix {@code T * R * S}: Points are
+ * scaled, then rotated, then translated. The composed matrix and its inverse
+ * are calculated on demand and cached until the next modification of the
+ * transform. Both are calculated directly from the components, without any
+ * intermediate matrix multiplications.</p>
+ *
+ * <p>The rotation is assumed to be normalized.</p>
+ *
+ * <p>The transform is initialized to the identity transform.</p>
+ */
+
+public final class Transform3D
+{
+  private static final Vector3D ZERO = Vector3D.of(0.0, 0.0, 0.0);
+  private static final Vector3D ONE = Vector3D.of(1.0, 1.0, 1.0);
+
+  private Vector3D translation;
+  private Quaternion4D rotation;
+  private Vector3D scale;
+  private Matrix4x4D matrix;
+  private boolean matrix_valid;
+  private Matrix4x4D matrix_inverse;
+  private boolean matrix_inverse_valid;
+
+  /**
+   * Create a new identity transform.
+   */
+
+  public Transform3D()
+  {
+    this.translation = ZERO;
+    this.rotation = Quaternions4D.identity();
+    this.scale = ONE;
+    this.matrix = Matrices4x4D.identity();
+    this.matrix_valid = true;
+    this.matrix_inverse = Matrices4x4D.identity();
+    this.matrix_inverse_valid = true;
+  }
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final Transform3D that = (Transform3D) o;
+    return this.translation.equals(that.translation)
+      && this.rotation.equals(that.rotation)
+      && this.scale.equals(that.scale);
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = this.translation.hashCode();
+    result = 31 * result + this.rotation.hashCode();
+    result = 31 * result + this.scale.hashCode();
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("translation=").append(this.translation);
+    sb.append(", rotation=").append(this.rotation);
+    sb.append(", scale=").append(this.scale);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * @return The current translation
+   */
+
+  public Vector3D translation()
+  {
+    return this.translation;
+  }
+
+  /**
+   * @return The current rotation
+   */
+
+  public Quaternion4D rotation()
+  {
+    return this.rotation;
+  }
+
+  /**
+   * @return The current scale
+   */
+
+  public Vector3D scale()
+  {
+    return this.scale;
+  }
+
+  /**
+   * Set the translation.
+   *
+   * @param t The translation
+   */
+
+  public void setTranslation(
+    final Vector3D t)
+  {
+    this.translation = NullCheck.notNull(t, "Translation");
+    this.invalidate();
+  }
+
+  /**
+   * Set the rotation.
+   *
+   * @param r The rotation, which is assumed to be normalized
+   */
+
+  public void setRotation(
+    final Quaternion4D r)
+  {
+    this.rotation = NullCheck.notNull(r, "Rotation");
+    this.invalidate();
+  }
+
+  /**
+   * Set the scale.
+   *
+   * @param s The scale
+   */
+
+  public void setScale(
+    final Vector3D s)
+  {
+    this.scale = NullCheck.notNull(s, "Scale");
+    this.invalidate();
+  }
+
+  /**
+   * Set the translation, rotation, and scale at once.
+   *
+   * @param t The translation
+   * @param r The rotation, which is assumed to be normalized
+   * @param s The scale
+   */
+
+  public void setTranslationRotationScale(
+    final Vector3D t,
+    final Quaternion4D r,
+    final Vector3D s)
+  {
+    this.translation = NullCheck.notNull(t, "Translation");
+    this.rotation = NullCheck.notNull(r, "Rotation");
+    this.scale = NullCheck.notNull(s, "Scale");
+    this.invalidate();
+  }
+
+  private void invalidate()
+  {
+    this.matrix_valid = false;
+    this.matrix_inverse_valid = false;
+  }
+
+  /**
+   * Retrieve the matrix {@code T * R * S} for the current transform. The
+   * matrix is recalculated only if the transform has been modified since the
+   * last call.
+   *
+   * @return The transform matrix
+   */
+
+  public Matrix4x4D matrix()
+  {
+    if (!this.matrix_valid) {
+      this.matrix = this.calculateMatrix();
+      this.matrix_valid = true;
+    }
+    return this.matrix;
+  }
+
+  /**
+   * Retrieve the inverse of {@link #matrix()}. The matrix is recalculated
+   * only if the transform has been modified since the last call. If any
+   * component of the scale is zero, the transform is not invertible and the
+   * resulting matrix will contain non-finite values.
+   *
+   * @return The inverse of the transform matrix
+   */
+
+  public Matrix4x4D matrixInverse()
+  {
+    if (!this.matrix_inverse_valid) {
+      this.matrix_inverse = this.calculateMatrixInverse();
+      this.matrix_inverse_valid = true;
+    }
+    return this.matrix_inverse;
+  }
+
+  private Matrix4x4D calculateMatrix()
+  {
+    final Quaternion4D q = this.rotation;
+    final double xx = q.x() * q.x();
+    final double xy = q.x() * q.y();
+    final double xz = q.x() * q.z();
+    final double yy = q.y() * q.y();
+    final double yz = q.y() * q.z();
+    final double zz = q.z() * q.z();
+    final double wx = q.w() * q.x();
+    final double wy = q.w() * q.y();
+    final double wz = q.w() * q.z();
+
+    final double sx = this.scale.x();
+    final double sy = this.scale.y();
+    final double sz = this.scale.z();
+
+    /*
+     * Each column of the rotation matrix is multiplied by the corresponding
+     * scale component, and the translation occupies the last column.
+     */
+
+    return Matrix4x4D.of(
+      (1.0 - (2.0 * yy) - (2.0 * zz)) * sx,
+      ((2.0 * xy) - (2.0 * wz)) * sy,
+      ((2.0 * xz) + (2.0 * wy)) * sz,
+      this.translation.x(),
+
+      ((2.0 * xy) + (2.0 * wz)) * sx,
+      (1.0 - (2.0 * xx) - (2.0 * zz)) * sy,
+      ((2.0 * yz) - (2.0 * wx)) * sz,
+      this.translation.y(),
+
+      ((2.0 * xz) - (2.0 * wy)) * sx,
+      ((2.0 * yz) + (2.0 * wx)) * sy,
+      (1.0 - (2.0 * xx) - (2.0 * yy)) * sz,
+      this.translation.z(),
+
+      0.0,
+      0.0,
+      0.0,
+      1.0);
+  }
+
+  private Matrix4x4D calculateMatrixInverse()
+  {
+    final Quaternion4D q = this.rotation;
+    final double xx = q.x() * q.x();
+    final double xy = q.x() * q.y();
+    final double xz = q.x() * q.z();
+    final double yy = q.y() * q.y();
+    final double yz = q.y() * q.z();
+    final double zz = q.z() * q.z();
+    final double wx = q.w() * q.x();
+    final double wy = q.w() * q.y();
+    final double wz = q.w() * q.z();
+
+    final double isx = 1.0 / this.scale.x();
+    final double isy = 1.0 / this.scale.y();
+    final double isz = 1.0 / this.scale.z();
+
+    /*
+     * inverse(T * R * S) = inverse(S) * transpose(R) * inverse(T): The rows
+     * of the upper 3x3 are the columns of the rotation matrix, divided by
+     * the corresponding scale components.
+     */
+
+    final double r0c0 = (1.0 - (2.0 * yy) - (2.0 * zz)) * isx;
+    final double r0c1 = ((2.0 * xy) + (2.0 * wz)) * isx;
+    final double r0c2 = ((2.0 * xz) - (2.0 * wy)) * isx;
+
+    final double r1c0 = ((2.0 * xy) - (2.0 * wz)) * isy;
+    final double r1c1 = (1.0 - (2.0 * xx) - (2.0 * zz)) * isy;
+    final double r1c2 = ((2.0 * yz) + (2.0 * wx)) * isy;
+
+    final double r2c0 = ((2.0 * xz) + (2.0 * wy)) * isz;
+    final double r2c1 = ((2.0 * yz) - (2.0 * wx)) * isz;
+    final double r2c2 = (1.0 - (2.0 * xx) - (2.0 * yy)) * isz;
+
+    final double tx = this.translation.x();
+    final double ty = this.translation.y();
+    final double tz = this.translation.z();
+
+    return Matrix4x4D.of(
+      r0c0,
+      r0c1,
+      r0c2,
+      -((r0c0 * tx) + (r0c1 * ty) + (r0c2 * tz)),
+
+      r1c0,
+      r1c1,
+      r1c2,
+      -((r1c0 * tx) + (r1c1 * ty) + (r1c2 * tz)),
+
+      r2c0,
+      r2c1,
+      r2c2,
+      -((r2c0 * tx) + (r2c1 * ty) + (r2c2 * tz)),
+
+      0.0,
+      0.0,
+      0.0,
+      1.0);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.heap;
+
+import com.io7m.jtensors.storage.api.unparameterized.vectors.VectorStorageIntegral3Type;
+
+/**
+ * <p>A heap-based vector.</p>
+ * <p>Storage component type: {@code int}</p>
+ */
+
+public final class VectorMutable3I
+  implements VectorStorageIntegral3Type
+{
+  private int x;
+  private int y;
+  private int z;
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || this.getClass() != o.getClass()) {
+      return false;
+    }
+
+    final VectorMutable3I that = (VectorMutable3I) o;
+    return this.x == that.x
+      && this.y == that.y
+      && this.z == that.z;
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int result = this.x;
+    result = 31 * result + this.y;
+    result = 31 * result + this.z;
+    return result;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder("{");
+    sb.append("x=").append(this.x);
+    sb.append(", y=").append(this.y);
+    sb.append(", z=").append(this.z);
+    sb.append('}');
+    return sb.toString();
+  }
+
+  /**
+   * Create a new vector.
+   */
+
+  public VectorMutable3I()
+  {
+
+  }
+
+  @Override
+  public long x()
+  {
+    return (long) this.x;
+  }
+
+  @Override
+  public long y()
+  {
+    return (long) this.y;
+  }
+
+  @Override
+  public long z()
+  {
+    return (long) this.z;
+  }
+
+  @Override
+  public void setX(final long in_x)
+  {
+    this.x = (int) in_x;
+  }
+
+  @Override
+  public void setY(final long in_y)
+  {
+    this.y = (int) in_y;
+  }
+
+  @Override
+  public void setZ(final long in_z)
+  {
+    this.z = (int) in_z;
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.storage.mapped;
+
+import com.io7m.jnull.NullCheck;
+import com.io7m.jtensors.storage.bytebuffered.TensorByteBufferedConstructorType;
+import com.io7m.jtensors.storage.bytebuffered.TensorByteBufferedType;
+import com.io7m.jtensors.storage.bytebuffered.TensorSegmentedArray;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>An array of tightly packed tensors of the same type, stored in a
+ * memory-mapped file.</p>
+ *
+ * <p>Tensors are accessed through cursors of the existing byte buffered
+ * tensor types, and are therefore stored in exactly the same layout (for
+ * example, column-major order for matrices) as they would be in any other
+ * byte buffer.</p>
+ *
+ * <p>A single {@link MappedByteBuffer} cannot exceed {@code 2^31 - 1}
+ * bytes, so the file region is mapped as a series of chunks, each of which
+ * holds a whole number of tensors. Tensors never straddle chunk boundaries.
+ * The chunks are addressed as the segments of a {@link
+ * TensorSegmentedArray}; each chunk has its own cursor, and {@link
+ * #select(long)} moves the cursor of the chunk containing the requested
+ * tensor and returns it. No objects are allocated after the array is
+ * created.</p>
+ *
+ * <p>As with all mapped buffers, the mapping remains valid after the
+ * channel is closed, and is released when the array becomes unreachable
+ * and is garbage collected.</p>
+ *
+ * <p>Arrays are not thread-safe.</p>
+ *
+ * @param <T> The type of tensor
+ */
+
+public final class TensorMappedArray<T extends TensorByteBufferedType>
+{
+  private final List<MappedByteBuffer> chunks;
+  private final TensorSegmentedArray<T> array;
+
+  private TensorMappedArray(
+    final List<MappedByteBuffer> in_chunks,
+    final TensorSegmentedArray<T> in_array)
+  {
+    this.chunks = NullCheck.notNull(in_chunks, "Chunks");
+    this.array = NullCheck.notNull(in_array, "Array");
+  }
+
+  /**
+   * Map {@code count} tensors from the given file channel, starting at byte
+   * {@code position}. If the channel is opened for writing and {@code mode}
+   * is {@link FileChannel.MapMode#READ_WRITE}, the file is extended as
+   * necessary.
+   *
+   * @param channel     The file channel
+   * @param mode        The mapping mode
+   * @param position    The byte offset within the file of the first tensor
+   * @param count       The number of tensors
+   * @param order       The byte order of the stored tensors
+   * @param constructor A tensor constructor, such as {@code
+   *                    MatrixByteBuffered4x4s32::createWithBase}
+   * @param <T>         The type of tensor
+   *
+   * @return A new mapped array
+   *
+   * @throws IOException On I/O errors
+   */
+
+  public static <T extends TensorByteBufferedType> TensorMappedArray<T> map(
+    final FileChannel channel,
+    final FileChannel.MapMode mode,
+    final long position,
+    final long count,
+    final ByteOrder order,
+    final TensorByteBufferedConstructorType<T> constructor)
+    throws IOException
+  {
+    return mapWithChunkSize(
+      channel, mode, position, count, order, constructor, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Map {@code count} tensors from the given file channel, starting at byte
+   * {@code position}, using chunks of at most {@code chunk_bytes} bytes.
+   *
+   * @param channel     The file channel
+   * @param mode        The mapping mode
+   * @param position    The byte offset within the file of the first tensor
+   * @param count       The number of tensors
+   * @param order       The byte order of the stored tensors
+   * @param constructor A tensor constructor
+   * @param chunk_bytes The maximum size in bytes of each mapped chunk
+   * @param <T>         The type of tensor
+   *
+   * @return A new mapped array
+   *
+   * @throws IOException              On I/O errors
+   * @throws IllegalArgumentException If {@code position} or {@code count}
+   *                                  are negative, or {@code chunk_bytes} is
+   *                                  too small to hold a single tensor
+   * @see #map(FileChannel, FileChannel.MapMode, long, long, ByteOrder,
+   * TensorByteBufferedConstructorType)
+   */
+
+  public static <T extends TensorByteBufferedType> TensorMappedArray<T> mapWithChunkSize(
+    final FileChannel channel,
+    final FileChannel.MapMode mode,
+    final long position,
+    final long count,
+    final ByteOrder order,
+    final TensorByteBufferedConstructorType<T> constructor,
+    final int chunk_bytes)
+    throws IOException, IllegalArgumentException
+  {
+    NullCheck.notNull(channel, "Channel");
+    NullCheck.notNull(mode, "Mode");
+    NullCheck.notNull(order, "Order");
+    NullCheck.notNull(constructor, "Constructor");
+
+    if (position < 0L) {
+      throw new IllegalArgumentException(String.format(
+        "Position %d must be non-negative", Long.valueOf(position)));
+    }
+    if (count < 0L) {
+      throw new IllegalArgumentException(String.format(
+        "Tensor count %d must be non-negative", Long.valueOf(count)));
+    }
+
+    final int stride = TensorSegmentedArray.tensorSizeBytes(constructor);
+    final int chunk_tensors =
+      TensorSegmentedArray.segmentTensorsFor(stride, chunk_bytes);
+    final int chunk_count =
+      TensorSegmentedArray.segmentCountFor(count, chunk_tensors);
+
+    final List<MappedByteBuffer> chunks = new ArrayList<>(chunk_count);
+    for (int chunk = 0; chunk < chunk_count; ++chunk) {
+      final long first = (long) chunk * (long) chunk_tensors;
+      final long tensors = Math.min((long) chunk_tensors, count - first);
+      final long chunk_position =
+        Math.addExact(position, Math.multiplyExact(first, (long) stride));
+
+      final MappedByteBuffer buffer =
+        channel.map(mode, chunk_position, tensors * (long) stride);
+      buffer.order(order);
+      chunks.add(buffer);
+    }
+
+    return new TensorMappedArray<>(
+      chunks,
+      TensorSegmentedArray.createWithSegments(
+        chunks, chunk_tensors, count, constructor));
+  }
+
+  /**
+   * @return The number of tensors in the array
+   */
+
+  public long count()
+  {
+    return this.array.count();
+  }
+
+  /**
+   * @return The size in bytes of each tensor
+   */
+
+  public int strideBytes()
+  {
+    return this.array.strideBytes();
+  }
+
+  /**
+   * @return The total size in bytes of the array
+   */
+
+  public long sizeBytes()
+  {
+    return this.array.sizeBytes();
+  }
+
+  /**
+   * @return The number of mapped chunks
+   */
+
+  public int chunkCount()
+  {
+    return this.chunks.size();
+  }
+
+  /**
+   * @return The number of tensors held in each chunk (the last chunk may
+   * hold fewer)
+   */
+
+  public int chunkTensors()
+  {
+    return this.array.segmentTensors();
+  }
+
+  /**
+   * Move the cursor of the chunk holding tensor {@code index} to that
+   * tensor, and return the cursor. The returned cursor remains valid until
+   * the next call to this method that selects a tensor in the same chunk.
+   *
+   * @param index The tensor index
+   *
+   * @return A cursor positioned at the given tensor
+   *
+   * @throws IndexOutOfBoundsException If {@code index} is not in the range
+   *                                   {@code [0, count())}
+   */
+
+  public T select(
+    final long index)
+    throws IndexOutOfBoundsException
+  {
+    return this.array.select(index);
+  }
+
+  /**
+   * Force any changes made to the array to be written to the underlying
+   * storage device.
+   *
+   * @see MappedByteBuffer#force()
+   */
+
+  public void force()
+  {
+    for (int index = 0; index < this.chunks.size(); ++index) {
+      this.chunks.get(index).force();
+    }
+  }
+}
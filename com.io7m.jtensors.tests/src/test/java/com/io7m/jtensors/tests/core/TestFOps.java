@@ -25,6 +25,7 @@ import com.io7m.jtensors.core.parameterized.vectors.PVector3F;
 import com.io7m.jtensors.core.parameterized.vectors.PVector4F;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2F;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x4F;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2F;
@@ -148,6 +149,32 @@ public final class TestFOps
     }
   }
 
+  public static void checkAlmostEqualsMatrix(
+    final Matrix3x4F m0,
+    final Matrix3x4F m1)
+  {
+    try {
+      checkAlmostEquals(m0.r0c0(), m1.r0c0());
+      checkAlmostEquals(m0.r0c1(), m1.r0c1());
+      checkAlmostEquals(m0.r0c2(), m1.r0c2());
+      checkAlmostEquals(m0.r0c3(), m1.r0c3());
+
+      checkAlmostEquals(m0.r1c0(), m1.r1c0());
+      checkAlmostEquals(m0.r1c1(), m1.r1c1());
+      checkAlmostEquals(m0.r1c2(), m1.r1c2());
+      checkAlmostEquals(m0.r1c3(), m1.r1c3());
+
+      checkAlmostEquals(m0.r2c0(), m1.r2c0());
+      checkAlmostEquals(m0.r2c1(), m1.r2c1());
+      checkAlmostEquals(m0.r2c2(), m1.r2c2());
+      checkAlmostEquals(m0.r2c3(), m1.r2c3());
+    } catch (final AssertionError e) {
+      LOG.warn("expected: {}", m0);
+      LOG.warn("received: {}", m1);
+      throw e;
+    }
+  }
+
   public static void checkAlmostEqualsMatrix(
     final Matrix4x4F m0,
     final Matrix4x4F m1)
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.core.dotproducts;
+
+import com.io7m.jtensors.core.dotproducts.DotProductsDouble;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+public final class DotProductsDoubleTest
+{
+  private static double exact(
+    final double... values)
+  {
+    BigDecimal sum = BigDecimal.ZERO;
+    final int half = values.length / 2;
+    for (int index = 0; index < half; ++index) {
+      sum = sum.add(
+        new BigDecimal(values[index]).multiply(
+          new BigDecimal(values[index + half])));
+    }
+    return sum.doubleValue();
+  }
+
+  @Test
+  public void testCompensatedExactIntegers()
+  {
+    Assert.assertEquals(
+      DotProductsDouble.dotProduct4(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0),
+      DotProductsDouble.dotProduct4Compensated(
+        1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0),
+      0.0);
+    Assert.assertEquals(
+      DotProductsDouble.dotProduct3(1.0, 2.0, 3.0, 5.0, 6.0, 7.0),
+      DotProductsDouble.dotProduct3Compensated(1.0, 2.0, 3.0, 5.0, 6.0, 7.0),
+      0.0);
+    Assert.assertEquals(
+      DotProductsDouble.dotProduct2(1.0, 2.0, 5.0, 6.0),
+      DotProductsDouble.dotProduct2Compensated(1.0, 2.0, 5.0, 6.0),
+      0.0);
+  }
+
+  @Test
+  public void testCompensatedCancellation4()
+  {
+    Assert.assertEquals(
+      1.0,
+      DotProductsDouble.dotProduct4(
+        1.0e16, 1.0, -1.0e16, 1.0, 1.0, 1.0, 1.0, 1.0),
+      0.0);
+    Assert.assertEquals(
+      2.0,
+      DotProductsDouble.dotProduct4Compensated(
+        1.0e16, 1.0, -1.0e16, 1.0, 1.0, 1.0, 1.0, 1.0),
+      0.0);
+  }
+
+  @Test
+  public void testCompensatedCancellation3()
+  {
+    Assert.assertEquals(
+      1.0,
+      DotProductsDouble.dotProduct3Compensated(
+        1.0e16, 1.0, -1.0e16, 1.0, 1.0, 1.0),
+      0.0);
+  }
+
+  @Test
+  public void testCompensatedCancellation2()
+  {
+    final double x = 1.0 + Math.ulp(1.0);
+    final double y = 1.0 - Math.ulp(1.0);
+
+    Assert.assertEquals(
+      0.0,
+      DotProductsDouble.dotProduct2(x, -1.0, y, 1.0),
+      0.0);
+    Assert.assertEquals(
+      exact(x, -1.0, y, 1.0),
+      DotProductsDouble.dotProduct2Compensated(x, -1.0, y, 1.0),
+      0.0);
+  }
+
+  @Test
+  public void testCompensatedAccuracy()
+  {
+    final Random random = new Random(0x6a74656e736f7273L);
+
+    for (int index = 0; index < 10000; ++index) {
+      final double x0 = random.nextGaussian() * 1000.0;
+      final double y0 = random.nextGaussian() * 1000.0;
+      final double z0 = random.nextGaussian() * 1000.0;
+      final double w0 = random.nextGaussian() * 1000.0;
+      final double x1 = random.nextGaussian() * 1000.0;
+      final double y1 = random.nextGaussian() * 1000.0;
+      final double z1 = random.nextGaussian() * 1000.0;
+      final double w1 = random.nextGaussian() * 1000.0;
+
+      final double expected = exact(x0, y0, z0, w0, x1, y1, z1, w1);
+      final double received = DotProductsDouble.dotProduct4Compensated(
+        x0, y0, z0, w0, x1, y1, z1, w1);
+      Assert.assertEquals(expected, received, Math.ulp(expected));
+    }
+  }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.spatial;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.spatial.BoundingVolumeHierarchy;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public final class BoundingVolumeHierarchyTest
+{
+  private static final int COUNT = 300;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer boxes(
+    final int count,
+    final float[] min_x,
+    final float[] min_y,
+    final float[] min_z,
+    final float[] max_x,
+    final float[] max_y,
+    final float[] max_z)
+  {
+    final Generator<Double> gen_p = PrimitiveGenerators.doubles(-100.0, 100.0);
+    final Generator<Double> gen_s = PrimitiveGenerators.doubles(0.0, 8.0);
+
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(size * count).order(ByteOrder.nativeOrder());
+
+    for (int index = 0; index < count; ++index) {
+      min_x[index] = gen_p.next().floatValue();
+      min_y[index] = gen_p.next().floatValue();
+      min_z[index] = gen_p.next().floatValue();
+      max_x[index] = min_x[index] + gen_s.next().floatValue();
+      max_y[index] = min_y[index] + gen_s.next().floatValue();
+      max_z[index] = min_z[index] + gen_s.next().floatValue();
+
+      final int offset = index * size;
+      buffer.putFloat(offset, min_x[index]);
+      buffer.putFloat(offset + 4, min_y[index]);
+      buffer.putFloat(offset + 8, min_z[index]);
+      buffer.putFloat(offset + 12, max_x[index]);
+      buffer.putFloat(offset + 16, max_y[index]);
+      buffer.putFloat(offset + 20, max_z[index]);
+    }
+    return buffer;
+  }
+
+  private static int[] sorted(
+    final int[] values,
+    final int count)
+  {
+    final int[] result = Arrays.copyOf(values, count);
+    Arrays.sort(result);
+    return result;
+  }
+
+  /*
+   * A reference slab test, returning the entry distance or infinity.
+   */
+
+  private static double referenceRay(
+    final double[] o,
+    final double[] d,
+    final double t_max,
+    final double[] min,
+    final double[] max)
+  {
+    double t_enter = 0.0;
+    double t_exit = t_max;
+    for (int axis = 0; axis < 3; ++axis) {
+      if (d[axis] == 0.0) {
+        if (o[axis] < min[axis] || o[axis] > max[axis]) {
+          return Double.POSITIVE_INFINITY;
+        }
+        continue;
+      }
+      final double t0 = (min[axis] - o[axis]) / d[axis];
+      final double t1 = (max[axis] - o[axis]) / d[axis];
+      t_enter = Math.max(t_enter, Math.min(t0, t1));
+      t_exit = Math.min(t_exit, Math.max(t0, t1));
+    }
+    return t_enter <= t_exit ? t_enter : Double.POSITIVE_INFINITY;
+  }
+
+  private static final class Boxes
+  {
+    final float[] min_x = new float[COUNT];
+    final float[] min_y = new float[COUNT];
+    final float[] min_z = new float[COUNT];
+    final float[] max_x = new float[COUNT];
+    final float[] max_y = new float[COUNT];
+    final float[] max_z = new float[COUNT];
+    final ByteBuffer buffer;
+
+    Boxes()
+    {
+      this.buffer = boxes(
+        COUNT,
+        this.min_x, this.min_y, this.min_z,
+        this.max_x, this.max_y, this.max_z);
+    }
+
+    double[] min(
+      final int index)
+    {
+      return new double[]{
+        (double) this.min_x[index],
+        (double) this.min_y[index],
+        (double) this.min_z[index],
+      };
+    }
+
+    double[] max(
+      final int index)
+    {
+      return new double[]{
+        (double) this.max_x[index],
+        (double) this.max_y[index],
+        (double) this.max_z[index],
+      };
+    }
+
+    boolean overlaps(
+      final int index,
+      final double[] q_min,
+      final double[] q_max)
+    {
+      final double[] min = this.min(index);
+      final double[] max = this.max(index);
+      for (int axis = 0; axis < 3; ++axis) {
+        if (min[axis] > q_max[axis] || max[axis] < q_min[axis]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final BoundingVolumeHierarchy bvh = BoundingVolumeHierarchy.build(
+      ByteBuffer.allocateDirect(0), 0);
+
+    Assert.assertEquals(0L, (long) bvh.primitiveCount());
+    Assert.assertEquals(0L, (long) bvh.nodeCount());
+    Assert.assertEquals(
+      0L, (long) bvh.queryPoint(Vector3D.of(0.0, 0.0, 0.0), new int[1]));
+    Assert.assertEquals(
+      -1L,
+      (long) bvh.queryRayNearest(
+        Vector3D.of(0.0, 0.0, 0.0), Vector3D.of(1.0, 0.0, 0.0), 100.0));
+  }
+
+  @Test
+  public void testStructure()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    Assert.assertEquals((long) COUNT, (long) bvh.primitiveCount());
+    Assert.assertTrue(bvh.nodeCount() <= (2 * COUNT) - 1);
+    Assert.assertTrue(bvh.depth() < COUNT);
+
+    final Vector3D min = bvh.boundsMinimum();
+    final Vector3D max = bvh.boundsMaximum();
+    for (int index = 0; index < COUNT; ++index) {
+      Assert.assertTrue(min.x() <= (double) b.min_x[index]);
+      Assert.assertTrue(min.y() <= (double) b.min_y[index]);
+      Assert.assertTrue(min.z() <= (double) b.min_z[index]);
+      Assert.assertTrue(max.x() >= (double) b.max_x[index]);
+      Assert.assertTrue(max.y() >= (double) b.max_y[index]);
+      Assert.assertTrue(max.z() >= (double) b.max_z[index]);
+    }
+  }
+
+  @Test
+  public void testCoincident()
+  {
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    final ByteBuffer buffer =
+      ByteBuffer.allocate(size * COUNT).order(ByteOrder.nativeOrder());
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      buffer.putFloat(offset, 1.0f);
+      buffer.putFloat(offset + 4, 1.0f);
+      buffer.putFloat(offset + 8, 1.0f);
+      buffer.putFloat(offset + 12, 2.0f);
+      buffer.putFloat(offset + 16, 2.0f);
+      buffer.putFloat(offset + 20, 2.0f);
+    }
+
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(buffer, COUNT);
+    Assert.assertEquals(1L, (long) bvh.nodeCount());
+
+    final int[] out = new int[COUNT];
+    Assert.assertEquals(
+      (long) COUNT,
+      (long) bvh.queryPoint(Vector3D.of(1.5, 1.5, 1.5), out));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testQueryBoxReference()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    final Generator<Double> gen_p = PrimitiveGenerators.doubles(-100.0, 100.0);
+    final Generator<Double> gen_s = PrimitiveGenerators.doubles(0.0, 30.0);
+
+    final double[] q_min = {
+      gen_p.next().doubleValue(),
+      gen_p.next().doubleValue(),
+      gen_p.next().doubleValue(),
+    };
+    final double[] q_max = {
+      q_min[0] + gen_s.next().doubleValue(),
+      q_min[1] + gen_s.next().doubleValue(),
+      q_min[2] + gen_s.next().doubleValue(),
+    };
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      if (b.overlaps(index, q_min, q_max)) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[COUNT];
+    final int count = bvh.queryBox(
+      Vector3D.of(q_min[0], q_min[1], q_min[2]),
+      Vector3D.of(q_max[0], q_max[1], q_max[2]),
+      out);
+
+    Assert.assertEquals((long) expected_count, (long) count);
+    Assert.assertArrayEquals(
+      sorted(expected, expected_count), sorted(out, count));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testQueryPointReference()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    /*
+     * Query at the centre of a randomly chosen box, so that at least one
+     * primitive is always found.
+     */
+
+    final int chosen =
+      PrimitiveGenerators.integers(0, COUNT - 1).next().intValue();
+    final double[] p = {
+      ((double) b.min_x[chosen] + (double) b.max_x[chosen]) * 0.5,
+      ((double) b.min_y[chosen] + (double) b.max_y[chosen]) * 0.5,
+      ((double) b.min_z[chosen] + (double) b.max_z[chosen]) * 0.5,
+    };
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      if (b.overlaps(index, p, p)) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[COUNT];
+    final int count = bvh.queryPoint(Vector3D.of(p[0], p[1], p[2]), out);
+    Assert.assertTrue(count >= 1);
+    Assert.assertEquals((long) expected_count, (long) count);
+    Assert.assertArrayEquals(
+      sorted(expected, expected_count), sorted(out, count));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testQueryRayReference()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    final Generator<Double> gen_p = PrimitiveGenerators.doubles(-100.0, 100.0);
+    final Generator<Double> gen_d = PrimitiveGenerators.doubles(-1.0, 1.0);
+
+    final double[] o = {
+      gen_p.next().doubleValue(),
+      gen_p.next().doubleValue(),
+      gen_p.next().doubleValue(),
+    };
+    final double[] d = {
+      gen_d.next().doubleValue(),
+      gen_d.next().doubleValue(),
+      gen_d.next().doubleValue(),
+    };
+    final double t_max = 200.0;
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    int expected_nearest = -1;
+    double expected_nearest_t = Double.POSITIVE_INFINITY;
+    for (int index = 0; index < COUNT; ++index) {
+      final double t = referenceRay(o, d, t_max, b.min(index), b.max(index));
+      if (t <= t_max) {
+        expected[expected_count] = index;
+        ++expected_count;
+        if (t < expected_nearest_t) {
+          expected_nearest_t = t;
+          expected_nearest = index;
+        }
+      }
+    }
+
+    final Vector3D origin = Vector3D.of(o[0], o[1], o[2]);
+    final Vector3D direction = Vector3D.of(d[0], d[1], d[2]);
+
+    final int[] out = new int[COUNT];
+    final int count = bvh.queryRay(origin, direction, t_max, out);
+    Assert.assertEquals((long) expected_count, (long) count);
+    Assert.assertArrayEquals(
+      sorted(expected, expected_count), sorted(out, count));
+
+    final int nearest = bvh.queryRayNearest(origin, direction, t_max);
+    if (expected_nearest == -1) {
+      Assert.assertEquals(-1L, (long) nearest);
+    } else {
+      final double t = referenceRay(
+        o, d, t_max, b.min(nearest), b.max(nearest));
+      Assert.assertEquals(expected_nearest_t, t, 0.0);
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testRefitReference()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    final Generator<Double> gen_m = PrimitiveGenerators.doubles(-50.0, 50.0);
+    for (int index = 0; index < COUNT; index += 3) {
+      final float dx = gen_m.next().floatValue();
+      final float dy = gen_m.next().floatValue();
+      final float dz = gen_m.next().floatValue();
+      b.min_x[index] += dx;
+      b.min_y[index] += dy;
+      b.min_z[index] += dz;
+      b.max_x[index] += dx;
+      b.max_y[index] += dy;
+      b.max_z[index] += dz;
+      bvh.setPrimitive(
+        index,
+        Vector3D.of(
+          (double) b.min_x[index],
+          (double) b.min_y[index],
+          (double) b.min_z[index]),
+        Vector3D.of(
+          (double) b.max_x[index],
+          (double) b.max_y[index],
+          (double) b.max_z[index]));
+    }
+    bvh.refit();
+
+    for (int index = 0; index < COUNT; ++index) {
+      Assert.assertEquals(
+        (double) b.min_x[index], bvh.primitiveMinimum(index).x(), 0.0);
+      Assert.assertEquals(
+        (double) b.max_z[index], bvh.primitiveMaximum(index).z(), 0.0);
+    }
+
+    final double[] q_min = {-40.0, -40.0, -40.0};
+    final double[] q_max = {40.0, 40.0, 40.0};
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      if (b.overlaps(index, q_min, q_max)) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[COUNT];
+    final int count = bvh.queryBox(
+      Vector3D.of(q_min[0], q_min[1], q_min[2]),
+      Vector3D.of(q_max[0], q_max[1], q_max[2]),
+      out);
+
+    Assert.assertEquals((long) expected_count, (long) count);
+    Assert.assertArrayEquals(
+      sorted(expected, expected_count), sorted(out, count));
+  }
+
+  @Test
+  public void testQueryOutputTruncated()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    final int[] out = new int[2];
+    final int count = bvh.queryBox(
+      Vector3D.of(-1000.0, -1000.0, -1000.0),
+      Vector3D.of(1000.0, 1000.0, 1000.0),
+      out);
+    Assert.assertEquals((long) COUNT, (long) count);
+  }
+
+  private static ByteBuffer unitBoxesAlongX(
+    final int count)
+  {
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    final ByteBuffer buffer =
+      ByteBuffer.allocate(size * count).order(ByteOrder.nativeOrder());
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * size;
+      buffer.putFloat(offset, (float) index);
+      buffer.putFloat(offset + 4, 0.0f);
+      buffer.putFloat(offset + 8, 0.0f);
+      buffer.putFloat(offset + 12, (float) index + 1.0f);
+      buffer.putFloat(offset + 16, 1.0f);
+      buffer.putFloat(offset + 20, 1.0f);
+    }
+    return buffer;
+  }
+
+  @Test
+  public void testQueryRayAxisParallelOnFace()
+  {
+    final int count = 20;
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(unitBoxesAlongX(count), count);
+
+    final int[] out = new int[count];
+    final Vector3D direction = Vector3D.of(1.0, 0.0, 0.0);
+
+    Assert.assertEquals(
+      (long) count,
+      (long) bvh.queryRay(Vector3D.of(-1.0, 0.0, 0.5), direction, 100.0, out));
+    Assert.assertEquals(
+      (long) count,
+      (long) bvh.queryRay(Vector3D.of(-1.0, 1.0, 1.0), direction, 100.0, out));
+    Assert.assertEquals(
+      0L,
+      (long) bvh.queryRay(Vector3D.of(-1.0, -0.5, 0.5), direction, 100.0, out));
+
+    Assert.assertEquals(
+      0L,
+      (long) bvh.queryRayNearest(Vector3D.of(-1.0, 0.0, 0.0), direction, 100.0));
+    Assert.assertEquals(
+      5L,
+      (long) bvh.queryRayNearest(Vector3D.of(5.5, 0.5, 0.0), direction, 100.0));
+    Assert.assertEquals(
+      (long) count - 1L,
+      (long) bvh.queryRayNearest(
+        Vector3D.of(30.0, 0.0, 1.0), Vector3D.of(-1.0, 0.0, 0.0), 100.0));
+  }
+
+  @Test
+  public void testUnbalanced()
+  {
+    final int count = 200;
+    final int size = BoundingVolumeHierarchy.boxSizeBytes();
+    final ByteBuffer buffer =
+      ByteBuffer.allocate(size * count).order(ByteOrder.nativeOrder());
+    double x = 1.0;
+    for (int index = 0; index < count; ++index) {
+      final int offset = index * size;
+      buffer.putFloat(offset, (float) x);
+      buffer.putFloat(offset + 12, (float) x);
+      x *= 1.2;
+    }
+
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(buffer, count);
+    final int[] out = new int[count];
+    for (int index = 0; index < count; ++index) {
+      Assert.assertEquals(
+        1L, (long) bvh.queryPoint(bvh.primitiveMinimum(index), out));
+      Assert.assertEquals((long) index, (long) out[0]);
+    }
+  }
+
+  @Test
+  public void testBuildTooLarge()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    BoundingVolumeHierarchy.build(
+      ByteBuffer.allocate(0),
+      BoundingVolumeHierarchy.primitiveCountMaximum() + 1);
+  }
+
+  @Test
+  public void testBuildTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    BoundingVolumeHierarchy.build(ByteBuffer.allocate(47), 2);
+  }
+
+  @Test
+  public void testSetPrimitiveOutOfRange()
+  {
+    final Boxes b = new Boxes();
+    final BoundingVolumeHierarchy bvh =
+      BoundingVolumeHierarchy.build(b.buffer, COUNT);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    bvh.setPrimitive(
+      COUNT, Vector3D.of(0.0, 0.0, 0.0), Vector3D.of(1.0, 1.0, 1.0));
+  }
+}
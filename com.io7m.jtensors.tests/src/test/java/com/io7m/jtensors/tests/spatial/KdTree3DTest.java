@@ -0,0 +1,285 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.spatial;
+
+import com.io7m.jtensors.core.parameterized.vectors.PVector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.spatial.KdTree3D;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public final class KdTree3DTest
+{
+  private static final int COUNT = 300;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static double distanceSquared(
+    final double[] points,
+    final int index,
+    final double x,
+    final double y,
+    final double z)
+  {
+    final double dx = points[index * 3] - x;
+    final double dy = points[(index * 3) + 1] - y;
+    final double dz = points[(index * 3) + 2] - z;
+    return (dx * dx) + (dy * dy) + (dz * dz);
+  }
+
+  private static void checkNearest(
+    final KdTree3D tree,
+    final double[] points,
+    final int k,
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int count = points.length / 3;
+    final double[] expected = new double[count];
+    for (int index = 0; index < count; ++index) {
+      expected[index] = distanceSquared(points, index, x, y, z);
+    }
+    Arrays.sort(expected);
+
+    final int[] out_indices = new int[k];
+    final double[] out_distances = new double[k];
+    final int found = tree.nearest(
+      Vector3D.of(x, y, z), k, out_indices, out_distances);
+
+    Assert.assertEquals((long) Math.min(k, count), (long) found);
+    for (int index = 0; index < found; ++index) {
+      Assert.assertEquals(expected[index], out_distances[index], 0.0);
+      Assert.assertEquals(
+        out_distances[index],
+        distanceSquared(points, out_indices[index], x, y, z),
+        0.0);
+    }
+  }
+
+  private static void checkRadius(
+    final KdTree3D tree,
+    final double[] points,
+    final double radius,
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int count = points.length / 3;
+    final int[] expected = new int[count];
+    int expected_count = 0;
+    for (int index = 0; index < count; ++index) {
+      if (distanceSquared(points, index, x, y, z) <= radius * radius) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[count];
+    final int found = tree.radius(Vector3D.of(x, y, z), radius, out);
+    Assert.assertEquals((long) expected_count, (long) found);
+    Assert.assertArrayEquals(
+      SpatialFixtures.sorted(expected, expected_count),
+      SpatialFixtures.sorted(out, found));
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final KdTree3D tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), ByteBuffer.allocate(0), 0);
+
+    Assert.assertEquals(0L, (long) tree.size());
+    Assert.assertEquals(
+      0L,
+      (long) tree.nearest(
+        Vector3D.of(0.0, 0.0, 0.0), 4, new int[4], new double[4]));
+    Assert.assertEquals(
+      0L, (long) tree.radius(Vector3D.of(0.0, 0.0, 0.0), 10.0, new int[4]));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testNearestReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 100.0);
+    final KdTree3D tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer32(points), COUNT);
+
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-120.0, 120.0);
+    final int k = PrimitiveGenerators.integers(1, 16).next().intValue();
+    checkNearest(
+      tree,
+      points,
+      k,
+      gen.next().doubleValue(),
+      gen.next().doubleValue(),
+      gen.next().doubleValue());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testRadiusReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 100.0);
+    final KdTree3D tree = KdTree3D.buildFloat64(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer64(points), COUNT);
+
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-120.0, 120.0);
+    final double radius = PrimitiveGenerators.doubles(0.0, 60.0).next();
+    checkRadius(
+      tree,
+      points,
+      radius,
+      gen.next().doubleValue(),
+      gen.next().doubleValue(),
+      gen.next().doubleValue());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testBoxReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 100.0);
+    final KdTree3D tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer32(points), COUNT);
+
+    final Generator<Double> gen_p = PrimitiveGenerators.doubles(-100.0, 100.0);
+    final Generator<Double> gen_s = PrimitiveGenerators.doubles(0.0, 80.0);
+    final double min_x = gen_p.next().doubleValue();
+    final double min_y = gen_p.next().doubleValue();
+    final double min_z = gen_p.next().doubleValue();
+    final double max_x = min_x + gen_s.next().doubleValue();
+    final double max_y = min_y + gen_s.next().doubleValue();
+    final double max_z = min_z + gen_s.next().doubleValue();
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      final double x = points[index * 3];
+      final double y = points[(index * 3) + 1];
+      final double z = points[(index * 3) + 2];
+      if (x >= min_x && x <= max_x
+        && y >= min_y && y <= max_y
+        && z >= min_z && z <= max_z) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[COUNT];
+    final int found = tree.box(
+      PVector3D.of(min_x, min_y, min_z),
+      PVector3D.of(max_x, max_y, max_z),
+      out);
+    Assert.assertEquals((long) expected_count, (long) found);
+    Assert.assertArrayEquals(
+      SpatialFixtures.sorted(expected, expected_count),
+      SpatialFixtures.sorted(out, found));
+  }
+
+  @Test
+  public void testParallelBuildReference()
+  {
+    final int count = 20000;
+    final double[] points = SpatialFixtures.points(count, 3, 100.0);
+    final KdTree3D tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer32(points), count);
+    Assert.assertEquals((long) count, (long) tree.size());
+
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-120.0, 120.0);
+    for (int query = 0; query < 50; ++query) {
+      final double x = gen.next().doubleValue();
+      final double y = gen.next().doubleValue();
+      final double z = gen.next().doubleValue();
+      checkNearest(tree, points, 8, x, y, z);
+      checkRadius(tree, points, 10.0, x, y, z);
+    }
+  }
+
+  @Test
+  public void testDuplicates()
+  {
+    final int count = 2000;
+    final double[] points = new double[count * 3];
+    for (int index = 0; index < count; ++index) {
+      points[index * 3] = (double) (index % 3);
+      points[(index * 3) + 1] = 1.0;
+      points[(index * 3) + 2] = 2.0;
+    }
+
+    final KdTree3D tree = KdTree3D.buildFloat64(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer64(points), count);
+    checkRadius(tree, points, 0.0, 1.0, 1.0, 2.0);
+    checkNearest(tree, points, 10, 2.0, 1.0, 2.0);
+  }
+
+  @Test
+  public void testNearestPVector()
+  {
+    final double[] points = {
+      0.0, 0.0, 0.0,
+      10.0, 0.0, 0.0,
+      0.0, 5.0, 0.0,
+    };
+    final KdTree3D tree = KdTree3D.buildFloat64(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer64(points), 3);
+
+    final int[] out_indices = new int[2];
+    final double[] out_distances = new double[2];
+    final int found = tree.nearest(
+      PVector3D.of(0.0, 4.0, 0.0), 2, out_indices, out_distances);
+
+    Assert.assertEquals(2L, (long) found);
+    Assert.assertEquals(2L, (long) out_indices[0]);
+    Assert.assertEquals(0L, (long) out_indices[1]);
+    Assert.assertEquals(1.0, out_distances[0], 0.0);
+    Assert.assertEquals(16.0, out_distances[1], 0.0);
+  }
+
+  @Test
+  public void testNearestOutputTooSmall()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 100.0);
+    final KdTree3D tree = KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer32(points), COUNT);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    tree.nearest(Vector3D.of(0.0, 0.0, 0.0), 3, new int[3], new double[2]);
+  }
+
+  @Test
+  public void testBuildTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    KdTree3D.buildFloat32(
+      ForkJoinPool.commonPool(), ByteBuffer.allocate(23), 2);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.spatial;
+
+import com.io7m.junreachable.UnreachableCodeException;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Point set fixtures shared by the spatial structure tests.
+ */
+
+final class SpatialFixtures
+{
+  private SpatialFixtures()
+  {
+    throw new UnreachableCodeException();
+  }
+
+  /**
+   * Generate {@code count} random points of {@code components} components
+   * each, packed into a single array. Components lie in
+   * {@code [-bound, bound]} and are exactly representable as {@code float}
+   * values, so that points stored in 32-bit buffers compare equal to their
+   * 64-bit originals.
+   *
+   * @param count      The number of points
+   * @param components The number of components per point
+   * @param bound      The absolute bound of each component
+   *
+   * @return The packed points
+   */
+
+  static double[] points(
+    final int count,
+    final int components,
+    final double bound)
+  {
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-bound, bound);
+    final double[] points = new double[count * components];
+    for (int index = 0; index < points.length; ++index) {
+      points[index] = (double) gen.next().floatValue();
+    }
+    return points;
+  }
+
+  /**
+   * @param points The packed points
+   *
+   * @return A direct, native-order buffer holding the points as 32-bit floats
+   */
+
+  static ByteBuffer buffer32(
+    final double[] points)
+  {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(points.length * 4)
+      .order(ByteOrder.nativeOrder());
+    for (int index = 0; index < points.length; ++index) {
+      buffer.putFloat(index * 4, (float) points[index]);
+    }
+    return buffer;
+  }
+
+  /**
+   * @param points The packed points
+   *
+   * @return A heap, big-endian buffer holding the points as 64-bit doubles
+   */
+
+  static ByteBuffer buffer64(
+    final double[] points)
+  {
+    final ByteBuffer buffer = ByteBuffer.allocate(points.length * 8)
+      .order(ByteOrder.BIG_ENDIAN);
+    for (int index = 0; index < points.length; ++index) {
+      buffer.putDouble(index * 8, points[index]);
+    }
+    return buffer;
+  }
+
+  /**
+   * @param values The values
+   * @param count  The number of leading values to take
+   *
+   * @return A sorted copy of the first {@code count} values
+   */
+
+  static int[] sorted(
+    final int[] values,
+    final int count)
+  {
+    final int[] result = Arrays.copyOf(values, count);
+    Arrays.sort(result);
+    return result;
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.spatial;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3I;
+import com.io7m.jtensors.spatial.SpatialHashGrid3D;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+public final class SpatialHashGrid3DTest
+{
+  private static final int COUNT = 500;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static int cell(
+    final double x,
+    final double size)
+  {
+    return (int) Math.floor(x / size);
+  }
+
+  private static void checkRadius(
+    final SpatialHashGrid3D grid,
+    final double[] points,
+    final double radius,
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int count = points.length / 3;
+    final int[] expected = new int[count];
+    int expected_count = 0;
+    for (int index = 0; index < count; ++index) {
+      final double dx = points[index * 3] - x;
+      final double dy = points[(index * 3) + 1] - y;
+      final double dz = points[(index * 3) + 2] - z;
+      if ((dx * dx) + (dy * dy) + (dz * dz) <= radius * radius) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[count];
+    final int found = grid.queryRadius(Vector3D.of(x, y, z), radius, out);
+    Assert.assertEquals((long) expected_count, (long) found);
+    Assert.assertArrayEquals(
+      SpatialFixtures.sorted(expected, expected_count),
+      SpatialFixtures.sorted(out, found));
+  }
+
+  private static void checkCells(
+    final SpatialHashGrid3D grid,
+    final double[] points,
+    final Vector3I minimum,
+    final Vector3I maximum)
+  {
+    final double size = grid.cellSize();
+    final int count = points.length / 3;
+    final int[] expected = new int[count];
+    int expected_count = 0;
+    for (int index = 0; index < count; ++index) {
+      final int x = cell(points[index * 3], size);
+      final int y = cell(points[(index * 3) + 1], size);
+      final int z = cell(points[(index * 3) + 2], size);
+      if (x >= minimum.x() && x <= maximum.x()
+        && y >= minimum.y() && y <= maximum.y()
+        && z >= minimum.z() && z <= maximum.z()) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[count];
+    final int[] found = {0};
+    grid.forEachInCells(minimum, maximum, index -> {
+      out[found[0]] = index;
+      ++found[0];
+    });
+
+    Assert.assertEquals((long) expected_count, (long) found[0]);
+    Assert.assertArrayEquals(
+      SpatialFixtures.sorted(expected, expected_count),
+      SpatialFixtures.sorted(out, found[0]));
+  }
+
+  @Test
+  public void testCreate()
+  {
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(2.0, 1000);
+    Assert.assertEquals(2.0, grid.cellSize(), 0.0);
+    Assert.assertEquals(1024L, (long) grid.bucketCount());
+    Assert.assertEquals(0L, (long) grid.size());
+    Assert.assertEquals(
+      Vector3I.of(0, -1, 2), grid.cellOf(Vector3D.of(1.5, -0.5, 4.0)));
+  }
+
+  @Test
+  public void testCreateCellSizeInvalid()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    SpatialHashGrid3D.create(0.0, 16);
+  }
+
+  @Test
+  public void testCreateBucketCountInvalid()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    SpatialHashGrid3D.create(1.0, 0);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testRadiusReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(4.0, 256);
+    grid.rebuildFloat32(SpatialFixtures.buffer32(points), COUNT);
+    Assert.assertEquals((long) COUNT, (long) grid.size());
+
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-60.0, 60.0);
+    final double radius = PrimitiveGenerators.doubles(0.0, 12.0).next();
+    checkRadius(
+      grid,
+      points,
+      radius,
+      gen.next().doubleValue(),
+      gen.next().doubleValue(),
+      gen.next().doubleValue());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testCellsReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(8.0, 64);
+    grid.rebuildFloat64(SpatialFixtures.buffer64(points), COUNT);
+
+    final Generator<Integer> gen_c = PrimitiveGenerators.integers(-7, 7);
+    final Generator<Integer> gen_s = PrimitiveGenerators.integers(0, 4);
+    final int x = gen_c.next().intValue();
+    final int y = gen_c.next().intValue();
+    final int z = gen_c.next().intValue();
+    checkCells(
+      grid,
+      points,
+      Vector3I.of(x, y, z),
+      Vector3I.of(
+        x + gen_s.next().intValue(),
+        y + gen_s.next().intValue(),
+        z + gen_s.next().intValue()));
+  }
+
+  @Test
+  public void testCellsLargeRange()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(1.0, 64);
+    grid.rebuildFloat32(SpatialFixtures.buffer32(points), COUNT);
+
+    checkCells(
+      grid,
+      points,
+      Vector3I.of(-30, -1000, -30),
+      Vector3I.of(30, 1000, 30));
+    checkCells(
+      grid,
+      points,
+      Vector3I.of(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE),
+      Vector3I.of(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+    checkCells(
+      grid,
+      points,
+      Vector3I.of(Integer.MAX_VALUE - 1, 0, 0),
+      Vector3I.of(Integer.MAX_VALUE, 1, 1));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testQueryCellReference()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(10.0, 4);
+    grid.rebuildFloat32(SpatialFixtures.buffer32(points), COUNT);
+
+    final int chosen =
+      PrimitiveGenerators.integers(0, COUNT - 1).next().intValue();
+    final Vector3I c = grid.cellOf(Vector3D.of(
+      points[chosen * 3],
+      points[(chosen * 3) + 1],
+      points[(chosen * 3) + 2]));
+
+    final int[] expected = new int[COUNT];
+    int expected_count = 0;
+    for (int index = 0; index < COUNT; ++index) {
+      if (cell(points[index * 3], 10.0) == c.x()
+        && cell(points[(index * 3) + 1], 10.0) == c.y()
+        && cell(points[(index * 3) + 2], 10.0) == c.z()) {
+        expected[expected_count] = index;
+        ++expected_count;
+      }
+    }
+
+    final int[] out = new int[COUNT];
+    final int found = grid.queryCell(c, out);
+    Assert.assertTrue(found >= 1);
+    Assert.assertEquals((long) expected_count, (long) found);
+    Assert.assertArrayEquals(
+      SpatialFixtures.sorted(expected, expected_count),
+      SpatialFixtures.sorted(out, found));
+  }
+
+  @Test
+  public void testParallelRebuildReference()
+  {
+    final int count = 50000;
+    final double[] points = SpatialFixtures.points(count, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(2.0, 4096);
+    grid.rebuildFloat32Parallel(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer32(points), count);
+    Assert.assertEquals((long) count, (long) grid.size());
+
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-50.0, 50.0);
+    for (int query = 0; query < 50; ++query) {
+      checkRadius(
+        grid,
+        points,
+        3.0,
+        gen.next().doubleValue(),
+        gen.next().doubleValue(),
+        gen.next().doubleValue());
+    }
+
+    grid.rebuildFloat64Parallel(
+      ForkJoinPool.commonPool(), SpatialFixtures.buffer64(points), count);
+    for (int query = 0; query < 50; ++query) {
+      checkRadius(
+        grid,
+        points,
+        3.0,
+        gen.next().doubleValue(),
+        gen.next().doubleValue(),
+        gen.next().doubleValue());
+    }
+  }
+
+  @Test
+  public void testRebuildSmaller()
+  {
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(5.0, 128);
+    grid.rebuildFloat32(
+      SpatialFixtures.buffer32(SpatialFixtures.points(COUNT, 3, 50.0)), COUNT);
+
+    final double[] points = SpatialFixtures.points(COUNT / 2, 3, 50.0);
+    grid.rebuildFloat32(SpatialFixtures.buffer32(points), COUNT / 2);
+    Assert.assertEquals((long) (COUNT / 2), (long) grid.size());
+    checkRadius(grid, points, 1000.0, 0.0, 0.0, 0.0);
+    checkRadius(grid, points, 10.0, 5.0, -5.0, 0.0);
+  }
+
+  @Test
+  public void testRadiusNegative()
+  {
+    final double[] points = SpatialFixtures.points(COUNT, 3, 50.0);
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(5.0, 128);
+    grid.rebuildFloat32(SpatialFixtures.buffer32(points), COUNT);
+    Assert.assertEquals(
+      0L,
+      (long) grid.queryRadius(Vector3D.of(0.0, 0.0, 0.0), -100.0, new int[1]));
+  }
+
+  @Test
+  public void testRebuildTooSmall()
+  {
+    final SpatialHashGrid3D grid = SpatialHashGrid3D.create(1.0, 16);
+    this.expected.expect(IndexOutOfBoundsException.class);
+    grid.rebuildFloat64(ByteBuffer.allocate(47), 2);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.api;
+
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4F;
+import com.io7m.jtensors.storage.api.quaternions.DualQuaternionStorage4Type;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import org.junit.Test;
+
+public abstract class DualQuaternionStorage4Contract
+{
+  protected abstract DualQuaternionStorage4Type create(int offset);
+
+  protected abstract Generator<DualQuaternion4D> createGenerator4D();
+
+  protected abstract Generator<DualQuaternion4F> createGenerator4F();
+
+  protected abstract void checkAlmostEquals(
+    double x,
+    double y);
+
+  @Test
+  @PercentagePassing
+  public final void testGetSet4D()
+  {
+    final Generator<DualQuaternion4D> gen = this.createGenerator4D();
+    final DualQuaternion4D v = gen.next();
+
+    final DualQuaternionStorage4Type sv = this.create(0);
+    sv.setDualQuaternion4D(v);
+
+    this.checkAlmostEquals(v.real().x(), sv.realX());
+    this.checkAlmostEquals(v.real().y(), sv.realY());
+    this.checkAlmostEquals(v.real().z(), sv.realZ());
+    this.checkAlmostEquals(v.real().w(), sv.realW());
+
+    this.checkAlmostEquals(v.dual().x(), sv.dualX());
+    this.checkAlmostEquals(v.dual().y(), sv.dualY());
+    this.checkAlmostEquals(v.dual().z(), sv.dualZ());
+    this.checkAlmostEquals(v.dual().w(), sv.dualW());
+  }
+
+  @Test
+  @PercentagePassing
+  public final void testGetSet4F()
+  {
+    final Generator<DualQuaternion4F> gen = this.createGenerator4F();
+    final DualQuaternion4F v = gen.next();
+
+    final DualQuaternionStorage4Type sv = this.create(0);
+    sv.setDualQuaternion4F(v);
+
+    this.checkAlmostEquals((double) v.real().x(), sv.realX());
+    this.checkAlmostEquals((double) v.real().y(), sv.realY());
+    this.checkAlmostEquals((double) v.real().z(), sv.realZ());
+    this.checkAlmostEquals((double) v.real().w(), sv.realW());
+
+    this.checkAlmostEquals((double) v.dual().x(), sv.dualX());
+    this.checkAlmostEquals((double) v.dual().y(), sv.dualY());
+    this.checkAlmostEquals((double) v.dual().z(), sv.dualZ());
+    this.checkAlmostEquals((double) v.dual().w(), sv.dualW());
+  }
+
+  @Test
+  @PercentagePassing
+  public final void testSetRealDualXYZW()
+  {
+    final Generator<DualQuaternion4D> gen = this.createGenerator4D();
+    final DualQuaternion4D v = gen.next();
+
+    final DualQuaternionStorage4Type sv = this.create(0);
+    sv.setRealXYZW(v.real().x(), v.real().y(), v.real().z(), v.real().w());
+    sv.setDualXYZW(v.dual().x(), v.dual().y(), v.dual().z(), v.dual().w());
+
+    this.checkAlmostEquals(v.real().x(), sv.realX());
+    this.checkAlmostEquals(v.real().y(), sv.realY());
+    this.checkAlmostEquals(v.real().z(), sv.realZ());
+    this.checkAlmostEquals(v.real().w(), sv.realW());
+
+    this.checkAlmostEquals(v.dual().x(), sv.dualX());
+    this.checkAlmostEquals(v.dual().y(), sv.dualY());
+    this.checkAlmostEquals(v.dual().z(), sv.dualZ());
+    this.checkAlmostEquals(v.dual().w(), sv.dualW());
+  }
+}
@@ -18,9 +18,12 @@ package com.io7m.jtensors.tests.storage.api;
 
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
 import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage4x4Type;
 import com.io7m.jtensors.tests.rules.PercentagePassing;
 import net.java.quickcheck.Generator;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class MatrixStorage4x4Contract
@@ -96,4 +99,84 @@ public abstract class MatrixStorage4x4Contract
     this.checkAlmostEquals((double) v.r3c2(), sv.r3c2());
     this.checkAlmostEquals((double) v.r3c3(), sv.r3c3());
   }
+  private static Matrix4x4D copy(
+    final MatrixReadable4x4DType m)
+  {
+    return Matrix4x4D.of(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      m.r3c0(), m.r3c1(), m.r3c2(), m.r3c3());
+  }
+
+  private void checkMatrixAlmostEquals(
+    final MatrixReadable4x4DType x,
+    final MatrixReadable4x4DType y)
+  {
+    this.checkAlmostEquals(x.r0c0(), y.r0c0());
+    this.checkAlmostEquals(x.r0c1(), y.r0c1());
+    this.checkAlmostEquals(x.r0c2(), y.r0c2());
+    this.checkAlmostEquals(x.r0c3(), y.r0c3());
+
+    this.checkAlmostEquals(x.r1c0(), y.r1c0());
+    this.checkAlmostEquals(x.r1c1(), y.r1c1());
+    this.checkAlmostEquals(x.r1c2(), y.r1c2());
+    this.checkAlmostEquals(x.r1c3(), y.r1c3());
+
+    this.checkAlmostEquals(x.r2c0(), y.r2c0());
+    this.checkAlmostEquals(x.r2c1(), y.r2c1());
+    this.checkAlmostEquals(x.r2c2(), y.r2c2());
+    this.checkAlmostEquals(x.r2c3(), y.r2c3());
+
+    this.checkAlmostEquals(x.r3c0(), y.r3c0());
+    this.checkAlmostEquals(x.r3c1(), y.r3c1());
+    this.checkAlmostEquals(x.r3c2(), y.r3c2());
+    this.checkAlmostEquals(x.r3c3(), y.r3c3());
+  }
+
+  @Test
+  @PercentagePassing
+  public final void testSetMatrix4x4DComponents()
+  {
+    final Generator<Matrix4x4D> gen = this.createGenerator4x4D();
+    final Matrix4x4D v = gen.next();
+
+    final MatrixStorage4x4Type sv = this.create(0);
+    sv.setMatrix4x4D(
+      v.r0c0(), v.r0c1(), v.r0c2(), v.r0c3(),
+      v.r1c0(), v.r1c1(), v.r1c2(), v.r1c3(),
+      v.r2c0(), v.r2c1(), v.r2c2(), v.r2c3(),
+      v.r3c0(), v.r3c1(), v.r3c2(), v.r3c3());
+
+    this.checkMatrixAlmostEquals(v, sv);
+  }
+
+  @Test
+  @PercentagePassing
+  public final void testTransposeIntoAliased()
+  {
+    final Generator<Matrix4x4D> gen = this.createGenerator4x4D();
+    final MatrixStorage4x4Type sv = this.create(0);
+    sv.setMatrix4x4D(gen.next());
+
+    final Matrix4x4D expected = Matrices4x4D.transpose(copy(sv));
+    final MatrixStorage4x4Type r = Matrices4x4D.transposeInto(sv, sv);
+    Assert.assertSame(sv, r);
+    this.checkMatrixAlmostEquals(expected, sv);
+  }
+
+  @Test
+  @PercentagePassing
+  public final void testMultiplyIntoAliased()
+  {
+    final Generator<Matrix4x4D> gen = this.createGenerator4x4D();
+    final MatrixStorage4x4Type sv = this.create(0);
+    sv.setMatrix4x4D(gen.next());
+    final Matrix4x4D b = gen.next();
+
+    final Matrix4x4D expected = Matrices4x4D.multiply(copy(sv), b);
+    final MatrixStorage4x4Type r = Matrices4x4D.multiplyInto(sv, b, sv);
+    Assert.assertSame(sv, r);
+    this.checkMatrixAlmostEquals(expected, sv);
+  }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.mutable.numbers.core.MutableLong;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.Quaternion4D;
+import com.io7m.jtensors.storage.bytebuffered.DualQuaternionByteBuffered4Type;
+import com.io7m.jtensors.tests.storage.api.DualQuaternionStorage4Contract;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public abstract class DualQuaternionByteBuffered4Contract extends
+  DualQuaternionStorage4Contract
+{
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  protected abstract DualQuaternionByteBuffered4Type create(
+    final MutableLong base,
+    final int offset);
+
+  @Test
+  public final void testGetSetRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final DualQuaternionByteBuffered4Type q = this.create(base, 0);
+
+    q.setDualQuaternion4D(DualQuaternion4D.of(
+      Quaternion4D.of(0.0, 1.0, 2.0, 3.0),
+      Quaternion4D.of(4.0, 5.0, 6.0, 7.0)));
+
+    this.checkAlmostEquals(0.0, q.realX());
+    this.checkAlmostEquals(1.0, q.realY());
+    this.checkAlmostEquals(2.0, q.realZ());
+    this.checkAlmostEquals(3.0, q.realW());
+    this.checkAlmostEquals(4.0, q.dualX());
+    this.checkAlmostEquals(5.0, q.dualY());
+    this.checkAlmostEquals(6.0, q.dualZ());
+    this.checkAlmostEquals(7.0, q.dualW());
+
+    base.setValue((long) q.sizeBytes());
+
+    this.checkAlmostEquals(0.0, q.realX());
+    this.checkAlmostEquals(0.0, q.realY());
+    this.checkAlmostEquals(0.0, q.realZ());
+    this.checkAlmostEquals(0.0, q.realW());
+    this.checkAlmostEquals(0.0, q.dualX());
+    this.checkAlmostEquals(0.0, q.dualY());
+    this.checkAlmostEquals(0.0, q.dualZ());
+    this.checkAlmostEquals(0.0, q.dualW());
+
+    q.setDualQuaternion4D(DualQuaternion4D.of(
+      Quaternion4D.of(0.0, 1.0, 2.0, 3.0),
+      Quaternion4D.of(4.0, 5.0, 6.0, 7.0)));
+
+    this.checkAlmostEquals(0.0, q.realX());
+    this.checkAlmostEquals(1.0, q.realY());
+    this.checkAlmostEquals(2.0, q.realZ());
+    this.checkAlmostEquals(3.0, q.realW());
+    this.checkAlmostEquals(4.0, q.dualX());
+    this.checkAlmostEquals(5.0, q.dualY());
+    this.checkAlmostEquals(6.0, q.dualZ());
+    this.checkAlmostEquals(7.0, q.dualW());
+
+    base.setValue(0L);
+
+    this.checkAlmostEquals(0.0, q.realX());
+    this.checkAlmostEquals(1.0, q.realY());
+    this.checkAlmostEquals(2.0, q.realZ());
+    this.checkAlmostEquals(3.0, q.realW());
+    this.checkAlmostEquals(4.0, q.dualX());
+    this.checkAlmostEquals(5.0, q.dualY());
+    this.checkAlmostEquals(6.0, q.dualZ());
+    this.checkAlmostEquals(7.0, q.dualW());
+  }
+
+  @Test
+  public final void testGetDualQuaternion4D()
+  {
+    final MutableLong base = MutableLong.create();
+    final DualQuaternionByteBuffered4Type q = this.create(base, 0);
+
+    q.setDualQuaternion4D(DualQuaternion4D.of(
+      Quaternion4D.of(0.0, 1.0, 2.0, 3.0),
+      Quaternion4D.of(4.0, 5.0, 6.0, 7.0)));
+
+    final DualQuaternion4D r = q.getDualQuaternion4D();
+    this.checkAlmostEquals(0.0, r.real().x());
+    this.checkAlmostEquals(1.0, r.real().y());
+    this.checkAlmostEquals(2.0, r.real().z());
+    this.checkAlmostEquals(3.0, r.real().w());
+    this.checkAlmostEquals(4.0, r.dual().x());
+    this.checkAlmostEquals(5.0, r.dual().y());
+    this.checkAlmostEquals(6.0, r.dual().z());
+    this.checkAlmostEquals(7.0, r.dual().w());
+  }
+
+  @Test
+  public final void testGetDualQuaternion4DOutOfRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final DualQuaternionByteBuffered4Type q = this.create(base, 0);
+    base.setValue((long) (q.byteBuffer().capacity() - q.sizeBytes() + 1));
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    q.getDualQuaternion4D();
+  }
+
+  @Test
+  public final void testSetDualQuaternion4DOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final DualQuaternionByteBuffered4Type q = this.create(base, 0);
+    final int start = q.byteBuffer().capacity() - q.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      q.setDualQuaternion4D(DualQuaternion4D.of(
+      Quaternion4D.of(0.0, 1.0, 2.0, 3.0),
+      Quaternion4D.of(4.0, 5.0, 6.0, 7.0)));
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < q.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) q.byteBuffer().get(index));
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.mutable.numbers.core.MutableLong;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4D;
+import com.io7m.jtensors.core.quaternions.DualQuaternion4F;
+import com.io7m.jtensors.generators.DualQuaternion4DGenerator;
+import com.io7m.jtensors.generators.DualQuaternion4FGenerator;
+import com.io7m.jtensors.storage.api.quaternions.DualQuaternionStorage4Type;
+import com.io7m.jtensors.storage.bytebuffered.DualQuaternionByteBuffered4Type;
+import com.io7m.jtensors.storage.bytebuffered.DualQuaternionByteBuffered4s32;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import net.java.quickcheck.Generator;
+import org.junit.Rule;
+
+import java.nio.ByteBuffer;
+
+public final class DualQuaternionByteBuffered4s32Test
+  extends DualQuaternionByteBuffered4Contract
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+
+  @Override
+  protected DualQuaternionStorage4Type create(
+    final int offset)
+  {
+    return this.create(MutableLong.create(), offset);
+  }
+
+  @Override
+  protected DualQuaternionByteBuffered4Type create(
+    final MutableLong base,
+    final int offset)
+  {
+    return DualQuaternionByteBuffered4s32.createWithBase(
+      ByteBuffer.allocate(BufferSizes.BUFFER_SIZE_DEFAULT),
+      base,
+      offset);
+  }
+
+  @Override
+  protected Generator<DualQuaternion4D> createGenerator4D()
+  {
+    return DualQuaternion4DGenerator.create();
+  }
+
+  @Override
+  protected Generator<DualQuaternion4F> createGenerator4F()
+  {
+    return DualQuaternion4FGenerator.create();
+  }
+
+  @Override
+  protected void checkAlmostEquals(
+    final double x,
+    final double y)
+  {
+    TestFOps.checkAlmostEquals(x, y);
+  }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.parameterized.matrices.PMatrices4x4D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.bytebuffered.FrustumCulling;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestDOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import net.java.quickcheck.generator.PrimitiveGenerators;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class FrustumCullingTest
+{
+  private static final int COUNT = 150;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  /*
+   * A symmetric perspective projection with a 90 degree field of view, a
+   * near plane at 1.0, and a far plane at 100.0, looking down the negative
+   * Z axis.
+   */
+
+  private static Matrix4x4D projection()
+  {
+    final double n = 1.0;
+    final double f = 100.0;
+    return Matrix4x4D.of(
+      1.0, 0.0, 0.0, 0.0,
+      0.0, 1.0, 0.0, 0.0,
+      0.0, 0.0, -(f + n) / (f - n), -(2.0 * f * n) / (f - n),
+      0.0, 0.0, -1.0, 0.0);
+  }
+
+  private static double[] planes(
+    final Matrix4x4D m)
+  {
+    final double[] planes = new double[FrustumCulling.planesSizeElements()];
+    FrustumCulling.extractPlanes(m, planes);
+    return planes;
+  }
+
+  private static double distance(
+    final double[] planes,
+    final int plane,
+    final double x,
+    final double y,
+    final double z)
+  {
+    final int offset = plane * 4;
+    return (planes[offset] * x)
+      + (planes[offset + 1] * y)
+      + (planes[offset + 2] * z)
+      + planes[offset + 3];
+  }
+
+  private static boolean referenceSphereVisible(
+    final double[] planes,
+    final double x,
+    final double y,
+    final double z,
+    final double r)
+  {
+    for (int plane = 0; plane < 6; ++plane) {
+      if (distance(planes, plane, x, y, z) < -r) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean referenceAABBVisible(
+    final double[] planes,
+    final double[] min,
+    final double[] max)
+  {
+    for (int plane = 0; plane < 6; ++plane) {
+      boolean all_outside = true;
+      for (int corner = 0; corner < 8; ++corner) {
+        final double x = (corner & 1) == 0 ? min[0] : max[0];
+        final double y = (corner & 2) == 0 ? min[1] : max[1];
+        final double z = (corner & 4) == 0 ? min[2] : max[2];
+        if (distance(planes, plane, x, y, z) >= 0.0) {
+          all_outside = false;
+        }
+      }
+      if (all_outside) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void checkBitsetIndices(
+    final boolean[] expected,
+    final long[] bits,
+    final int bits_visible,
+    final int[] indices,
+    final int indices_visible)
+  {
+    int count = 0;
+    for (int index = 0; index < expected.length; ++index) {
+      final boolean bit = (bits[index >>> 6] & (1L << (index & 63))) != 0L;
+      Assert.assertEquals(expected[index], bit);
+      if (expected[index]) {
+        Assert.assertEquals((long) index, (long) indices[count]);
+        ++count;
+      }
+    }
+
+    Assert.assertEquals((long) count, (long) bits_visible);
+    Assert.assertEquals((long) count, (long) indices_visible);
+
+    for (int index = expected.length; index < bits.length * 64; ++index) {
+      Assert.assertEquals(0L, bits[index >>> 6] & (1L << (index & 63)));
+    }
+  }
+
+  @Test
+  public void testExtractPlanes()
+  {
+    final double[] planes = planes(projection());
+    final double s = Math.sqrt(0.5);
+
+    TestDOps.checkAlmostEquals(s, planes[0]);
+    TestDOps.checkAlmostEquals(0.0, planes[1]);
+    TestDOps.checkAlmostEquals(-s, planes[2]);
+    TestDOps.checkAlmostEquals(0.0, planes[3]);
+
+    TestDOps.checkAlmostEquals(-s, planes[4]);
+    TestDOps.checkAlmostEquals(0.0, planes[5]);
+    TestDOps.checkAlmostEquals(-s, planes[6]);
+    TestDOps.checkAlmostEquals(0.0, planes[7]);
+
+    TestDOps.checkAlmostEquals(0.0, planes[16]);
+    TestDOps.checkAlmostEquals(0.0, planes[17]);
+    TestDOps.checkAlmostEquals(-1.0, planes[18]);
+    TestDOps.checkAlmostEquals(-1.0, planes[19]);
+
+    TestDOps.checkAlmostEquals(0.0, planes[20]);
+    TestDOps.checkAlmostEquals(0.0, planes[21]);
+    TestDOps.checkAlmostEquals(1.0, planes[22]);
+    TestDOps.checkAlmostEquals(100.0, planes[23]);
+  }
+
+  @Test
+  public void testExtractPlanesParameterized()
+  {
+    final Matrix4x4D m =
+      Matrices4x4D.multiply(
+        projection(), Matrices4x4D.ofTranslation(1.0, 2.0, 3.0));
+    final PMatrix4x4D<Object, Object> pm = PMatrices4x4D.toParameterized(m);
+
+    final double[] planes_p = new double[FrustumCulling.planesSizeElements()];
+    FrustumCulling.extractPlanes(pm, planes_p);
+    Assert.assertArrayEquals(planes(m), planes_p, 0.0);
+  }
+
+  @Test
+  public void testExtractPlanesWorldSpace()
+  {
+    final Matrix4x4D m =
+      Matrices4x4D.multiply(
+        projection(), Matrices4x4D.ofTranslation(0.0, 0.0, -10.0));
+    final double[] planes = planes(m);
+
+    /*
+     * The view matrix moves the world 10 units away from the camera, so the
+     * world origin lies 9 units beyond the near plane.
+     */
+
+    TestDOps.checkAlmostEquals(9.0, distance(planes, 4, 0.0, 0.0, 0.0));
+  }
+
+  @Test
+  public void testCullSpheresKnown()
+  {
+    final double[] planes = planes(projection());
+    final float[] x = {0.0f, 0.0f, 20.0f, 10.5f, 0.0f, 0.0f};
+    final float[] y = {0.0f, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f};
+    final float[] z = {-10.0f, 10.0f, -10.0f, -10.0f, -200.0f, -100.5f};
+    final float[] r = {1.0f, 1.0f, 1.0f, 1.0f, 1.0f, 1.0f};
+
+    final int[] indices = new int[x.length];
+    final int visible =
+      FrustumCulling.cullSpheresIndexed(planes, x, y, z, r, x.length, indices);
+
+    Assert.assertEquals(3L, (long) visible);
+    Assert.assertEquals(0L, (long) indices[0]);
+    Assert.assertEquals(3L, (long) indices[1]);
+    Assert.assertEquals(5L, (long) indices[2]);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testCullSpheresReference()
+  {
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-120.0, 120.0);
+    final double[] planes = planes(projection());
+
+    final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(FrustumCulling.sphereSizeBytes() * COUNT)
+        .order(ByteOrder.nativeOrder());
+    final float[] x = new float[COUNT];
+    final float[] y = new float[COUNT];
+    final float[] z = new float[COUNT];
+    final float[] r = new float[COUNT];
+    final boolean[] expected = new boolean[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      x[index] = gen.next().floatValue();
+      y[index] = gen.next().floatValue();
+      z[index] = gen.next().floatValue();
+      r[index] = (float) Math.abs(gen.next().doubleValue() / 10.0);
+
+      final int offset = index * FrustumCulling.sphereSizeBytes();
+      buffer.putFloat(offset, x[index]);
+      buffer.putFloat(offset + 4, y[index]);
+      buffer.putFloat(offset + 8, z[index]);
+      buffer.putFloat(offset + 12, r[index]);
+
+      expected[index] = referenceSphereVisible(
+        planes,
+        (double) x[index],
+        (double) y[index],
+        (double) z[index],
+        (double) r[index]);
+    }
+
+    final long[] bits = new long[FrustumCulling.bitsetSizeElements(COUNT)];
+    final int[] indices = new int[COUNT];
+
+    checkBitsetIndices(
+      expected,
+      bits,
+      FrustumCulling.cullSpheres(planes, buffer, COUNT, bits),
+      indices,
+      FrustumCulling.cullSpheresIndexed(planes, buffer, COUNT, indices));
+
+    checkBitsetIndices(
+      expected,
+      bits,
+      FrustumCulling.cullSpheres(planes, x, y, z, r, COUNT, bits),
+      indices,
+      FrustumCulling.cullSpheresIndexed(planes, x, y, z, r, COUNT, indices));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testCullAABBsReference()
+  {
+    final Generator<Double> gen = PrimitiveGenerators.doubles(-120.0, 120.0);
+    final double[] planes = planes(projection());
+
+    final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(FrustumCulling.aabbSizeBytes() * COUNT)
+        .order(ByteOrder.nativeOrder());
+    final float[][] min = new float[3][COUNT];
+    final float[][] max = new float[3][COUNT];
+    final boolean[] expected = new boolean[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final double[] e_min = new double[3];
+      final double[] e_max = new double[3];
+      for (int axis = 0; axis < 3; ++axis) {
+        final float c = gen.next().floatValue();
+        final float e = (float) Math.abs(gen.next().doubleValue() / 10.0);
+        min[axis][index] = c - e;
+        max[axis][index] = c + e;
+        e_min[axis] = (double) min[axis][index];
+        e_max[axis] = (double) max[axis][index];
+
+        final int offset = index * FrustumCulling.aabbSizeBytes();
+        buffer.putFloat(offset + (axis * 4), min[axis][index]);
+        buffer.putFloat(offset + 12 + (axis * 4), max[axis][index]);
+      }
+      expected[index] = referenceAABBVisible(planes, e_min, e_max);
+    }
+
+    final long[] bits = new long[FrustumCulling.bitsetSizeElements(COUNT)];
+    final int[] indices = new int[COUNT];
+
+    checkBitsetIndices(
+      expected,
+      bits,
+      FrustumCulling.cullAABBs(planes, buffer, COUNT, bits),
+      indices,
+      FrustumCulling.cullAABBsIndexed(planes, buffer, COUNT, indices));
+
+    checkBitsetIndices(
+      expected,
+      bits,
+      FrustumCulling.cullAABBs(
+        planes, min[0], min[1], min[2], max[0], max[1], max[2], COUNT, bits),
+      indices,
+      FrustumCulling.cullAABBsIndexed(
+        planes, min[0], min[1], min[2], max[0], max[1], max[2], COUNT, indices));
+  }
+
+  @Test
+  public void testCullPlanesTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    FrustumCulling.cullSpheres(
+      new double[23], ByteBuffer.allocate(16), 1, new long[1]);
+  }
+
+  @Test
+  public void testCullBitsetTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    FrustumCulling.cullSpheres(
+      planes(projection()), ByteBuffer.allocate(16 * 65), 65, new long[1]);
+  }
+
+  @Test
+  public void testCullBufferTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    FrustumCulling.cullAABBsIndexed(
+      planes(projection()), ByteBuffer.allocate(47), 2, new int[2]);
+  }
+
+  @Test
+  public void testCullIndicesTooSmall()
+  {
+    final float[] a = new float[2];
+    this.expected.expect(IndexOutOfBoundsException.class);
+    FrustumCulling.cullSpheresIndexed(
+      planes(projection()), a, a, a, a, 2, new int[1]);
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.generators.Matrix4x4DGenerator;
+import com.io7m.jtensors.storage.bytebuffered.Matrices4x4FBatch;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s32;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import com.io7m.mutable.numbers.core.MutableLong;
+import net.java.quickcheck.Generator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class Matrices4x4FBatchTest
+{
+  private static final int COUNT = 16;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(
+      Matrices4x4FBatch.matrixSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Matrix4x4D[] fill(
+    final ByteBuffer buffer,
+    final Generator<Matrix4x4D> gen)
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s32 m =
+      MatrixByteBuffered4x4s32.createWithBase(buffer, base, 0);
+
+    final Matrix4x4D[] values = new Matrix4x4D[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * m.sizeBytes()));
+      values[index] = gen.next();
+      m.setMatrix4x4D(values[index]);
+    }
+    return values;
+  }
+
+  private static void check(
+    final ByteBuffer buffer,
+    final Matrix4x4D[] expected)
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s32 m =
+      MatrixByteBuffered4x4s32.createWithBase(buffer, base, 0);
+
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * m.sizeBytes()));
+      for (int row = 0; row < 4; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          TestFOps.checkAlmostEquals(
+            expected[index].rowColumn(row, column),
+            m.rowColumn(row, column));
+        }
+      }
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiply()
+  {
+    final Generator<Matrix4x4D> gen = Matrix4x4DGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Matrix4x4D[] ma = fill(a, gen);
+    final Matrix4x4D[] mb = fill(b, gen);
+
+    Matrices4x4FBatch.multiply(a, b, out, COUNT);
+
+    final Matrix4x4D[] expected = new Matrix4x4D[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Matrices4x4D.multiply(ma[index], mb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyInPlaceLeft()
+  {
+    final Generator<Matrix4x4D> gen = Matrix4x4DGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final Matrix4x4D[] ma = fill(a, gen);
+    final Matrix4x4D[] mb = fill(b, gen);
+
+    Matrices4x4FBatch.multiply(a, b, a, COUNT);
+
+    final Matrix4x4D[] expected = new Matrix4x4D[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Matrices4x4D.multiply(ma[index], mb[index]);
+    }
+    check(a, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyInPlaceRight()
+  {
+    final Generator<Matrix4x4D> gen = Matrix4x4DGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final Matrix4x4D[] ma = fill(a, gen);
+    final Matrix4x4D[] mb = fill(b, gen);
+
+    Matrices4x4FBatch.multiply(a, b, b, COUNT);
+
+    final Matrix4x4D[] expected = new Matrix4x4D[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Matrices4x4D.multiply(ma[index], mb[index]);
+    }
+    check(b, expected);
+  }
+
+  @Test
+  public void testMultiplyBufferTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Matrices4x4FBatch.multiply(
+      buffer(COUNT), buffer(COUNT - 1), buffer(COUNT), COUNT);
+  }
+
+  @Test
+  public void testMultiplyCountNegative()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Matrices4x4FBatch.multiply(
+      buffer(COUNT), buffer(COUNT), buffer(COUNT), -1);
+  }
+}
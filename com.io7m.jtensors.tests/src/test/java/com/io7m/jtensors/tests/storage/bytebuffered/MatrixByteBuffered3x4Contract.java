@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.mutable.numbers.core.MutableLong;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x4D;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered3x4Type;
+import com.io7m.jtensors.tests.storage.api.MatrixStorage3x4Contract;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public abstract class MatrixByteBuffered3x4Contract extends
+  MatrixStorage3x4Contract
+{
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  protected abstract MatrixByteBuffered3x4Type create(
+    final MutableLong base,
+    final int offset);
+
+  @Test
+  public final void testGetSetRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered3x4Type m = this.create(base, 0);
+
+    m.setMatrix3x4D(Matrix3x4D.of(
+      0.0, 1.0, 2.0, 3.0,
+      4.0, 5.0, 6.0, 7.0,
+      8.0, 9.0, 10.0, 11.0));
+
+    {
+      int index = 0;
+      for (int row = 0; row < 3; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          this.checkAlmostEquals((double) index, m.rowColumn(row, column));
+          ++index;
+        }
+      }
+    }
+
+    base.setValue((long) m.sizeBytes());
+
+    {
+      for (int row = 0; row < 3; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          this.checkAlmostEquals(0.0, m.rowColumn(row, column));
+        }
+      }
+    }
+
+    m.setMatrix3x4D(Matrix3x4D.of(
+      0.0, 1.0, 2.0, 3.0,
+      4.0, 5.0, 6.0, 7.0,
+      8.0, 9.0, 10.0, 11.0));
+
+    {
+      int index = 0;
+      for (int row = 0; row < 3; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          this.checkAlmostEquals((double) index, m.rowColumn(row, column));
+          ++index;
+        }
+      }
+    }
+
+    base.setValue(0L);
+
+    {
+      int index = 0;
+      for (int row = 0; row < 3; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          this.checkAlmostEquals((double) index, m.rowColumn(row, column));
+          ++index;
+        }
+      }
+    }
+  }
+
+  @Test
+  public final void testGetMatrix3x4D()
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered3x4Type m = this.create(base, 0);
+
+    m.setMatrix3x4D(Matrix3x4D.of(
+      0.0, 1.0, 2.0, 3.0,
+      4.0, 5.0, 6.0, 7.0,
+      8.0, 9.0, 10.0, 11.0));
+
+    final Matrix3x4D r = m.getMatrix3x4D();
+
+    int index = 0;
+    for (int row = 0; row < 3; ++row) {
+      for (int column = 0; column < 4; ++column) {
+        this.checkAlmostEquals((double) index, r.rowColumn(row, column));
+        ++index;
+      }
+    }
+  }
+
+  @Test
+  public final void testGetMatrix3x4DOutOfRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered3x4Type m = this.create(base, 0);
+    base.setValue((long) (m.byteBuffer().capacity() - m.sizeBytes() + 1));
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    m.getMatrix3x4D();
+  }
+
+  @Test
+  public final void testSetMatrix3x4DOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered3x4Type m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setMatrix3x4D(Matrix3x4D.of(
+      0.0, 1.0, 2.0, 3.0,
+      4.0, 5.0, 6.0, 7.0,
+      8.0, 9.0, 10.0, 11.0));
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.generators.Vector3DGenerator;
+import com.io7m.jtensors.orthonormalization.Orthonormalization;
+import com.io7m.jtensors.orthonormalization.Orthonormalized3D;
+import com.io7m.jtensors.storage.bytebuffered.OrthonormalizationBatch;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+
+public final class OrthonormalizationBatchTest
+{
+  private static final int COUNT = 16;
+  private static final int LARGE_COUNT = 5000;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int size)
+  {
+    return ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+  }
+
+  private static Vector3D put(
+    final ByteBuffer buffer,
+    final int offset,
+    final Vector3D v)
+  {
+    buffer.putFloat(offset, (float) v.x());
+    buffer.putFloat(offset + 4, (float) v.y());
+    buffer.putFloat(offset + 8, (float) v.z());
+    return get(buffer, offset);
+  }
+
+  private static Vector3D get(
+    final ByteBuffer buffer,
+    final int offset)
+  {
+    return Vector3D.of(
+      (double) buffer.getFloat(offset),
+      (double) buffer.getFloat(offset + 4),
+      (double) buffer.getFloat(offset + 8));
+  }
+
+  private static void checkVector(
+    final Vector3D expected,
+    final Vector3D received)
+  {
+    TestFOps.checkAlmostEquals(expected.x(), received.x());
+    TestFOps.checkAlmostEquals(expected.y(), received.y());
+    TestFOps.checkAlmostEquals(expected.z(), received.z());
+  }
+
+  private static void fill(
+    final ByteBuffer buffer,
+    final int count)
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    for (int index = 0; index < count * 3; ++index) {
+      put(buffer, index * 12, gen.next());
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMatrices3x3()
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    final int size = OrthonormalizationBatch.matrix3x3SizeBytes();
+    final ByteBuffer m = buffer(size * COUNT);
+    final ByteBuffer out = buffer(size * COUNT);
+    final Orthonormalized3D[] expected = new Orthonormalized3D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      expected[index] = Orthonormalization.orthonormalize3D(
+        put(m, offset, gen.next()),
+        put(m, offset + 12, gen.next()),
+        put(m, offset + 24, gen.next()));
+    }
+
+    OrthonormalizationBatch.orthonormalizeMatrices3x3(m, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      checkVector(expected[index].v0(), get(out, offset));
+      checkVector(expected[index].v1(), get(out, offset + 12));
+      checkVector(expected[index].v2(), get(out, offset + 24));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMatrices4x4InPlace()
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    final int size = OrthonormalizationBatch.matrix4x4SizeBytes();
+    final ByteBuffer m = buffer(size * COUNT);
+    final Orthonormalized3D[] expected = new Orthonormalized3D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      expected[index] = Orthonormalization.orthonormalize3D(
+        put(m, offset, gen.next()),
+        put(m, offset + 16, gen.next()),
+        put(m, offset + 32, gen.next()));
+      m.putFloat(offset + 12, 0.0f);
+      m.putFloat(offset + 28, 0.0f);
+      m.putFloat(offset + 44, 0.0f);
+      m.putFloat(offset + 48, (float) index);
+      m.putFloat(offset + 52, 2.0f);
+      m.putFloat(offset + 56, 3.0f);
+      m.putFloat(offset + 60, 1.0f);
+    }
+
+    OrthonormalizationBatch.orthonormalizeMatrices4x4(m, m, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      checkVector(expected[index].v0(), get(m, offset));
+      checkVector(expected[index].v1(), get(m, offset + 16));
+      checkVector(expected[index].v2(), get(m, offset + 32));
+      Assert.assertEquals(0.0f, m.getFloat(offset + 12), 0.0f);
+      Assert.assertEquals(0.0f, m.getFloat(offset + 28), 0.0f);
+      Assert.assertEquals(0.0f, m.getFloat(offset + 44), 0.0f);
+      Assert.assertEquals((float) index, m.getFloat(offset + 48), 0.0f);
+      Assert.assertEquals(2.0f, m.getFloat(offset + 52), 0.0f);
+      Assert.assertEquals(3.0f, m.getFloat(offset + 56), 0.0f);
+      Assert.assertEquals(1.0f, m.getFloat(offset + 60), 0.0f);
+    }
+  }
+
+  @Test
+  public void testMatrices4x4CopiesRemainder()
+  {
+    final int size = OrthonormalizationBatch.matrix4x4SizeBytes();
+    final ByteBuffer m = buffer(size * COUNT);
+    final ByteBuffer in_place = buffer(size * COUNT);
+    final ByteBuffer out = buffer(size * COUNT);
+    for (int index = 0; index < COUNT * 16; ++index) {
+      m.putFloat(index * 4, (float) ((index * 7) % 13) - 6.0f);
+    }
+    for (int index = 0; index < size * COUNT; ++index) {
+      in_place.put(index, m.get(index));
+    }
+
+    OrthonormalizationBatch.orthonormalizeMatrices4x4(m, out, COUNT);
+    OrthonormalizationBatch.orthonormalizeMatrices4x4(in_place, in_place, COUNT);
+    Assert.assertEquals(in_place, out);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testFrames()
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    final int size = OrthonormalizationBatch.vectorSizeBytes();
+    final ByteBuffer n = buffer(size * COUNT);
+    final ByteBuffer t = buffer(size * COUNT);
+    final ByteBuffer b = buffer(size * COUNT);
+    final Orthonormalized3D[] expected = new Orthonormalized3D[COUNT];
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      expected[index] = Orthonormalization.orthonormalize3D(
+        put(n, offset, gen.next()),
+        put(t, offset, gen.next()),
+        put(b, offset, gen.next()));
+    }
+
+    OrthonormalizationBatch.orthonormalizeFrames(n, t, b, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * size;
+      checkVector(expected[index].v0(), get(n, offset));
+      checkVector(expected[index].v1(), get(t, offset));
+      checkVector(expected[index].v2(), get(b, offset));
+    }
+  }
+
+  @Test
+  public void testZeroVectorsUnchanged()
+  {
+    final ByteBuffer m = buffer(OrthonormalizationBatch.matrix3x3SizeBytes());
+    OrthonormalizationBatch.orthonormalizeMatrices3x3(m, m, 1);
+    for (int index = 0; index < 9; ++index) {
+      Assert.assertEquals(0.0f, m.getFloat(index * 4), 0.0f);
+    }
+  }
+
+  @Test
+  public void testParallelMatchesSerial()
+  {
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    {
+      final int size = OrthonormalizationBatch.matrix3x3SizeBytes();
+      final ByteBuffer m = buffer(size * LARGE_COUNT);
+      final ByteBuffer serial = buffer(size * LARGE_COUNT);
+      final ByteBuffer parallel = buffer(size * LARGE_COUNT);
+      fill(m, LARGE_COUNT);
+      OrthonormalizationBatch.orthonormalizeMatrices3x3(
+        m, serial, LARGE_COUNT);
+      OrthonormalizationBatch.orthonormalizeMatrices3x3Parallel(
+        pool, m, parallel, LARGE_COUNT);
+      Assert.assertEquals(serial, parallel);
+    }
+
+    {
+      final int size = OrthonormalizationBatch.matrix4x4SizeBytes();
+      final ByteBuffer m = buffer(size * LARGE_COUNT);
+      final ByteBuffer serial = buffer(size * LARGE_COUNT);
+      final ByteBuffer parallel = buffer(size * LARGE_COUNT);
+      fill(m, (LARGE_COUNT * 16) / 9);
+      OrthonormalizationBatch.orthonormalizeMatrices4x4(
+        m, serial, LARGE_COUNT);
+      OrthonormalizationBatch.orthonormalizeMatrices4x4Parallel(
+        pool, m, parallel, LARGE_COUNT);
+      Assert.assertEquals(serial, parallel);
+    }
+
+    {
+      final int size = OrthonormalizationBatch.vectorSizeBytes();
+      final ByteBuffer n = buffer(size * LARGE_COUNT);
+      final ByteBuffer t = buffer(size * LARGE_COUNT);
+      final ByteBuffer b = buffer(size * LARGE_COUNT);
+      final ByteBuffer pn = buffer(size * LARGE_COUNT);
+      final ByteBuffer pt = buffer(size * LARGE_COUNT);
+      final ByteBuffer pb = buffer(size * LARGE_COUNT);
+      fill(n, LARGE_COUNT / 3);
+      fill(t, LARGE_COUNT / 3);
+      fill(b, LARGE_COUNT / 3);
+      for (int index = 0; index < size * LARGE_COUNT; ++index) {
+        pn.put(index, n.get(index));
+        pt.put(index, t.get(index));
+        pb.put(index, b.get(index));
+      }
+      OrthonormalizationBatch.orthonormalizeFrames(n, t, b, LARGE_COUNT);
+      OrthonormalizationBatch.orthonormalizeFramesParallel(
+        pool, pn, pt, pb, LARGE_COUNT);
+      Assert.assertEquals(n, pn);
+      Assert.assertEquals(t, pt);
+      Assert.assertEquals(b, pb);
+    }
+  }
+
+  @Test
+  public void testMatricesTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    OrthonormalizationBatch.orthonormalizeMatrices3x3(
+      buffer(OrthonormalizationBatch.matrix3x3SizeBytes() * COUNT),
+      buffer(OrthonormalizationBatch.matrix3x3SizeBytes() * (COUNT - 1)),
+      COUNT);
+  }
+
+  @Test
+  public void testFramesTooSmall()
+  {
+    final int size = OrthonormalizationBatch.vectorSizeBytes();
+    this.expected.expect(IndexOutOfBoundsException.class);
+    OrthonormalizationBatch.orthonormalizeFramesParallel(
+      ForkJoinPool.commonPool(),
+      buffer(size * COUNT),
+      buffer(size * COUNT),
+      buffer(size * (COUNT - 1)),
+      COUNT);
+  }
+
+  @Test
+  public void testCountNegative()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    OrthonormalizationBatch.orthonormalizeMatrices4x4(
+      buffer(OrthonormalizationBatch.matrix4x4SizeBytes()),
+      buffer(OrthonormalizationBatch.matrix4x4SizeBytes()),
+      -1);
+  }
+}
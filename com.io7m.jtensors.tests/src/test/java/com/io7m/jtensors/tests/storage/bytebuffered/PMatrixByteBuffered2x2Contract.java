@@ -18,13 +18,19 @@ package com.io7m.jtensors.tests.storage.bytebuffered;
 
 import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix2x2D;
 import com.io7m.jtensors.storage.bytebuffered.PMatrixByteBuffered2x2Type;
 import com.io7m.jtensors.tests.storage.api.PMatrixStorage2x2Contract;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public abstract class PMatrixByteBuffered2x2Contract extends
   PMatrixStorage2x2Contract
 {
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
   protected abstract PMatrixByteBuffered2x2Type<Object, Object> create(
     final MutableLong base,
     final int offset);
@@ -85,4 +91,58 @@ public abstract class PMatrixByteBuffered2x2Contract extends
       }
     }
   }
+
+  @Test
+  public final void testGetMatrix2x2D()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered2x2Type<Object, Object> m = this.create(base, 0);
+
+    m.setMatrix2x2D(Matrix2x2D.of(
+      0.0, 1.0,
+      2.0, 3.0));
+
+    final PMatrix2x2D<Object, Object> r = m.getPMatrix2x2D();
+
+    int index = 0;
+    for (int row = 0; row < 2; ++row) {
+      for (int column = 0; column < 2; ++column) {
+        this.checkAlmostEquals((double) index, r.rowColumn(row, column));
+        ++index;
+      }
+    }
+  }
+
+  @Test
+  public final void testGetMatrix2x2DOutOfRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered2x2Type<Object, Object> m = this.create(base, 0);
+    base.setValue((long) (m.byteBuffer().capacity() - m.sizeBytes() + 1));
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    m.getPMatrix2x2D();
+  }
+
+  @Test
+  public final void testSetMatrix2x2DOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered2x2Type<Object, Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setMatrix2x2D(Matrix2x2D.of(
+        0.0, 1.0,
+        2.0, 3.0));
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
@@ -18,13 +18,19 @@ package com.io7m.jtensors.tests.storage.bytebuffered;
 
 import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix3x3D;
 import com.io7m.jtensors.storage.bytebuffered.PMatrixByteBuffered3x3Type;
 import com.io7m.jtensors.tests.storage.api.PMatrixStorage3x3Contract;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public abstract class PMatrixByteBuffered3x3Contract extends
   PMatrixStorage3x3Contract
 {
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
   protected abstract PMatrixByteBuffered3x3Type<Object, Object> create(
     final MutableLong base,
     final int offset);
@@ -87,4 +93,60 @@ public abstract class PMatrixByteBuffered3x3Contract extends
       }
     }
   }
+
+  @Test
+  public final void testGetMatrix3x3D()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered3x3Type<Object, Object> m = this.create(base, 0);
+
+    m.setMatrix3x3D(Matrix3x3D.of(
+      0.0, 1.0, 2.0,
+      3.0, 4.0, 5.0,
+      6.0, 7.0, 8.0));
+
+    final PMatrix3x3D<Object, Object> r = m.getPMatrix3x3D();
+
+    int index = 0;
+    for (int row = 0; row < 3; ++row) {
+      for (int column = 0; column < 3; ++column) {
+        this.checkAlmostEquals((double) index, r.rowColumn(row, column));
+        ++index;
+      }
+    }
+  }
+
+  @Test
+  public final void testGetMatrix3x3DOutOfRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered3x3Type<Object, Object> m = this.create(base, 0);
+    base.setValue((long) (m.byteBuffer().capacity() - m.sizeBytes() + 1));
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    m.getPMatrix3x3D();
+  }
+
+  @Test
+  public final void testSetMatrix3x3DOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered3x3Type<Object, Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setMatrix3x3D(Matrix3x3D.of(
+        0.0, 1.0, 2.0,
+        3.0, 4.0, 5.0,
+        6.0, 7.0, 8.0));
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
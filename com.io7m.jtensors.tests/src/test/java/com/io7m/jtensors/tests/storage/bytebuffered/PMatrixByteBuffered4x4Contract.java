@@ -18,13 +18,19 @@ package com.io7m.jtensors.tests.storage.bytebuffered;
 
 import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4D;
 import com.io7m.jtensors.storage.bytebuffered.PMatrixByteBuffered4x4Type;
 import com.io7m.jtensors.tests.storage.api.PMatrixStorage4x4Contract;
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public abstract class PMatrixByteBuffered4x4Contract extends
   PMatrixStorage4x4Contract
 {
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
   protected abstract PMatrixByteBuffered4x4Type<Object, Object> create(
     final MutableLong base,
     final int offset);
@@ -89,4 +95,62 @@ public abstract class PMatrixByteBuffered4x4Contract extends
       }
     }
   }
+
+  @Test
+  public final void testGetMatrix4x4D()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered4x4Type<Object, Object> m = this.create(base, 0);
+
+    m.setMatrix4x4D(Matrix4x4D.of(
+      0.0, 1.0, 2.0, 3.0,
+      4.0, 5.0, 6.0, 7.0,
+      8.0, 9.0, 10.0, 11.0,
+      12.0, 13.0, 14.0, 15.0));
+
+    final PMatrix4x4D<Object, Object> r = m.getPMatrix4x4D();
+
+    int index = 0;
+    for (int row = 0; row < 4; ++row) {
+      for (int column = 0; column < 4; ++column) {
+        this.checkAlmostEquals((double) index, r.rowColumn(row, column));
+        ++index;
+      }
+    }
+  }
+
+  @Test
+  public final void testGetMatrix4x4DOutOfRange()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered4x4Type<Object, Object> m = this.create(base, 0);
+    base.setValue((long) (m.byteBuffer().capacity() - m.sizeBytes() + 1));
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    m.getPMatrix4x4D();
+  }
+
+  @Test
+  public final void testSetMatrix4x4DOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PMatrixByteBuffered4x4Type<Object, Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setMatrix4x4D(Matrix4x4D.of(
+        0.0, 1.0, 2.0, 3.0,
+        4.0, 5.0, 6.0, 7.0,
+        8.0, 9.0, 10.0, 11.0,
+        12.0, 13.0, 14.0, 15.0));
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
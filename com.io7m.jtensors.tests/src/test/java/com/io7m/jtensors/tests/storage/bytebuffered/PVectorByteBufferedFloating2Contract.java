@@ -20,6 +20,7 @@ import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
 import com.io7m.jtensors.storage.bytebuffered.PVectorByteBufferedFloating2Type;
 import com.io7m.jtensors.tests.storage.api.PVectorStorageFloating2Contract;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class PVectorByteBufferedFloating2Contract
@@ -63,4 +64,24 @@ public abstract class PVectorByteBufferedFloating2Contract
       this.checkAlmostEquals(1.0, m.y());
     }
   }
+
+  @Test
+  public final void testSetOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PVectorByteBufferedFloating2Type<Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setXY(1.0, 2.0);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
@@ -20,6 +20,7 @@ import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2L;
 import com.io7m.jtensors.storage.bytebuffered.PVectorByteBufferedIntegral2Type;
 import com.io7m.jtensors.tests.storage.api.PVectorStorageIntegral2Contract;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class PVectorByteBufferedIntegral2Contract
@@ -63,4 +64,24 @@ public abstract class PVectorByteBufferedIntegral2Contract
       this.checkEquals(1L, m.y());
     }
   }
+
+  @Test
+  public final void testSetOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PVectorByteBufferedIntegral2Type<Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setXY(1L, 2L);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
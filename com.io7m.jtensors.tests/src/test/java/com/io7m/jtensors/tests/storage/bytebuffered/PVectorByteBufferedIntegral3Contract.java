@@ -20,6 +20,7 @@ import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector3L;
 import com.io7m.jtensors.storage.bytebuffered.PVectorByteBufferedIntegral3Type;
 import com.io7m.jtensors.tests.storage.api.PVectorStorageIntegral3Contract;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class PVectorByteBufferedIntegral3Contract
@@ -67,4 +68,24 @@ public abstract class PVectorByteBufferedIntegral3Contract
       this.checkEquals(2L, m.z());
     }
   }
+
+  @Test
+  public final void testSetOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final PVectorByteBufferedIntegral3Type<Object> m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setXYZ(1L, 2L, 3L);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
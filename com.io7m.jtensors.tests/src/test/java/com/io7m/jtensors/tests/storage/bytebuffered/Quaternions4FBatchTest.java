@@ -0,0 +1,542 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.quaternions.Quaternion4F;
+import com.io7m.jtensors.core.quaternions.Quaternions4F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
+import com.io7m.jtensors.generators.Quaternion4FGenerator;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s32;
+import com.io7m.jtensors.storage.bytebuffered.Quaternions4FBatch;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import com.io7m.mutable.numbers.core.MutableLong;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+
+public final class Quaternions4FBatchTest
+{
+  private static final int COUNT = 16;
+
+  /*
+   * The tolerance for comparisons against the Quaternions4F functions,
+   * which compute the same values but with a different order of operations.
+   */
+
+  private static final double DELTA = 1.0e-5;
+
+  /*
+   * The tolerance for the approximate spherical interpolation. Each of the
+   * two coefficients is documented to be accurate to within 2.0E-5.
+   */
+
+  private static final double DELTA_APPROXIMATE = 5.0e-5;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(
+      Quaternions4FBatch.quaternionSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static float[] array(
+    final int count)
+  {
+    return new float[Quaternions4FBatch.quaternionSizeComponents() * count];
+  }
+
+  private static Quaternion4F[] generateNormalized()
+  {
+    final Generator<Quaternion4F> gen = Quaternion4FGenerator.create();
+    final Quaternion4F[] values = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      values[index] = Quaternions4F.normalize(gen.next());
+    }
+    return values;
+  }
+
+  private static void fill(
+    final ByteBuffer buffer,
+    final Quaternion4F[] values)
+  {
+    for (int index = 0; index < values.length; ++index) {
+      final int offset = index * Quaternions4FBatch.quaternionSizeBytes();
+      buffer.putFloat(offset, values[index].x());
+      buffer.putFloat(offset + 4, values[index].y());
+      buffer.putFloat(offset + 8, values[index].z());
+      buffer.putFloat(offset + 12, values[index].w());
+    }
+  }
+
+  private static void fill(
+    final float[] array,
+    final Quaternion4F[] values)
+  {
+    for (int index = 0; index < values.length; ++index) {
+      final int offset = index * 4;
+      array[offset] = values[index].x();
+      array[offset + 1] = values[index].y();
+      array[offset + 2] = values[index].z();
+      array[offset + 3] = values[index].w();
+    }
+  }
+
+  private static void check(
+    final ByteBuffer buffer,
+    final Quaternion4F[] expected,
+    final double delta)
+  {
+    for (int index = 0; index < expected.length; ++index) {
+      final int offset = index * Quaternions4FBatch.quaternionSizeBytes();
+      checkQuaternion(
+        expected[index],
+        Quaternion4F.of(
+          buffer.getFloat(offset),
+          buffer.getFloat(offset + 4),
+          buffer.getFloat(offset + 8),
+          buffer.getFloat(offset + 12)),
+        delta);
+    }
+  }
+
+  private static void check(
+    final float[] array,
+    final Quaternion4F[] expected,
+    final double delta)
+  {
+    for (int index = 0; index < expected.length; ++index) {
+      final int offset = index * 4;
+      checkQuaternion(
+        expected[index],
+        Quaternion4F.of(
+          array[offset],
+          array[offset + 1],
+          array[offset + 2],
+          array[offset + 3]),
+        delta);
+    }
+  }
+
+  private static void checkQuaternion(
+    final Quaternion4F expected,
+    final Quaternion4F received,
+    final double delta)
+  {
+    Assert.assertEquals((double) expected.x(), (double) received.x(), delta);
+    Assert.assertEquals((double) expected.y(), (double) received.y(), delta);
+    Assert.assertEquals((double) expected.z(), (double) received.z(), delta);
+    Assert.assertEquals((double) expected.w(), (double) received.w(), delta);
+  }
+
+  private static Quaternion4F shortestPath(
+    final Quaternion4F a,
+    final Quaternion4F b)
+  {
+    if (Quaternions4F.dotProduct(a, b) < 0.0) {
+      return Quaternions4F.negate(b);
+    }
+    return b;
+  }
+
+  private static Quaternion4F[] expectedLinearNormalized(
+    final Quaternion4F[] qa,
+    final Quaternion4F[] qb,
+    final double alpha)
+  {
+    final Quaternion4F[] expected = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Quaternions4F.normalize(
+        Quaternions4F.interpolateLinear(
+          qa[index], shortestPath(qa[index], qb[index]), alpha));
+    }
+    return expected;
+  }
+
+  private static Quaternion4F[] expectedSphericalLinear(
+    final Quaternion4F[] qa,
+    final Quaternion4F[] qb,
+    final double alpha)
+  {
+    final Quaternion4F[] expected = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Quaternions4F.interpolateSphericalLinear(
+        qa[index], shortestPath(qa[index], qb[index]), alpha);
+    }
+    return expected;
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateLinearNormalizedBuffer()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateLinearNormalized(a, b, alpha, out, COUNT);
+    check(out, expectedLinearNormalized(qa, qb, alpha), DELTA);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateLinearNormalizedArray()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateLinearNormalized(a, b, alpha, out, COUNT);
+    check(out, expectedLinearNormalized(qa, qb, alpha), DELTA);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateSphericalLinearBuffer()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinear(a, b, alpha, out, COUNT);
+    check(out, expectedSphericalLinear(qa, qb, alpha), DELTA);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateSphericalLinearArray()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinear(a, b, alpha, out, COUNT);
+    check(out, expectedSphericalLinear(qa, qb, alpha), DELTA);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateSphericalLinearApproximateBuffer()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      a, b, alpha, out, COUNT);
+    check(out, expectedSphericalLinear(qa, qb, alpha), DELTA_APPROXIMATE);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateSphericalLinearApproximateArray()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      a, b, alpha, out, COUNT);
+    check(out, expectedSphericalLinear(qa, qb, alpha), DELTA_APPROXIMATE);
+  }
+
+  @Test
+  public void testInterpolateSphericalLinearEndpoints()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final Quaternion4F[] qb_short = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      qb_short[index] = shortestPath(qa[index], qb[index]);
+    }
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinear(a, b, 0.0, out, COUNT);
+    check(out, qa, DELTA);
+    Quaternions4FBatch.interpolateSphericalLinear(a, b, 1.0, out, COUNT);
+    check(out, qb_short, DELTA);
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      a, b, 0.0, out, COUNT);
+    check(out, qa, DELTA);
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      a, b, 1.0, out, COUNT);
+    check(out, qb_short, DELTA);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testInterpolateSphericalLinearInPlaceBuffer()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Quaternion4F[] qb = generateNormalized();
+    final double alpha = Math.random();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    fill(a, qa);
+    fill(b, qb);
+
+    Quaternions4FBatch.interpolateSphericalLinear(a, b, alpha, a, COUNT);
+    check(a, expectedSphericalLinear(qa, qb, alpha), DELTA);
+  }
+
+  @Test
+  public void testInterpolateTooSmallBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.interpolateSphericalLinear(
+      buffer(COUNT), buffer(COUNT - 1), 0.5, buffer(COUNT), COUNT);
+  }
+
+  @Test
+  public void testInterpolateTooSmallArray()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.interpolateLinearNormalized(
+      array(COUNT), array(COUNT), 0.5, array(COUNT - 1), COUNT);
+  }
+
+  @Test
+  public void testInterpolateCountNegative()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.interpolateSphericalLinearApproximate(
+      array(COUNT), array(COUNT), 0.5, array(COUNT), -1);
+  }
+
+  private static ByteBuffer matrixBuffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(Quaternions4FBatch.matrixSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Matrix4x4F[] fillMatrices(
+    final ByteBuffer buffer,
+    final Quaternion4F[] values)
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s32 m =
+      MatrixByteBuffered4x4s32.createWithBase(buffer, base, 0);
+
+    final Matrix4x4F[] matrices = new Matrix4x4F[values.length];
+    for (int index = 0; index < values.length; ++index) {
+      base.setValue((long) (index * m.sizeBytes()));
+      matrices[index] = Quaternions4F.toMatrix4x4(values[index]);
+      m.setMatrix4x4F(matrices[index]);
+    }
+    return matrices;
+  }
+
+  private static void checkMatrices(
+    final ByteBuffer buffer,
+    final Matrix4x4F[] expected)
+  {
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s32 m =
+      MatrixByteBuffered4x4s32.createWithBase(buffer, base, 0);
+
+    for (int index = 0; index < expected.length; ++index) {
+      base.setValue((long) (index * m.sizeBytes()));
+      for (int row = 0; row < 4; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          Assert.assertEquals(
+            expected[index].rowColumn(row, column),
+            m.rowColumn(row, column),
+            DELTA);
+        }
+      }
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testToMatrix4x4()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final Matrix4x4F[] expected = new Matrix4x4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Quaternions4F.toMatrix4x4(qa[index]);
+    }
+
+    final ByteBuffer q = buffer(COUNT);
+    final ByteBuffer out = matrixBuffer(COUNT);
+    fill(q, qa);
+
+    Quaternions4FBatch.toMatrix4x4(q, out, COUNT);
+    checkMatrices(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testOfMatrix4x4()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final ByteBuffer m = matrixBuffer(COUNT);
+    final Matrix4x4F[] matrices = fillMatrices(m, qa);
+
+    final Quaternion4F[] expected = new Quaternion4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Quaternions4F.ofMatrix4x4(matrices[index]);
+    }
+
+    final ByteBuffer out = buffer(COUNT);
+    Quaternions4FBatch.ofMatrix4x4(m, out, COUNT);
+    check(out, expected, DELTA);
+  }
+
+  @Test
+  public void testToMatrix4x4Range()
+  {
+    final Quaternion4F[] qa = generateNormalized();
+    final ByteBuffer q = buffer(COUNT);
+    final ByteBuffer out = matrixBuffer(COUNT);
+    fill(q, qa);
+
+    Quaternions4FBatch.toMatrix4x4Range(q, out, 4, 8);
+
+    final int size = Quaternions4FBatch.matrixSizeBytes();
+    for (int index = 0; index < 4 * size; ++index) {
+      Assert.assertEquals(0L, (long) out.get(index));
+    }
+    for (int index = 12 * size; index < COUNT * size; ++index) {
+      Assert.assertEquals(0L, (long) out.get(index));
+    }
+
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s32 m =
+      MatrixByteBuffered4x4s32.createWithBase(out, base, 0);
+    for (int index = 4; index < 12; ++index) {
+      base.setValue((long) (index * size));
+      final Matrix4x4F e = Quaternions4F.toMatrix4x4(qa[index]);
+      for (int row = 0; row < 4; ++row) {
+        for (int column = 0; column < 4; ++column) {
+          Assert.assertEquals(
+            e.rowColumn(row, column), m.rowColumn(row, column), DELTA);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testToMatrix4x4RangeNegative()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.toMatrix4x4Range(
+      buffer(COUNT), matrixBuffer(COUNT), -1, 1);
+  }
+
+  @Test
+  public void testToMatrix4x4RangeTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.toMatrix4x4Range(
+      buffer(COUNT), matrixBuffer(COUNT), 8, COUNT - 7);
+  }
+
+  @Test
+  public void testOfMatrix4x4TooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Quaternions4FBatch.ofMatrix4x4(
+      matrixBuffer(COUNT - 1), buffer(COUNT), COUNT);
+  }
+
+  @Test
+  public void testConversionParallel()
+  {
+    final int count = 10000;
+    final Generator<Quaternion4F> gen = Quaternion4FGenerator.create();
+
+    final ByteBuffer q = buffer(count);
+    for (int index = 0; index < count; ++index) {
+      final Quaternion4F v = Quaternions4F.normalize(gen.next());
+      final int offset = index * Quaternions4FBatch.quaternionSizeBytes();
+      q.putFloat(offset, v.x());
+      q.putFloat(offset + 4, v.y());
+      q.putFloat(offset + 8, v.z());
+      q.putFloat(offset + 12, v.w());
+    }
+
+    final ByteBuffer m_serial = matrixBuffer(count);
+    final ByteBuffer m_parallel = matrixBuffer(count);
+    Quaternions4FBatch.toMatrix4x4(q, m_serial, count);
+    Quaternions4FBatch.toMatrix4x4Parallel(
+      ForkJoinPool.commonPool(), q, m_parallel, count);
+    Assert.assertEquals(m_serial, m_parallel);
+
+    final ByteBuffer q_serial = buffer(count);
+    final ByteBuffer q_parallel = buffer(count);
+    Quaternions4FBatch.ofMatrix4x4(m_serial, q_serial, count);
+    Quaternions4FBatch.ofMatrix4x4Parallel(
+      ForkJoinPool.commonPool(), m_serial, q_parallel, count);
+    Assert.assertEquals(q_serial, q_parallel);
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s32;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s64;
+import com.io7m.jtensors.storage.bytebuffered.TensorArena;
+import com.io7m.jtensors.storage.bytebuffered.TensorSlab;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating3s32;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedIntegral2s8;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class TensorArenaTest
+{
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  @Test
+  public void testCreate()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+    Assert.assertEquals(1024L, (long) arena.capacityBytes());
+    Assert.assertEquals(0L, (long) arena.usedBytes());
+    Assert.assertEquals(1024L, (long) arena.remainingBytes());
+    Assert.assertTrue(arena.byteBuffer().isDirect());
+    Assert.assertEquals(ByteOrder.nativeOrder(), arena.byteBuffer().order());
+  }
+
+  @Test
+  public void testAllocateSequential()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+
+    final MatrixByteBuffered4x4s32 m0 =
+      arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+    final MatrixByteBuffered4x4s64 m1 =
+      arena.allocate(MatrixByteBuffered4x4s64::createWithBase);
+
+    Assert.assertSame(arena.byteBuffer(), m0.byteBuffer());
+    Assert.assertEquals(0L, m0.byteOffset());
+    Assert.assertEquals(64L, m1.byteOffset());
+    Assert.assertEquals(64L + 128L, (long) arena.usedBytes());
+
+    m0.setMatrix4x4D(Matrix4x4D.of(
+      1.0, 2.0, 3.0, 4.0,
+      5.0, 6.0, 7.0, 8.0,
+      9.0, 10.0, 11.0, 12.0,
+      13.0, 14.0, 15.0, 16.0));
+    m1.setMatrix4x4D(Matrix4x4D.of(
+      -1.0, -2.0, -3.0, -4.0,
+      -5.0, -6.0, -7.0, -8.0,
+      -9.0, -10.0, -11.0, -12.0,
+      -13.0, -14.0, -15.0, -16.0));
+
+    int value = 1;
+    for (int row = 0; row < 4; ++row) {
+      for (int column = 0; column < 4; ++column) {
+        Assert.assertEquals((double) value, m0.rowColumn(row, column), 0.0);
+        Assert.assertEquals((double) -value, m1.rowColumn(row, column), 0.0);
+        ++value;
+      }
+    }
+  }
+
+  @Test
+  public void testAllocateAligned()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+
+    final VectorByteBufferedIntegral2s8 v0 =
+      arena.allocate(VectorByteBufferedIntegral2s8::createWithBase);
+    final VectorByteBufferedFloating3s32 v1 =
+      arena.allocate(VectorByteBufferedFloating3s32::createWithBase);
+    final MatrixByteBuffered4x4s64 m0 =
+      arena.allocate(MatrixByteBuffered4x4s64::createWithBase);
+
+    Assert.assertEquals(0L, v0.byteOffset());
+    Assert.assertEquals(8L, v1.byteOffset());
+    Assert.assertEquals(24L, m0.byteOffset());
+    Assert.assertEquals(24L + 128L, (long) arena.usedBytes());
+  }
+
+  @Test
+  public void testAllocateExhausted()
+  {
+    final TensorArena arena = TensorArena.create(100);
+    arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+  }
+
+  @Test
+  public void testAllocateExhaustedUnchanged()
+  {
+    final TensorArena arena = TensorArena.create(100);
+    arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+
+    try {
+      arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    Assert.assertEquals(64L, (long) arena.usedBytes());
+  }
+
+  @Test
+  public void testReset()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+    final MatrixByteBuffered4x4s32 m0 =
+      arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+    arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+    Assert.assertEquals(128L, (long) arena.usedBytes());
+
+    arena.reset();
+    Assert.assertEquals(0L, (long) arena.usedBytes());
+    Assert.assertEquals(1024L, (long) arena.remainingBytes());
+
+    final MatrixByteBuffered4x4s32 m1 =
+      arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+    Assert.assertEquals(m0.byteOffset(), m1.byteOffset());
+  }
+
+  @Test
+  public void testCreateWithBuffer()
+  {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    final TensorArena arena = TensorArena.createWithBuffer(buffer);
+    Assert.assertSame(buffer, arena.byteBuffer());
+    Assert.assertEquals(256L, (long) arena.capacityBytes());
+  }
+
+  @Test
+  public void testCreateWithBufferLimit()
+  {
+    final ByteBuffer buffer = ByteBuffer.allocate(256);
+    buffer.limit(100);
+
+    final TensorArena arena = TensorArena.createWithBuffer(buffer);
+    Assert.assertEquals(100L, (long) arena.capacityBytes());
+    Assert.assertEquals(100L, (long) arena.remainingBytes());
+
+    final MatrixByteBuffered4x4s32 m =
+      arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+    m.setMatrix4x4D(Matrix4x4D.of(
+      1.0, 0.0, 0.0, 0.0,
+      0.0, 1.0, 0.0, 0.0,
+      0.0, 0.0, 1.0, 0.0,
+      0.0, 0.0, 0.0, 1.0));
+    Assert.assertEquals(1.0, m.r3c3(), 0.0);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    arena.allocate(MatrixByteBuffered4x4s32::createWithBase);
+  }
+
+  @Test
+  public void testSlab()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+    arena.allocate(VectorByteBufferedIntegral2s8::createWithBase);
+
+    final TensorSlab<MatrixByteBuffered4x4s32> slab =
+      arena.allocateSlab(MatrixByteBuffered4x4s32::createWithBase, 4);
+
+    Assert.assertEquals(4L, (long) slab.count());
+    Assert.assertEquals(64L, (long) slab.strideBytes());
+    Assert.assertEquals(8L, (long) slab.startByteOffset());
+    Assert.assertEquals(256L, (long) slab.sizeBytes());
+    Assert.assertEquals(8L + 256L, (long) arena.usedBytes());
+
+    for (int index = 0; index < slab.count(); ++index) {
+      final MatrixByteBuffered4x4s32 m = slab.select(index);
+      Assert.assertSame(slab.cursor(), m);
+      Assert.assertEquals((long) index, (long) slab.index());
+      Assert.assertEquals(8L + (long) (index * 64), m.byteOffset());
+      m.setMatrix4x4D(Matrix4x4D.of(
+        (double) index, 0.0, 0.0, 0.0,
+        0.0, 0.0, 0.0, 0.0,
+        0.0, 0.0, 0.0, 0.0,
+        0.0, 0.0, 0.0, (double) index));
+    }
+
+    for (int index = 0; index < slab.count(); ++index) {
+      final MatrixByteBuffered4x4s32 m = slab.select(index);
+      Assert.assertEquals((double) index, m.r0c0(), 0.0);
+      Assert.assertEquals((double) index, m.r3c3(), 0.0);
+    }
+  }
+
+  @Test
+  public void testSlabSelectOutOfRange()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+    final TensorSlab<MatrixByteBuffered4x4s32> slab =
+      arena.allocateSlab(MatrixByteBuffered4x4s32::createWithBase, 4);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    slab.select(4);
+  }
+
+  @Test
+  public void testSlabSelectNegative()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+    final TensorSlab<MatrixByteBuffered4x4s32> slab =
+      arena.allocateSlab(MatrixByteBuffered4x4s32::createWithBase, 4);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    slab.select(-1);
+  }
+
+  @Test
+  public void testSlabExhausted()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    arena.allocateSlab(MatrixByteBuffered4x4s32::createWithBase, 17);
+  }
+
+  @Test
+  public void testSlabNegativeCount()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    arena.allocateSlab(MatrixByteBuffered4x4s32::createWithBase, -1);
+  }
+
+  @Test
+  public void testSlabCountOverflowUnchanged()
+  {
+    final TensorArena arena = TensorArena.create(1024);
+
+    try {
+      arena.allocateSlab(
+        MatrixByteBuffered4x4s32::createWithBase, Integer.MAX_VALUE);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    Assert.assertEquals(0L, (long) arena.usedBytes());
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s64;
+import com.io7m.jtensors.storage.bytebuffered.TensorPublication;
+import com.io7m.mutable.numbers.core.MutableLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class TensorPublicationTest
+{
+  @Test
+  public void testVersions()
+  {
+    final TensorPublication p = TensorPublication.create();
+    Assert.assertEquals(0L, p.acquire());
+    Assert.assertEquals(1L, p.publish());
+    Assert.assertEquals(1L, p.acquire());
+    Assert.assertEquals(2L, p.publish());
+    Assert.assertEquals(2L, p.acquire());
+  }
+
+  @Test
+  public void testPublishAcrossThreads()
+    throws Exception
+  {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+    final TensorPublication p = TensorPublication.create();
+    final AtomicReference<Matrix4x4D> received = new AtomicReference<>();
+
+    final Thread reader = new Thread(() -> {
+      final MatrixByteBuffered4x4s64 m =
+        MatrixByteBuffered4x4s64.createWithBase(buffer, MutableLong.create(), 0);
+      while (p.acquire() == 0L) {
+        Thread.yield();
+      }
+      received.set(m.getMatrix4x4D());
+    });
+    reader.start();
+
+    final MatrixByteBuffered4x4s64 m =
+      MatrixByteBuffered4x4s64.createWithBase(buffer, MutableLong.create(), 0);
+    final Matrix4x4D expected = Matrix4x4D.of(
+      1.0, 2.0, 3.0, 4.0,
+      5.0, 6.0, 7.0, 8.0,
+      9.0, 10.0, 11.0, 12.0,
+      13.0, 14.0, 15.0, 16.0);
+    m.setMatrix4x4D(expected);
+    p.publish();
+
+    reader.join(10000L);
+    Assert.assertEquals(expected, received.get());
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage4x4Type;
+import com.io7m.jtensors.storage.api.unparameterized.vectors.VectorStorageFloating4Type;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s64;
+import com.io7m.jtensors.storage.bytebuffered.TensorSegmentedArray;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating4s32;
+import com.io7m.mutable.numbers.core.MutableLong;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TensorSegmentedArrayTest
+{
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static Matrix4x4D matrix(
+    final int index)
+  {
+    final double x = (double) (index * 16);
+    return Matrix4x4D.of(
+      x + 0.0, x + 1.0, x + 2.0, x + 3.0,
+      x + 4.0, x + 5.0, x + 6.0, x + 7.0,
+      x + 8.0, x + 9.0, x + 10.0, x + 11.0,
+      x + 12.0, x + 13.0, x + 14.0, x + 15.0);
+  }
+
+  @Test
+  public void testWriteReadSegmented()
+  {
+    final int count = 10;
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createDirectWithSegmentSize(
+        (long) count,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase,
+        128 * 3 + 17);
+
+    Assert.assertEquals((long) count, array.count());
+    Assert.assertEquals(128L, (long) array.strideBytes());
+    Assert.assertEquals(128L * (long) count, array.sizeBytes());
+    Assert.assertEquals(3L, (long) array.segmentTensors());
+    Assert.assertEquals(4L, (long) array.segments().size());
+    Assert.assertEquals(128L * 3L, (long) array.segments().get(0).capacity());
+    Assert.assertEquals(128L, (long) array.segments().get(3).capacity());
+
+    for (int index = 0; index < count; ++index) {
+      final MatrixStorage4x4Type m = array.select((long) index);
+      m.setMatrix4x4D(matrix(index));
+    }
+
+    for (int index = 0; index < count; ++index) {
+      Assert.assertEquals(
+        matrix(index),
+        array.select((long) index).getMatrix4x4D());
+    }
+  }
+
+  @Test
+  public void testVectorsSegmented()
+  {
+    final int count = 9;
+    final TensorSegmentedArray<VectorByteBufferedFloating4s32> array =
+      TensorSegmentedArray.createDirectWithSegmentSize(
+        (long) count,
+        ByteOrder.BIG_ENDIAN,
+        VectorByteBufferedFloating4s32::createWithBase,
+        16 * 2);
+
+    Assert.assertEquals(16L, (long) array.strideBytes());
+    Assert.assertEquals(5L, (long) array.segments().size());
+
+    for (int index = 0; index < count; ++index) {
+      final VectorStorageFloating4Type v = array.select((long) index);
+      v.setXYZW(
+        (double) index,
+        (double) index + 1.0,
+        (double) index + 2.0,
+        (double) index + 3.0);
+    }
+
+    for (int index = 0; index < count; ++index) {
+      final VectorStorageFloating4Type v = array.select((long) index);
+      Assert.assertEquals(
+        Vector4D.of(
+          (double) index,
+          (double) index + 1.0,
+          (double) index + 2.0,
+          (double) index + 3.0),
+        Vector4D.of(v.x(), v.y(), v.z(), v.w()));
+    }
+  }
+
+  @Test
+  public void testCursorsIndependent()
+  {
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createDirectWithSegmentSize(
+        4L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase,
+        128 * 2);
+
+    final MatrixByteBuffered4x4s64 m0 = array.select(1L);
+    final MatrixByteBuffered4x4s64 m1 = array.select(2L);
+    Assert.assertNotSame(m0, m1);
+
+    m0.setMatrix4x4D(matrix(1));
+    m1.setMatrix4x4D(matrix(2));
+    Assert.assertEquals(matrix(1), array.select(1L).getMatrix4x4D());
+    Assert.assertEquals(matrix(2), array.select(2L).getMatrix4x4D());
+  }
+
+  @Test
+  public void testWithSegments()
+  {
+    final List<ByteBuffer> segments = new ArrayList<>();
+    segments.add(ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN));
+    segments.add(ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN));
+
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createWithSegments(
+        segments, 2, 3L, MatrixByteBuffered4x4s64::createWithBase);
+
+    array.select(2L).setMatrix4x4D(matrix(2));
+
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s64 m =
+      MatrixByteBuffered4x4s64.createWithBase(segments.get(1), base, 0);
+    Assert.assertEquals(matrix(2), m.getMatrix4x4D());
+  }
+
+  @Test
+  public void testWithSegmentsTooSmall()
+  {
+    final List<ByteBuffer> segments = new ArrayList<>();
+    segments.add(ByteBuffer.allocate(256));
+    segments.add(ByteBuffer.allocate(127));
+
+    this.expected.expect(IllegalArgumentException.class);
+    TensorSegmentedArray.createWithSegments(
+      segments, 2, 3L, MatrixByteBuffered4x4s64::createWithBase);
+  }
+
+  @Test
+  public void testWithSegmentsTooFew()
+  {
+    final List<ByteBuffer> segments = new ArrayList<>();
+    segments.add(ByteBuffer.allocate(256));
+
+    this.expected.expect(IllegalArgumentException.class);
+    TensorSegmentedArray.createWithSegments(
+      segments, 2, 3L, MatrixByteBuffered4x4s64::createWithBase);
+  }
+
+  @Test
+  public void testSegmentCountBeyondIntRange()
+  {
+    final int stride = 128;
+    final int segment_tensors =
+      TensorSegmentedArray.segmentTensorsFor(stride, Integer.MAX_VALUE);
+    final long count = 100_000_000L;
+
+    Assert.assertEquals(16777215L, (long) segment_tensors);
+    Assert.assertTrue(count * (long) stride > (long) Integer.MAX_VALUE);
+    Assert.assertEquals(
+      6L, (long) TensorSegmentedArray.segmentCountFor(count, segment_tensors));
+  }
+
+  @Test
+  public void testSelectOutOfRange()
+  {
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createDirect(
+        2L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    array.select(2L);
+  }
+
+  @Test
+  public void testSelectNegative()
+  {
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createDirect(
+        2L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase);
+
+    this.expected.expect(IndexOutOfBoundsException.class);
+    array.select(-1L);
+  }
+
+  @Test
+  public void testSegmentTooSmall()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    TensorSegmentedArray.createDirectWithSegmentSize(
+      2L,
+      ByteOrder.nativeOrder(),
+      MatrixByteBuffered4x4s64::createWithBase,
+      127);
+  }
+
+  @Test
+  public void testCountNegative()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    TensorSegmentedArray.createDirect(
+      -1L,
+      ByteOrder.nativeOrder(),
+      MatrixByteBuffered4x4s64::createWithBase);
+  }
+
+  @Test
+  public void testEmpty()
+  {
+    final TensorSegmentedArray<MatrixByteBuffered4x4s64> array =
+      TensorSegmentedArray.createDirect(
+        0L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase);
+
+    Assert.assertEquals(0L, array.count());
+    Assert.assertEquals(0L, (long) array.segments().size());
+  }
+}
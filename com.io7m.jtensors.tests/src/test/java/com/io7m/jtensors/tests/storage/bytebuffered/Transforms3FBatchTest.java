@@ -0,0 +1,378 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.parameterized.matrices.PMatrices4x4D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3F;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.generators.Matrix4x4DGenerator;
+import com.io7m.jtensors.generators.Vector3FGenerator;
+import com.io7m.jtensors.storage.bytebuffered.Transforms3FBatch;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ForkJoinPool;
+
+public final class Transforms3FBatchTest
+{
+  private static final int COUNT = 16;
+  private static final int LARGE_COUNT = 10000;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(Transforms3FBatch.vectorSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static Vector3F[] fill(
+    final ByteBuffer buffer,
+    final int count,
+    final Generator<Vector3F> gen)
+  {
+    final Vector3F[] values = new Vector3F[count];
+    for (int index = 0; index < count; ++index) {
+      final Vector3F v = gen.next();
+      final int offset = index * Transforms3FBatch.vectorSizeBytes();
+      buffer.putFloat(offset, v.x());
+      buffer.putFloat(offset + 4, v.y());
+      buffer.putFloat(offset + 8, v.z());
+      values[index] = v;
+    }
+    return values;
+  }
+
+  private static Vector3F[] fill(
+    final float[] x,
+    final float[] y,
+    final float[] z,
+    final int count,
+    final Generator<Vector3F> gen)
+  {
+    final Vector3F[] values = new Vector3F[count];
+    for (int index = 0; index < count; ++index) {
+      final Vector3F v = gen.next();
+      x[index] = v.x();
+      y[index] = v.y();
+      z[index] = v.z();
+      values[index] = v;
+    }
+    return values;
+  }
+
+  private static Vector3F get(
+    final ByteBuffer buffer,
+    final int index)
+  {
+    final int offset = index * Transforms3FBatch.vectorSizeBytes();
+    return Vector3F.of(
+      buffer.getFloat(offset),
+      buffer.getFloat(offset + 4),
+      buffer.getFloat(offset + 8));
+  }
+
+  private static Vector3F transform(
+    final Matrix4x4D m,
+    final Vector3F v,
+    final double w)
+  {
+    final Vector4D r = Matrices4x4D.multiplyVectorPost(
+      m, Vector4D.of((double) v.x(), (double) v.y(), (double) v.z(), w));
+    return Vector3F.of((float) r.x(), (float) r.y(), (float) r.z());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testTransformPointsBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, a, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEqualsVector(
+        transform(m, va[index], 1.0), get(out, index));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testTransformDirectionsBufferInPlace()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final ByteBuffer a = buffer(COUNT);
+    final Vector3F[] va = fill(a, COUNT, gen);
+
+    Transforms3FBatch.transformDirections(m, a, a, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEqualsVector(
+        transform(m, va[index], 0.0), get(a, index));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testTransformPointsArraysInPlace()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final float[] x = new float[COUNT];
+    final float[] y = new float[COUNT];
+    final float[] z = new float[COUNT];
+    final Vector3F[] va = fill(x, y, z, COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, x, y, z, x, y, z, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEqualsVector(
+        transform(m, va[index], 1.0),
+        Vector3F.of(x[index], y[index], z[index]));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testTransformDirectionsArrays()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final float[] x = new float[COUNT];
+    final float[] y = new float[COUNT];
+    final float[] z = new float[COUNT];
+    final float[] out_x = new float[COUNT];
+    final float[] out_y = new float[COUNT];
+    final float[] out_z = new float[COUNT];
+    final Vector3F[] va = fill(x, y, z, COUNT, gen);
+
+    Transforms3FBatch.transformDirections(
+      m, x, y, z, out_x, out_y, out_z, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEqualsVector(
+        transform(m, va[index], 0.0),
+        Vector3F.of(out_x[index], out_y[index], out_z[index]));
+    }
+  }
+
+  @Test
+  public void testTransformPointsParameterizedBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+    final PMatrix4x4D<Object, Object> pm = PMatrices4x4D.toParameterized(m);
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final ByteBuffer p_out = buffer(COUNT);
+    fill(a, COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, a, out, COUNT);
+    Transforms3FBatch.transformPoints(pm, a, p_out, COUNT);
+    Assert.assertEquals(out, p_out);
+
+    Transforms3FBatch.transformDirections(m, a, out, COUNT);
+    Transforms3FBatch.transformDirections(pm, a, p_out, COUNT);
+    Assert.assertEquals(out, p_out);
+  }
+
+  @Test
+  public void testTransformParallelBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+    final PMatrix4x4D<Object, Object> pm = PMatrices4x4D.toParameterized(m);
+
+    final ByteBuffer a = buffer(LARGE_COUNT);
+    final ByteBuffer serial = buffer(LARGE_COUNT);
+    final ByteBuffer parallel = buffer(LARGE_COUNT);
+    fill(a, LARGE_COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, a, serial, LARGE_COUNT);
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(), m, a, parallel, LARGE_COUNT);
+    Assert.assertEquals(serial, parallel);
+
+    Transforms3FBatch.transformDirections(m, a, serial, LARGE_COUNT);
+    Transforms3FBatch.transformDirectionsParallel(
+      ForkJoinPool.commonPool(), pm, a, parallel, LARGE_COUNT);
+    Assert.assertEquals(serial, parallel);
+  }
+
+  @Test
+  public void testTransformParallelArrays()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+    final PMatrix4x4D<Object, Object> pm = PMatrices4x4D.toParameterized(m);
+
+    final float[] x = new float[LARGE_COUNT];
+    final float[] y = new float[LARGE_COUNT];
+    final float[] z = new float[LARGE_COUNT];
+    final float[] s_x = new float[LARGE_COUNT];
+    final float[] s_y = new float[LARGE_COUNT];
+    final float[] s_z = new float[LARGE_COUNT];
+    final float[] p_x = new float[LARGE_COUNT];
+    final float[] p_y = new float[LARGE_COUNT];
+    final float[] p_z = new float[LARGE_COUNT];
+    fill(x, y, z, LARGE_COUNT, gen);
+
+    Transforms3FBatch.transformPoints(
+      m, x, y, z, s_x, s_y, s_z, LARGE_COUNT);
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(), pm, x, y, z, p_x, p_y, p_z, LARGE_COUNT);
+    Assert.assertArrayEquals(s_x, p_x, 0.0f);
+    Assert.assertArrayEquals(s_y, p_y, 0.0f);
+    Assert.assertArrayEquals(s_z, p_z, 0.0f);
+
+    Transforms3FBatch.transformDirections(
+      m, x, y, z, s_x, s_y, s_z, LARGE_COUNT);
+    Transforms3FBatch.transformDirectionsParallel(
+      ForkJoinPool.commonPool(), m, x, y, z, p_x, p_y, p_z, LARGE_COUNT);
+    Assert.assertArrayEquals(s_x, p_x, 0.0f);
+    Assert.assertArrayEquals(s_y, p_y, 0.0f);
+    Assert.assertArrayEquals(s_z, p_z, 0.0f);
+  }
+
+  @Test
+  public void testTransformParallelCustomThreshold()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+    final PMatrix4x4D<Object, Object> pm = PMatrices4x4D.toParameterized(m);
+
+    final ByteBuffer a = buffer(LARGE_COUNT);
+    final ByteBuffer serial = buffer(LARGE_COUNT);
+    final ByteBuffer parallel = buffer(LARGE_COUNT);
+    fill(a, LARGE_COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, a, serial, LARGE_COUNT);
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(), 256, pm, a, parallel, LARGE_COUNT);
+    Assert.assertEquals(serial, parallel);
+
+    final float[] x = new float[LARGE_COUNT];
+    final float[] y = new float[LARGE_COUNT];
+    final float[] z = new float[LARGE_COUNT];
+    final float[] s_x = new float[LARGE_COUNT];
+    final float[] s_y = new float[LARGE_COUNT];
+    final float[] s_z = new float[LARGE_COUNT];
+    final float[] p_x = new float[LARGE_COUNT];
+    final float[] p_y = new float[LARGE_COUNT];
+    final float[] p_z = new float[LARGE_COUNT];
+    fill(x, y, z, LARGE_COUNT, gen);
+
+    Transforms3FBatch.transformDirections(
+      m, x, y, z, s_x, s_y, s_z, LARGE_COUNT);
+    Transforms3FBatch.transformDirectionsParallel(
+      ForkJoinPool.commonPool(), 1, m, x, y, z, p_x, p_y, p_z, LARGE_COUNT);
+    Assert.assertArrayEquals(s_x, p_x, 0.0f);
+    Assert.assertArrayEquals(s_y, p_y, 0.0f);
+    Assert.assertArrayEquals(s_z, p_z, 0.0f);
+  }
+
+  @Test
+  public void testTransformParallelBelowThreshold()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer serial = buffer(COUNT);
+    final ByteBuffer parallel = buffer(COUNT);
+    fill(a, COUNT, gen);
+
+    Transforms3FBatch.transformPoints(m, a, serial, COUNT);
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(), m, a, parallel, COUNT);
+    Assert.assertEquals(serial, parallel);
+
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(), COUNT, m, a, parallel, COUNT);
+    Assert.assertEquals(serial, parallel);
+  }
+
+  @Test
+  public void testTransformParallelThresholdNotPositive()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    Transforms3FBatch.transformPointsParallel(
+      ForkJoinPool.commonPool(),
+      0,
+      Matrices4x4D.identity(),
+      buffer(COUNT),
+      buffer(COUNT),
+      COUNT);
+  }
+
+  @Test
+  public void testTransformPointsTooSmallBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Transforms3FBatch.transformPoints(
+      Matrices4x4D.identity(), buffer(COUNT), buffer(COUNT - 1), COUNT);
+  }
+
+  @Test
+  public void testTransformPointsCountNegativeBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Transforms3FBatch.transformPoints(
+      Matrices4x4D.identity(), buffer(COUNT), buffer(COUNT), -1);
+  }
+
+  @Test
+  public void testTransformDirectionsTooSmallArrays()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Transforms3FBatch.transformDirectionsParallel(
+      ForkJoinPool.commonPool(),
+      Matrices4x4D.identity(),
+      new float[COUNT],
+      new float[COUNT],
+      new float[COUNT - 1],
+      new float[COUNT],
+      new float[COUNT],
+      new float[COUNT],
+      COUNT);
+  }
+}
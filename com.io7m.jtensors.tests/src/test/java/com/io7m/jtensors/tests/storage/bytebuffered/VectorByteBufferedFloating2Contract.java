@@ -20,6 +20,7 @@ import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector2D;
 import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating2Type;
 import com.io7m.jtensors.tests.storage.api.VectorStorageFloating2Contract;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class VectorByteBufferedFloating2Contract
@@ -63,4 +64,24 @@ public abstract class VectorByteBufferedFloating2Contract
       this.checkAlmostEquals(1.0, m.y());
     }
   }
+
+  @Test
+  public final void testSetOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating2Type m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setXY(1.0, 2.0);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
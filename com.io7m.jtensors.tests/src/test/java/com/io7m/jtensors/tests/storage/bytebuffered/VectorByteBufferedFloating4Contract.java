@@ -20,6 +20,7 @@ import com.io7m.mutable.numbers.core.MutableLong;
 import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
 import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating4Type;
 import com.io7m.jtensors.tests.storage.api.VectorStorageFloating4Contract;
+import org.junit.Assert;
 import org.junit.Test;
 
 public abstract class VectorByteBufferedFloating4Contract
@@ -71,4 +72,24 @@ public abstract class VectorByteBufferedFloating4Contract
       this.checkAlmostEquals(3.0, m.w());
     }
   }
+
+  @Test
+  public final void testSetOutOfRangeUnchanged()
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating4Type m = this.create(base, 0);
+    final int start = m.byteBuffer().capacity() - m.sizeBytes() + 1;
+    base.setValue((long) start);
+
+    try {
+      m.setXYZW(1.0, 2.0, 3.0, 4.0);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = start; index < m.byteBuffer().capacity(); ++index) {
+      Assert.assertEquals(0L, (long) m.byteBuffer().get(index));
+    }
+  }
 }
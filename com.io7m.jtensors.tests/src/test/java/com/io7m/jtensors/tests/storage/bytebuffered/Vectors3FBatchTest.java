@@ -0,0 +1,506 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices3x3D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3F;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors3F;
+import com.io7m.jtensors.generators.Matrix3x3DGenerator;
+import com.io7m.jtensors.generators.Vector3FGenerator;
+import com.io7m.jtensors.storage.bytebuffered.Vectors3FBatch;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating3s32;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import com.io7m.mutable.numbers.core.MutableLong;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class Vectors3FBatchTest
+{
+  private static final int COUNT = 16;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(Vectors3FBatch.vectorSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static float[] array(
+    final int count)
+  {
+    return new float[Vectors3FBatch.vectorSizeComponents() * count];
+  }
+
+  private static Vector3F[] fill(
+    final ByteBuffer buffer,
+    final Generator<Vector3F> gen)
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating3s32 v =
+      VectorByteBufferedFloating3s32.createWithBase(buffer, base, 0);
+
+    final Vector3F[] values = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * v.sizeBytes()));
+      values[index] = gen.next();
+      v.setVector3F(values[index]);
+    }
+    return values;
+  }
+
+  private static Vector3F[] fill(
+    final float[] array,
+    final Generator<Vector3F> gen)
+  {
+    final Vector3F[] values = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      final Vector3F v = gen.next();
+      final int offset = index * 3;
+      array[offset] = v.x();
+      array[offset + 1] = v.y();
+      array[offset + 2] = v.z();
+      values[index] = v;
+    }
+    return values;
+  }
+
+  private static void check(
+    final ByteBuffer buffer,
+    final Vector3F[] expected)
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating3s32 v =
+      VectorByteBufferedFloating3s32.createWithBase(buffer, base, 0);
+
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * v.sizeBytes()));
+      TestFOps.checkAlmostEqualsVector(
+        expected[index],
+        Vector3F.of((float) v.x(), (float) v.y(), (float) v.z()));
+    }
+  }
+
+  private static void check(
+    final float[] array,
+    final Vector3F[] expected)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * 3;
+      TestFOps.checkAlmostEqualsVector(
+        expected[index],
+        Vector3F.of(array[offset], array[offset + 1], array[offset + 2]));
+    }
+  }
+
+  private static Vector3D toDouble(
+    final Vector3F v)
+  {
+    return Vector3D.of((double) v.x(), (double) v.y(), (double) v.z());
+  }
+
+  private static Vector3F toFloat(
+    final Vector3D v)
+  {
+    return Vector3F.of((float) v.x(), (float) v.y(), (float) v.z());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testAddBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.add(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.add(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testSubtractBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.subtract(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.subtract(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testCrossproductBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.crossProduct(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.crossProduct(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testScaleBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final double r = (double) gen.next().x();
+
+    Vectors3FBatch.scale(a, r, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.scale(va[index], r);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testNormalizeInPlaceBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+
+    Vectors3FBatch.normalize(a, a, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.normalize(va[index]);
+    }
+    check(a, expected);
+  }
+
+  @Test
+  public void testNormalizeZeroBuffer()
+  {
+    final ByteBuffer a = buffer(COUNT);
+    Vectors3FBatch.normalize(a, a, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.zero();
+    }
+    check(a, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyVectorPostBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix3x3D m = Matrix3x3DGenerator.createNormal().next();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector3F[] va = fill(a, gen);
+
+    Vectors3FBatch.multiplyVectorPost(m, a, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] =
+        toFloat(Matrices3x3D.multiplyVectorPost(m, toDouble(va[index])));
+    }
+    check(out, expected);
+  }
+
+  @Test
+  public void testAddTooSmallBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors3FBatch.add(buffer(COUNT), buffer(COUNT - 1), buffer(COUNT), COUNT);
+  }
+
+  @Test
+  public void testAddBeyondLimitBufferUnchanged()
+  {
+    final ByteBuffer a = buffer(COUNT);
+    for (int index = 0; index < a.capacity(); index += 4) {
+      a.putFloat(index, 1.0f);
+    }
+
+    final ByteBuffer out = buffer(COUNT);
+    out.limit(out.capacity() - 1);
+
+    try {
+      Vectors3FBatch.add(a, a, out, COUNT);
+      Assert.fail();
+    } catch (final IndexOutOfBoundsException e) {
+      // Expected
+    }
+
+    for (int index = 0; index < out.limit(); ++index) {
+      Assert.assertEquals(0L, (long) out.get(index));
+    }
+  }
+
+  @Test
+  public void testAddCountNegativeBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors3FBatch.add(buffer(COUNT), buffer(COUNT), buffer(COUNT), -1);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testAddArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.add(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.add(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testSubtractArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.subtract(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.subtract(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testCrossproductArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.crossProduct(a, b, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.crossProduct(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testScaleArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+    final double r = (double) gen.next().x();
+
+    Vectors3FBatch.scale(a, r, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.scale(va[index], r);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testNormalizeInPlaceArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+
+    Vectors3FBatch.normalize(a, a, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.normalize(va[index]);
+    }
+    check(a, expected);
+  }
+
+  @Test
+  public void testNormalizeZeroArray()
+  {
+    final float[] a = array(COUNT);
+    Vectors3FBatch.normalize(a, a, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors3F.zero();
+    }
+    check(a, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyVectorPostArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+    final Matrix3x3D m = Matrix3x3DGenerator.createNormal().next();
+
+    final float[] a = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector3F[] va = fill(a, gen);
+
+    Vectors3FBatch.multiplyVectorPost(m, a, out, COUNT);
+
+    final Vector3F[] expected = new Vector3F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] =
+        toFloat(Matrices3x3D.multiplyVectorPost(m, toDouble(va[index])));
+    }
+    check(out, expected);
+  }
+
+  @Test
+  public void testAddTooSmallArray()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors3FBatch.add(array(COUNT), array(COUNT - 1), array(COUNT), COUNT);
+  }
+
+  @Test
+  public void testAddCountNegativeArray()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors3FBatch.add(array(COUNT), array(COUNT), array(COUNT), -1);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testDotProductBuffer()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out =
+      ByteBuffer.allocateDirect(4 * COUNT).order(ByteOrder.nativeOrder());
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.dotProduct(a, b, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEquals(
+        (double) (float) Vectors3F.dotProduct(va[index], vb[index]),
+        (double) out.getFloat(index * 4));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testDotProductArray()
+  {
+    final Generator<Vector3F> gen = Vector3FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = new float[COUNT];
+    final Vector3F[] va = fill(a, gen);
+    final Vector3F[] vb = fill(b, gen);
+
+    Vectors3FBatch.dotProduct(a, b, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEquals(
+        (double) (float) Vectors3F.dotProduct(va[index], vb[index]),
+        (double) out[index]);
+    }
+  }
+
+  @Test
+  public void testDotProductOutputTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors3FBatch.dotProduct(array(COUNT), array(COUNT), new float[COUNT - 1], COUNT);
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.bytebuffered;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector4F;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors4F;
+import com.io7m.jtensors.generators.Matrix4x4DGenerator;
+import com.io7m.jtensors.generators.Vector4FGenerator;
+import com.io7m.jtensors.storage.bytebuffered.Vectors4FBatch;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating4s32;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import com.io7m.mutable.numbers.core.MutableLong;
+import net.java.quickcheck.Generator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public final class Vectors4FBatchTest
+{
+  private static final int COUNT = 16;
+
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static ByteBuffer buffer(
+    final int count)
+  {
+    return ByteBuffer.allocateDirect(Vectors4FBatch.vectorSizeBytes() * count)
+      .order(ByteOrder.nativeOrder());
+  }
+
+  private static float[] array(
+    final int count)
+  {
+    return new float[Vectors4FBatch.vectorSizeComponents() * count];
+  }
+
+  private static Vector4F[] fill(
+    final ByteBuffer buffer,
+    final Generator<Vector4F> gen)
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating4s32 v =
+      VectorByteBufferedFloating4s32.createWithBase(buffer, base, 0);
+
+    final Vector4F[] values = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * v.sizeBytes()));
+      values[index] = gen.next();
+      v.setVector4F(values[index]);
+    }
+    return values;
+  }
+
+  private static Vector4F[] fill(
+    final float[] array,
+    final Generator<Vector4F> gen)
+  {
+    final Vector4F[] values = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      final Vector4F v = gen.next();
+      final int offset = index * 4;
+      array[offset] = v.x();
+      array[offset + 1] = v.y();
+      array[offset + 2] = v.z();
+      array[offset + 3] = v.w();
+      values[index] = v;
+    }
+    return values;
+  }
+
+  private static void check(
+    final ByteBuffer buffer,
+    final Vector4F[] expected)
+  {
+    final MutableLong base = MutableLong.create();
+    final VectorByteBufferedFloating4s32 v =
+      VectorByteBufferedFloating4s32.createWithBase(buffer, base, 0);
+
+    for (int index = 0; index < COUNT; ++index) {
+      base.setValue((long) (index * v.sizeBytes()));
+      TestFOps.checkAlmostEqualsVector(
+        expected[index],
+        Vector4F.of((float) v.x(), (float) v.y(), (float) v.z(), (float) v.w()));
+    }
+  }
+
+  private static void check(
+    final float[] array,
+    final Vector4F[] expected)
+  {
+    for (int index = 0; index < COUNT; ++index) {
+      final int offset = index * 4;
+      TestFOps.checkAlmostEqualsVector(
+        expected[index],
+        Vector4F.of(array[offset], array[offset + 1], array[offset + 2], array[offset + 3]));
+    }
+  }
+
+  private static Vector4D toDouble(
+    final Vector4F v)
+  {
+    return Vector4D.of((double) v.x(), (double) v.y(), (double) v.z(), (double) v.w());
+  }
+
+  private static Vector4F toFloat(
+    final Vector4D v)
+  {
+    return Vector4F.of((float) v.x(), (float) v.y(), (float) v.z(), (float) v.w());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testAddBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.add(a, b, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.add(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testSubtractBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.subtract(a, b, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.subtract(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testScaleBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final double r = (double) gen.next().x();
+
+    Vectors4FBatch.scale(a, r, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.scale(va[index], r);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testNormalizeInPlaceBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final Vector4F[] va = fill(a, gen);
+
+    Vectors4FBatch.normalize(a, a, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.normalize(va[index]);
+    }
+    check(a, expected);
+  }
+
+  @Test
+  public void testNormalizeZeroBuffer()
+  {
+    final ByteBuffer a = buffer(COUNT);
+    Vectors4FBatch.normalize(a, a, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.zero();
+    }
+    check(a, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyVectorPostBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer out = buffer(COUNT);
+    final Vector4F[] va = fill(a, gen);
+
+    Vectors4FBatch.multiplyVectorPost(m, a, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] =
+        toFloat(Matrices4x4D.multiplyVectorPost(m, toDouble(va[index])));
+    }
+    check(out, expected);
+  }
+
+  @Test
+  public void testAddTooSmallBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors4FBatch.add(buffer(COUNT), buffer(COUNT - 1), buffer(COUNT), COUNT);
+  }
+
+  @Test
+  public void testAddCountNegativeBuffer()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors4FBatch.add(buffer(COUNT), buffer(COUNT), buffer(COUNT), -1);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testAddArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.add(a, b, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.add(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testSubtractArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.subtract(a, b, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.subtract(va[index], vb[index]);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testScaleArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector4F[] va = fill(a, gen);
+    final double r = (double) gen.next().x();
+
+    Vectors4FBatch.scale(a, r, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.scale(va[index], r);
+    }
+    check(out, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testNormalizeInPlaceArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final Vector4F[] va = fill(a, gen);
+
+    Vectors4FBatch.normalize(a, a, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.normalize(va[index]);
+    }
+    check(a, expected);
+  }
+
+  @Test
+  public void testNormalizeZeroArray()
+  {
+    final float[] a = array(COUNT);
+    Vectors4FBatch.normalize(a, a, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] = Vectors4F.zero();
+    }
+    check(a, expected);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMultiplyVectorPostArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final float[] a = array(COUNT);
+    final float[] out = array(COUNT);
+    final Vector4F[] va = fill(a, gen);
+
+    Vectors4FBatch.multiplyVectorPost(m, a, out, COUNT);
+
+    final Vector4F[] expected = new Vector4F[COUNT];
+    for (int index = 0; index < COUNT; ++index) {
+      expected[index] =
+        toFloat(Matrices4x4D.multiplyVectorPost(m, toDouble(va[index])));
+    }
+    check(out, expected);
+  }
+
+  @Test
+  public void testAddTooSmallArray()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors4FBatch.add(array(COUNT), array(COUNT - 1), array(COUNT), COUNT);
+  }
+
+  @Test
+  public void testAddCountNegativeArray()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors4FBatch.add(array(COUNT), array(COUNT), array(COUNT), -1);
+  }
+
+  @Test
+  @PercentagePassing
+  public void testDotProductBuffer()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final ByteBuffer a = buffer(COUNT);
+    final ByteBuffer b = buffer(COUNT);
+    final ByteBuffer out =
+      ByteBuffer.allocateDirect(4 * COUNT).order(ByteOrder.nativeOrder());
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.dotProduct(a, b, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEquals(
+        (double) (float) Vectors4F.dotProduct(va[index], vb[index]),
+        (double) out.getFloat(index * 4));
+    }
+  }
+
+  @Test
+  @PercentagePassing
+  public void testDotProductArray()
+  {
+    final Generator<Vector4F> gen = Vector4FGenerator.createNormal();
+
+    final float[] a = array(COUNT);
+    final float[] b = array(COUNT);
+    final float[] out = new float[COUNT];
+    final Vector4F[] va = fill(a, gen);
+    final Vector4F[] vb = fill(b, gen);
+
+    Vectors4FBatch.dotProduct(a, b, out, COUNT);
+
+    for (int index = 0; index < COUNT; ++index) {
+      TestFOps.checkAlmostEquals(
+        (double) (float) Vectors4F.dotProduct(va[index], vb[index]),
+        (double) out[index]);
+    }
+  }
+
+  @Test
+  public void testDotProductOutputTooSmall()
+  {
+    this.expected.expect(IndexOutOfBoundsException.class);
+    Vectors4FBatch.dotProduct(array(COUNT), array(COUNT), new float[COUNT - 1], COUNT);
+  }
+}
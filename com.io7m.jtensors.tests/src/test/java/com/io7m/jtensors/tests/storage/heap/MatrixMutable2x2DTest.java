@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.heap;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix2x2F;
+import com.io7m.jtensors.generators.Matrix2x2DGenerator;
+import com.io7m.jtensors.generators.Matrix2x2FGenerator;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage2x2Type;
+import com.io7m.jtensors.storage.heap.MatrixMutable2x2D;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestDOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.storage.api.MatrixStorage2x2Contract;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class MatrixMutable2x2DTest
+  extends MatrixStorage2x2Contract
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+
+  @Override
+  protected MatrixStorage2x2Type create(
+    final int offset)
+  {
+    return new MatrixMutable2x2D();
+  }
+
+  @Override
+  protected Generator<Matrix2x2D> createGenerator2x2D()
+  {
+    return Matrix2x2DGenerator.createNormal();
+  }
+
+  @Override
+  protected Generator<Matrix2x2F> createGenerator2x2F()
+  {
+    return Matrix2x2FGenerator.createNormal();
+  }
+
+  @Override
+  protected void checkAlmostEquals(
+    final double x,
+    final double y)
+  {
+    TestDOps.checkAlmostEquals(x, y);
+  }
+
+  @Test
+  public void testIdentity()
+  {
+    final MatrixMutable2x2D m = new MatrixMutable2x2D();
+    for (int row = 0; row < 2; ++row) {
+      for (int column = 0; column < 2; ++column) {
+        Assert.assertEquals(
+          row == column ? 1.0 : 0.0,
+          m.rowColumn(row, column),
+          0.0);
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsHashToString()
+  {
+    final MatrixMutable2x2D v0 = new MatrixMutable2x2D();
+    final MatrixMutable2x2D v1 = new MatrixMutable2x2D();
+    final MatrixMutable2x2D v0_r0c0 = new MatrixMutable2x2D();
+    final MatrixMutable2x2D v0_r0c1 = new MatrixMutable2x2D();
+    final MatrixMutable2x2D v0_r1c0 = new MatrixMutable2x2D();
+    final MatrixMutable2x2D v0_r1c1 = new MatrixMutable2x2D();
+
+    Assert.assertEquals(v0, v0);
+    Assert.assertEquals(v0, v1);
+    Assert.assertEquals(v0.toString(), v1.toString());
+    Assert.assertEquals((long) v0.hashCode(), (long) v1.hashCode());
+
+    v0_r0c0.setMatrix2x2D(Matrix2x2D.of(
+      2.0, 0.0,
+      0.0, 1.0));
+    v0_r0c1.setMatrix2x2D(Matrix2x2D.of(
+      1.0, 2.0,
+      0.0, 1.0));
+    v0_r1c0.setMatrix2x2D(Matrix2x2D.of(
+      1.0, 0.0,
+      2.0, 1.0));
+    v0_r1c1.setMatrix2x2D(Matrix2x2D.of(
+      1.0, 0.0,
+      0.0, 2.0));
+
+    Assert.assertNotEquals(v0, v0_r0c0);
+    Assert.assertNotEquals(v0, v0_r0c1);
+    Assert.assertNotEquals(v0, v0_r1c0);
+    Assert.assertNotEquals(v0, v0_r1c1);
+
+    Assert.assertNotEquals(v0.toString(), v0_r0c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c1.toString());
+    Assert.assertNotEquals(v0, Integer.valueOf(23));
+    Assert.assertNotEquals(v0, null);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.heap;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix3x3F;
+import com.io7m.jtensors.generators.Matrix3x3DGenerator;
+import com.io7m.jtensors.generators.Matrix3x3FGenerator;
+import com.io7m.jtensors.storage.api.unparameterized.matrices.MatrixStorage3x3Type;
+import com.io7m.jtensors.storage.heap.MatrixMutable3x3F;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.storage.api.MatrixStorage3x3Contract;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class MatrixMutable3x3FTest
+  extends MatrixStorage3x3Contract
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+
+  @Override
+  protected MatrixStorage3x3Type create(
+    final int offset)
+  {
+    return new MatrixMutable3x3F();
+  }
+
+  @Override
+  protected Generator<Matrix3x3D> createGenerator3x3D()
+  {
+    return Matrix3x3DGenerator.createNormal();
+  }
+
+  @Override
+  protected Generator<Matrix3x3F> createGenerator3x3F()
+  {
+    return Matrix3x3FGenerator.createNormal();
+  }
+
+  @Override
+  protected void checkAlmostEquals(
+    final double x,
+    final double y)
+  {
+    TestFOps.checkAlmostEquals(x, y);
+  }
+
+  @Test
+  public void testIdentity()
+  {
+    final MatrixMutable3x3F m = new MatrixMutable3x3F();
+    for (int row = 0; row < 3; ++row) {
+      for (int column = 0; column < 3; ++column) {
+        Assert.assertEquals(
+          row == column ? 1.0 : 0.0,
+          m.rowColumn(row, column),
+          0.0);
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsHashToString()
+  {
+    final MatrixMutable3x3F v0 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v1 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r0c0 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r0c1 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r0c2 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r1c0 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r1c1 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r1c2 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r2c0 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r2c1 = new MatrixMutable3x3F();
+    final MatrixMutable3x3F v0_r2c2 = new MatrixMutable3x3F();
+
+    Assert.assertEquals(v0, v0);
+    Assert.assertEquals(v0, v1);
+    Assert.assertEquals(v0.toString(), v1.toString());
+    Assert.assertEquals((long) v0.hashCode(), (long) v1.hashCode());
+
+    v0_r0c0.setMatrix3x3F(Matrix3x3F.of(
+      2.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r0c1.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 2.0f, 0.0f,
+      0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r0c2.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 2.0f,
+      0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r1c0.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      2.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r1c1.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      0.0f, 2.0f, 0.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r1c2.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 2.0f,
+      0.0f, 0.0f, 1.0f));
+    v0_r2c0.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f,
+      2.0f, 0.0f, 1.0f));
+    v0_r2c1.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f,
+      0.0f, 2.0f, 1.0f));
+    v0_r2c2.setMatrix3x3F(Matrix3x3F.of(
+      1.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 2.0f));
+
+    Assert.assertNotEquals(v0, v0_r0c0);
+    Assert.assertNotEquals(v0, v0_r0c1);
+    Assert.assertNotEquals(v0, v0_r0c2);
+    Assert.assertNotEquals(v0, v0_r1c0);
+    Assert.assertNotEquals(v0, v0_r1c1);
+    Assert.assertNotEquals(v0, v0_r1c2);
+    Assert.assertNotEquals(v0, v0_r2c0);
+    Assert.assertNotEquals(v0, v0_r2c1);
+    Assert.assertNotEquals(v0, v0_r2c2);
+
+    Assert.assertNotEquals(v0.toString(), v0_r0c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c2.toString());
+    Assert.assertNotEquals(v0, Integer.valueOf(23));
+    Assert.assertNotEquals(v0, null);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.heap;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.MatrixReadable4x4DType;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors3D;
+import com.io7m.jtensors.generators.Matrix4x4DGenerator;
+import com.io7m.jtensors.generators.Vector3DGenerator;
+import com.io7m.jtensors.storage.heap.MatrixStack4x4D;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestDOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public final class MatrixStack4x4DTest
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+  @Rule public final ExpectedException expected = ExpectedException.none();
+
+  private static Matrix4x4D snapshot(
+    final MatrixReadable4x4DType m)
+  {
+    return Matrix4x4D.of(
+      m.r0c0(), m.r0c1(), m.r0c2(), m.r0c3(),
+      m.r1c0(), m.r1c1(), m.r1c2(), m.r1c3(),
+      m.r2c0(), m.r2c1(), m.r2c2(), m.r2c3(),
+      m.r3c0(), m.r3c1(), m.r3c2(), m.r3c3());
+  }
+
+  @Test
+  public void testIdentity()
+  {
+    final MatrixStack4x4D s = new MatrixStack4x4D(4);
+    Assert.assertEquals(4L, (long) s.capacity());
+    Assert.assertEquals(1L, (long) s.depth());
+    Assert.assertEquals(Matrices4x4D.identity(), snapshot(s.top()));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testTransformsMatchMatrices()
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    final Vector3D t = gen.next();
+    final Vector3D axis = Vectors3D.normalize(gen.next());
+    final double angle = gen.next().x() * Math.PI;
+    final Vector3D sc = gen.next();
+    final Matrix4x4D m = Matrix4x4DGenerator.createNormal().next();
+
+    final MatrixStack4x4D s = new MatrixStack4x4D(1);
+    s.translate(t.x(), t.y(), t.z());
+    s.rotate(axis.x(), axis.y(), axis.z(), angle);
+    s.scale(sc.x(), sc.y(), sc.z());
+    s.multiply(m);
+
+    final Matrix4x4D expected =
+      Matrices4x4D.multiply(
+        Matrices4x4D.multiply(
+          Matrices4x4D.multiply(
+            Matrices4x4D.ofTranslation(t.x(), t.y(), t.z()),
+            Matrices4x4D.ofAxisAngle(axis.x(), axis.y(), axis.z(), angle)),
+          Matrices4x4D.ofScale(sc.x(), sc.y(), sc.z())),
+        m);
+
+    TestDOps.checkAlmostEqualsMatrix(expected, snapshot(s.top()));
+  }
+
+  @Test
+  @PercentagePassing
+  public void testPushPop()
+  {
+    final Generator<Matrix4x4D> gen = Matrix4x4DGenerator.createNormal();
+    final Matrix4x4D m0 = gen.next();
+    final Matrix4x4D m1 = gen.next();
+
+    final MatrixStack4x4D s = new MatrixStack4x4D(2);
+    s.load(m0);
+    s.push();
+    Assert.assertEquals(2L, (long) s.depth());
+    Assert.assertEquals(m0, snapshot(s.top()));
+
+    s.multiply(m1);
+    TestDOps.checkAlmostEqualsMatrix(
+      Matrices4x4D.multiply(m0, m1), snapshot(s.top()));
+
+    s.pop();
+    Assert.assertEquals(1L, (long) s.depth());
+    Assert.assertEquals(m0, snapshot(s.top()));
+  }
+
+  @Test
+  public void testTopIsView()
+  {
+    final MatrixStack4x4D s = new MatrixStack4x4D(2);
+    final MatrixReadable4x4DType top = s.top();
+    Assert.assertSame(top, s.top());
+
+    s.push();
+    s.translate(1.0, 2.0, 3.0);
+    Assert.assertEquals(
+      Matrices4x4D.ofTranslation(1.0, 2.0, 3.0), snapshot(top));
+    Assert.assertEquals(2.0, top.rowColumn(1, 3), 0.0);
+
+    s.pop();
+    Assert.assertEquals(Matrices4x4D.identity(), snapshot(top));
+    Assert.assertTrue(top.toString().contains("r1c3=0.0"));
+  }
+
+  @Test
+  public void testClear()
+  {
+    final MatrixStack4x4D s = new MatrixStack4x4D(3);
+    s.scale(2.0, 2.0, 2.0);
+    s.push();
+    s.push();
+    s.translate(1.0, 1.0, 1.0);
+    s.clear();
+    Assert.assertEquals(1L, (long) s.depth());
+    Assert.assertEquals(Matrices4x4D.identity(), snapshot(s.top()));
+  }
+
+  @Test
+  public void testPushOverflow()
+  {
+    final MatrixStack4x4D s = new MatrixStack4x4D(2);
+    s.push();
+    this.expected.expect(IndexOutOfBoundsException.class);
+    s.push();
+  }
+
+  @Test
+  public void testPopUnderflow()
+  {
+    final MatrixStack4x4D s = new MatrixStack4x4D(2);
+    this.expected.expect(IndexOutOfBoundsException.class);
+    s.pop();
+  }
+
+  @Test
+  public void testCapacityInvalid()
+  {
+    this.expected.expect(IllegalArgumentException.class);
+    new MatrixStack4x4D(0);
+  }
+}
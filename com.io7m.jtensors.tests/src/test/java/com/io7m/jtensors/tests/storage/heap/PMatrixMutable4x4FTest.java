@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.heap;
+
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4D;
+import com.io7m.jtensors.core.parameterized.matrices.PMatrix4x4F;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4F;
+import com.io7m.jtensors.generators.Matrix4x4DGenerator;
+import com.io7m.jtensors.generators.Matrix4x4FGenerator;
+import com.io7m.jtensors.generators.PMatrix4x4DGenerator;
+import com.io7m.jtensors.generators.PMatrix4x4FGenerator;
+import com.io7m.jtensors.storage.api.parameterized.matrices.PMatrixStorage4x4Type;
+import com.io7m.jtensors.storage.heap.PMatrixMutable4x4F;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestFOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.storage.api.PMatrixStorage4x4Contract;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class PMatrixMutable4x4FTest
+  extends PMatrixStorage4x4Contract
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+
+  @Override
+  protected PMatrixStorage4x4Type<Object, Object> create(
+    final int offset)
+  {
+    return new PMatrixMutable4x4F<>();
+  }
+
+  @Override
+  protected Generator<PMatrix4x4D<Object, Object>> createGeneratorP4x4D()
+  {
+    return PMatrix4x4DGenerator.createNormal();
+  }
+
+  @Override
+  protected Generator<PMatrix4x4F<Object, Object>> createGeneratorP4x4F()
+  {
+    return PMatrix4x4FGenerator.createNormal();
+  }
+
+  @Override
+  protected Generator<Matrix4x4D> createGenerator4x4D()
+  {
+    return Matrix4x4DGenerator.createNormal();
+  }
+
+  @Override
+  protected Generator<Matrix4x4F> createGenerator4x4F()
+  {
+    return Matrix4x4FGenerator.createNormal();
+  }
+
+  @Override
+  protected void checkAlmostEquals(
+    final double x,
+    final double y)
+  {
+    TestFOps.checkAlmostEquals(x, y);
+  }
+
+  @Test
+  public void testIdentity()
+  {
+    final PMatrixMutable4x4F<Object, Object> m = new PMatrixMutable4x4F<>();
+    for (int row = 0; row < 4; ++row) {
+      for (int column = 0; column < 4; ++column) {
+        Assert.assertEquals(
+          row == column ? 1.0 : 0.0,
+          m.rowColumn(row, column),
+          0.0);
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsHashToString()
+  {
+    final PMatrixMutable4x4F<Object, Object> v0 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v1 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r0c0 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r0c1 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r0c2 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r0c3 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r1c0 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r1c1 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r1c2 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r1c3 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r2c0 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r2c1 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r2c2 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r2c3 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r3c0 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r3c1 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r3c2 = new PMatrixMutable4x4F<>();
+    final PMatrixMutable4x4F<Object, Object> v0_r3c3 = new PMatrixMutable4x4F<>();
+
+    Assert.assertEquals(v0, v0);
+    Assert.assertEquals(v0, v1);
+    Assert.assertEquals(v0.toString(), v1.toString());
+    Assert.assertEquals((long) v0.hashCode(), (long) v1.hashCode());
+
+    v0_r0c0.setMatrix4x4F(Matrix4x4F.of(
+      2.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r0c1.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 2.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r0c2.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 2.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r0c3.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 2.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r1c0.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      2.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r1c1.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 2.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r1c2.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 2.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r1c3.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 2.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r2c0.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      2.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r2c1.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 2.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r2c2.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 2.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r2c3.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 2.0f,
+      0.0f, 0.0f, 0.0f, 1.0f));
+    v0_r3c0.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      2.0f, 0.0f, 0.0f, 1.0f));
+    v0_r3c1.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 2.0f, 0.0f, 1.0f));
+    v0_r3c2.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 2.0f, 1.0f));
+    v0_r3c3.setMatrix4x4F(Matrix4x4F.of(
+      1.0f, 0.0f, 0.0f, 0.0f,
+      0.0f, 1.0f, 0.0f, 0.0f,
+      0.0f, 0.0f, 1.0f, 0.0f,
+      0.0f, 0.0f, 0.0f, 2.0f));
+
+    Assert.assertNotEquals(v0, v0_r0c0);
+    Assert.assertNotEquals(v0, v0_r0c1);
+    Assert.assertNotEquals(v0, v0_r0c2);
+    Assert.assertNotEquals(v0, v0_r0c3);
+    Assert.assertNotEquals(v0, v0_r1c0);
+    Assert.assertNotEquals(v0, v0_r1c1);
+    Assert.assertNotEquals(v0, v0_r1c2);
+    Assert.assertNotEquals(v0, v0_r1c3);
+    Assert.assertNotEquals(v0, v0_r2c0);
+    Assert.assertNotEquals(v0, v0_r2c1);
+    Assert.assertNotEquals(v0, v0_r2c2);
+    Assert.assertNotEquals(v0, v0_r2c3);
+    Assert.assertNotEquals(v0, v0_r3c0);
+    Assert.assertNotEquals(v0, v0_r3c1);
+    Assert.assertNotEquals(v0, v0_r3c2);
+    Assert.assertNotEquals(v0, v0_r3c3);
+
+    Assert.assertNotEquals(v0.toString(), v0_r0c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r0c3.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r1c3.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r2c3.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r3c0.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r3c1.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r3c2.toString());
+    Assert.assertNotEquals(v0.toString(), v0_r3c3.toString());
+    Assert.assertNotEquals(v0, Integer.valueOf(23));
+    Assert.assertNotEquals(v0, null);
+  }
+}
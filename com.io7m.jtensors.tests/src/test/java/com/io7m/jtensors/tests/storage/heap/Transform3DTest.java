@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.heap;
+
+import com.io7m.jtensors.core.quaternions.Quaternion4D;
+import com.io7m.jtensors.core.quaternions.Quaternions4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrices4x4D;
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vector3D;
+import com.io7m.jtensors.core.unparameterized.vectors.Vectors3D;
+import com.io7m.jtensors.generators.Vector3DGenerator;
+import com.io7m.jtensors.storage.heap.Transform3D;
+import com.io7m.jtensors.tests.TestUtilities;
+import com.io7m.jtensors.tests.core.TestDOps;
+import com.io7m.jtensors.tests.rules.PercentagePassRule;
+import com.io7m.jtensors.tests.rules.PercentagePassing;
+import net.java.quickcheck.Generator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public final class Transform3DTest
+{
+  @Rule public final PercentagePassRule percent =
+    new PercentagePassRule(TestUtilities.TEST_ITERATIONS);
+
+  private static Transform3D createRandom()
+  {
+    final Generator<Vector3D> gen = Vector3DGenerator.createNormal();
+    final Vector3D axis = Vectors3D.normalize(gen.next());
+    final Quaternion4D r = Quaternions4D.ofAxisAngle(
+      axis.x(), axis.y(), axis.z(), gen.next().x() * Math.PI);
+    final Vector3D s = Vectors3D.add(
+      Vector3D.of(1.5, 1.5, 1.5), gen.next());
+
+    final Transform3D t = new Transform3D();
+    t.setTranslationRotationScale(gen.next(), r, s);
+    return t;
+  }
+
+  private static Matrix4x4D composeTRS(
+    final Transform3D t)
+  {
+    final Vector3D tr = t.translation();
+    final Vector3D sc = t.scale();
+    return Matrices4x4D.multiply(
+      Matrices4x4D.ofTranslation(tr.x(), tr.y(), tr.z()),
+      Matrices4x4D.multiply(
+        Quaternions4D.toMatrix4x4(t.rotation()),
+        Matrices4x4D.ofScale(sc.x(), sc.y(), sc.z())));
+  }
+
+  @Test
+  public void testIdentity()
+  {
+    final Transform3D t = new Transform3D();
+    Assert.assertEquals(Matrices4x4D.identity(), t.matrix());
+    Assert.assertEquals(Matrices4x4D.identity(), t.matrixInverse());
+    Assert.assertEquals(Quaternions4D.identity(), t.rotation());
+    Assert.assertEquals(Vector3D.of(0.0, 0.0, 0.0), t.translation());
+    Assert.assertEquals(Vector3D.of(1.0, 1.0, 1.0), t.scale());
+  }
+
+  @Test
+  public void testEqualsHashToString()
+  {
+    final Transform3D t0 = new Transform3D();
+    final Transform3D t1 = new Transform3D();
+    final Transform3D t2 = new Transform3D();
+    t2.setScale(Vector3D.of(2.0, 1.0, 1.0));
+
+    Assert.assertEquals(t0, t0);
+    Assert.assertEquals(t0, t1);
+    Assert.assertNotEquals(t0, t2);
+    Assert.assertNotEquals(t0, null);
+    Assert.assertNotEquals(t0, Integer.valueOf(23));
+    Assert.assertEquals(t0.toString(), t1.toString());
+    Assert.assertNotEquals(t0.toString(), t2.toString());
+    Assert.assertEquals((long) t0.hashCode(), (long) t1.hashCode());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMatrixEquivalentMultiply()
+  {
+    final Transform3D t = createRandom();
+    TestDOps.checkAlmostEqualsMatrix(composeTRS(t), t.matrix());
+  }
+
+  @Test
+  @PercentagePassing
+  public void testMatrixInverse()
+  {
+    final Transform3D t = createRandom();
+    TestDOps.checkAlmostEqualsMatrix(
+      Matrices4x4D.invert(composeTRS(t)).get(), t.matrixInverse());
+    TestDOps.checkAlmostEqualsMatrix(
+      Matrices4x4D.identity(),
+      Matrices4x4D.multiply(t.matrix(), t.matrixInverse()));
+  }
+
+  @Test
+  public void testMatrixCached()
+  {
+    final Transform3D t = createRandom();
+    final Matrix4x4D m0 = t.matrix();
+    final Matrix4x4D i0 = t.matrixInverse();
+    Assert.assertSame(m0, t.matrix());
+    Assert.assertSame(i0, t.matrixInverse());
+  }
+
+  @Test
+  public void testMatrixInvalidated()
+  {
+    final Transform3D t = new Transform3D();
+
+    t.matrix();
+    t.matrixInverse();
+    t.setTranslation(Vector3D.of(1.0, 2.0, 3.0));
+    Assert.assertEquals(
+      Matrices4x4D.ofTranslation(1.0, 2.0, 3.0), t.matrix());
+    Assert.assertEquals(
+      Matrices4x4D.ofTranslation(-1.0, -2.0, -3.0), t.matrixInverse());
+
+    t.setScale(Vector3D.of(2.0, 4.0, 8.0));
+    TestDOps.checkAlmostEqualsMatrix(composeTRS(t), t.matrix());
+    TestDOps.checkAlmostEqualsMatrix(
+      Matrices4x4D.invert(composeTRS(t)).get(), t.matrixInverse());
+
+    t.setRotation(Quaternions4D.ofAxisAngle(0.0, 1.0, 0.0, Math.PI / 3.0));
+    TestDOps.checkAlmostEqualsMatrix(composeTRS(t), t.matrix());
+    TestDOps.checkAlmostEqualsMatrix(
+      Matrices4x4D.invert(composeTRS(t)).get(), t.matrixInverse());
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright © 2017 <code@io7m.com> http://io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.jtensors.tests.storage.mapped;
+
+import com.io7m.jtensors.core.unparameterized.matrices.Matrix4x4D;
+import com.io7m.jtensors.storage.bytebuffered.MatrixByteBuffered4x4s64;
+import com.io7m.jtensors.storage.bytebuffered.VectorByteBufferedFloating3s32;
+import com.io7m.jtensors.storage.mapped.TensorMappedArray;
+import com.io7m.mutable.numbers.core.MutableLong;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class TensorMappedArrayTest
+{
+  @Rule public final ExpectedException expected = ExpectedException.none();
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static Matrix4x4D matrix(
+    final int index)
+  {
+    final double x = (double) (index * 16);
+    return Matrix4x4D.of(
+      x + 0.0, x + 1.0, x + 2.0, x + 3.0,
+      x + 4.0, x + 5.0, x + 6.0, x + 7.0,
+      x + 8.0, x + 9.0, x + 10.0, x + 11.0,
+      x + 12.0, x + 13.0, x + 14.0, x + 15.0);
+  }
+
+  private static FileChannel openWrite(
+    final Path file)
+    throws IOException
+  {
+    return FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE);
+  }
+
+  @Test
+  public void testWriteReadChunked()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+    final int count = 10;
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.mapWithChunkSize(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          0L,
+          (long) count,
+          ByteOrder.LITTLE_ENDIAN,
+          MatrixByteBuffered4x4s64::createWithBase,
+          128 * 3 + 17);
+
+      Assert.assertEquals((long) count, array.count());
+      Assert.assertEquals(128L, (long) array.strideBytes());
+      Assert.assertEquals(128L * (long) count, array.sizeBytes());
+      Assert.assertEquals(3L, (long) array.chunkTensors());
+      Assert.assertEquals(4L, (long) array.chunkCount());
+
+      for (int index = 0; index < count; ++index) {
+        array.select((long) index).setMatrix4x4D(matrix(index));
+      }
+      array.force();
+    }
+
+    Assert.assertEquals(128L * (long) count, Files.size(file));
+
+    try (final FileChannel channel = FileChannel.open(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_ONLY,
+          0L,
+          (long) count,
+          ByteOrder.LITTLE_ENDIAN,
+          MatrixByteBuffered4x4s64::createWithBase);
+
+      Assert.assertEquals(1L, (long) array.chunkCount());
+      for (int index = 0; index < count; ++index) {
+        Assert.assertEquals(
+          matrix(index),
+          array.select((long) index).getMatrix4x4D());
+      }
+    }
+  }
+
+  @Test
+  public void testLayoutMatchesByteBuffered()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          0L,
+          2L,
+          ByteOrder.BIG_ENDIAN,
+          MatrixByteBuffered4x4s64::createWithBase);
+      array.select(0L).setMatrix4x4D(matrix(0));
+      array.select(1L).setMatrix4x4D(matrix(1));
+      array.force();
+    }
+
+    final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+    final MutableLong base = MutableLong.create();
+    final MatrixByteBuffered4x4s64 m =
+      MatrixByteBuffered4x4s64.createWithBase(data, base, 0);
+
+    Assert.assertEquals(matrix(0), m.getMatrix4x4D());
+    base.setValue(128L);
+    Assert.assertEquals(matrix(1), m.getMatrix4x4D());
+  }
+
+  @Test
+  public void testPosition()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<VectorByteBufferedFloating3s32> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          100L,
+          4L,
+          ByteOrder.nativeOrder(),
+          VectorByteBufferedFloating3s32::createWithBase);
+      for (int index = 0; index < 4; ++index) {
+        array.select((long) index).setXYZ(
+          (double) index, (double) index + 1.0, (double) index + 2.0);
+      }
+      array.force();
+    }
+
+    Assert.assertEquals(100L + 4L * 12L, Files.size(file));
+  }
+
+  @Test
+  public void testSelectOutOfRange()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          0L,
+          2L,
+          ByteOrder.nativeOrder(),
+          MatrixByteBuffered4x4s64::createWithBase);
+
+      this.expected.expect(IndexOutOfBoundsException.class);
+      array.select(2L);
+    }
+  }
+
+  @Test
+  public void testSelectNegative()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          0L,
+          2L,
+          ByteOrder.nativeOrder(),
+          MatrixByteBuffered4x4s64::createWithBase);
+
+      this.expected.expect(IndexOutOfBoundsException.class);
+      array.select(-1L);
+    }
+  }
+
+  @Test
+  public void testChunkTooSmall()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      this.expected.expect(IllegalArgumentException.class);
+      TensorMappedArray.mapWithChunkSize(
+        channel,
+        FileChannel.MapMode.READ_WRITE,
+        0L,
+        2L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase,
+        127);
+    }
+  }
+
+  @Test
+  public void testCountNegative()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      this.expected.expect(IllegalArgumentException.class);
+      TensorMappedArray.map(
+        channel,
+        FileChannel.MapMode.READ_WRITE,
+        0L,
+        -1L,
+        ByteOrder.nativeOrder(),
+        MatrixByteBuffered4x4s64::createWithBase);
+    }
+  }
+
+  @Test
+  public void testEmpty()
+    throws IOException
+  {
+    final Path file = this.folder.newFile().toPath();
+
+    try (final FileChannel channel = openWrite(file)) {
+      final TensorMappedArray<MatrixByteBuffered4x4s64> array =
+        TensorMappedArray.map(
+          channel,
+          FileChannel.MapMode.READ_WRITE,
+          0L,
+          0L,
+          ByteOrder.nativeOrder(),
+          MatrixByteBuffered4x4s64::createWithBase);
+
+      Assert.assertEquals(0L, array.count());
+      Assert.assertEquals(0L, (long) array.chunkCount());
+    }
+  }
+}